@@ -71,6 +71,12 @@ public class CircuitBreakerConfiguration {
     @Getter @Builder.Default
     private final boolean writableStackTraceEnabled = DEFAULT_WRITABLE_STACK_TRACE_ENABLED;
 
+    /**
+     * How calls are divided between circuit breakers.  By default, all calls of a client go
+     * through one circuit breaker.
+     */
+    @Getter @Builder.Default private final Partitioning partitioning = Partitioning.NONE;
+
     /**
      * List of default http error codes to record as circuit breaker failure
      */
@@ -103,4 +109,17 @@ public class CircuitBreakerConfiguration {
                             PROCESSING_EXCEPTION_CLASS,
                             SERVICE_UNAVAILABLE_EXCEPTION_CLASS,
                             INTERNAL_SERVER_ERROR_EXCEPTION_CLASS));
+
+    /**
+     * How calls are divided between circuit breakers, so that failures of some endpoints or
+     * operations do not stop the calls of others.
+     */
+    public enum Partitioning {
+        /** All calls go through one circuit breaker. */
+        NONE,
+        /** Calls to each endpoint host go through their own circuit breaker. */
+        PER_ENDPOINT,
+        /** Calls of each operation to each endpoint host go through their own circuit breaker. */
+        PER_ENDPOINT_AND_OPERATION
+    }
 }
@@ -5,6 +5,7 @@
 package com.oracle.bmc.circuitbreaker;
 
 import com.oracle.bmc.circuitbreaker.internal.JaxRsCircuitBreakerImpl;
+import com.oracle.bmc.circuitbreaker.internal.JaxRsCircuitBreakerRegistry;
 import io.github.resilience4j.circuitbreaker.CircuitBreaker;
 
 /**
@@ -20,7 +21,11 @@ public class CircuitBreakerFactory {
     public static JaxRsCircuitBreaker build(CircuitBreakerConfiguration cbConfig) {
         JaxRsCircuitBreaker circuitBreaker = null;
         if (cbConfig != null) {
-            circuitBreaker = new JaxRsCircuitBreakerImpl(cbConfig);
+            if (cbConfig.getPartitioning() == CircuitBreakerConfiguration.Partitioning.NONE) {
+                circuitBreaker = new JaxRsCircuitBreakerImpl(cbConfig);
+            } else {
+                circuitBreaker = new JaxRsCircuitBreakerRegistry(cbConfig);
+            }
         }
         return circuitBreaker;
     }
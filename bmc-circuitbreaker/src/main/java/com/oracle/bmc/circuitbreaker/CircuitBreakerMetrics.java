@@ -0,0 +1,40 @@
+/**
+ * Copyright (c) 2016, 2021, Oracle and/or its affiliates.  All rights reserved.
+ * This software is dual-licensed to you under the Universal Permissive License (UPL) 1.0 as shown at https://oss.oracle.com/licenses/upl or Apache License 2.0 as shown at http://www.apache.org/licenses/LICENSE-2.0. You may choose either license.
+ */
+package com.oracle.bmc.circuitbreaker;
+
+import lombok.Value;
+
+/**
+ * State and counts of a circuit breaker, see {@link JaxRsCircuitBreaker}.
+ */
+@Value
+public class CircuitBreakerMetrics {
+    /**
+     * Name of the circuit breaker, the endpoint host and operation it is used for if it is
+     * partitioned.
+     */
+    String name;
+    /**
+     * State of the circuit breaker, for example CLOSED, OPEN or HALF_OPEN.
+     */
+    String state;
+    /**
+     * Percentage of failed calls in the sliding window, or -1 if there have not been enough calls
+     * yet.
+     */
+    float failureRate;
+    /**
+     * Number of calls in the sliding window.
+     */
+    int numberOfBufferedCalls;
+    /**
+     * Number of failed calls in the sliding window.
+     */
+    int numberOfFailedCalls;
+    /**
+     * Number of calls that were rejected while the circuit breaker was open.
+     */
+    long numberOfNotPermittedCalls;
+}
@@ -40,4 +40,16 @@ public interface JaxRsCircuitBreaker {
      * @return a supplier which is decorated by the JaxRsCircuitBreaker.
      */
     Supplier<Future<Response>> decorateFuture(Supplier<Future<Response>> supplier);
+
+    /**
+     * Returns the circuit breaker for calls of the given operation to the given endpoint.  The
+     * default implementation uses this circuit breaker for all calls.
+     *
+     * @param endpointHost the host of the endpoint, or null if unknown
+     * @param operationName the name of the operation, for example {@code ListMetrics}
+     * @return the circuit breaker for the calls
+     */
+    default JaxRsCircuitBreaker forOperation(String endpointHost, String operationName) {
+        return this;
+    }
 }
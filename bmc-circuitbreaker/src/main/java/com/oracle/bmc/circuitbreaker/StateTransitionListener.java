@@ -0,0 +1,21 @@
+/**
+ * Copyright (c) 2016, 2021, Oracle and/or its affiliates.  All rights reserved.
+ * This software is dual-licensed to you under the Universal Permissive License (UPL) 1.0 as shown at https://oss.oracle.com/licenses/upl or Apache License 2.0 as shown at http://www.apache.org/licenses/LICENSE-2.0. You may choose either license.
+ */
+package com.oracle.bmc.circuitbreaker;
+
+/**
+ * Listener for the state transitions of a circuit breaker, see {@link JaxRsCircuitBreaker}.
+ */
+@FunctionalInterface
+public interface StateTransitionListener {
+    /**
+     * Called when the state of a circuit breaker changes.
+     *
+     * @param circuitBreakerName name of the circuit breaker, the endpoint host and operation it is
+     *                           used for if it is partitioned
+     * @param fromState the previous state, for example {@code CLOSED}
+     * @param toState the new state, for example {@code OPEN}
+     */
+    void onStateTransition(String circuitBreakerName, String fromState, String toState);
+}
@@ -4,19 +4,15 @@
  */
 package com.oracle.bmc.circuitbreaker.internal;
 
-import lombok.Getter;
-import lombok.NonNull;
-
-import javax.ws.rs.core.Response;
-
 /**
- * A {@link HttpStatusErrorException} signals that the JaxRs client call returned an error state
+ * A {@link HttpStatusErrorException} signals that the JaxRs client call returned an error state.
+ * <p>
+ * It is recorded by the circuit breaker without being thrown, so one shared instance without stack
+ * trace is used for all calls.
  */
 final class HttpStatusErrorException extends RuntimeException {
 
-    @Getter @NonNull private final Response response;
-
-    HttpStatusErrorException(Response response) {
-        this.response = response;
+    HttpStatusErrorException() {
+        super("The call returned an error status", null, false, false);
     }
 }
@@ -7,13 +7,15 @@ package com.oracle.bmc.circuitbreaker.internal;
 import com.google.common.annotations.VisibleForTesting;
 import com.oracle.bmc.circuitbreaker.CallNotAllowedException;
 import com.oracle.bmc.circuitbreaker.CircuitBreakerConfiguration;
+import com.oracle.bmc.circuitbreaker.CircuitBreakerMetrics;
 import com.oracle.bmc.circuitbreaker.JaxRsCircuitBreaker;
-import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import com.oracle.bmc.circuitbreaker.StateTransitionListener;
 import io.github.resilience4j.circuitbreaker.CircuitBreaker;
 import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
 
 import java.util.Set;
 import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 import java.util.function.Supplier;
 import javax.ws.rs.client.Invocation;
@@ -29,6 +31,13 @@ public class JaxRsCircuitBreakerImpl implements JaxRsCircuitBreaker {
     private final Set<Integer> recordHttpStatuses;
 
     private static final String INCORRECT_STATE_RESPONSE_STATUS = "IncorrectState";
+    static final String DEFAULT_NAME = "default";
+
+    /**
+     * Recorded for responses with a failure status; only its type is evaluated.
+     */
+    private static final HttpStatusErrorException HTTP_STATUS_ERROR =
+            new HttpStatusErrorException();
 
     /**
      * Creates a {@link JaxRsCircuitBreakerImpl}
@@ -36,6 +45,16 @@ public class JaxRsCircuitBreakerImpl implements JaxRsCircuitBreaker {
      * @param configuration custom JaxRs CircuitBreaker configuration
      */
     public JaxRsCircuitBreakerImpl(CircuitBreakerConfiguration configuration) {
+        this(configuration, DEFAULT_NAME);
+    }
+
+    /**
+     * Creates a {@link JaxRsCircuitBreakerImpl} with the given name
+     *
+     * @param configuration custom JaxRs CircuitBreaker configuration
+     * @param name name of the circuit breaker, for example the endpoint it is used for
+     */
+    public JaxRsCircuitBreakerImpl(CircuitBreakerConfiguration configuration, String name) {
 
         CircuitBreakerConfig.Builder custom = CircuitBreakerConfig.custom();
         custom.enableAutomaticTransitionFromOpenToHalfOpen();
@@ -61,83 +80,151 @@ public class JaxRsCircuitBreakerImpl implements JaxRsCircuitBreaker {
         //noinspection unchecked
         custom.recordExceptions(exs);
 
-        this.circuitBreaker = CircuitBreaker.of("default", custom.build());
+        this.circuitBreaker = CircuitBreaker.of(name, custom.build());
         this.recordHttpStatuses = configuration.getRecordHttpStatuses();
     }
 
     private boolean isResponseStatusIncorrectState(Response response) {
         Response.StatusType statusType = response.getStatusInfo();
-        if (statusType.getStatusCode() == 409
-                && statusType.getReasonPhrase().equals(INCORRECT_STATE_RESPONSE_STATUS)) {
-            return true;
-        }
-        return false;
+        return statusType.getStatusCode() == 409
+                && INCORRECT_STATE_RESPONSE_STATUS.equals(statusType.getReasonPhrase());
     }
 
     @Override
     public Supplier<Response> decorateSupplier(Supplier<Response> supplier) {
-        Supplier<Response> circuitBreakerSupplier =
-                circuitBreaker.decorateSupplier(
-                        () -> {
-                            Response response = supplier.get();
-                            if (recordHttpStatuses.contains(response.getStatus())
-                                    || isResponseStatusIncorrectState(response)) {
-                                throw new HttpStatusErrorException(response);
-                            }
-                            return response;
-                        });
-
         return () -> {
+            acquirePermission();
+            final long start = System.nanoTime();
+            final Response response;
             try {
-                return circuitBreakerSupplier.get();
-            } catch (HttpStatusErrorException e) {
-                return e.getResponse();
-            } catch (CallNotPermittedException e) {
-                throw CallNotAllowedException.createCallNotAllowedException(
-                        e.getMessage(),
-                        circuitBreaker.getCircuitBreakerConfig().isWritableStackTraceEnabled());
+                response = supplier.get();
+            } catch (Throwable t) {
+                recordError(t, System.nanoTime() - start);
+                throw t;
             }
+            return record(response, System.nanoTime() - start);
         };
     }
 
     @Override
     public Function<Invocation, Response> decorateFunction(
             Function<Invocation, Response> function) {
-        Function<Invocation, Response> circuitBreakerFunction =
-                CircuitBreaker.decorateFunction(
-                        circuitBreaker,
-                        (Invocation inv) -> {
-                            Response response = function.apply(inv);
-                            if (recordHttpStatuses.contains(response.getStatus())
-                                    || isResponseStatusIncorrectState(response)) {
-                                throw new HttpStatusErrorException(response);
-                            }
-                            return response;
-                        });
-
         return (Invocation inv) -> {
+            acquirePermission();
+            final long start = System.nanoTime();
+            final Response response;
             try {
-                return circuitBreakerFunction.apply(inv);
-            } catch (HttpStatusErrorException e) {
-                return e.getResponse();
-            } catch (CallNotPermittedException e) {
-                throw CallNotAllowedException.createCallNotAllowedException(
-                        e.getMessage(),
-                        circuitBreaker.getCircuitBreakerConfig().isWritableStackTraceEnabled());
+                response = function.apply(inv);
+            } catch (Throwable t) {
+                recordError(t, System.nanoTime() - start);
+                throw t;
             }
+            return record(response, System.nanoTime() - start);
         };
     }
 
     @Override
     public Supplier<Future<Response>> decorateFuture(Supplier<Future<Response>> supplier) {
-        Supplier<Future<Response>> circuitBreakerFuture =
-                circuitBreaker.decorateFuture(
-                        () -> new PreCircuitBreakerFuture(supplier.get(), recordHttpStatuses));
-
-        return () ->
-                new PostCircuitBreakerFuture(
-                        circuitBreakerFuture.get(),
-                        circuitBreaker.getCircuitBreakerConfig().isWritableStackTraceEnabled());
+        return () -> {
+            if (!circuitBreaker.tryAcquirePermission()) {
+                return new RecordingFuture(createCallNotAllowedException());
+            }
+            final long start = System.nanoTime();
+            final Future<Response> future;
+            try {
+                future = supplier.get();
+            } catch (Throwable t) {
+                recordError(t, System.nanoTime() - start);
+                throw t;
+            }
+            return new RecordingFuture(future, this, start);
+        };
+    }
+
+    private void acquirePermission() {
+        if (!circuitBreaker.tryAcquirePermission()) {
+            throw createCallNotAllowedException();
+        }
+    }
+
+    private CallNotAllowedException createCallNotAllowedException() {
+        return CallNotAllowedException.createCallNotAllowedException(
+                String.format(
+                        "CircuitBreaker '%s' is %s and does not permit further calls",
+                        circuitBreaker.getName(), circuitBreaker.getState()),
+                circuitBreaker.getCircuitBreakerConfig().isWritableStackTraceEnabled());
+    }
+
+    /**
+     * Records the response of a permitted call as success or failure, depending on its status.
+     * Failures are recorded with a shared exception, so no exception is created per call.
+     */
+    Response record(Response response, long durationNanos) {
+        if (recordHttpStatuses.contains(response.getStatus())
+                || isResponseStatusIncorrectState(response)) {
+            circuitBreaker.onError(durationNanos, TimeUnit.NANOSECONDS, HTTP_STATUS_ERROR);
+        } else {
+            circuitBreaker.onSuccess(durationNanos, TimeUnit.NANOSECONDS);
+        }
+        return response;
+    }
+
+    /**
+     * Records a permitted call that failed with an exception; the configured record exceptions
+     * decide whether it counts as failure.
+     */
+    void recordError(Throwable error, long durationNanos) {
+        circuitBreaker.onError(durationNanos, TimeUnit.NANOSECONDS, error);
+    }
+
+    /**
+     * Releases the permission of a call whose outcome is not known, for example because it was
+     * cancelled.
+     */
+    void releasePermission() {
+        circuitBreaker.releasePermission();
+    }
+
+    /**
+     * Returns the name of the circuit breaker.
+     *
+     * @return the name
+     */
+    public String getName() {
+        return circuitBreaker.getName();
+    }
+
+    /**
+     * Returns the current state and counts of the circuit breaker.
+     *
+     * @return the metrics
+     */
+    public CircuitBreakerMetrics getMetrics() {
+        final CircuitBreaker.Metrics metrics = circuitBreaker.getMetrics();
+        return new CircuitBreakerMetrics(
+                circuitBreaker.getName(),
+                circuitBreaker.getState().name(),
+                metrics.getFailureRate(),
+                metrics.getNumberOfBufferedCalls(),
+                metrics.getNumberOfFailedCalls(),
+                metrics.getNumberOfNotPermittedCalls());
+    }
+
+    /**
+     * Adds a listener that is called when the state of the circuit breaker changes.
+     *
+     * @param listener called with the name of the circuit breaker, and the names of the previous
+     *                 and the new state
+     */
+    public void addStateTransitionListener(StateTransitionListener listener) {
+        circuitBreaker
+                .getEventPublisher()
+                .onStateTransition(
+                        event ->
+                                listener.onStateTransition(
+                                        event.getCircuitBreakerName(),
+                                        event.getStateTransition().getFromState().name(),
+                                        event.getStateTransition().getToState().name()));
     }
 
     @VisibleForTesting
@@ -0,0 +1,129 @@
+/**
+ * Copyright (c) 2016, 2021, Oracle and/or its affiliates.  All rights reserved.
+ * This software is dual-licensed to you under the Universal Permissive License (UPL) 1.0 as shown at https://oss.oracle.com/licenses/upl or Apache License 2.0 as shown at http://www.apache.org/licenses/LICENSE-2.0. You may choose either license.
+ */
+package com.oracle.bmc.circuitbreaker.internal;
+
+import com.oracle.bmc.circuitbreaker.CircuitBreakerConfiguration;
+import com.oracle.bmc.circuitbreaker.CircuitBreakerMetrics;
+import com.oracle.bmc.circuitbreaker.JaxRsCircuitBreaker;
+import com.oracle.bmc.circuitbreaker.StateTransitionListener;
+import lombok.NonNull;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import javax.ws.rs.client.Invocation;
+import javax.ws.rs.core.Response;
+
+/**
+ * A {@link JaxRsCircuitBreaker} that keeps one {@link JaxRsCircuitBreakerImpl} per endpoint host,
+ * or per endpoint host and operation, depending on
+ * {@link CircuitBreakerConfiguration#getPartitioning()}.  The circuit breakers are created when
+ * they are first used.
+ * <p>
+ * Calls decorated directly, without {@link #forOperation(String, String)}, go through the default
+ * circuit breaker.  Pass the same instance to several clients to share the circuit breakers of an
+ * endpoint between them.
+ */
+public class JaxRsCircuitBreakerRegistry implements JaxRsCircuitBreaker {
+    private final CircuitBreakerConfiguration configuration;
+    private final JaxRsCircuitBreakerImpl defaultCircuitBreaker;
+    private final Map<String, JaxRsCircuitBreakerImpl> circuitBreakers = new ConcurrentHashMap<>();
+    private final List<StateTransitionListener> listeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * Creates a {@link JaxRsCircuitBreakerRegistry}
+     *
+     * @param configuration custom JaxRs CircuitBreaker configuration, used for all circuit breakers
+     */
+    public JaxRsCircuitBreakerRegistry(@NonNull CircuitBreakerConfiguration configuration) {
+        this.configuration = configuration;
+        this.defaultCircuitBreaker =
+                new JaxRsCircuitBreakerImpl(configuration, JaxRsCircuitBreakerImpl.DEFAULT_NAME);
+        this.circuitBreakers.put(JaxRsCircuitBreakerImpl.DEFAULT_NAME, defaultCircuitBreaker);
+    }
+
+    @Override
+    public JaxRsCircuitBreaker forOperation(String endpointHost, String operationName) {
+        final String name = getName(endpointHost, operationName);
+        final JaxRsCircuitBreakerImpl existing = circuitBreakers.get(name);
+        if (existing != null) {
+            return existing;
+        }
+        synchronized (this) {
+            return circuitBreakers.computeIfAbsent(name, this::newCircuitBreaker);
+        }
+    }
+
+    private String getName(String endpointHost, String operationName) {
+        if (endpointHost == null) {
+            return JaxRsCircuitBreakerImpl.DEFAULT_NAME;
+        }
+        switch (configuration.getPartitioning()) {
+            case PER_ENDPOINT:
+                return endpointHost;
+            case PER_ENDPOINT_AND_OPERATION:
+                return operationName == null ? endpointHost : endpointHost + "/" + operationName;
+            default:
+                return JaxRsCircuitBreakerImpl.DEFAULT_NAME;
+        }
+    }
+
+    private JaxRsCircuitBreakerImpl newCircuitBreaker(String name) {
+        final JaxRsCircuitBreakerImpl circuitBreaker =
+                new JaxRsCircuitBreakerImpl(configuration, name);
+        for (StateTransitionListener listener : listeners) {
+            circuitBreaker.addStateTransitionListener(listener);
+        }
+        return circuitBreaker;
+    }
+
+    @Override
+    public Supplier<Response> decorateSupplier(Supplier<Response> supplier) {
+        return defaultCircuitBreaker.decorateSupplier(supplier);
+    }
+
+    @Override
+    public Function<Invocation, Response> decorateFunction(
+            Function<Invocation, Response> function) {
+        return defaultCircuitBreaker.decorateFunction(function);
+    }
+
+    @Override
+    public Supplier<Future<Response>> decorateFuture(Supplier<Future<Response>> supplier) {
+        return defaultCircuitBreaker.decorateFuture(supplier);
+    }
+
+    /**
+     * Adds a listener that is called when the state of any of the circuit breakers changes,
+     * including the ones created later.
+     *
+     * @param listener called with the name of the circuit breaker, and the names of the previous
+     *                 and the new state
+     */
+    public synchronized void addStateTransitionListener(StateTransitionListener listener) {
+        listeners.add(listener);
+        for (JaxRsCircuitBreakerImpl circuitBreaker : circuitBreakers.values()) {
+            circuitBreaker.addStateTransitionListener(listener);
+        }
+    }
+
+    /**
+     * Returns the current state and counts of all circuit breakers.
+     *
+     * @return the metrics, by name of the circuit breaker
+     */
+    public Map<String, CircuitBreakerMetrics> getMetrics() {
+        final Map<String, CircuitBreakerMetrics> metrics = new TreeMap<>();
+        for (JaxRsCircuitBreakerImpl circuitBreaker : circuitBreakers.values()) {
+            metrics.put(circuitBreaker.getName(), circuitBreaker.getMetrics());
+        }
+        return metrics;
+    }
+}
@@ -0,0 +1,129 @@
+/**
+ * Copyright (c) 2016, 2021, Oracle and/or its affiliates.  All rights reserved.
+ * This software is dual-licensed to you under the Universal Permissive License (UPL) 1.0 as shown at https://oss.oracle.com/licenses/upl or Apache License 2.0 as shown at http://www.apache.org/licenses/LICENSE-2.0. You may choose either license.
+ */
+package com.oracle.bmc.circuitbreaker.internal;
+
+import com.oracle.bmc.circuitbreaker.CallNotAllowedException;
+import lombok.NonNull;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import javax.ws.rs.core.Response;
+
+/**
+ * A future that records the outcome of the call in the circuit breaker the first time its result
+ * is read.
+ */
+final class RecordingFuture implements Future<Response> {
+    private final Future<Response> future;
+    private final JaxRsCircuitBreakerImpl circuitBreaker;
+    private final long startNanos;
+    private final CallNotAllowedException notAllowed;
+    private final AtomicBoolean recorded = new AtomicBoolean();
+
+    RecordingFuture(
+            @NonNull Future<Response> future,
+            @NonNull JaxRsCircuitBreakerImpl circuitBreaker,
+            long startNanos) {
+        this.future = future;
+        this.circuitBreaker = circuitBreaker;
+        this.startNanos = startNanos;
+        this.notAllowed = null;
+    }
+
+    /**
+     * Creates a future for a call that was not permitted; reading it throws the exception.
+     */
+    RecordingFuture(@NonNull CallNotAllowedException notAllowed) {
+        this.future = null;
+        this.circuitBreaker = null;
+        this.startNanos = 0;
+        this.notAllowed = notAllowed;
+        this.recorded.set(true);
+    }
+
+    @Override
+    public boolean cancel(boolean mayInterruptIfRunning) {
+        if (future == null) {
+            return false;
+        }
+        final boolean cancelled = future.cancel(mayInterruptIfRunning);
+        if (cancelled && recorded.compareAndSet(false, true)) {
+            circuitBreaker.releasePermission();
+        }
+        return cancelled;
+    }
+
+    @Override
+    public boolean isCancelled() {
+        return future != null && future.isCancelled();
+    }
+
+    @Override
+    public boolean isDone() {
+        return future == null || future.isDone();
+    }
+
+    @Override
+    public Response get() throws InterruptedException, ExecutionException {
+        if (future == null) {
+            throw notAllowed;
+        }
+        try {
+            return recordResponse(future.get());
+        } catch (ExecutionException e) {
+            recordError(e.getCause() != null ? e.getCause() : e);
+            throw e;
+        } catch (CancellationException e) {
+            releasePermission();
+            throw e;
+        } catch (RuntimeException e) {
+            recordError(e);
+            throw e;
+        }
+    }
+
+    @Override
+    public Response get(long timeout, @NonNull TimeUnit unit)
+            throws InterruptedException, ExecutionException, TimeoutException {
+        if (future == null) {
+            throw notAllowed;
+        }
+        try {
+            return recordResponse(future.get(timeout, unit));
+        } catch (ExecutionException e) {
+            recordError(e.getCause() != null ? e.getCause() : e);
+            throw e;
+        } catch (CancellationException e) {
+            releasePermission();
+            throw e;
+        } catch (RuntimeException e) {
+            recordError(e);
+            throw e;
+        }
+    }
+
+    private Response recordResponse(Response response) {
+        if (recorded.compareAndSet(false, true)) {
+            circuitBreaker.record(response, System.nanoTime() - startNanos);
+        }
+        return response;
+    }
+
+    private void recordError(Throwable error) {
+        if (recorded.compareAndSet(false, true)) {
+            circuitBreaker.recordError(error, System.nanoTime() - startNanos);
+        }
+    }
+
+    private void releasePermission() {
+        if (recorded.compareAndSet(false, true)) {
+            circuitBreaker.releasePermission();
+        }
+    }
+}
@@ -5,14 +5,12 @@
 package com.oracle.bmc.circuitbreaker.internal;
 
 import static org.junit.Assert.*;
-import static org.mockito.Mockito.mock;
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
 import com.oracle.bmc.circuitbreaker.CircuitBreakerConfiguration;
 import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
 import org.junit.Test;
-import org.mockito.Mockito;
 
 import java.time.Duration;
 import java.util.Set;
@@ -20,7 +18,6 @@ import java.util.function.Predicate;
 import javax.ws.rs.InternalServerErrorException;
 import javax.ws.rs.ProcessingException;
 import javax.ws.rs.ServiceUnavailableException;
-import javax.ws.rs.core.Response;
 
 public class CircuitBreakerConfigurationTest {
 
@@ -61,9 +58,7 @@ public class CircuitBreakerConfigurationTest {
         assertEquals(internalConfig.getWaitDurationInOpenState(), Duration.ofSeconds(2));
         assertTrue(internalConfig.isAutomaticTransitionFromOpenToHalfOpenEnabled());
 
-        Response response503 = mock(Response.class);
-        Mockito.when(response503.getStatus()).thenReturn(503);
-        HttpStatusErrorException ex = new HttpStatusErrorException(response503);
+        HttpStatusErrorException ex = new HttpStatusErrorException();
         Predicate<Throwable> recordExceptionPredicate =
                 internalConfig.getRecordExceptionPredicate();
         assertTrue(recordExceptionPredicate.test(ex));
@@ -116,9 +111,7 @@ public class CircuitBreakerConfigurationTest {
                         CircuitBreakerConfiguration.DEFAULT_WAIT_DURATION_IN_OPEN_STATE));
         assertTrue(internalConfig.isAutomaticTransitionFromOpenToHalfOpenEnabled());
 
-        Response response503 = mock(Response.class);
-        Mockito.when(response503.getStatus()).thenReturn(503);
-        HttpStatusErrorException ex = new HttpStatusErrorException(response503);
+        HttpStatusErrorException ex = new HttpStatusErrorException();
         Predicate<Throwable> recordExceptionPredicate =
                 internalConfig.getRecordExceptionPredicate();
         assertTrue(recordExceptionPredicate.test(ex));
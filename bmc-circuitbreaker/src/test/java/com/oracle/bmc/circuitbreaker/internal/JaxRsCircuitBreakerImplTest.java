@@ -116,6 +116,20 @@ public class JaxRsCircuitBreakerImplTest {
                 CircuitBreaker.State.OPEN, circuitBreaker.getInternalCircuitBreaker().getState());
     }
 
+    @Test
+    public void validateStateTransitionListenerIsCalled() {
+        List<String> transitions = new ArrayList<>();
+        circuitBreaker.addStateTransitionListener(
+                (name, fromState, toState) ->
+                        transitions.add(name + ": " + fromState + "->" + toState));
+
+        for (int i = 0; i < MIN_NUM_CALLS; i++) {
+            circuitBreaker.decorateSupplier(invocation503::invoke).get();
+        }
+        assertEquals(1, transitions.size());
+        assertEquals("default: CLOSED->OPEN", transitions.get(0));
+    }
+
     @Test
     public void
             validateCircuitBreakerOpensTheCircuitWhenFailsWithSupplierForIncorrectStateResponse() {
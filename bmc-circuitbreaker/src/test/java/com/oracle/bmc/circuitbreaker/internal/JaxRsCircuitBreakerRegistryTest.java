@@ -0,0 +1,116 @@
+/**
+ * Copyright (c) 2016, 2021, Oracle and/or its affiliates.  All rights reserved.
+ * This software is dual-licensed to you under the Universal Permissive License (UPL) 1.0 as shown at https://oss.oracle.com/licenses/upl or Apache License 2.0 as shown at http://www.apache.org/licenses/LICENSE-2.0. You may choose either license.
+ */
+package com.oracle.bmc.circuitbreaker.internal;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.mock;
+
+import com.oracle.bmc.circuitbreaker.CallNotAllowedException;
+import com.oracle.bmc.circuitbreaker.CircuitBreakerConfiguration;
+import com.oracle.bmc.circuitbreaker.CircuitBreakerMetrics;
+import com.oracle.bmc.circuitbreaker.JaxRsCircuitBreaker;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import javax.ws.rs.core.Response;
+
+public class JaxRsCircuitBreakerRegistryTest {
+    private static final int MIN_NUM_CALLS = 4;
+
+    private static CircuitBreakerConfiguration configuration(
+            CircuitBreakerConfiguration.Partitioning partitioning) {
+        return CircuitBreakerConfiguration.builder()
+                .failureRateThreshold(50)
+                .slidingWindowSize(40)
+                .minimumNumberOfCalls(MIN_NUM_CALLS)
+                .waitDurationInOpenState(Duration.ofSeconds(60))
+                .partitioning(partitioning)
+                .build();
+    }
+
+    private static Response response(int status) {
+        Response response = mock(Response.class);
+        Mockito.when(response.getStatus()).thenReturn(status);
+        Mockito.when(response.getStatusInfo()).thenReturn(Response.Status.fromStatusCode(status));
+        return response;
+    }
+
+    private static void failUntilOpen(JaxRsCircuitBreaker circuitBreaker) {
+        Response response503 = response(503);
+        for (int i = 0; i < MIN_NUM_CALLS; i++) {
+            assertSame(response503, circuitBreaker.decorateSupplier(() -> response503).get());
+        }
+    }
+
+    @Test
+    public void failingOperationDoesNotOpenOtherOperations() {
+        JaxRsCircuitBreakerRegistry registry =
+                new JaxRsCircuitBreakerRegistry(
+                        configuration(
+                                CircuitBreakerConfiguration.Partitioning
+                                        .PER_ENDPOINT_AND_OPERATION));
+        List<String> transitions = new ArrayList<>();
+        registry.addStateTransitionListener(
+                (name, from, to) -> transitions.add(name + ": " + from + "->" + to));
+
+        failUntilOpen(registry.forOperation("objectstorage.example.com", "GetObject"));
+
+        try {
+            registry.forOperation("objectstorage.example.com", "GetObject")
+                    .decorateSupplier(() -> response(200))
+                    .get();
+            fail("Should have thrown");
+        } catch (CallNotAllowedException e) {
+            assertTrue(e.getMessage().contains("objectstorage.example.com/GetObject"));
+        }
+        Response response200 = response(200);
+        assertSame(
+                response200,
+                registry.forOperation("objectstorage.example.com", "PutObject")
+                        .decorateSupplier(() -> response200)
+                        .get());
+        assertSame(response200, registry.decorateSupplier(() -> response200).get());
+        assertEquals(1, transitions.size());
+        assertEquals("objectstorage.example.com/GetObject: CLOSED->OPEN", transitions.get(0));
+
+        Map<String, CircuitBreakerMetrics> metrics = registry.getMetrics();
+        CircuitBreakerMetrics getObject = metrics.get("objectstorage.example.com/GetObject");
+        assertEquals("OPEN", getObject.getState());
+        assertEquals(MIN_NUM_CALLS, getObject.getNumberOfFailedCalls());
+        assertEquals(1, getObject.getNumberOfNotPermittedCalls());
+        assertEquals("CLOSED", metrics.get("objectstorage.example.com/PutObject").getState());
+        assertEquals("CLOSED", metrics.get("default").getState());
+    }
+
+    @Test
+    public void perEndpointSharesCircuitBreakerBetweenOperations() {
+        JaxRsCircuitBreakerRegistry registry =
+                new JaxRsCircuitBreakerRegistry(
+                        configuration(CircuitBreakerConfiguration.Partitioning.PER_ENDPOINT));
+
+        assertSame(
+                registry.forOperation("a.example.com", "GetObject"),
+                registry.forOperation("a.example.com", "PutObject"));
+        assertNotSame(
+                registry.forOperation("a.example.com", "GetObject"),
+                registry.forOperation("b.example.com", "GetObject"));
+
+        failUntilOpen(registry.forOperation("a.example.com", "GetObject"));
+
+        try {
+            registry.forOperation("a.example.com", "PutObject")
+                    .decorateSupplier(() -> response(200))
+                    .get();
+            fail("Should have thrown");
+        } catch (CallNotAllowedException e) {
+            // expected
+        }
+        assertEquals("CLOSED", registry.getMetrics().get("b.example.com").getState());
+    }
+}
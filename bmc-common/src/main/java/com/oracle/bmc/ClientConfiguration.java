@@ -7,6 +7,9 @@ package com.oracle.bmc;
 import com.oracle.bmc.circuitbreaker.JaxRsCircuitBreaker;
 import com.oracle.bmc.retrier.RetryConfiguration;
 import com.oracle.bmc.circuitbreaker.CircuitBreakerConfiguration;
+import com.oracle.bmc.ratelimit.RateLimiterConfiguration;
+import com.oracle.bmc.hedging.HedgingConfiguration;
+import com.oracle.bmc.cache.ResponseCacheConfiguration;
 
 import lombok.Builder;
 import lombok.Getter;
@@ -52,6 +55,21 @@ public class ClientConfiguration {
      */
     private final JaxRsCircuitBreaker circuitBreaker;
 
+    /**
+     * The client-side rate limiter configuration to use. Default is no rate limiting.
+     */
+    private final RateLimiterConfiguration rateLimiterConfiguration;
+
+    /**
+     * The configuration for hedging slow GET and HEAD requests. Default is no hedging.
+     */
+    private final HedgingConfiguration hedgingConfiguration;
+
+    /**
+     * The configuration for caching the responses of read operations. Default is no caching.
+     */
+    private final ResponseCacheConfiguration responseCacheConfiguration;
+
     // Explicit @Builder on constructor so we can enforce default values.
     @Builder
     private ClientConfiguration(
@@ -61,7 +79,10 @@ public class ClientConfiguration {
             Boolean disableDataBufferingOnUpload,
             RetryConfiguration retryConfiguration,
             CircuitBreakerConfiguration circuitBreakerConfiguration,
-            JaxRsCircuitBreaker circuitBreaker) {
+            JaxRsCircuitBreaker circuitBreaker,
+            RateLimiterConfiguration rateLimiterConfiguration,
+            HedgingConfiguration hedgingConfiguration,
+            ResponseCacheConfiguration responseCacheConfiguration) {
 
         if (circuitBreakerConfiguration != null && circuitBreaker != null) {
             throw new IllegalArgumentException(
@@ -75,6 +96,9 @@ public class ClientConfiguration {
         this.retryConfiguration = retryConfiguration;
         this.circuitBreakerConfiguration = circuitBreakerConfiguration;
         this.circuitBreaker = circuitBreaker;
+        this.rateLimiterConfiguration = rateLimiterConfiguration;
+        this.hedgingConfiguration = hedgingConfiguration;
+        this.responseCacheConfiguration = responseCacheConfiguration;
     }
 
     private static <T> T getOrDefault(T value, T defaultValue) {
@@ -27,6 +27,28 @@ public class ClientRuntime {
      */
     @Setter private static String clientUserAgent;
 
+    /**
+     * Makes the SDK run its blocking background work on virtual threads, if the JDK supports them
+     * (Java 21 and newer).  This covers the waiter executors created with
+     * {@link com.oracle.bmc.util.ClientThreadPools}, and the executors of the upload and download
+     * managers; executors passed in by the caller are used unchanged.  On older JDKs, this setting
+     * is ignored and platform threads are used.
+     * <p>
+     * Note, this must be called BEFORE any clients or transfer managers are created.
+     */
+    @Setter @Getter private static volatile boolean virtualThreadsEnabled;
+
+    /**
+     * Makes the service clients create their HTTP client, and with it the JSON provider and the
+     * Jersey runtime, when the first request is prepared instead of when the service client is
+     * created.  This shortens the start of short-lived processes, like functions and command line
+     * tools, that create clients they may not use.  Errors in the client configuration are then
+     * reported by the first request.
+     * <p>
+     * Note, this must be called BEFORE any clients are created.
+     */
+    @Setter @Getter private static volatile boolean lazyInitializationEnabled;
+
     /**
      * The user agent to send.
      * <p>
@@ -64,14 +64,8 @@ public final class Region implements Serializable, Comparable<Region> {
     @VisibleForTesting static volatile boolean hasUsedInstanceMetadataService = false;
     private static volatile boolean hasReceivedInstanceMetadataServiceResponse = false;
     private static volatile boolean hasWarnedAboutValuesWithoutInstanceMetadataService = false;
-    private static volatile ClientConfig imdsClientConfiguration = new ClientConfig();
-
-    static {
-        imdsClientConfiguration =
-                imdsClientConfiguration.property(ClientProperties.CONNECT_TIMEOUT, 30000);
-        imdsClientConfiguration =
-                imdsClientConfiguration.property(ClientProperties.READ_TIMEOUT, 60000);
-    }
+    // created when first needed, so that loading this class does not load the Jersey client
+    private static volatile ClientConfig imdsClientConfiguration = null;
 
     @VisibleForTesting static volatile String defaultRealmEnvVar = getDefaultRealmFromEnv();
 
@@ -588,6 +582,23 @@ public final class Region implements Serializable, Comparable<Region> {
         imdsClientConfiguration = clientConfig;
     }
 
+    /**
+     * Get the client configuration used to contact IMDS (Instance Metadata Service, only available on OCI instances).
+     *
+     * @return configuration used to contact IMDS.
+     */
+    public static ClientConfig getInstanceMetadataServiceClientConfig() {
+        ClientConfig clientConfig = imdsClientConfiguration;
+        if (clientConfig == null) {
+            clientConfig =
+                    new ClientConfig()
+                            .property(ClientProperties.CONNECT_TIMEOUT, 30000)
+                            .property(ClientProperties.READ_TIMEOUT, 60000);
+            imdsClientConfiguration = clientConfig;
+        }
+        return clientConfig;
+    }
+
     /**
      * Enables contact to IMDS (Instance Metadata Service, only available on OCI instances) if user decides to opt-in.
      */
@@ -10,8 +10,10 @@ import com.google.common.collect.ImmutableMap;
 import com.oracle.bmc.InternalSdk;
 import com.oracle.bmc.Realm;
 import com.oracle.bmc.Region;
+import com.oracle.bmc.auth.internal.AbstractFederationClient;
 import com.oracle.bmc.auth.internal.AuthUtils;
 import com.oracle.bmc.auth.internal.FederationClient;
+import com.oracle.bmc.auth.internal.RotatingSessionKeySupplier;
 import com.oracle.bmc.auth.internal.X509FederationClient;
 
 import com.oracle.bmc.circuitbreaker.CircuitBreakerConfiguration;
@@ -106,6 +108,12 @@ public abstract class AbstractFederationClientAuthenticationDetailsProviderBuild
 
     private String purpose = null;
 
+    /**
+     * Fraction of the security token lifetime after which it is refreshed in the background, or
+     * null to only refresh it once it has expired.
+     */
+    private Double proactiveRefreshFraction = null;
+
     /**
      * Detected region.
      */
@@ -164,6 +172,24 @@ public abstract class AbstractFederationClientAuthenticationDetailsProviderBuild
         return (B) this;
     }
 
+    /**
+     * Configures the security token to be refreshed in the background once the given fraction of
+     * its lifetime has passed.  Requests then only wait for a refresh if the token has expired,
+     * for example because the background refresh failed.
+     * <p>
+     * By default, the token is only refreshed once it has expired.
+     * @param proactiveRefreshFraction fraction of the token lifetime, between 0 and 1 (exclusive)
+     * @return this builder
+     */
+    public B proactiveRefreshFraction(double proactiveRefreshFraction) {
+        if (!(proactiveRefreshFraction > 0 && proactiveRefreshFraction < 1)) {
+            throw new IllegalArgumentException(
+                    "The proactive refresh fraction must be between 0 and 1");
+        }
+        this.proactiveRefreshFraction = proactiveRefreshFraction;
+        return (B) this;
+    }
+
     /**
      * Configures the Circuit Breaker to use, if any.
      * @param circuitBreakerConfiguration the circuit breaker to use
@@ -184,10 +210,33 @@ public abstract class AbstractFederationClientAuthenticationDetailsProviderBuild
                 sessionKeySupplier != null ? sessionKeySupplier : new SessionKeySupplierImpl();
 
         this.federationClient = createFederationClient(sessionKeySupplierToUse);
+        configureProactiveRefresh(this.federationClient);
 
         return buildProvider(sessionKeySupplierToUse);
     }
 
+    /**
+     * Enables the background refresh of the security token on the federation client, if
+     * configured.
+     * @param federationClient the federation client
+     */
+    protected void configureProactiveRefresh(FederationClient federationClient) {
+        if (proactiveRefreshFraction == null) {
+            return;
+        }
+        if (federationClient instanceof X509FederationClient) {
+            ((X509FederationClient) federationClient)
+                    .enableProactiveRefresh(proactiveRefreshFraction);
+        } else if (federationClient instanceof AbstractFederationClient) {
+            ((AbstractFederationClient) federationClient)
+                    .enableProactiveRefresh(proactiveRefreshFraction);
+        } else {
+            LOG.warn(
+                    "Federation client {} does not support refreshing in the background",
+                    federationClient.getClass().getName());
+        }
+    }
+
     /**
      * Create the federation client.
      * @param sessionKeySupplier the session key supplier
@@ -388,11 +437,12 @@ public abstract class AbstractFederationClientAuthenticationDetailsProviderBuild
      * This is a helper class to generate in-memory temporary session keys.
      * <p>
      * The thread safety of this class is ensured through the Caching class above
-     * which synchronizes on all methods.
+     * which synchronizes on all methods.  The key pair is volatile, because the federation client
+     * replaces it from its background refresh.
      */
-    static class SessionKeySupplierImpl implements SessionKeySupplier {
+    static class SessionKeySupplierImpl implements RotatingSessionKeySupplier {
         private final static KeyPairGenerator GENERATOR;
-        private KeyPair keyPair = null;
+        private volatile KeyPair keyPair = null;
 
         static {
             try {
@@ -436,7 +486,19 @@ public abstract class AbstractFederationClientAuthenticationDetailsProviderBuild
 
         @Override
         public void refreshKeys() {
-            this.keyPair = GENERATOR.generateKeyPair();
+            this.keyPair = generateNextKeyPair();
+        }
+
+        @Override
+        public KeyPair generateNextKeyPair() {
+            synchronized (GENERATOR) {
+                return GENERATOR.generateKeyPair();
+            }
+        }
+
+        @Override
+        public void useKeyPair(KeyPair keyPair) {
+            this.keyPair = keyPair;
         }
     }
 
@@ -370,6 +370,7 @@ public class ResourcePrincipalAuthenticationDetailsProvider
             }
             sessionKeySupplier = new SessionKeySupplierImpl();
             federationClient = createFederationClient(sessionKeySupplier);
+            configureProactiveRefresh(federationClient);
             return buildProvider(sessionKeySupplier);
         }
 
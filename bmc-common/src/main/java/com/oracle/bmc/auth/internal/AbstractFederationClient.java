@@ -26,6 +26,7 @@ import lombok.extern.slf4j.Slf4j;
 import javax.ws.rs.client.Invocation;
 import javax.ws.rs.core.Response;
 import java.net.URI;
+import java.security.KeyPair;
 import java.util.Collections;
 
 /**
@@ -38,6 +39,14 @@ public abstract class AbstractFederationClient implements FederationClient {
             SECURITY_TOKEN_FN =
                     new ResponseConversionFunctionFactory()
                             .create(X509FederationClient.SecurityToken.class);
+    private static final Function<AbstractFederationClient, SecurityTokenAdapter>
+            BACKGROUND_REFRESH_FN =
+                    new Function<AbstractFederationClient, SecurityTokenAdapter>() {
+                        @Override
+                        public SecurityTokenAdapter apply(AbstractFederationClient client) {
+                            return client.refreshInBackground();
+                        }
+                    };
 
     protected final SessionKeySupplier sessionKeySupplier;
     protected final String resourcePrincipalTokenEndpoint;
@@ -45,6 +54,7 @@ public abstract class AbstractFederationClient implements FederationClient {
 
     private ClientConfiguration clientConfiguration = null;
     private volatile SecurityTokenAdapter securityTokenAdapter = null;
+    private volatile SecurityTokenRefresher<AbstractFederationClient> refresher = null;
     protected final RestClient restClient;
 
     /**
@@ -131,6 +141,54 @@ public abstract class AbstractFederationClient implements FederationClient {
         return makeCallInner(wrappedIb, null);
     }
 
+    /**
+     * Refreshes the security token in the background once the given fraction of its lifetime has
+     * passed, so that callers only have to wait for a refresh if the token has expired.
+     * <p>
+     * If the session key supplier is a {@link RotatingSessionKeySupplier} and the client
+     * implements {@link #getSecurityTokenFromServer(KeyPair)}, the next session key pair is
+     * generated and the next token is fetched while the current ones are still in use; both are
+     * then replaced at once.  Otherwise the background refresh is the same as the refresh after
+     * the token has expired, just earlier.
+     *
+     * @param refreshFraction fraction of the token lifetime, between 0 and 1 (exclusive)
+     */
+    public void enableProactiveRefresh(double refreshFraction) {
+        final SecurityTokenRefresher<AbstractFederationClient> newRefresher =
+                new SecurityTokenRefresher<>(this, BACKGROUND_REFRESH_FN, refreshFraction);
+        synchronized (this) {
+            if (refresher != null) {
+                refresher.cancel();
+            }
+            refresher = newRefresher;
+            if (securityTokenAdapter.isValid()) {
+                refresher.scheduleRefresh(securityTokenAdapter);
+            }
+        }
+    }
+
+    private SecurityTokenAdapter refreshInBackground() {
+        if (sessionKeySupplier instanceof RotatingSessionKeySupplier) {
+            final RotatingSessionKeySupplier rotatingSessionKeySupplier =
+                    (RotatingSessionKeySupplier) sessionKeySupplier;
+            LOG.info("Refreshing security token in the background.");
+            // generating the key pair is the slow part, and does not need the lock
+            final KeyPair nextKeyPair = rotatingSessionKeySupplier.generateNextKeyPair();
+            // callers do not need the lock while the current token is valid
+            synchronized (this) {
+                final SecurityTokenAdapter nextSecurityTokenAdapter =
+                        getSecurityTokenFromServer(nextKeyPair);
+                if (nextSecurityTokenAdapter != null) {
+                    rotatingSessionKeySupplier.useKeyPair(nextKeyPair);
+                    securityTokenAdapter = nextSecurityTokenAdapter;
+                    return nextSecurityTokenAdapter;
+                }
+            }
+        }
+        refreshAndGetSecurityTokenInner(false);
+        return securityTokenAdapter;
+    }
+
     private String refreshAndGetSecurityTokenInner(final boolean doFinalTokenValidityCheck) {
         // Since this client will be used in a multi-threaded environment (from within a service API),
         // this needs to be synchronized to make sure multiple calls are not updating the security token at the same time.
@@ -143,6 +201,9 @@ public abstract class AbstractFederationClient implements FederationClient {
                 sessionKeySupplier.refreshKeys();
 
                 securityTokenAdapter = getSecurityTokenFromServer();
+                if (refresher != null) {
+                    refresher.scheduleRefresh(securityTokenAdapter);
+                }
                 return securityTokenAdapter.getSecurityToken();
             }
 
@@ -157,6 +218,18 @@ public abstract class AbstractFederationClient implements FederationClient {
      */
     protected abstract SecurityTokenAdapter getSecurityTokenFromServer();
 
+    /**
+     * Gets a security token from the federation server for the given session key pair, instead of
+     * the current key pair of the session key supplier.  Used to fetch the next token in the
+     * background.
+     *
+     * @param keyPair the session key pair the token is for
+     * @return the security token, or null if this client does not support it
+     */
+    protected SecurityTokenAdapter getSecurityTokenFromServer(KeyPair keyPair) {
+        return null;
+    }
+
     protected Response makeCallInner(final WrappedInvocationBuilder wrappedIb, Object request) {
         final int MAX_RETRIES = 5;
 
@@ -71,9 +71,18 @@ public class ResourcePrincipalsFederationClient extends AbstractFederationClient
      */
     @Override
     protected SecurityTokenAdapter getSecurityTokenFromServer() {
+        return getSecurityTokenFromServer(sessionKeySupplier.getKeyPair());
+    }
+
+    /**
+     * Gets a security token from the federation server for the given session key pair
+     * @param keyPair the session key pair the token is for
+     * @return the security token, which is basically a JWT token string
+     */
+    @Override
+    protected SecurityTokenAdapter getSecurityTokenFromServer(KeyPair keyPair) {
         LOG.info("Getting security token from the auth server");
 
-        KeyPair keyPair = sessionKeySupplier.getKeyPair();
         if (keyPair == null) {
             throw new IllegalStateException("Keypair for session was not provided");
         }
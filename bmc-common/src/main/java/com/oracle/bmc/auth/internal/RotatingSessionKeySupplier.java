@@ -0,0 +1,30 @@
+/**
+ * Copyright (c) 2016, 2021, Oracle and/or its affiliates.  All rights reserved.
+ * This software is dual-licensed to you under the Universal Permissive License (UPL) 1.0 as shown at https://oss.oracle.com/licenses/upl or Apache License 2.0 as shown at http://www.apache.org/licenses/LICENSE-2.0. You may choose either license.
+ */
+package com.oracle.bmc.auth.internal;
+
+import java.security.KeyPair;
+
+import com.oracle.bmc.auth.SessionKeySupplier;
+
+/**
+ * A session key supplier that can generate its next key pair ahead of time, without replacing the
+ * current one.
+ * <p>
+ * The federation clients use this to fetch the next security token in the background, while the
+ * current token and key pair are still in use, and then switch to both at once.
+ */
+public interface RotatingSessionKeySupplier extends SessionKeySupplier {
+    /**
+     * Generates a new key pair.  The current key pair is not changed.
+     * @return the new key pair
+     */
+    KeyPair generateNextKeyPair();
+
+    /**
+     * Replaces the current key pair.
+     * @param keyPair a key pair returned by {@link #generateNextKeyPair()}
+     */
+    void useKeyPair(KeyPair keyPair);
+}
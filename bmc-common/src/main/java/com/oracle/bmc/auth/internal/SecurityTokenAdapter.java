@@ -21,6 +21,7 @@ class SecurityTokenAdapter {
     private final JWTClaimsSet jwt;
     private final SessionKeySupplier sessionKeySupplier;
     @Getter private final String securityToken;
+    private final long createdTimeMillis = System.currentTimeMillis();
 
     SecurityTokenAdapter(String securityToken, SessionKeySupplier sessionKeySupplier) {
         this.securityToken = securityToken;
@@ -95,6 +96,26 @@ class SecurityTokenAdapter {
         return false;
     }
 
+    /**
+     * Returns the time after which the token should be refreshed ahead of its expiration.
+     * <p>
+     * The lifetime is taken from the issue and expiration times of the token, but counted from
+     * when the token was received, so the result does not depend on the clock of the server.
+     * @param refreshFraction fraction of the token lifetime after which to refresh
+     * @return the refresh time in milliseconds since the epoch, or -1 if the token does not expire
+     */
+    long getRefreshTimeMillis(double refreshFraction) {
+        if (jwt == null || jwt.getExpirationTime() == null) {
+            return -1;
+        }
+        final long expirationTime = jwt.getExpirationTime().getTime();
+        final long lifetime =
+                jwt.getIssueTime() != null
+                        ? expirationTime - jwt.getIssueTime().getTime()
+                        : expirationTime - createdTimeMillis;
+        return createdTimeMillis + (long) (Math.max(0, lifetime) * refreshFraction);
+    }
+
     /**
      * Checks if two public keys are equal
      * @param a one public key
@@ -0,0 +1,128 @@
+/**
+ * Copyright (c) 2016, 2021, Oracle and/or its affiliates.  All rights reserved.
+ * This software is dual-licensed to you under the Universal Permissive License (UPL) 1.0 as shown at https://oss.oracle.com/licenses/upl or Apache License 2.0 as shown at http://www.apache.org/licenses/LICENSE-2.0. You may choose either license.
+ */
+package com.oracle.bmc.auth.internal;
+
+import java.lang.ref.WeakReference;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.base.Function;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Refreshes the security token of a federation client in the background, once a fraction of its
+ * lifetime has passed, so that callers do not have to wait for a refresh.
+ * <p>
+ * The refresher only keeps a weak reference to the client, so it does not keep an unused client
+ * alive.  All refreshers share a single daemon thread that schedules and runs the refreshes.
+ *
+ * @param <T> the federation client type
+ */
+@Slf4j
+class SecurityTokenRefresher<T> {
+    private static final long RETRY_DELAY_MILLIS = TimeUnit.SECONDS.toMillis(30);
+
+    private final WeakReference<T> client;
+    private final Function<T, SecurityTokenAdapter> refresh;
+    private final double refreshFraction;
+    private ScheduledFuture<?> scheduledRefresh;
+
+    /**
+     * Create a new refresher.
+     * @param client the federation client
+     * @param refresh function that refreshes the token of the client, and returns the new token;
+     *      must not capture the client
+     * @param refreshFraction fraction of the token lifetime after which the token is refreshed
+     */
+    SecurityTokenRefresher(
+            T client, Function<T, SecurityTokenAdapter> refresh, double refreshFraction) {
+        if (!(refreshFraction > 0 && refreshFraction < 1)) {
+            throw new IllegalArgumentException(
+                    "The refresh fraction must be between 0 and 1, was " + refreshFraction);
+        }
+        this.client = new WeakReference<>(client);
+        this.refresh = refresh;
+        this.refreshFraction = refreshFraction;
+    }
+
+    /**
+     * Schedules the refresh of the given token, replacing any refresh that was scheduled before.
+     * @param token the token that was just fetched
+     */
+    void scheduleRefresh(SecurityTokenAdapter token) {
+        final long refreshTime = token.getRefreshTimeMillis(refreshFraction);
+        if (refreshTime < 0) {
+            LOG.debug("Security token has no expiration time, not refreshing it in the background");
+            cancel();
+            return;
+        }
+        final long delay = refreshTime - System.currentTimeMillis();
+        // a token that is already due, for example one that is very short-lived, is not
+        // refreshed more often than failed refreshes are retried
+        schedule(delay > 0 ? delay : RETRY_DELAY_MILLIS);
+    }
+
+    /**
+     * Cancels the scheduled refresh, if any.
+     */
+    synchronized void cancel() {
+        if (scheduledRefresh != null) {
+            scheduledRefresh.cancel(false);
+            scheduledRefresh = null;
+        }
+    }
+
+    private synchronized void schedule(long delayMillis) {
+        cancel();
+        LOG.debug("Refreshing security token in the background in {}ms", delayMillis);
+        scheduledRefresh =
+                SchedulerHolder.SCHEDULER.schedule(
+                        new Runnable() {
+                            @Override
+                            public void run() {
+                                refresh();
+                            }
+                        },
+                        delayMillis,
+                        TimeUnit.MILLISECONDS);
+    }
+
+    private void refresh() {
+        final T target = client.get();
+        if (target == null) {
+            return;
+        }
+        try {
+            scheduleRefresh(refresh.apply(target));
+        } catch (RuntimeException e) {
+            // callers will still refresh on demand once the token has expired
+            LOG.warn(
+                    "Failed to refresh security token in the background, retrying in {}ms",
+                    RETRY_DELAY_MILLIS,
+                    e);
+            schedule(RETRY_DELAY_MILLIS);
+        }
+    }
+
+    private static final class SchedulerHolder {
+        private static final ScheduledExecutorService SCHEDULER = createScheduler();
+
+        private static ScheduledExecutorService createScheduler() {
+            final ScheduledThreadPoolExecutor scheduler =
+                    new ScheduledThreadPoolExecutor(
+                            1,
+                            new ThreadFactoryBuilder()
+                                    .setDaemon(true)
+                                    .setNameFormat("oci-security-token-refresher-%d")
+                                    .build());
+            scheduler.setRemoveOnCancelPolicy(true);
+            return scheduler;
+        }
+    }
+}
@@ -47,6 +47,14 @@ import java.util.Set;
 public class X509FederationClient implements FederationClient {
     private static final Function<Response, WithHeaders<SecurityToken>> SECURITY_TOKEN_FN =
             new ResponseConversionFunctionFactory().create(SecurityToken.class);
+    private static final Function<X509FederationClient, SecurityTokenAdapter>
+            BACKGROUND_REFRESH_FN =
+                    new Function<X509FederationClient, SecurityTokenAdapter>() {
+                        @Override
+                        public SecurityTokenAdapter apply(X509FederationClient client) {
+                            return client.refreshInBackground();
+                        }
+                    };
     private static final String DEFAULT_PURPOSE = "DEFAULT";
     private static final String DEFAULT_FINGERPRINT = "SHA256";
 
@@ -62,6 +70,8 @@ public class X509FederationClient implements FederationClient {
     // see https://www.cs.umd.edu/~pugh/java/memoryModel/DoubleCheckedLocking.html
     private volatile SecurityTokenAdapter securityTokenAdapter = null;
 
+    private volatile SecurityTokenRefresher<X509FederationClient> refresher = null;
+
     /**
      * Same as {@link #X509FederationClient(String, String, X509CertificateSupplier, SessionKeySupplier, Set, ClientConfigurator, List, String)}
      * but with 'purpose' set to {@link #DEFAULT_PURPOSE}.
@@ -157,6 +167,52 @@ public class X509FederationClient implements FederationClient {
         return refreshAndGetSecurityTokenInner(false);
     }
 
+    /**
+     * Refreshes the security token in the background once the given fraction of its lifetime has
+     * passed, so that callers only have to wait for a refresh if the token has expired.
+     * <p>
+     * If the session key supplier is a {@link RotatingSessionKeySupplier}, the next session key
+     * pair is generated and the next token is fetched while the current ones are still in use;
+     * both are then replaced at once.  Otherwise the background refresh is the same as the refresh
+     * after the token has expired, just earlier.
+     *
+     * @param refreshFraction fraction of the token lifetime, between 0 and 1 (exclusive)
+     */
+    public void enableProactiveRefresh(double refreshFraction) {
+        final SecurityTokenRefresher<X509FederationClient> newRefresher =
+                new SecurityTokenRefresher<>(this, BACKGROUND_REFRESH_FN, refreshFraction);
+        synchronized (this) {
+            if (refresher != null) {
+                refresher.cancel();
+            }
+            refresher = newRefresher;
+            if (securityTokenAdapter.isValid()) {
+                refresher.scheduleRefresh(securityTokenAdapter);
+            }
+        }
+    }
+
+    private SecurityTokenAdapter refreshInBackground() {
+        if (!(sessionKeySupplier instanceof RotatingSessionKeySupplier)) {
+            refreshAndGetSecurityTokenInner(false);
+            return securityTokenAdapter;
+        }
+        final RotatingSessionKeySupplier rotatingSessionKeySupplier =
+                (RotatingSessionKeySupplier) sessionKeySupplier;
+        LOG.info("Refreshing security token in the background.");
+        // generating the key pair is the slow part, and does not need the lock
+        final KeyPair nextKeyPair = rotatingSessionKeySupplier.generateNextKeyPair();
+        // callers do not need the lock while the current token is valid
+        synchronized (this) {
+            refreshCertificates();
+            final SecurityTokenAdapter nextSecurityTokenAdapter =
+                    getSecurityTokenFromServer(nextKeyPair);
+            rotatingSessionKeySupplier.useKeyPair(nextKeyPair);
+            securityTokenAdapter = nextSecurityTokenAdapter;
+            return nextSecurityTokenAdapter;
+        }
+    }
+
     private String refreshAndGetSecurityTokenInner(final boolean doFinalTokenValidityCheck) {
         // Since this client will be used in a multi-threaded environment (from within a service API),
         // this needs to be synchronized to make sure multiple calls are not updating the security token at the same time.
@@ -168,44 +224,12 @@ public class X509FederationClient implements FederationClient {
                 LOG.info("Refreshing session keys.");
                 sessionKeySupplier.refreshKeys();
 
-                if (leafCertificateSupplier instanceof Refreshable) {
-                    try {
-                        ((Refreshable) leafCertificateSupplier).refresh();
-                    } catch (RefreshFailedException ex) {
-                        throw new BmcException(
-                                false, "Can't refresh the leaf certification!", ex, null);
-                    }
-                    // When using default purpose (ex, instance principals), the token request should always be signed with the same tenant id as the certificate.
-                    // For other purposes, the tenant id can be different.
-                    if (this.purpose.equals(DEFAULT_PURPOSE)) {
-                        String newTenancyId =
-                                AuthUtils.getTenantIdFromCertificate(
-                                        leafCertificateSupplier
-                                                .getCertificateAndKeyPair()
-                                                .getCertificate());
-
-                        if (!this.tenancyId.equals(newTenancyId)) {
-                            throw new IllegalArgumentException(
-                                    "The tenancy id should never be changed in cert file!");
-                        }
-                    }
-                }
+                refreshCertificates();
 
-                for (X509CertificateSupplier supplier : intermediateCertificateSuppliers) {
-                    if (supplier instanceof Refreshable) {
-                        try {
-                            ((Refreshable) supplier).refresh();
-                        } catch (RefreshFailedException ex) {
-                            throw new BmcException(
-                                    false,
-                                    "Can't refresh the intermediate certification!",
-                                    ex,
-                                    null);
-                        }
-                    }
+                securityTokenAdapter = getSecurityTokenFromServer(sessionKeySupplier.getKeyPair());
+                if (refresher != null) {
+                    refresher.scheduleRefresh(securityTokenAdapter);
                 }
-
-                securityTokenAdapter = getSecurityTokenFromServer();
                 return securityTokenAdapter.getSecurityToken();
             }
 
@@ -213,14 +237,49 @@ public class X509FederationClient implements FederationClient {
         }
     }
 
+    private void refreshCertificates() {
+        if (leafCertificateSupplier instanceof Refreshable) {
+            try {
+                ((Refreshable) leafCertificateSupplier).refresh();
+            } catch (RefreshFailedException ex) {
+                throw new BmcException(false, "Can't refresh the leaf certification!", ex, null);
+            }
+            // When using default purpose (ex, instance principals), the token request should always be signed with the same tenant id as the certificate.
+            // For other purposes, the tenant id can be different.
+            if (this.purpose.equals(DEFAULT_PURPOSE)) {
+                String newTenancyId =
+                        AuthUtils.getTenantIdFromCertificate(
+                                leafCertificateSupplier
+                                        .getCertificateAndKeyPair()
+                                        .getCertificate());
+
+                if (!this.tenancyId.equals(newTenancyId)) {
+                    throw new IllegalArgumentException(
+                            "The tenancy id should never be changed in cert file!");
+                }
+            }
+        }
+
+        for (X509CertificateSupplier supplier : intermediateCertificateSuppliers) {
+            if (supplier instanceof Refreshable) {
+                try {
+                    ((Refreshable) supplier).refresh();
+                } catch (RefreshFailedException ex) {
+                    throw new BmcException(
+                            false, "Can't refresh the intermediate certification!", ex, null);
+                }
+            }
+        }
+    }
+
     /**
      * Gets a security token from the federation server
+     * @param keyPair the session key pair the token is for
      * @return the security token, which is basically a JWT token string
      */
-    private SecurityTokenAdapter getSecurityTokenFromServer() {
+    private SecurityTokenAdapter getSecurityTokenFromServer(KeyPair keyPair) {
         LOG.info("Getting security token from the auth server");
 
-        KeyPair keyPair = sessionKeySupplier.getKeyPair();
         if (keyPair == null) {
             throw new IllegalStateException("Keypair for session was not provided");
         }
@@ -0,0 +1,58 @@
+/**
+ * Copyright (c) 2016, 2021, Oracle and/or its affiliates.  All rights reserved.
+ * This software is dual-licensed to you under the Universal Permissive License (UPL) 1.0 as shown at https://oss.oracle.com/licenses/upl or Apache License 2.0 as shown at http://www.apache.org/licenses/LICENSE-2.0. You may choose either license.
+ */
+package com.oracle.bmc.cache;
+
+import java.util.List;
+import java.util.Map;
+
+import lombok.NonNull;
+import lombok.Value;
+
+/**
+ * A response kept by a {@link ResponseCache}.
+ */
+@Value
+public class CachedResponse {
+    /**
+     * The entity tag of the response.
+     */
+    @NonNull String etag;
+    /**
+     * When the response was last received or revalidated, in milliseconds since the epoch.
+     */
+    long storedAtMillis;
+    /**
+     * The headers of the response.
+     */
+    @NonNull Map<String, List<String>> headers;
+    /**
+     * The body of the response.
+     */
+    @NonNull byte[] body;
+
+    /**
+     * Returns the approximate number of bytes the response takes.
+     * @return the size
+     */
+    public long getSize() {
+        long size = body.length + etag.length();
+        for (Map.Entry<String, List<String>> header : headers.entrySet()) {
+            size += header.getKey().length();
+            for (String value : header.getValue()) {
+                size += value.length();
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Returns this response, revalidated at the given time.
+     * @param nowMillis the time, in milliseconds since the epoch
+     * @return the revalidated response
+     */
+    public CachedResponse revalidated(long nowMillis) {
+        return new CachedResponse(etag, nowMillis, headers, body);
+    }
+}
@@ -0,0 +1,265 @@
+/**
+ * Copyright (c) 2016, 2021, Oracle and/or its affiliates.  All rights reserved.
+ * This software is dual-licensed to you under the Universal Permissive License (UPL) 1.0 as shown at https://oss.oracle.com/licenses/upl or Apache License 2.0 as shown at http://www.apache.org/licenses/LICENSE-2.0. You may choose either license.
+ */
+package com.oracle.bmc.cache;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.hash.Hashing;
+
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Keeps responses in files in a directory, and deletes the least recently used ones when more than
+ * maxBytes are kept.  Responses kept by a previous store in the same directory are reused.
+ * <p>
+ * Failures to read or write the files are logged, and treated as if the response was not stored.
+ */
+@Slf4j
+public class DiskResponseStore implements ResponseStore {
+    private static final String SUFFIX = ".response";
+    private static final String TEMPORARY_SUFFIX = ".tmp";
+    private static final int FORMAT_VERSION = 1;
+    // a temporary file that was not renamed for this long was left behind by a failed store
+    private static final long STALE_TEMPORARY_FILE_MILLIS = TimeUnit.MINUTES.toMillis(10);
+
+    private final Path directory;
+    private final long maxBytes;
+
+    // guarded by this, file name to file size; the files are renamed and deleted while holding
+    // the lock, so that they match the map
+    private final LinkedHashMap<String, Long> files = new LinkedHashMap<>(16, 0.75f, true);
+    private long bytes;
+
+    /**
+     * Creates a new on-disk store.
+     * @param directory the directory to keep the responses in, created if it does not exist
+     * @param maxBytes maximum number of bytes of the files kept
+     */
+    public DiskResponseStore(@NonNull Path directory, long maxBytes) {
+        if (maxBytes < 0) {
+            throw new IllegalArgumentException("maxBytes must not be negative");
+        }
+        this.directory = directory;
+        this.maxBytes = maxBytes;
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to create " + directory, e);
+        }
+        loadExistingFiles();
+    }
+
+    private void loadExistingFiles() {
+        deleteStaleTemporaryFiles();
+        final List<File> existing = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*" + SUFFIX)) {
+            for (Path path : stream) {
+                existing.add(path.toFile());
+            }
+        } catch (IOException e) {
+            LOG.debug("Failed to list {}", directory, e);
+        }
+        // oldest first, so that they are evicted first
+        Collections.sort(existing, Comparator.comparingLong(File::lastModified));
+        synchronized (this) {
+            for (File file : existing) {
+                files.put(file.getName(), file.length());
+                bytes += file.length();
+            }
+            delete(evict());
+        }
+    }
+
+    /**
+     * Deletes the temporary files of responses whose store did not complete, for example because
+     * the process was stopped while writing them.
+     */
+    private void deleteStaleTemporaryFiles() {
+        final long staleBefore = System.currentTimeMillis() - STALE_TEMPORARY_FILE_MILLIS;
+        try (DirectoryStream<Path> stream =
+                Files.newDirectoryStream(directory, "*" + SUFFIX + "*" + TEMPORARY_SUFFIX)) {
+            for (Path path : stream) {
+                try {
+                    if (Files.getLastModifiedTime(path).toMillis() < staleBefore) {
+                        Files.deleteIfExists(path);
+                    }
+                } catch (IOException e) {
+                    LOG.debug("Failed to delete {}", path, e);
+                }
+            }
+        } catch (IOException e) {
+            LOG.debug("Failed to list {}", directory, e);
+        }
+    }
+
+    @Override
+    public CachedResponse get(@NonNull String key) {
+        final String fileName = fileName(key);
+        synchronized (this) {
+            if (files.get(fileName) == null) {
+                return null;
+            }
+        }
+        try (DataInputStream in =
+                new DataInputStream(
+                        new BufferedInputStream(
+                                Files.newInputStream(directory.resolve(fileName))))) {
+            if (in.readInt() != FORMAT_VERSION || !key.equals(in.readUTF())) {
+                return null;
+            }
+            final String etag = in.readUTF();
+            final long storedAtMillis = in.readLong();
+            final int headerCount = in.readInt();
+            final Map<String, List<String>> headers = new LinkedHashMap<>();
+            for (int i = 0; i < headerCount; i++) {
+                final String name = in.readUTF();
+                final int valueCount = in.readInt();
+                final List<String> values = new ArrayList<>(valueCount);
+                for (int j = 0; j < valueCount; j++) {
+                    values.add(in.readUTF());
+                }
+                headers.put(name, values);
+            }
+            final byte[] body = new byte[in.readInt()];
+            in.readFully(body);
+            return new CachedResponse(etag, storedAtMillis, headers, body);
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException | RuntimeException e) {
+            LOG.debug("Failed to read the cached response for {}", key, e);
+            remove(key);
+            return null;
+        }
+    }
+
+    @Override
+    public void put(@NonNull String key, @NonNull CachedResponse response) {
+        final String fileName = fileName(key);
+        final Path file = directory.resolve(fileName);
+        final Path temporary;
+        final long size;
+        try {
+            temporary = Files.createTempFile(directory, fileName, TEMPORARY_SUFFIX);
+            try (DataOutputStream out =
+                    new DataOutputStream(
+                            new BufferedOutputStream(Files.newOutputStream(temporary)))) {
+                out.writeInt(FORMAT_VERSION);
+                out.writeUTF(key);
+                out.writeUTF(response.getEtag());
+                out.writeLong(response.getStoredAtMillis());
+                out.writeInt(response.getHeaders().size());
+                for (Map.Entry<String, List<String>> header : response.getHeaders().entrySet()) {
+                    out.writeUTF(header.getKey());
+                    out.writeInt(header.getValue().size());
+                    for (String value : header.getValue()) {
+                        out.writeUTF(value);
+                    }
+                }
+                out.writeInt(response.getBody().length);
+                out.write(response.getBody());
+                size = out.size();
+            } catch (IOException | RuntimeException e) {
+                Files.deleteIfExists(temporary);
+                throw e;
+            }
+        } catch (IOException | RuntimeException e) {
+            LOG.debug("Failed to write the cached response for {}", key, e);
+            return;
+        }
+        synchronized (this) {
+            try {
+                Files.move(
+                        temporary,
+                        file,
+                        StandardCopyOption.REPLACE_EXISTING,
+                        StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException | RuntimeException e) {
+                LOG.debug("Failed to write the cached response for {}", key, e);
+                deleteQuietly(temporary);
+                return;
+            }
+            final Long previous = files.put(fileName, size);
+            if (previous != null) {
+                bytes -= previous;
+            }
+            bytes += size;
+            delete(evict());
+        }
+    }
+
+    @Override
+    public void remove(@NonNull String key) {
+        final String fileName = fileName(key);
+        synchronized (this) {
+            final Long previous = files.remove(fileName);
+            if (previous == null) {
+                return;
+            }
+            bytes -= previous;
+            delete(Collections.singletonList(fileName));
+        }
+    }
+
+    /**
+     * Returns the number of bytes of the files kept.
+     * @return the number of bytes
+     */
+    public synchronized long getBytes() {
+        return bytes;
+    }
+
+    // must hold the lock
+    private List<String> evict() {
+        final List<String> evicted = new ArrayList<>();
+        final Iterator<Map.Entry<String, Long>> leastRecentlyUsed = files.entrySet().iterator();
+        while (bytes > maxBytes && leastRecentlyUsed.hasNext()) {
+            final Map.Entry<String, Long> entry = leastRecentlyUsed.next();
+            bytes -= entry.getValue();
+            leastRecentlyUsed.remove();
+            evicted.add(entry.getKey());
+        }
+        return evicted;
+    }
+
+    // must hold the lock, so that a file that is stored again at the same time is not deleted
+    private void delete(List<String> fileNames) {
+        for (String fileName : fileNames) {
+            deleteQuietly(directory.resolve(fileName));
+        }
+    }
+
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            LOG.debug("Failed to delete {}", path, e);
+        }
+    }
+
+    private static String fileName(String key) {
+        return Hashing.sha256().hashString(key, StandardCharsets.UTF_8).toString() + SUFFIX;
+    }
+}
@@ -0,0 +1,103 @@
+/**
+ * Copyright (c) 2016, 2021, Oracle and/or its affiliates.  All rights reserved.
+ * This software is dual-licensed to you under the Universal Permissive License (UPL) 1.0 as shown at https://oss.oracle.com/licenses/upl or Apache License 2.0 as shown at http://www.apache.org/licenses/LICENSE-2.0. You may choose either license.
+ */
+package com.oracle.bmc.cache;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import lombok.NonNull;
+
+/**
+ * Keeps responses in memory, and evicts the least recently used ones when more than maxBytes are
+ * kept.  Evicted responses are passed to the next tier, if there is one, and looked up there when
+ * they are not found in memory.
+ */
+public class InMemoryResponseStore implements ResponseStore {
+    private final long maxBytes;
+    private final ResponseStore nextTier;
+
+    // guarded by this
+    private final LinkedHashMap<String, CachedResponse> responses =
+            new LinkedHashMap<>(16, 0.75f, true);
+    private long bytes;
+
+    /**
+     * Creates a new in-memory store.
+     * @param maxBytes maximum number of bytes of the responses kept
+     * @param nextTier the store evicted responses are moved to, may be null
+     */
+    public InMemoryResponseStore(long maxBytes, ResponseStore nextTier) {
+        if (maxBytes < 0) {
+            throw new IllegalArgumentException("maxBytes must not be negative");
+        }
+        this.maxBytes = maxBytes;
+        this.nextTier = nextTier;
+    }
+
+    @Override
+    public CachedResponse get(@NonNull String key) {
+        synchronized (this) {
+            final CachedResponse response = responses.get(key);
+            if (response != null || nextTier == null) {
+                return response;
+            }
+        }
+        final CachedResponse response = nextTier.get(key);
+        if (response != null) {
+            nextTier.remove(key);
+            put(key, response);
+        }
+        return response;
+    }
+
+    @Override
+    public void put(@NonNull String key, @NonNull CachedResponse response) {
+        final List<Map.Entry<String, CachedResponse>> evicted = new ArrayList<>();
+        synchronized (this) {
+            final CachedResponse previous = responses.put(key, response);
+            if (previous != null) {
+                bytes -= previous.getSize();
+            }
+            bytes += response.getSize();
+            final Iterator<Map.Entry<String, CachedResponse>> leastRecentlyUsed =
+                    responses.entrySet().iterator();
+            while (bytes > maxBytes && leastRecentlyUsed.hasNext()) {
+                final Map.Entry<String, CachedResponse> entry = leastRecentlyUsed.next();
+                bytes -= entry.getValue().getSize();
+                leastRecentlyUsed.remove();
+                evicted.add(entry);
+            }
+        }
+        if (nextTier != null) {
+            for (Map.Entry<String, CachedResponse> entry : evicted) {
+                nextTier.put(entry.getKey(), entry.getValue());
+            }
+        }
+    }
+
+    @Override
+    public void remove(@NonNull String key) {
+        synchronized (this) {
+            final CachedResponse previous = responses.remove(key);
+            if (previous != null) {
+                bytes -= previous.getSize();
+            }
+        }
+        if (nextTier != null) {
+            nextTier.remove(key);
+        }
+    }
+
+    /**
+     * Returns the number of bytes of the responses kept in memory.
+     * @return the number of bytes
+     */
+    public synchronized long getBytes() {
+        return bytes;
+    }
+}
@@ -0,0 +1,159 @@
+/**
+ * Copyright (c) 2016, 2021, Oracle and/or its affiliates.  All rights reserved.
+ * This software is dual-licensed to you under the Universal Permissive License (UPL) 1.0 as shown at https://oss.oracle.com/licenses/upl or Apache License 2.0 as shown at http://www.apache.org/licenses/LICENSE-2.0. You may choose either license.
+ */
+package com.oracle.bmc.cache;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.Value;
+
+/**
+ * Caches the responses of read operations that have an entity tag, and revalidates them with the
+ * service instead of transferring them again.
+ * <p>
+ * When a response of the operation is cached, the request is sent with an {@code if-none-match}
+ * header.  If the service responds with 304 Not Modified, the cached response is used; otherwise
+ * the new response replaces it.  A cached response is dropped if it was not received or
+ * revalidated within the time to live of its operation.  Requests that are already conditional, or
+ * request a range, are not cached.
+ * <p>
+ * The cache of a client is configured with
+ * {@link com.oracle.bmc.ClientConfiguration#getResponseCacheConfiguration()}.
+ */
+public class ResponseCache {
+    private final ResponseCacheConfiguration configuration;
+    @Getter private final ResponseStore store;
+    private final LongSupplier clock;
+
+    private final LongAdder notModifiedResponses = new LongAdder();
+    private final LongAdder modifiedResponses = new LongAdder();
+    private final LongAdder expiredResponses = new LongAdder();
+
+    /**
+     * Creates a new response cache.
+     * @param configuration the configuration
+     */
+    public ResponseCache(@NonNull ResponseCacheConfiguration configuration) {
+        this(configuration, System::currentTimeMillis);
+    }
+
+    ResponseCache(ResponseCacheConfiguration configuration, LongSupplier clock) {
+        this.configuration = configuration;
+        this.clock = clock;
+        if (configuration.getStore() != null) {
+            this.store = configuration.getStore();
+        } else {
+            final ResponseStore diskStore =
+                    configuration.getDiskDirectory() != null
+                            ? new DiskResponseStore(
+                                    configuration.getDiskDirectory(),
+                                    configuration.getMaxDiskBytes())
+                            : null;
+            this.store = new InMemoryResponseStore(configuration.getMaxMemoryBytes(), diskStore);
+        }
+    }
+
+    /**
+     * Returns whether the responses of the given operation are cached.
+     * @param operationName the name of the operation
+     * @return true if the responses are cached
+     */
+    public boolean isCached(String operationName) {
+        return configuration.getOperations().containsKey(operationName);
+    }
+
+    /**
+     * Returns the maximum size of the body of a cached response.
+     * @return the number of bytes
+     */
+    public long getMaxEntryBytes() {
+        return configuration.getMaxEntryBytes();
+    }
+
+    /**
+     * Returns the cached response for a request, if it has not expired.
+     * @param operationName the name of the operation
+     * @param key the URI of the request
+     * @return the response, or null if none is cached
+     */
+    public CachedResponse get(@NonNull String operationName, @NonNull String key) {
+        final CachedResponse response = store.get(key);
+        if (response == null) {
+            return null;
+        }
+        final Duration ttl = configuration.getOperations().get(operationName);
+        if (ttl == null || clock.getAsLong() - response.getStoredAtMillis() > ttl.toMillis()) {
+            expiredResponses.increment();
+            store.remove(key);
+            return null;
+        }
+        return response;
+    }
+
+    /**
+     * Called when the service responded that the cached response is still current.
+     * @param key the URI of the request
+     * @param response the cached response
+     */
+    public void onNotModified(@NonNull String key, @NonNull CachedResponse response) {
+        notModifiedResponses.increment();
+        store.put(key, response.revalidated(clock.getAsLong()));
+    }
+
+    /**
+     * Called when the service sent a full response; caches it if it has an entity tag and is not
+     * too large.
+     * @param key the URI of the request
+     * @param etag the entity tag of the response, may be null
+     * @param headers the headers of the response
+     * @param body the body of the response, or null if it is too large
+     */
+    public void onModified(
+            @NonNull String key,
+            String etag,
+            @NonNull Map<String, List<String>> headers,
+            byte[] body) {
+        modifiedResponses.increment();
+        if (etag == null || body == null || body.length > getMaxEntryBytes()) {
+            store.remove(key);
+            return;
+        }
+        store.put(key, new CachedResponse(etag, clock.getAsLong(), headers, body));
+    }
+
+    /**
+     * Returns the current metrics of this response cache.
+     * @return the metrics
+     */
+    public Metrics getMetrics() {
+        return new Metrics(
+                notModifiedResponses.sum(), modifiedResponses.sum(), expiredResponses.sum());
+    }
+
+    /**
+     * Metrics of a {@link ResponseCache}.
+     */
+    @Value
+    public static class Metrics {
+        /**
+         * Number of responses served from the cache after the service responded 304 Not
+         * Modified.
+         */
+        long notModifiedResponses;
+        /**
+         * Number of full responses received for cached operations.
+         */
+        long modifiedResponses;
+        /**
+         * Number of cached responses dropped because their time to live had passed.
+         */
+        long expiredResponses;
+    }
+}
@@ -0,0 +1,62 @@
+/**
+ * Copyright (c) 2016, 2021, Oracle and/or its affiliates.  All rights reserved.
+ * This software is dual-licensed to you under the Universal Permissive License (UPL) 1.0 as shown at https://oss.oracle.com/licenses/upl or Apache License 2.0 as shown at http://www.apache.org/licenses/LICENSE-2.0. You may choose either license.
+ */
+package com.oracle.bmc.cache;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.Singular;
+
+/**
+ * A {@link ResponseCacheConfiguration} configures a {@link ResponseCache}.
+ *
+ * Only the responses of the listed operations are cached.  The responses are kept in memory, up to
+ * maxMemoryBytes; if a disk directory is set, the responses evicted from memory are kept on disk,
+ * up to maxDiskBytes.  Responses larger than maxEntryBytes are not cached.
+ */
+@Builder
+public class ResponseCacheConfiguration {
+
+    public static final long DEFAULT_MAX_MEMORY_BYTES = 16L * 1024 * 1024;
+    public static final long DEFAULT_MAX_ENTRY_BYTES = 1024L * 1024;
+    public static final long DEFAULT_MAX_DISK_BYTES = 256L * 1024 * 1024;
+
+    /**
+     * The operations whose responses are cached, by name, for example {@code GetBucket}, with how
+     * long a response is kept after it was last received or revalidated.
+     */
+    @Getter @Singular private final Map<String, Duration> operations;
+
+    /**
+     * Maximum number of bytes of the responses kept in memory.
+     */
+    @Getter @Builder.Default private final long maxMemoryBytes = DEFAULT_MAX_MEMORY_BYTES;
+
+    /**
+     * Maximum size of the body of a cached response.
+     */
+    @Getter @Builder.Default private final long maxEntryBytes = DEFAULT_MAX_ENTRY_BYTES;
+
+    /**
+     * Directory of the on-disk tier.  If not set, the responses are only kept in memory.  Every
+     * client needs its own directory; to share cached responses between clients, set the same
+     * store instead.
+     */
+    @Getter private final Path diskDirectory;
+
+    /**
+     * Maximum number of bytes of the responses kept on disk.
+     */
+    @Getter @Builder.Default private final long maxDiskBytes = DEFAULT_MAX_DISK_BYTES;
+
+    /**
+     * Stores the responses, instead of the in-memory and on-disk tiers, if set.  A store may be
+     * shared by several clients.
+     */
+    @Getter private final ResponseStore store;
+}
@@ -0,0 +1,31 @@
+/**
+ * Copyright (c) 2016, 2021, Oracle and/or its affiliates.  All rights reserved.
+ * This software is dual-licensed to you under the Universal Permissive License (UPL) 1.0 as shown at https://oss.oracle.com/licenses/upl or Apache License 2.0 as shown at http://www.apache.org/licenses/LICENSE-2.0. You may choose either license.
+ */
+package com.oracle.bmc.cache;
+
+/**
+ * Stores the responses of a {@link ResponseCache}.  Implementations must be thread-safe, and may
+ * drop responses at any time, for example to stay within a size limit.
+ */
+public interface ResponseStore {
+    /**
+     * Returns the response stored for the given key.
+     * @param key the key, the URI of the request
+     * @return the response, or null if none is stored
+     */
+    CachedResponse get(String key);
+
+    /**
+     * Stores a response, replacing the response previously stored for the key.
+     * @param key the key, the URI of the request
+     * @param response the response
+     */
+    void put(String key, CachedResponse response);
+
+    /**
+     * Removes the response stored for the given key, if any.
+     * @param key the key, the URI of the request
+     */
+    void remove(String key);
+}
@@ -0,0 +1,61 @@
+/**
+ * Copyright (c) 2016, 2021, Oracle and/or its affiliates.  All rights reserved.
+ * This software is dual-licensed to you under the Universal Permissive License (UPL) 1.0 as shown at https://oss.oracle.com/licenses/upl or Apache License 2.0 as shown at http://www.apache.org/licenses/LICENSE-2.0. You may choose either license.
+ */
+package com.oracle.bmc.hedging;
+
+import java.time.Duration;
+import java.util.Set;
+
+import com.oracle.bmc.retrier.RetryBudget;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.Singular;
+
+/**
+ * A {@link HedgingConfiguration} configures a {@link RequestHedger}.
+ *
+ * A GET or HEAD request is sent a second time if no response arrived within the delayPercentile of
+ * the latencies of its operation, but not sooner than minDelay.  The first response is used, and
+ * the other request is cancelled.  No request of an operation is hedged until
+ * minimumNumberOfSamples latencies of the operation have been recorded.
+ */
+@Builder
+public class HedgingConfiguration {
+
+    public static final double DEFAULT_DELAY_PERCENTILE = 95;
+    public static final long DEFAULT_MIN_DELAY_MILLIS = 10;
+    public static final int DEFAULT_MINIMUM_NUMBER_OF_SAMPLES = 100;
+
+    /**
+     * Percentile of the latencies of an operation after which a request is hedged, between 0 and
+     * 100.
+     */
+    @Getter @Builder.Default private final double delayPercentile = DEFAULT_DELAY_PERCENTILE;
+
+    /**
+     * Minimum time before a request is hedged.
+     */
+    @Getter @Builder.Default
+    private final Duration minDelay = Duration.ofMillis(DEFAULT_MIN_DELAY_MILLIS);
+
+    /**
+     * Number of latencies of an operation to record before its requests are hedged.
+     */
+    @Getter @Builder.Default
+    private final int minimumNumberOfSamples = DEFAULT_MINIMUM_NUMBER_OF_SAMPLES;
+
+    /**
+     * Limits the hedged requests; every hedged request takes a token of the budget.  If not set,
+     * the budget of the retry configuration of the client is used, or, if there is none, a budget of
+     * one hedged request per twenty requests.
+     */
+    @Getter private final RetryBudget budget;
+
+    /**
+     * Names of the operations to hedge, for example {@code GetObject}.  If empty, all GET and HEAD
+     * requests are hedged.
+     */
+    @Getter @Singular private final Set<String> operationNames;
+}
@@ -0,0 +1,324 @@
+/**
+ * Copyright (c) 2016, 2021, Oracle and/or its affiliates.  All rights reserved.
+ * This software is dual-licensed to you under the Universal Permissive License (UPL) 1.0 as shown at https://oss.oracle.com/licenses/upl or Apache License 2.0 as shown at http://www.apache.org/licenses/LICENSE-2.0. You may choose either license.
+ */
+package com.oracle.bmc.hedging;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BooleanSupplier;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import javax.ws.rs.ProcessingException;
+import javax.ws.rs.client.InvocationCallback;
+import javax.ws.rs.core.Response;
+
+import com.oracle.bmc.instrumentation.LatencyHistogram;
+import com.oracle.bmc.retrier.RetryBudget;
+
+import lombok.NonNull;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Sends a second, identical request if the response to a request takes longer than most responses
+ * of its operation, and uses whichever response arrives first.  This cuts the tail latency caused
+ * by occasional slow connections, at the cost of some extra requests.
+ * <p>
+ * Only safe requests, GET and HEAD, may be hedged.  The delay is derived from a histogram of the
+ * latencies of each operation, see {@link HedgingConfiguration}.  The response that loses is closed
+ * when it arrives, which releases its connection.
+ */
+@Slf4j
+public class RequestHedger {
+    private static final double DEFAULT_BUDGET_RATIO = 0.05;
+    private static final double DEFAULT_BUDGET_MAX_TOKENS = 10;
+
+    private final HedgingConfiguration configuration;
+    private final RetryBudget budget;
+    private final long minDelayNanos;
+    private final Map<String, OperationLatency> latencies = new ConcurrentHashMap<>();
+
+    private final LongAdder hedgedRequests = new LongAdder();
+    private final LongAdder wonHedgedRequests = new LongAdder();
+    private final LongAdder rejectedHedgedRequests = new LongAdder();
+
+    /**
+     * Creates a new request hedger.
+     * @param configuration the configuration
+     * @param retryBudget the budget to use if the configuration has none, may be null
+     */
+    public RequestHedger(@NonNull HedgingConfiguration configuration, RetryBudget retryBudget) {
+        if (configuration.getDelayPercentile() < 0
+                || configuration.getDelayPercentile() > 100
+                || configuration.getMinimumNumberOfSamples() < 1) {
+            throw new IllegalArgumentException("Invalid hedging configuration");
+        }
+        this.configuration = configuration;
+        if (configuration.getBudget() != null) {
+            this.budget = configuration.getBudget();
+        } else if (retryBudget != null) {
+            this.budget = retryBudget;
+        } else {
+            this.budget = new RetryBudget(DEFAULT_BUDGET_RATIO, DEFAULT_BUDGET_MAX_TOKENS, 0);
+        }
+        this.minDelayNanos = configuration.getMinDelay().toNanos();
+    }
+
+    /**
+     * Returns whether requests of the given operation are hedged.
+     * @param operationName the name of the operation
+     * @return true if the requests are hedged
+     */
+    public boolean isHedged(String operationName) {
+        return configuration.getOperationNames().isEmpty()
+                || configuration.getOperationNames().contains(operationName);
+    }
+
+    /**
+     * Executes a request, and hedges it if it is slow.
+     * <p>
+     * Until enough latencies of the operation have been recorded, the request is sent once using
+     * the call.  Afterwards it is sent using the asynchronous sender, which may be invoked twice.
+     * @param operationName the name of the operation
+     * @param call sends the request and waits for the response
+     * @param sender sends the request asynchronously, and invokes the callback with the response
+     * @return the first response
+     * @throws ProcessingException if all requests failed
+     */
+    public Response execute(
+            @NonNull String operationName,
+            @NonNull Supplier<Response> call,
+            @NonNull Function<InvocationCallback<Response>, Future<Response>> sender) {
+        return execute(operationName, call, sender, () -> true);
+    }
+
+    /**
+     * Executes a request, and hedges it if it is slow and the permit allows it.
+     * <p>
+     * Until enough latencies of the operation have been recorded, the request is sent once using
+     * the call.  Afterwards it is sent using the asynchronous sender, which may be invoked twice.
+     * @param operationName the name of the operation
+     * @param call sends the request and waits for the response
+     * @param sender sends the request asynchronously, and invokes the callback with the response
+     * @param hedgePermit called before the request is sent a second time, for example to take a
+     *                    token from a rate limiter; the request is not hedged if it returns false
+     * @return the first response
+     * @throws ProcessingException if all requests failed
+     */
+    public Response execute(
+            @NonNull String operationName,
+            @NonNull Supplier<Response> call,
+            @NonNull Function<InvocationCallback<Response>, Future<Response>> sender,
+            @NonNull BooleanSupplier hedgePermit) {
+        budget.onRequest();
+        final OperationLatency latency =
+                latencies.computeIfAbsent(operationName, name -> new OperationLatency());
+        final long delayNanos = latency.getDelayNanos();
+        if (delayNanos < 0) {
+            final long start = System.nanoTime();
+            final Response response = call.get();
+            latency.record(System.nanoTime() - start);
+            return response;
+        }
+        return new HedgedCall(latency, sender, hedgePermit).execute(delayNanos);
+    }
+
+    /**
+     * Returns the current hedging delay of the given operation.
+     * @param operationName the name of the operation
+     * @return the delay, in nanoseconds, or -1 if requests of the operation are not hedged yet
+     */
+    public long getDelayNanos(@NonNull String operationName) {
+        final OperationLatency latency = latencies.get(operationName);
+        return latency != null ? latency.getDelayNanos() : -1;
+    }
+
+    /**
+     * Returns the current metrics of this request hedger.
+     * @return the metrics
+     */
+    public Metrics getMetrics() {
+        return new Metrics(
+                hedgedRequests.sum(), wonHedgedRequests.sum(), rejectedHedgedRequests.sum());
+    }
+
+    private boolean tryAcquireHedge(BooleanSupplier hedgePermit) {
+        if (!hedgePermit.getAsBoolean()) {
+            rejectedHedgedRequests.increment();
+            LOG.debug("Not hedging, no permit");
+            return false;
+        }
+        if (budget.tryAcquireRetry()) {
+            hedgedRequests.increment();
+            return true;
+        }
+        rejectedHedgedRequests.increment();
+        LOG.debug("Not hedging, budget exhausted");
+        return false;
+    }
+
+    /**
+     * Metrics of a {@link RequestHedger}.
+     */
+    @Value
+    public static class Metrics {
+        /**
+         * Number of requests that were sent a second time.
+         */
+        long hedgedRequests;
+        /**
+         * Number of hedged requests whose second request responded first.
+         */
+        long wonHedgedRequests;
+        /**
+         * Number of requests that were not hedged because the budget was exhausted, or because
+         * there was no permit, for example from the rate limiter.
+         */
+        long rejectedHedgedRequests;
+    }
+
+    /**
+     * The latencies of an operation, and the hedging delay derived from them.
+     */
+    private class OperationLatency {
+        private final LatencyHistogram histogram = new LatencyHistogram();
+        // recomputed every minimumNumberOfSamples samples, races only delay the update
+        private volatile long delayNanos = -1;
+        private volatile long nextUpdateCount = configuration.getMinimumNumberOfSamples();
+
+        void record(long nanos) {
+            histogram.record(nanos);
+        }
+
+        long getDelayNanos() {
+            final long count = histogram.getCount();
+            if (count >= nextUpdateCount) {
+                nextUpdateCount = count + configuration.getMinimumNumberOfSamples();
+                delayNanos =
+                        Math.max(
+                                minDelayNanos,
+                                histogram.getPercentileNanos(configuration.getDelayPercentile()));
+            }
+            return delayNanos;
+        }
+    }
+
+    /**
+     * A request that is sent once, and a second time if the first response is late.
+     */
+    private class HedgedCall {
+        private final OperationLatency latency;
+        private final Function<InvocationCallback<Response>, Future<Response>> sender;
+        private final BooleanSupplier hedgePermit;
+        private final CompletableFuture<Attempt> result = new CompletableFuture<>();
+        private final AtomicInteger pending = new AtomicInteger();
+        private final long start = System.nanoTime();
+
+        HedgedCall(
+                OperationLatency latency,
+                Function<InvocationCallback<Response>, Future<Response>> sender,
+                BooleanSupplier hedgePermit) {
+            this.latency = latency;
+            this.sender = sender;
+            this.hedgePermit = hedgePermit;
+        }
+
+        Response execute(long delayNanos) {
+            final Future<Response> first = send(false);
+            Future<Response> second = null;
+            Attempt winner = null;
+            try {
+                try {
+                    winner = result.get(delayNanos, TimeUnit.NANOSECONDS);
+                    return winner.response;
+                } catch (TimeoutException e) {
+                    if (!result.isDone() && tryAcquireHedge(hedgePermit)) {
+                        LOG.debug("Hedging request after {} ns", delayNanos);
+                        second = send(true);
+                    }
+                }
+                winner = result.get();
+                return winner.response;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ProcessingException("Interrupted while waiting for the response", e);
+            } catch (ExecutionException e) {
+                final Throwable cause = e.getCause();
+                if (cause instanceof RuntimeException) {
+                    throw (RuntimeException) cause;
+                }
+                if (cause instanceof Error) {
+                    throw (Error) cause;
+                }
+                throw new ProcessingException(cause);
+            } finally {
+                if (winner == null || winner.isHedge) {
+                    cancel(first);
+                }
+                if (winner == null || !winner.isHedge) {
+                    cancel(second);
+                }
+            }
+        }
+
+        private Future<Response> send(boolean isHedge) {
+            pending.incrementAndGet();
+            final Attempt attempt = new Attempt(isHedge);
+            try {
+                return sender.apply(attempt);
+            } catch (RuntimeException e) {
+                attempt.failed(e);
+                return null;
+            }
+        }
+
+        private void cancel(Future<Response> future) {
+            if (future != null && !future.isDone()) {
+                future.cancel(true);
+            }
+        }
+
+        private class Attempt implements InvocationCallback<Response> {
+            private final boolean isHedge;
+            private volatile Response response;
+
+            Attempt(boolean isHedge) {
+                this.isHedge = isHedge;
+            }
+
+            @Override
+            public void completed(Response response) {
+                pending.decrementAndGet();
+                this.response = response;
+                if (!result.complete(this)) {
+                    // the other request responded first
+                    response.close();
+                    return;
+                }
+                // measured from the first request: if the hedge wins, this is a lower bound of the
+                // latency of the first request, which is cancelled and never completes
+                latency.record(System.nanoTime() - start);
+                if (isHedge) {
+                    wonHedgedRequests.increment();
+                }
+            }
+
+            @Override
+            public void failed(Throwable throwable) {
+                // the call only fails once all requests failed
+                if (pending.decrementAndGet() == 0) {
+                    result.completeExceptionally(throwable);
+                }
+            }
+        }
+    }
+}
@@ -12,25 +12,41 @@ import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
 import org.glassfish.jersey.apache.connector.ApacheClientProperties;
 import org.glassfish.jersey.apache.connector.ApacheConnectorProvider;
 import org.glassfish.jersey.client.ClientConfig;
+import org.glassfish.jersey.client.ClientLifecycleListener;
 import org.glassfish.jersey.client.spi.ConnectorProvider;
 
 import java.util.concurrent.TimeUnit;
 
 /**
  * A {@code ClientConfigDecorator} implementation that configure a connection pool for the client for a given
- * {@code ApacheConnectionPoolConfig}.
+ * {@code ApacheConnectionPoolConfig}, or that attaches the client to a {@code SharedHttpTransport}.
  *
  * @see ApacheConnectionPoolConfig
+ * @see SharedHttpTransport
  */
 @Slf4j
 public class ApacheConnectionPoolingClientConfigDecorator implements ClientConfigDecorator {
     private final ApacheConnectionPoolConfig config;
+    private final SharedHttpTransport sharedTransport;
     private PoolingHttpClientConnectionManager poolConnectionManager;
 
     /** Creates a new {@code ApacheConnectionPoolingClientConfigDecorator} object. */
     public ApacheConnectionPoolingClientConfigDecorator(
             @NonNull final ApacheConnectionPoolConfig config) {
         this.config = config;
+        this.sharedTransport = null;
+    }
+
+    /**
+     * Creates a new {@code ApacheConnectionPoolingClientConfigDecorator} object that attaches every client it
+     * configures to the given shared transport, instead of creating a connection pool per client.
+     *
+     * @param sharedTransport the shared transport
+     */
+    public ApacheConnectionPoolingClientConfigDecorator(
+            @NonNull final SharedHttpTransport sharedTransport) {
+        this.config = null;
+        this.sharedTransport = sharedTransport;
     }
 
     /**
@@ -57,6 +73,11 @@ public class ApacheConnectionPoolingClientConfigDecorator implements ClientConfi
                         "ConnectorProvider of type [%s] is not supported. Expected ApacheConnectorProvider",
                         provider.getClass().getCanonicalName()));
 
+        if (sharedTransport != null) {
+            attachToSharedTransport(clientConfig);
+            return;
+        }
+
         LOG.info("ApacheConnectionPoolConfig: {}", config);
 
         final Pair<Integer, TimeUnit> ttl = config.getTtl();
@@ -69,4 +90,38 @@ public class ApacheConnectionPoolingClientConfigDecorator implements ClientConfi
 
         clientConfig.property(ApacheClientProperties.CONNECTION_MANAGER, poolConnectionManager);
     }
+
+    private void attachToSharedTransport(ClientConfig clientConfig) {
+        if (sharedTransport.isShutdown()) {
+            throw new IllegalStateException("The shared HTTP transport has been shut down");
+        }
+        poolConnectionManager = sharedTransport.getConnectionManager();
+
+        clientConfig.property(ApacheClientProperties.CONNECTION_MANAGER, poolConnectionManager);
+        // the transport shuts the pool down once the last client has been closed
+        clientConfig.property(ApacheClientProperties.CONNECTION_MANAGER_SHARED, true);
+        clientConfig.executorService(sharedTransport.getAsyncExecutor());
+        clientConfig.register(new SharedTransportReference(sharedTransport));
+    }
+
+    /**
+     * Holds a reference to the shared transport while the Jersey client runtime is open.
+     */
+    private static class SharedTransportReference implements ClientLifecycleListener {
+        private final SharedHttpTransport sharedTransport;
+
+        SharedTransportReference(SharedHttpTransport sharedTransport) {
+            this.sharedTransport = sharedTransport;
+        }
+
+        @Override
+        public void onInit() {
+            sharedTransport.retain();
+        }
+
+        @Override
+        public void onClose() {
+            sharedTransport.release();
+        }
+    }
 }
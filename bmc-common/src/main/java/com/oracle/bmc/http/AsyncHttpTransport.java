@@ -0,0 +1,98 @@
+/**
+ * Copyright (c) 2016, 2021, Oracle and/or its affiliates.  All rights reserved.
+ * This software is dual-licensed to you under the Universal Permissive License (UPL) 1.0 as shown at https://oss.oracle.com/licenses/upl or Apache License 2.0 as shown at http://www.apache.org/licenses/LICENSE-2.0. You may choose either license.
+ */
+package com.oracle.bmc.http;
+
+import lombok.Builder;
+import lombok.NonNull;
+import lombok.Value;
+
+import java.io.InputStream;
+import java.net.URI;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A non-blocking HTTP transport, used by clients configured with
+ * {@link AsyncHttpTransportConfigurator}.
+ * <p>
+ * The requests have been filtered and signed by the client before they reach the transport, and the
+ * responses are handled by the client like any other response.  Asynchronous calls only occupy a
+ * client thread while the request is prepared; waiting for the response is left to the transport,
+ * so the number of calls in flight is limited by the transport's connections, not by
+ * {@link com.oracle.bmc.ClientConfiguration#getMaxAsyncThreads()}.
+ * <p>
+ * Implementations are typically based on an event loop, for example Apache HttpAsyncClient, or the
+ * {@code java.net.http.HttpClient} on Java 11 and later.  The returned future must not be completed
+ * on a thread that the response body stream depends on, since the client reads the body from the
+ * thread that completes the future.
+ * <p>
+ * The transport is not closed by the clients that use it.
+ */
+public interface AsyncHttpTransport {
+
+    /**
+     * Sends a request.
+     *
+     * @param request
+     *            The request to send.
+     * @return A future for the response, completed exceptionally if no response was received.
+     *         Timeouts should complete it with a {@link java.net.SocketTimeoutException}, so they
+     *         are reported as timeouts.
+     */
+    CompletableFuture<HttpResponse> send(HttpRequest request);
+
+    /**
+     * A request to send.
+     */
+    @Value
+    @Builder
+    class HttpRequest {
+        /**
+         * The HTTP method.
+         */
+        @NonNull String method;
+        /**
+         * The request URI.
+         */
+        @NonNull URI uri;
+        /**
+         * The request headers.
+         */
+        @NonNull Map<String, List<String>> headers;
+        /**
+         * The request body, or null if the request has none.
+         */
+        byte[] body;
+        /**
+         * The connect timeout in milliseconds, 0 for no timeout.
+         */
+        int connectTimeoutMillis;
+        /**
+         * The read timeout in milliseconds, 0 for no timeout.
+         */
+        int readTimeoutMillis;
+    }
+
+    /**
+     * A response received.
+     */
+    @Value
+    @Builder
+    class HttpResponse {
+        /**
+         * The HTTP status code.
+         */
+        int status;
+        /**
+         * The response headers.
+         */
+        @NonNull Map<String, List<String>> headers;
+        /**
+         * The response body, or null if the response has none.
+         */
+        InputStream body;
+    }
+}
@@ -0,0 +1,120 @@
+/**
+ * Copyright (c) 2016, 2021, Oracle and/or its affiliates.  All rights reserved.
+ * This software is dual-licensed to you under the Universal Permissive License (UPL) 1.0 as shown at https://oss.oracle.com/licenses/upl or Apache License 2.0 as shown at http://www.apache.org/licenses/LICENSE-2.0. You may choose either license.
+ */
+package com.oracle.bmc.http;
+
+import com.oracle.bmc.http.internal.AsyncHttpTransportConnector;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import org.glassfish.jersey.client.ClientConfig;
+import org.glassfish.jersey.client.HttpUrlConnectorProvider;
+import org.glassfish.jersey.client.JerseyClient;
+
+import javax.ws.rs.client.Client;
+import javax.ws.rs.client.ClientBuilder;
+import java.util.LinkedList;
+import java.util.List;
+
+/**
+ * A {@code ClientConfigurator} implementation that sends the requests of the client through an
+ * {@link AsyncHttpTransport}.  Asynchronous calls then do not hold a client thread while they wait
+ * for the response.  Synchronous calls wait for the transport.
+ * <p>
+ * Request bodies are buffered in memory before they are handed to the transport, except for
+ * {@link java.io.InputStream} and {@link java.io.File} bodies, for example object uploads.  Those
+ * are sent with Jersey's default {@code HttpUrlConnector} instead, which streams the body and blocks
+ * while it is sent, as it does without this configurator.
+ * <p>
+ * TLS is handled by the transport.  A client with an SSL context other than the default one is
+ * rejected when the connector is created, since the transport would not use that context; configure
+ * TLS on the transport instead.
+ */
+@Slf4j
+public class AsyncHttpTransportConfigurator
+        implements ClientConfigurator, SetsClientBuilderProperties {
+    /** The list of {@code ClientConfigDecorator}s to support the ability to decorate {@code ClientConfig} */
+    protected final List<ClientConfigDecorator> clientConfigDecorators = new LinkedList<>();
+
+    static {
+        // the connector for streamed bodies is the HttpUrlConnector, which needs this property
+        JerseyDefaultConnectorConfigurator.setAllowRestrictedHeadersProperty(
+                System.getProperty(
+                        JerseyDefaultConnectorConfigurator.SUN_NET_HTTP_ALLOW_RESTRICTED_HEADERS));
+    }
+
+    private final AsyncHttpTransport transport;
+
+    /**
+     * Creates a new {@code AsyncHttpTransportConfigurator} object.
+     *
+     * @param transport the transport to send the requests with
+     */
+    public AsyncHttpTransportConfigurator(@NonNull AsyncHttpTransport transport) {
+        this.transport = transport;
+    }
+
+    /**
+     * Creates a new {@code AsyncHttpTransportConfigurator} and registers the list of provided
+     * {@code ClientConfigDecorator}s.
+     *
+     * @param transport the transport to send the requests with
+     * @param clientConfigDecorators the list of client configuration decorators
+     */
+    public AsyncHttpTransportConfigurator(
+            @NonNull AsyncHttpTransport transport,
+            List<ClientConfigDecorator> clientConfigDecorators) {
+        this.transport = transport;
+        this.clientConfigDecorators.addAll(clientConfigDecorators);
+    }
+
+    @Override
+    public void customizeBuilder(ClientBuilder builder) {
+        setConnectorProvider(builder);
+    }
+
+    @Override
+    public void customizeClient(Client client) {
+        // bodies for the transport are buffered by the connector; streamed bodies are sent with
+        // fixed length streaming, which buffered request entity processing would disable
+    }
+
+    @Override
+    public void setConnectorProvider(ClientBuilder builder) {
+        LOG.info("Setting connector provider to {}", transport.getClass().getName());
+
+        final ClientConfig clientConfig = new ClientConfig();
+        clientConfig.connectorProvider(
+                (client, runtimeConfig) -> {
+                    if (client instanceof JerseyClient
+                            && !((JerseyClient) client).isDefaultSslContext()) {
+                        throw new IllegalStateException(
+                                "The client has a custom SSL context, which the "
+                                        + transport.getClass().getName()
+                                        + " transport does not use. Configure TLS on the transport instead.");
+                    }
+                    return new AsyncHttpTransportConnector(
+                            transport,
+                            new HttpUrlConnectorProvider()
+                                    .useSetMethodWorkaround()
+                                    .useFixedLengthStreaming()
+                                    .getConnector(client, runtimeConfig));
+                });
+        for (ClientConfigDecorator clientConfigDecorator : clientConfigDecorators) {
+            clientConfigDecorator.customizeClientConfig(clientConfig);
+        }
+
+        builder.withConfig(clientConfig);
+    }
+
+    /**
+     * Does not set an SSL context, since TLS is configured on the transport.  A client with an SSL
+     * context other than the default one is rejected when its connector is created.
+     *
+     * @param builder the client builder
+     */
+    @Override
+    public void setSslContext(ClientBuilder builder) {
+        // TLS is configured on the transport
+    }
+}
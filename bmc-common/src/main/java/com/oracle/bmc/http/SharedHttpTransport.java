@@ -0,0 +1,208 @@
+/**
+ * Copyright (c) 2016, 2021, Oracle and/or its affiliates.  All rights reserved.
+ * This software is dual-licensed to you under the Universal Permissive License (UPL) 1.0 as shown at https://oss.oracle.com/licenses/upl or Apache License 2.0 as shown at http://www.apache.org/licenses/LICENSE-2.0. You may choose either license.
+ */
+package com.oracle.bmc.http;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.Singular;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.tuple.Pair;
+import org.apache.http.HttpHost;
+import org.apache.http.config.Registry;
+import org.apache.http.config.RegistryBuilder;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.conn.socket.ConnectionSocketFactory;
+import org.apache.http.conn.socket.PlainConnectionSocketFactory;
+import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.pool.PoolStats;
+
+import javax.net.ssl.HostnameVerifier;
+import javax.net.ssl.SSLContext;
+import java.net.URI;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * An HTTP transport that many clients can share: one connection pool, one TLS context (and with it
+ * one TLS session cache), and one executor for asynchronous requests.  Request signers, endpoints
+ * and filters stay per client.
+ * <p>
+ * Clients attach to the transport through
+ * {@link ApacheConnectionPoolingClientConfigDecorator#ApacheConnectionPoolingClientConfigDecorator(SharedHttpTransport)},
+ * for example:
+ * <pre>
+ * SharedHttpTransport transport = SharedHttpTransport.builder().build();
+ * ClientConfigurator configurator =
+ *         new ApacheConfigurator(
+ *                 Collections.singletonList(
+ *                         new ApacheConnectionPoolingClientConfigDecorator(transport)));
+ * </pre>
+ * <p>
+ * The transport is reference-counted.  Every client holds a reference from its first request until
+ * it is closed, and the creator holds one until it calls {@link #close()}.  The connection pool and
+ * the executor are shut down once all references have been released.
+ */
+@Slf4j
+public class SharedHttpTransport implements AutoCloseable {
+    private static final int DEFAULT_MAX_ASYNC_THREADS = 50;
+
+    /**
+     * The connection pool shared by the clients.
+     */
+    @Getter private final PoolingHttpClientConnectionManager connectionManager;
+
+    /**
+     * The executor for asynchronous requests shared by the clients.
+     */
+    @Getter private final ExecutorService asyncExecutor;
+
+    private final AtomicInteger references = new AtomicInteger(1);
+    private final AtomicBoolean closed = new AtomicBoolean();
+
+    /**
+     * Creates a new shared transport.
+     * @param connectionPoolConfig The size of the pool.  Defaults to
+     *      {@link ApacheConnectionPoolConfig#newDefault()}.
+     * @param maxConnectionsPerEndpoints The maximum number of connections to specific endpoints, for
+     *      example {@code https://objectstorage.us-phoenix-1.oraclecloud.com}.  Other endpoints use
+     *      the default of the pool configuration.
+     * @param sslContext The TLS context.  Defaults to the default context of the JVM.
+     * @param hostnameVerifier The hostname verifier.  Only used with sslContext.
+     * @param maxAsyncThreads The number of threads for asynchronous requests.  Defaults to 50.
+     */
+    @Builder
+    private SharedHttpTransport(
+            ApacheConnectionPoolConfig connectionPoolConfig,
+            @Singular Map<String, Integer> maxConnectionsPerEndpoints,
+            SSLContext sslContext,
+            HostnameVerifier hostnameVerifier,
+            Integer maxAsyncThreads) {
+        final ApacheConnectionPoolConfig poolConfig =
+                connectionPoolConfig != null
+                        ? connectionPoolConfig
+                        : ApacheConnectionPoolConfig.newDefault();
+        final Registry<ConnectionSocketFactory> registry =
+                RegistryBuilder.<ConnectionSocketFactory>create()
+                        .register("http", PlainConnectionSocketFactory.getSocketFactory())
+                        .register(
+                                "https",
+                                sslContext != null
+                                        ? new SSLConnectionSocketFactory(
+                                                sslContext, hostnameVerifier)
+                                        : SSLConnectionSocketFactory.getSocketFactory())
+                        .build();
+        final Pair<Integer, TimeUnit> ttl = poolConfig.getTtl();
+        this.connectionManager =
+                (ttl != null)
+                        ? new PoolingHttpClientConnectionManager(
+                                registry, null, null, null, ttl.getLeft(), ttl.getRight())
+                        : new PoolingHttpClientConnectionManager(registry);
+        this.connectionManager.setMaxTotal(poolConfig.getTotalOpenConnections());
+        this.connectionManager.setDefaultMaxPerRoute(
+                poolConfig.getDefaultMaxConnectionsPerRoute());
+        for (Map.Entry<String, Integer> entry : maxConnectionsPerEndpoints.entrySet()) {
+            this.connectionManager.setMaxPerRoute(toRoute(entry.getKey()), entry.getValue());
+        }
+
+        final int threads = maxAsyncThreads != null ? maxAsyncThreads : DEFAULT_MAX_ASYNC_THREADS;
+        final ThreadPoolExecutor executor =
+                new ThreadPoolExecutor(
+                        threads,
+                        threads,
+                        60L,
+                        TimeUnit.SECONDS,
+                        new LinkedBlockingQueue<Runnable>(),
+                        new ThreadFactoryBuilder()
+                                .setDaemon(true)
+                                .setNameFormat("oci-shared-transport-%d")
+                                .build());
+        executor.allowCoreThreadTimeOut(true);
+        this.asyncExecutor = executor;
+    }
+
+    /**
+     * Returns the route the connection pool uses for the given endpoint.
+     */
+    static HttpRoute toRoute(String endpoint) {
+        final URI uri = URI.create(endpoint);
+        if (uri.getHost() == null) {
+            throw new IllegalArgumentException("Endpoint has no host: " + endpoint);
+        }
+        final boolean secure = !"http".equalsIgnoreCase(uri.getScheme());
+        final int port = uri.getPort() != -1 ? uri.getPort() : (secure ? 443 : 80);
+        return new HttpRoute(
+                new HttpHost(uri.getHost(), port, secure ? "https" : "http"), null, secure);
+    }
+
+    /**
+     * Adds a reference to the transport.
+     * @throws IllegalStateException if the transport has been shut down
+     */
+    void retain() {
+        while (true) {
+            final int current = references.get();
+            if (current == 0) {
+                throw new IllegalStateException("The shared HTTP transport has been shut down");
+            }
+            if (references.compareAndSet(current, current + 1)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Releases a reference to the transport, and shuts it down if that was the last one.
+     */
+    void release() {
+        if (references.decrementAndGet() == 0) {
+            LOG.debug("Shutting down the shared HTTP transport");
+            connectionManager.shutdown();
+            asyncExecutor.shutdown();
+        }
+    }
+
+    /**
+     * Returns true if all references have been released, and the transport has been shut down.
+     * @return true if shut down
+     */
+    public boolean isShutdown() {
+        return references.get() == 0;
+    }
+
+    /**
+     * Returns the number of references to the transport, including the one of its creator if it
+     * has not been closed yet.
+     * @return the number of references
+     */
+    public int getReferenceCount() {
+        return references.get();
+    }
+
+    /**
+     * Returns the statistics of the connection pool across all endpoints.
+     * @return the pool statistics
+     */
+    public PoolStats getPoolStats() {
+        return connectionManager.getTotalStats();
+    }
+
+    /**
+     * Releases the reference of the creator.  The transport is shut down once the clients using it
+     * have been closed as well.  Calling this more than once has no effect.
+     */
+    @Override
+    public void close() {
+        if (closed.compareAndSet(false, true)) {
+            release();
+        }
+    }
+}
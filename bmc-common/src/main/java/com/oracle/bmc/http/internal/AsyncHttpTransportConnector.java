@@ -0,0 +1,189 @@
+/**
+ * Copyright (c) 2016, 2021, Oracle and/or its affiliates.  All rights reserved.
+ * This software is dual-licensed to you under the Universal Permissive License (UPL) 1.0 as shown at https://oss.oracle.com/licenses/upl or Apache License 2.0 as shown at http://www.apache.org/licenses/LICENSE-2.0. You may choose either license.
+ */
+package com.oracle.bmc.http.internal;
+
+import com.oracle.bmc.http.AsyncHttpTransport;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import org.glassfish.jersey.client.ClientProperties;
+import org.glassfish.jersey.client.ClientRequest;
+import org.glassfish.jersey.client.ClientResponse;
+import org.glassfish.jersey.client.spi.AsyncConnectorCallback;
+import org.glassfish.jersey.client.spi.Connector;
+import org.glassfish.jersey.message.internal.Statuses;
+
+import javax.ws.rs.ProcessingException;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+/**
+ * Jersey connector that sends the requests through an {@link AsyncHttpTransport}.
+ * <p>
+ * Jersey runs the request filters, including signing, before the connector, and the response
+ * filters and the conversion of the response after it.  For asynchronous calls the connector only
+ * hands the request to the transport and returns; the response is processed on the thread that
+ * completes the transport's future.
+ * <p>
+ * The transport is given the request body as a byte array.  Requests with an {@link InputStream}
+ * or {@link File} body, for example object uploads, are not buffered in memory; they are sent
+ * through the streaming connector instead, which blocks while the body is sent.
+ */
+@RequiredArgsConstructor
+public class AsyncHttpTransportConnector implements Connector {
+    @NonNull private final AsyncHttpTransport transport;
+    @NonNull private final Connector streamingConnector;
+
+    @Override
+    public ClientResponse apply(ClientRequest request) {
+        if (isStreamed(request)) {
+            return streamingConnector.apply(request);
+        }
+        final CompletableFuture<AsyncHttpTransport.HttpResponse> future = send(request);
+        try {
+            return toClientResponse(request, future.get());
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new ProcessingException("Interrupted while waiting for the response", e);
+        } catch (ExecutionException e) {
+            throw toProcessingException(e.getCause());
+        }
+    }
+
+    @Override
+    public Future<?> apply(ClientRequest request, AsyncConnectorCallback callback) {
+        if (isStreamed(request)) {
+            return streamingConnector.apply(request, callback);
+        }
+        final CompletableFuture<AsyncHttpTransport.HttpResponse> future;
+        try {
+            future = send(request);
+        } catch (ProcessingException e) {
+            callback.failure(e);
+            return CompletableFuture.completedFuture(null);
+        }
+        future.whenComplete(
+                (response, throwable) -> {
+                    if (throwable != null) {
+                        callback.failure(toProcessingException(throwable));
+                        return;
+                    }
+                    final ClientResponse clientResponse;
+                    try {
+                        clientResponse = toClientResponse(request, response);
+                    } catch (RuntimeException e) {
+                        closeQuietly(response);
+                        callback.failure(toProcessingException(e));
+                        return;
+                    }
+                    callback.response(clientResponse);
+                });
+        return future;
+    }
+
+    @Override
+    public String getName() {
+        return transport.getClass().getName();
+    }
+
+    @Override
+    public void close() {
+        // the transport may be shared, it is closed by its owner
+        streamingConnector.close();
+    }
+
+    /**
+     * Returns true if the body of the request is a stream, which is not buffered in memory.
+     */
+    private static boolean isStreamed(ClientRequest request) {
+        final Object entity = request.hasEntity() ? request.getEntity() : null;
+        return entity instanceof InputStream || entity instanceof File;
+    }
+
+    private CompletableFuture<AsyncHttpTransport.HttpResponse> send(ClientRequest request) {
+        final byte[] body = writeEntity(request);
+        final Map<String, List<String>> headers = new LinkedHashMap<>();
+        for (Map.Entry<String, List<String>> header : request.getStringHeaders().entrySet()) {
+            headers.put(header.getKey(), new ArrayList<>(header.getValue()));
+        }
+        final CompletableFuture<AsyncHttpTransport.HttpResponse> future =
+                transport.send(
+                        AsyncHttpTransport.HttpRequest.builder()
+                                .method(request.getMethod())
+                                .uri(request.getUri())
+                                .headers(headers)
+                                .body(body)
+                                .connectTimeoutMillis(
+                                        request.resolveProperty(
+                                                ClientProperties.CONNECT_TIMEOUT, 0))
+                                .readTimeoutMillis(
+                                        request.resolveProperty(ClientProperties.READ_TIMEOUT, 0))
+                                .build());
+        if (future == null) {
+            throw new ProcessingException("The transport did not return a future");
+        }
+        return future;
+    }
+
+    private static byte[] writeEntity(ClientRequest request) {
+        if (!request.hasEntity()) {
+            return null;
+        }
+        final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        request.setStreamProvider(contentLength -> buffer);
+        try {
+            request.writeEntity();
+        } catch (IOException e) {
+            throw new ProcessingException("Failed to write the request body", e);
+        }
+        return buffer.toByteArray();
+    }
+
+    private static ClientResponse toClientResponse(
+            ClientRequest request, AsyncHttpTransport.HttpResponse response) {
+        final ClientResponse clientResponse =
+                new ClientResponse(Statuses.from(response.getStatus()), request);
+        for (Map.Entry<String, List<String>> header : response.getHeaders().entrySet()) {
+            clientResponse.headers(header.getKey(), header.getValue());
+        }
+        clientResponse.setEntityStream(
+                response.getBody() != null
+                        ? response.getBody()
+                        : new ByteArrayInputStream(new byte[0]));
+        return clientResponse;
+    }
+
+    private static ProcessingException toProcessingException(Throwable throwable) {
+        if (throwable instanceof CompletionException && throwable.getCause() != null) {
+            throwable = throwable.getCause();
+        }
+        if (throwable instanceof ProcessingException) {
+            return (ProcessingException) throwable;
+        }
+        return new ProcessingException(throwable.getMessage(), throwable);
+    }
+
+    private static void closeQuietly(AsyncHttpTransport.HttpResponse response) {
+        if (response.getBody() == null) {
+            return;
+        }
+        try {
+            response.getBody().close();
+        } catch (IOException e) {
+            // the response is discarded anyway
+        }
+    }
+}
@@ -14,6 +14,7 @@ import javax.ws.rs.client.ClientRequestFilter;
 import javax.ws.rs.core.MultivaluedMap;
 
 import com.oracle.bmc.http.signing.RequestSigner;
+import com.oracle.bmc.instrumentation.Instrumentations;
 
 import com.oracle.bmc.http.signing.SigningStrategy;
 import lombok.NonNull;
@@ -45,6 +46,8 @@ public class AuthnClientFilter implements ClientRequestFilter {
             clientRequestContext.removeProperty(SIGNING_STRATEGY_PROPERTY_NAME);
         }
 
+        final boolean instrumented = Instrumentations.isEnabled();
+        final long start = instrumented ? System.nanoTime() : 0L;
         MultivaluedMap<String, String> stringHeaders = clientRequestContext.getStringHeaders();
         Map<String, String> authHeaders =
                 chosenRequestSigner.signRequest(
@@ -52,6 +55,10 @@ public class AuthnClientFilter implements ClientRequestFilter {
                         clientRequestContext.getMethod(),
                         stringHeaders,
                         clientRequestContext.getEntity());
+        if (instrumented) {
+            Instrumentations.onRequestSigned(
+                    clientRequestContext.getMethod(), System.nanoTime() - start);
+        }
 
         MultivaluedMap<String, Object> headers = clientRequestContext.getHeaders();
         for (Map.Entry<String, String> e : authHeaders.entrySet()) {
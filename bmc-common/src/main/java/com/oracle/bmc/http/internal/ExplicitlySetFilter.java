@@ -12,15 +12,39 @@ import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
 import com.google.common.base.CaseFormat;
 import lombok.extern.slf4j.Slf4j;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Field;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
+/**
+ * Filter that only serializes null-valued properties if they were explicitly set to null.
+ * <p>
+ * The fields and the {@code __explicitlySet__} field of each model class are looked up once and
+ * cached as method handles, so serializing a field does not require any reflective lookup or
+ * access check.
+ */
 @Slf4j
 public class ExplicitlySetFilter extends SimpleBeanPropertyFilter {
     public static final ExplicitlySetFilter INSTANCE = new ExplicitlySetFilter();
     public static final String NAME = "explicitlySetFilter";
     public static final String FIELD_NAME = "__explicitlySet__";
 
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+    private static final MethodType GETTER_TYPE =
+            MethodType.methodType(Object.class, Object.class);
+
+    private static final ClassValue<PojoAccessors> ACCESSORS =
+            new ClassValue<PojoAccessors>() {
+                @Override
+                protected PojoAccessors computeValue(Class<?> pojoClass) {
+                    return new PojoAccessors(pojoClass);
+                }
+            };
+
     private ExplicitlySetFilter() {}
 
     @Override
@@ -28,31 +52,18 @@ public class ExplicitlySetFilter extends SimpleBeanPropertyFilter {
             Object pojo, JsonGenerator jgen, SerializerProvider provider, PropertyWriter writer)
             throws Exception {
         if (include(writer)) {
-            Field field = getMatchingDeclaredField(pojo.getClass(), writer.getName());
-            boolean accessible = field.isAccessible();
-            try {
-                field.setAccessible(true);
-                Object fieldValue = field.get(pojo);
-                if (fieldValue != null) {
-                    // not null, definitely serialize
+            PojoAccessors accessors = ACCESSORS.get(pojo.getClass());
+            Object fieldValue = accessors.getFieldValue(pojo, writer.getName());
+            if (fieldValue != null) {
+                // not null, definitely serialize
+                writer.serializeAsField(pojo, jgen, provider);
+            } else {
+                // null, find out if null was explicitly set
+                Set<String> explicitlySet = accessors.getExplicitlySet(pojo);
+                if (explicitlySet.contains(writer.getName())) {
+                    // explicitly set, serialize
                     writer.serializeAsField(pojo, jgen, provider);
-                } else {
-                    // null, find out if null was explicitly set
-                    Field explicitField = pojo.getClass().getDeclaredField(FIELD_NAME);
-                    boolean explicitAccessible = explicitField.isAccessible();
-                    try {
-                        explicitField.setAccessible(true);
-                        Set<String> explicitlySet = (Set<String>) explicitField.get(pojo);
-                        if (explicitlySet.contains(writer.getName())) {
-                            // explicitly set, serialize
-                            writer.serializeAsField(pojo, jgen, provider);
-                        }
-                    } finally {
-                        explicitField.setAccessible(explicitAccessible);
-                    }
                 }
-            } finally {
-                field.setAccessible(accessible);
             }
         } else if (!jgen.canOmitFields()) { // since 2.3
             writer.serializeAsOmittedField(pojo, jgen, provider);
@@ -86,6 +97,66 @@ public class ExplicitlySetFilter extends SimpleBeanPropertyFilter {
                 pojoClass, CaseFormat.LOWER_UNDERSCORE.to(CaseFormat.LOWER_CAMEL, fieldName));
     }
 
+    private static MethodHandle getter(Field field) throws IllegalAccessException {
+        field.setAccessible(true);
+        return LOOKUP.unreflectGetter(field).asType(GETTER_TYPE);
+    }
+
+    private static Object invokeGetter(MethodHandle getter, Object pojo) throws Exception {
+        try {
+            return getter.invokeExact(pojo);
+        } catch (Exception | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new IllegalStateException(t);
+        }
+    }
+
+    /**
+     * Cached field getters for a single model class.
+     * <p>
+     * The class itself is not kept here, it is the class of the model being serialized.
+     */
+    private static final class PojoAccessors {
+        /**
+         * The getter of the {@code __explicitlySet__} field, or null if the class does not declare
+         * it.
+         */
+        private final MethodHandle explicitlySetGetter;
+        /**
+         * Map from the property name to the getter of the matching field.
+         */
+        private final ConcurrentMap<String, MethodHandle> getters = new ConcurrentHashMap<>();
+
+        private PojoAccessors(Class<?> pojoClass) {
+            MethodHandle getter = null;
+            try {
+                getter = getter(pojoClass.getDeclaredField(FIELD_NAME));
+            } catch (NoSuchFieldException | IllegalAccessException e) {
+                LOG.debug("No accessible {} field in {}", FIELD_NAME, pojoClass.getName());
+            }
+            this.explicitlySetGetter = getter;
+        }
+
+        private Object getFieldValue(Object pojo, String propertyName) throws Exception {
+            MethodHandle getter = getters.get(propertyName);
+            if (getter == null) {
+                // only cache successful lookups, a missing field fails the serialization anyway
+                getter = getter(getMatchingDeclaredField(pojo.getClass(), propertyName));
+                getters.putIfAbsent(propertyName, getter);
+            }
+            return invokeGetter(getter, pojo);
+        }
+
+        @SuppressWarnings("unchecked")
+        private Set<String> getExplicitlySet(Object pojo) throws Exception {
+            if (explicitlySetGetter == null) {
+                throw new NoSuchFieldException(FIELD_NAME);
+            }
+            return (Set<String>) invokeGetter(explicitlySetGetter, pojo);
+        }
+    }
+
     @Override
     protected boolean include(BeanPropertyWriter writer) {
         return !FIELD_NAME.equals(writer.getName());
@@ -0,0 +1,217 @@
+/**
+ * Copyright (c) 2016, 2021, Oracle and/or its affiliates.  All rights reserved.
+ * This software is dual-licensed to you under the Universal Permissive License (UPL) 1.0 as shown at https://oss.oracle.com/licenses/upl or Apache License 2.0 as shown at http://www.apache.org/licenses/LICENSE-2.0. You may choose either license.
+ */
+package com.oracle.bmc.http.internal;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.oracle.bmc.model.BmcException;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Iterates over the items of a JSON array while it is being read, so that only one item is held in
+ * memory at a time.
+ * <p>
+ * The array is either the whole document, or the value of a property of the top-level object.
+ * The other properties of the object are kept as JSON trees, see {@link #getOtherProperties()}.
+ * <p>
+ * The iterator closes the input once the array and the rest of the document have been read, or if
+ * reading fails.  Close it explicitly if the iteration is stopped early.
+ *
+ * @param <T> the type of the items
+ */
+@Slf4j
+public class JsonItemIterator<T> implements Iterator<T>, Closeable {
+    private final JsonParser parser;
+    private final ObjectReader itemReader;
+    private final String itemsProperty;
+    private final Closeable onClose;
+    private final String opcRequestId;
+    private final Map<String, JsonNode> otherProperties = new LinkedHashMap<>();
+
+    private boolean inArray;
+    private boolean isNull;
+    private boolean hasPeeked;
+    private boolean done;
+    private boolean closed;
+
+    /**
+     * Creates a new iterator.
+     * @param mapper the mapper used to read the items
+     * @param parser the parser of the document, before its first token
+     * @param itemType the type of the items
+     * @param itemsProperty the property of the top-level object that holds the items, or null if
+     *                      the document is the array
+     * @param onClose closed together with the parser, may be null
+     * @param opcRequestId the request id reported with errors, may be null
+     */
+    public JsonItemIterator(
+            ObjectMapper mapper,
+            JsonParser parser,
+            Class<T> itemType,
+            String itemsProperty,
+            Closeable onClose,
+            String opcRequestId) {
+        // the input is closed through onClose
+        this.parser = parser.disable(JsonParser.Feature.AUTO_CLOSE_SOURCE);
+        this.itemReader = mapper.readerFor(itemType);
+        this.itemsProperty = itemsProperty;
+        this.onClose = onClose;
+        this.opcRequestId = opcRequestId;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (done) {
+            return false;
+        }
+        if (hasPeeked) {
+            return true;
+        }
+        try {
+            if (!inArray) {
+                inArray = findArray();
+                if (!inArray) {
+                    isNull = true;
+                    finish();
+                    return false;
+                }
+            }
+            final JsonToken token = parser.nextToken();
+            if (token == JsonToken.END_ARRAY) {
+                finish();
+                return false;
+            }
+            if (token == null) {
+                throw new IOException("Unexpected end of the array");
+            }
+            hasPeeked = true;
+            return true;
+        } catch (IOException e) {
+            throw failed(e);
+        }
+    }
+
+    @Override
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        hasPeeked = false;
+        try {
+            return itemReader.readValue(parser);
+        } catch (IOException e) {
+            throw failed(e);
+        }
+    }
+
+    /**
+     * Returns the properties of the top-level object other than the items.  Properties that come
+     * after the items are only available once all items have been read.
+     * @return the other properties, by name
+     */
+    public Map<String, JsonNode> getOtherProperties() {
+        return Collections.unmodifiableMap(otherProperties);
+    }
+
+    /**
+     * Returns true if the items were null or missing, instead of an array.  Only known once
+     * {@link #hasNext()} has been called.
+     * @return true if there was no array
+     */
+    public boolean isNull() {
+        return isNull;
+    }
+
+    @Override
+    public void close() {
+        done = true;
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            parser.close();
+        } catch (IOException e) {
+            LOG.debug("Failed to close the parser", e);
+        }
+        if (onClose != null) {
+            try {
+                onClose.close();
+            } catch (IOException e) {
+                LOG.debug("Failed to close the input", e);
+            }
+        }
+    }
+
+    /**
+     * Moves the parser to the start of the array.
+     * @return false if there is no array, because the items are null
+     */
+    private boolean findArray() throws IOException {
+        JsonToken token = parser.nextToken();
+        if (itemsProperty == null) {
+            // an empty document is read like null
+            if (token == null || token == JsonToken.VALUE_NULL) {
+                return false;
+            }
+            expect(token, JsonToken.START_ARRAY);
+            return true;
+        }
+        expect(token, JsonToken.START_OBJECT);
+        while ((token = parser.nextToken()) == JsonToken.FIELD_NAME) {
+            final String name = parser.getCurrentName();
+            token = parser.nextToken();
+            if (itemsProperty.equals(name)) {
+                if (token == JsonToken.VALUE_NULL) {
+                    return false;
+                }
+                expect(token, JsonToken.START_ARRAY);
+                return true;
+            }
+            otherProperties.put(name, parser.readValueAsTree());
+        }
+        expect(token, JsonToken.END_OBJECT);
+        return false;
+    }
+
+    /**
+     * Reads the rest of the top-level object, and closes the input.
+     */
+    private void finish() throws IOException {
+        if (itemsProperty != null && inArray) {
+            JsonToken token;
+            while ((token = parser.nextToken()) == JsonToken.FIELD_NAME) {
+                final String name = parser.getCurrentName();
+                parser.nextToken();
+                otherProperties.put(name, parser.readValueAsTree());
+            }
+            expect(token, JsonToken.END_OBJECT);
+        }
+        close();
+    }
+
+    private void expect(JsonToken actual, JsonToken expected) throws IOException {
+        if (actual != expected) {
+            throw new IOException("Expected " + expected + " but found " + actual);
+        }
+    }
+
+    private BmcException failed(IOException e) {
+        close();
+        return new BmcException(false, "Failed to read the response items", e, opcRequestId);
+    }
+}
@@ -0,0 +1,173 @@
+/**
+ * Copyright (c) 2016, 2021, Oracle and/or its affiliates.  All rights reserved.
+ * This software is dual-licensed to you under the Universal Permissive License (UPL) 1.0 as shown at https://oss.oracle.com/licenses/upl or Apache License 2.0 as shown at http://www.apache.org/licenses/LICENSE-2.0. You may choose either license.
+ */
+package com.oracle.bmc.http.internal;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.annotation.Priority;
+import javax.ws.rs.HttpMethod;
+import javax.ws.rs.Priorities;
+import javax.ws.rs.client.ClientRequestContext;
+import javax.ws.rs.client.ClientRequestFilter;
+import javax.ws.rs.client.ClientResponseContext;
+import javax.ws.rs.client.ClientResponseFilter;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MultivaluedMap;
+
+import com.oracle.bmc.cache.CachedResponse;
+import com.oracle.bmc.cache.ResponseCache;
+
+/**
+ * Filter that revalidates cached responses with {@code if-none-match}, and replaces a 304 Not
+ * Modified response with the cached response, see {@link ResponseCache}.
+ * <p>
+ * Only requests that have the {@link #CACHE_PROPERTY} and {@link #OPERATION_PROPERTY} properties
+ * set are handled, all others pass unchanged.
+ */
+@Priority(Priorities.HEADER_DECORATOR)
+public class ResponseCacheFilter implements ClientRequestFilter, ClientResponseFilter {
+    /**
+     * Property with the {@link ResponseCache} to use for the request.
+     */
+    static final String CACHE_PROPERTY = "com.oracle.bmc.http.internal.ResponseCache";
+
+    /**
+     * Property with the name of the operation of the request.
+     */
+    static final String OPERATION_PROPERTY = "com.oracle.bmc.http.internal.ResponseCacheOperation";
+
+    private static final String CACHED_RESPONSE_PROPERTY =
+            "com.oracle.bmc.http.internal.CachedResponse";
+    private static final String IF_NONE_MATCH = "if-none-match";
+    private static final String TRANSFER_ENCODING = "transfer-encoding";
+    private static final String[] CONDITIONAL_HEADERS = {
+        IF_NONE_MATCH, "if-match", "if-modified-since", "if-unmodified-since", "range"
+    };
+    private static final int NOT_MODIFIED = 304;
+    private static final int OK = 200;
+
+    @Override
+    public void filter(ClientRequestContext requestContext) throws IOException {
+        final ResponseCache cache = (ResponseCache) requestContext.getProperty(CACHE_PROPERTY);
+        if (cache == null) {
+            return;
+        }
+        if (!HttpMethod.GET.equals(requestContext.getMethod()) || isConditional(requestContext)) {
+            requestContext.removeProperty(CACHE_PROPERTY);
+            return;
+        }
+        final String operationName = (String) requestContext.getProperty(OPERATION_PROPERTY);
+        final CachedResponse cached =
+                cache.get(operationName, requestContext.getUri().toString());
+        if (cached != null) {
+            requestContext.getHeaders().putSingle(IF_NONE_MATCH, cached.getEtag());
+            requestContext.setProperty(CACHED_RESPONSE_PROPERTY, cached);
+        }
+    }
+
+    private static boolean isConditional(ClientRequestContext requestContext) {
+        for (String header : CONDITIONAL_HEADERS) {
+            if (requestContext.getHeaderString(header) != null) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public void filter(ClientRequestContext requestContext, ClientResponseContext responseContext)
+            throws IOException {
+        final ResponseCache cache = (ResponseCache) requestContext.getProperty(CACHE_PROPERTY);
+        if (cache == null) {
+            return;
+        }
+        final String key = requestContext.getUri().toString();
+        final CachedResponse cached =
+                (CachedResponse) requestContext.getProperty(CACHED_RESPONSE_PROPERTY);
+        if (cached != null && responseContext.getStatus() == NOT_MODIFIED) {
+            cache.onNotModified(key, cached);
+            replaceWithCachedResponse(responseContext, cached);
+            return;
+        }
+        if (responseContext.getStatus() != OK) {
+            return;
+        }
+        final String etag = responseContext.getHeaderString(HttpHeaders.ETAG);
+        if (etag == null || !responseContext.hasEntity()) {
+            cache.onModified(key, null, responseContext.getHeaders(), null);
+            return;
+        }
+        final byte[] body = readBody(responseContext, cache.getMaxEntryBytes());
+        cache.onModified(key, etag, copy(responseContext.getHeaders()), body);
+    }
+
+    private static void replaceWithCachedResponse(
+            ClientResponseContext responseContext, CachedResponse cached) {
+        final MultivaluedMap<String, String> headers = responseContext.getHeaders();
+        // the headers of the 304 response, like the request id, take precedence
+        final Map<String, List<String>> notModifiedHeaders = copy(headers);
+        notModifiedHeaders
+                .keySet()
+                .removeIf(
+                        name ->
+                                HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)
+                                        || TRANSFER_ENCODING.equalsIgnoreCase(name));
+        headers.clear();
+        for (Map.Entry<String, List<String>> header : cached.getHeaders().entrySet()) {
+            headers.put(header.getKey(), new ArrayList<>(header.getValue()));
+        }
+        for (Map.Entry<String, List<String>> header : notModifiedHeaders.entrySet()) {
+            headers.put(header.getKey(), header.getValue());
+        }
+        responseContext.setStatus(OK);
+        responseContext.setEntityStream(new ByteArrayInputStream(cached.getBody()));
+    }
+
+    /**
+     * Reads the body, if it is not larger than maxBytes, and replaces the entity stream so that it
+     * can be read again.
+     * @return the body, or null if it is too large
+     */
+    private static byte[] readBody(ClientResponseContext responseContext, long maxBytes)
+            throws IOException {
+        if (responseContext.getLength() > maxBytes) {
+            return null;
+        }
+        final InputStream in = responseContext.getEntityStream();
+        final ByteArrayOutputStream out =
+                new ByteArrayOutputStream(Math.max(responseContext.getLength(), 32));
+        final byte[] buffer = new byte[8192];
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            out.write(buffer, 0, read);
+            if (out.size() > maxBytes) {
+                // too large to cache, pass the rest of the stream through
+                responseContext.setEntityStream(
+                        new SequenceInputStream(new ByteArrayInputStream(out.toByteArray()), in));
+                return null;
+            }
+        }
+        in.close();
+        final byte[] body = out.toByteArray();
+        responseContext.setEntityStream(new ByteArrayInputStream(body));
+        return body;
+    }
+
+    private static Map<String, List<String>> copy(MultivaluedMap<String, String> headers) {
+        final Map<String, List<String>> copy = new LinkedHashMap<>();
+        for (Map.Entry<String, List<String>> header : headers.entrySet()) {
+            copy.put(header.getKey(), new ArrayList<>(header.getValue()));
+        }
+        return copy;
+    }
+}
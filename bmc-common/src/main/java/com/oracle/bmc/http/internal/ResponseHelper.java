@@ -6,9 +6,13 @@ package com.oracle.bmc.http.internal;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 
 import javax.ws.rs.ProcessingException;
 import javax.ws.rs.core.GenericType;
@@ -22,6 +26,7 @@ import com.fasterxml.jackson.databind.ObjectReader;
 import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 import com.fasterxml.jackson.databind.annotation.JsonPOJOBuilder;
 import com.google.common.base.Optional;
+import com.google.common.collect.MapMaker;
 import com.oracle.bmc.http.ApacheUtils;
 import com.oracle.bmc.io.internal.AutoCloseableContentLengthVerifyingInputStream;
 import com.oracle.bmc.io.internal.ContentLengthVerifyingInputStream;
@@ -47,6 +52,11 @@ public class ResponseHelper {
     private static final String OPC_REQUEST_ID_HEADER = "opc-request-id";
     private static final Map<Integer, String> DEFAULT_ERROR_MESSAGES = new HashMap<>();
     private static boolean SHOULD_AUTO_CLOSE_RESPONSE_INPUTSTREAM = true;
+    private static volatile boolean SHOULD_STREAM_LIST_ENTITIES = false;
+    // result of the list entities that were streamed, by response (compared by identity): the
+    // list, NULL_LIST, or the ProcessingException the read failed with
+    private static final Map<Response, Object> READ_LISTS = new MapMaker().weakKeys().makeMap();
+    private static final Object NULL_LIST = new Object();
 
     // mostly here for HEAD requests which wouldn't have a body to parse a nice message from.
     static {
@@ -184,11 +194,18 @@ public class ResponseHelper {
      *            the type of the entity to read
      * @return the entity (if the response's status code was 2xx)
      */
+    @SuppressWarnings("unchecked")
     public static <T> T readEntity(@NonNull final Response response, GenericType<T> entityType) {
         // synchronized for async handlers where both an AsyncHandler and a Future might try to
         // handle the response
         synchronized (response) {
             if (response.getStatusInfo().getFamily().equals(Status.Family.SUCCESSFUL)) {
+                final Class<?> itemType =
+                        SHOULD_STREAM_LIST_ENTITIES ? getListItemType(entityType) : null;
+                if (itemType != null) {
+                    return (T) readEntityList(response, itemType);
+                }
+
                 // buffer entity so it can be reread during client parsing (ex, async requests reading
                 // through both an AsyncHandler and through the returned Future)
                 response.bufferEntity();
@@ -294,6 +311,159 @@ public class ResponseHelper {
                 "Attempted to read entity from unsuccessful response, should have called throwIfNotSuccessful first");
     }
 
+    /**
+     * Returns the item type if the given type is a list of a plain class, like the entities of the
+     * list operations.
+     */
+    private static Class<?> getListItemType(GenericType<?> entityType) {
+        if (entityType == null || !(entityType.getType() instanceof ParameterizedType)) {
+            return null;
+        }
+        final ParameterizedType type = (ParameterizedType) entityType.getType();
+        final Type[] arguments = type.getActualTypeArguments();
+        if (type.getRawType() == List.class
+                && arguments.length == 1
+                && arguments[0] instanceof Class) {
+            return (Class<?>) arguments[0];
+        }
+        return null;
+    }
+
+    /**
+     * Reads a list entity item by item with {@link #readEntityItems(Response, Class, String)},
+     * instead of buffering the entity and then parsing the buffer.  The result is remembered for
+     * the response, so that async requests can read it through both an AsyncHandler and the
+     * returned Future; both get the same list.  Like the buffered read, a malformed entity fails
+     * with a {@link ProcessingException}.  Must be called while holding the lock on the response.
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> List<T> readEntityList(Response response, Class<T> itemType) {
+        Object result = READ_LISTS.get(response);
+        if (result == null) {
+            result = readEntityListOnce(response, itemType);
+            READ_LISTS.put(response, result);
+        }
+        if (result instanceof ProcessingException) {
+            final ProcessingException e = (ProcessingException) result;
+            throw new ProcessingException(e.getMessage(), e.getCause());
+        }
+        return result == NULL_LIST ? null : (List<T>) result;
+    }
+
+    private static Object readEntityListOnce(Response response, Class<?> itemType) {
+        final List<Object> items = new ArrayList<>();
+        try (JsonItemIterator<?> iterator = readEntityItems(response, itemType, null)) {
+            while (iterator.hasNext()) {
+                items.add(iterator.next());
+            }
+            return iterator.isNull() ? NULL_LIST : items;
+        } catch (BmcException e) {
+            // same exception type as when Jersey fails to read a buffered entity
+            final Throwable cause = e.getCause() != null ? e.getCause() : e;
+            return new ProcessingException(cause.getMessage(), cause);
+        }
+    }
+
+    /**
+     * Reads the items of a JSON array out of the given response while the response is being
+     * received, instead of buffering the whole entity.  Only one item is held in memory at a time.
+     * Must call {@link #throwIfNotSuccessful(Response)} first.
+     * <p>
+     * The returned iterator closes the response once all items have been read.  Close it
+     * explicitly if the iteration is stopped early.
+     *
+     * @param response
+     *            the response
+     * @param itemType
+     *            the type of the items
+     * @param itemsProperty
+     *            the property of the top-level object that holds the items, or null if the
+     *            entity is the array
+     * @return the items (if the response's status code was 2xx), or no items if 304
+     */
+    public static <T> JsonItemIterator<T> readEntityItems(
+            @NonNull final Response response,
+            @NonNull Class<T> itemType,
+            String itemsProperty)
+            throws BmcException {
+        final ObjectMapper mapper = RestClientFactory.getObjectMapper();
+        // synchronized for async handlers where both an AsyncHandler and a Future might try to
+        // handle the response
+        synchronized (response) {
+            final String opcRequestId = response.getHeaderString(OPC_REQUEST_ID_HEADER);
+            if (response.getStatusInfo().getFamily().equals(Status.Family.SUCCESSFUL)) {
+                // NOTE: do not buffer, the items are parsed as they arrive
+                final InputStream inputStream =
+                        new WrappedResponseInputStream(
+                                response.readEntity(InputStream.class), response);
+                try {
+                    return new JsonItemIterator<>(
+                            mapper,
+                            mapper.getFactory().createParser(inputStream),
+                            itemType,
+                            itemsProperty,
+                            inputStream,
+                            opcRequestId);
+                } catch (IOException e) {
+                    closeResponseSilently(response);
+                    throw new BmcException(
+                            false, "Failed to read the response items", e, opcRequestId);
+                }
+            }
+
+            if (response.getStatus() == Status.NOT_MODIFIED.getStatusCode()) {
+                // close response when not modified
+                closeResponseSilently(response);
+                try {
+                    return new JsonItemIterator<>(
+                            mapper,
+                            mapper.getFactory().createParser("null"),
+                            itemType,
+                            null,
+                            null,
+                            opcRequestId);
+                } catch (IOException e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+        }
+        throw new IllegalStateException(
+                "Attempted to read entity from unsuccessful response, should have called throwIfNotSuccessful first");
+    }
+
+    /**
+     * Reads the items of a JSON array out of the given response while the response is being
+     * received, and passes each item to the consumer.  See
+     * {@link #readEntityItems(Response, Class, String)}.  The response is closed when this
+     * method returns.
+     *
+     * @param response
+     *            the response
+     * @param itemType
+     *            the type of the items
+     * @param itemsProperty
+     *            the property of the top-level object that holds the items, or null if the
+     *            entity is the array
+     * @param consumer
+     *            called with each item
+     * @return the number of items read
+     */
+    public static <T> long readEntityItems(
+            @NonNull final Response response,
+            @NonNull Class<T> itemType,
+            String itemsProperty,
+            @NonNull Consumer<? super T> consumer)
+            throws BmcException {
+        long count = 0;
+        try (JsonItemIterator<T> items = readEntityItems(response, itemType, itemsProperty)) {
+            while (items.hasNext()) {
+                consumer.accept(items.next());
+                count++;
+            }
+        }
+        return count;
+    }
+
     /**
      * Closes a given {@link Response} and ignores any thrown exceptions. Closing a response is idempotent, so there
      * is no harm in closing a {@link Response} once the response has been fully processed to ensure that the client
@@ -397,6 +567,18 @@ public class ResponseHelper {
         SHOULD_AUTO_CLOSE_RESPONSE_INPUTSTREAM = shouldAutoClose;
     }
 
+    /**
+     * Sets the boolean value to indicate if the SDK should read list entities, like the results of
+     * the list operations, item by item as the response arrives.  By default, the entity is
+     * buffered and then read, which holds the bytes of the entity and the parsed items at the same
+     * time.  Streaming does not keep the bytes; the parsed list is still held in full, since it is
+     * the content of the returned response.
+     */
+    public static void shouldStreamListEntities(final boolean shouldStream) {
+        LOG.info("Setting streaming of list entities to {}", shouldStream);
+        SHOULD_STREAM_LIST_ENTITIES = shouldStream;
+    }
+
     @Value
     @JsonDeserialize(builder = ErrorCodeAndMessage.Builder.class)
     @Builder(builderClassName = "Builder")
@@ -6,24 +6,37 @@ package com.oracle.bmc.http.internal;
 
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Throwables;
+import com.oracle.bmc.cache.ResponseCache;
 import com.oracle.bmc.circuitbreaker.CallNotAllowedException;
 import com.oracle.bmc.circuitbreaker.JaxRsCircuitBreaker;
 import com.oracle.bmc.http.ApacheUtils;
+import com.oracle.bmc.hedging.RequestHedger;
 import com.oracle.bmc.http.ClientConfigurator;
+import com.oracle.bmc.instrumentation.Instrumentations;
 import com.oracle.bmc.io.DuplicatableInputStream;
 import com.oracle.bmc.model.BmcException;
+import com.oracle.bmc.ratelimit.AdaptiveRateLimiter;
+import com.oracle.bmc.ratelimit.RateLimiterConfiguration;
 import com.oracle.bmc.requests.BmcRequest;
 import com.oracle.bmc.responses.AsyncHandler;
+import com.oracle.bmc.retrier.BmcGenericRetrier;
+import com.oracle.bmc.retrier.Retriers;
+import com.oracle.bmc.retrier.RetryConfiguration;
+import com.oracle.bmc.util.internal.CompletableResponseFuture;
 import com.oracle.bmc.util.internal.Consumer;
+import com.oracle.bmc.waiter.Waiters;
 import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
 import lombok.Getter;
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
+import lombok.Setter;
 import lombok.Value;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
 
+import java.net.URI;
 import javax.annotation.Nullable;
+import javax.ws.rs.HttpMethod;
 import javax.ws.rs.ProcessingException;
 import javax.ws.rs.client.AsyncInvoker;
 import javax.ws.rs.client.Client;
@@ -41,7 +54,14 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.InterruptedIOException;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiFunction;
 import java.util.function.Function;
 import java.util.function.Supplier;
 
@@ -55,7 +75,9 @@ public class RestClient implements AutoCloseable {
     private static final String PATCH_VERB = "PATCH";
 
     private final EntityFactory entityFactory;
-    private final Client client;
+    private final Supplier<Client> clientSupplier;
+    private Client client;
+    private boolean closed;
 
     @VisibleForTesting final JaxRsCircuitBreaker circuitBreaker;
     private final boolean isApacheNonBufferingClient;
@@ -65,7 +87,37 @@ public class RestClient implements AutoCloseable {
      */
     @Getter private final ClientConfigurator clientConfigurator;
 
-    private WrappedWebTarget baseTarget;
+    /**
+     * The retry configuration of the client, used for asynchronous requests. May be null.
+     */
+    private final RetryConfiguration retryConfiguration;
+
+    /**
+     * The rate limiter configuration of the client. May be null.
+     */
+    private final RateLimiterConfiguration rateLimiterConfiguration;
+
+    /**
+     * The rate limiter for the current endpoint, or null if requests are not rate limited.
+     */
+    @Getter private volatile AdaptiveRateLimiter rateLimiter;
+
+    /**
+     * Hedges slow GET and HEAD requests, or null if requests are not hedged.
+     */
+    @Getter @Setter private volatile RequestHedger requestHedger;
+
+    /**
+     * Caches the responses of read operations, or null if responses are not cached.
+     */
+    @Getter @Setter private volatile ResponseCache responseCache;
+
+    private volatile String endpoint;
+    /**
+     * The host of the current endpoint, used to select the circuit breaker.
+     */
+    private volatile String endpointHost;
+    private volatile WrappedWebTarget baseTarget;
 
     /**
      * Create a new client that uses a provided client to make all its requests.
@@ -115,11 +167,102 @@ public class RestClient implements AutoCloseable {
             JaxRsCircuitBreaker circuitBreaker,
             boolean isApacheNonBufferingClient,
             ClientConfigurator clientConfigurator) {
+        this(
+                client,
+                entityFactory,
+                circuitBreaker,
+                isApacheNonBufferingClient,
+                clientConfigurator,
+                null);
+    }
+
+    /**
+     * Create a new client that uses a provided client to make all its requests.
+     * It's up to the caller to properly configure the client.
+     *
+     * @param client        A HTTP client to make all requests with.
+     * @param entityFactory An entity factory to create entities for POST/PUT operations.
+     * @param circuitBreaker A circuit breaker instance to decorate http client
+     * @param isApacheNonBufferingClient A boolean value to disable buffering of entities in memory for Apache client
+     * @param clientConfigurator The client configurator used when creating the client
+     * @param retryConfiguration The retry configuration for asynchronous requests, may be null
+     */
+    public RestClient(
+            @NonNull Client client,
+            @NonNull EntityFactory entityFactory,
+            JaxRsCircuitBreaker circuitBreaker,
+            boolean isApacheNonBufferingClient,
+            ClientConfigurator clientConfigurator,
+            RetryConfiguration retryConfiguration) {
+        this(
+                client,
+                entityFactory,
+                circuitBreaker,
+                isApacheNonBufferingClient,
+                clientConfigurator,
+                retryConfiguration,
+                null);
+    }
+
+    /**
+     * Create a new client that uses a provided client to make all its requests.
+     * It's up to the caller to properly configure the client.
+     *
+     * @param client        A HTTP client to make all requests with.
+     * @param entityFactory An entity factory to create entities for POST/PUT operations.
+     * @param circuitBreaker A circuit breaker instance to decorate http client
+     * @param isApacheNonBufferingClient A boolean value to disable buffering of entities in memory for Apache client
+     * @param clientConfigurator The client configurator used when creating the client
+     * @param retryConfiguration The retry configuration for asynchronous requests, may be null
+     * @param rateLimiterConfiguration The rate limiter configuration, may be null
+     */
+    public RestClient(
+            @NonNull Client client,
+            @NonNull EntityFactory entityFactory,
+            JaxRsCircuitBreaker circuitBreaker,
+            boolean isApacheNonBufferingClient,
+            ClientConfigurator clientConfigurator,
+            RetryConfiguration retryConfiguration,
+            RateLimiterConfiguration rateLimiterConfiguration) {
+        this(
+                () -> client,
+                entityFactory,
+                circuitBreaker,
+                isApacheNonBufferingClient,
+                clientConfigurator,
+                retryConfiguration,
+                rateLimiterConfiguration);
         this.client = client;
+    }
+
+    /**
+     * Create a new client that creates the client to make all its requests with when it is first
+     * needed, that is when the first request is prepared.
+     * It's up to the caller to properly configure the client.
+     *
+     * @param clientSupplier Creates the HTTP client to make all requests with.
+     * @param entityFactory An entity factory to create entities for POST/PUT operations.
+     * @param circuitBreaker A circuit breaker instance to decorate http client
+     * @param isApacheNonBufferingClient A boolean value to disable buffering of entities in memory for Apache client
+     * @param clientConfigurator The client configurator used when creating the client
+     * @param retryConfiguration The retry configuration for asynchronous requests, may be null
+     * @param rateLimiterConfiguration The rate limiter configuration, may be null
+     */
+    public RestClient(
+            @NonNull Supplier<Client> clientSupplier,
+            @NonNull EntityFactory entityFactory,
+            JaxRsCircuitBreaker circuitBreaker,
+            boolean isApacheNonBufferingClient,
+            ClientConfigurator clientConfigurator,
+            RetryConfiguration retryConfiguration,
+            RateLimiterConfiguration rateLimiterConfiguration) {
+        this.clientSupplier = clientSupplier;
         this.entityFactory = entityFactory;
         this.circuitBreaker = circuitBreaker;
         this.isApacheNonBufferingClient = isApacheNonBufferingClient;
         this.clientConfigurator = clientConfigurator;
+        this.retryConfiguration = retryConfiguration;
+        this.rateLimiterConfiguration = rateLimiterConfiguration;
     }
 
     /**
@@ -128,12 +271,40 @@ public class RestClient implements AutoCloseable {
      * @param endpoint The endpoint.
      */
     public void setEndpoint(@NonNull String endpoint) {
-        this.baseTarget = new WrappedWebTarget(client.target(endpoint));
+        synchronized (this) {
+            this.endpoint = endpoint;
+            this.endpointHost = getHost(endpoint);
+            this.baseTarget = client != null ? new WrappedWebTarget(client.target(endpoint)) : null;
+        }
+        if (rateLimiterConfiguration != null) {
+            this.rateLimiter = AdaptiveRateLimiter.forEndpoint(endpoint, rateLimiterConfiguration);
+        }
+    }
+
+    private static String getHost(String endpoint) {
+        try {
+            return URI.create(endpoint).getHost();
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
     }
 
     @Override
-    public void close() {
-        client.close();
+    public synchronized void close() {
+        closed = true;
+        if (client != null) {
+            client.close();
+        }
+    }
+
+    /**
+     * Returns true if the HTTP client has been created, which happens when the first request is
+     * prepared if the client is created lazily.
+     *
+     * @return true if the HTTP client has been created
+     */
+    public synchronized boolean isClientCreated() {
+        return client != null;
     }
 
     /**
@@ -142,10 +313,25 @@ public class RestClient implements AutoCloseable {
      * @return The target.
      */
     public WrappedWebTarget getBaseTarget() {
-        if (this.baseTarget == null) {
-            throw new NullPointerException("No endpoint has been configured");
+        final WrappedWebTarget target = this.baseTarget;
+        if (target != null) {
+            return target;
+        }
+        synchronized (this) {
+            if (this.endpoint == null) {
+                throw new NullPointerException("No endpoint has been configured");
+            }
+            if (this.baseTarget == null) {
+                if (client == null) {
+                    if (closed) {
+                        throw new IllegalStateException("The client has been closed");
+                    }
+                    client = clientSupplier.get();
+                }
+                this.baseTarget = new WrappedWebTarget(client.target(endpoint));
+            }
+            return this.baseTarget;
         }
-        return this.baseTarget;
     }
 
     /**
@@ -163,44 +349,185 @@ public class RestClient implements AutoCloseable {
      * Ideal name for this method is decorateSupplierWithCircuitBreaker. However, I shortened it due to it's being private
      * It takes a Supplier<Response> and returns a Supplier<Response>, this pattern allows users to chain different
      * functionalities.
+     * @param request the request, used to tag instrumentation events
      * @param supplier a supplier of Response
      * @return a supplier of Response
      */
-    private Supplier<Response> decorateSupplier(Supplier<Response> supplier) {
+    private Supplier<Response> decorateSupplier(Object request, Supplier<Response> supplier) {
+        final Supplier<Response> instrumented = instrument(request, supplier);
         if (circuitBreaker == null) {
-            return supplier;
+            return limitRate(instrumented);
         } else {
-            return () -> {
-                try {
-                    return circuitBreaker.decorateSupplier(supplier).get();
-                } catch (CallNotAllowedException e) {
-                    throw new BmcException(false, "CircuitBreaker is OPEN!", e, null);
-                }
-            };
+            // wait for the rate limiter outside of the circuit breaker, so that a waiting request
+            // does not hold one of the calls the breaker permits, or add the wait to its duration
+            return limitRate(
+                    () -> {
+                        try {
+                            return circuitBreakerFor(request)
+                                    .decorateSupplier(instrumented)
+                                    .get();
+                        } catch (CallNotAllowedException e) {
+                            throw new BmcException(false, "CircuitBreaker is OPEN!", e, null);
+                        }
+                    });
+        }
+    }
+
+    /**
+     * Marks the request to be handled by the {@link ResponseCacheFilter}, if the responses of its
+     * operation are cached.
+     * @param ib the invocation builder of the request
+     * @param request the request, used to select the operation
+     */
+    private void enableResponseCache(WrappedInvocationBuilder ib, Object request) {
+        final ResponseCache cache = responseCache;
+        if (cache == null) {
+            return;
+        }
+        final String operationName = Instrumentations.getOperationName(request);
+        if (cache.isCached(operationName)) {
+            ib.property(ResponseCacheFilter.CACHE_PROPERTY, cache);
+            ib.property(ResponseCacheFilter.OPERATION_PROPERTY, operationName);
         }
     }
 
+    /**
+     * Sends the request a second time if it is slow, see {@link RequestHedger}.  Only safe
+     * requests may be hedged, and only if the rate limiter has a token for the second request.
+     * @param request the request, used to select the operation
+     * @param supplier sends the request and waits for the response
+     * @param sender sends the request asynchronously
+     * @return a supplier of Response
+     */
+    private Supplier<Response> hedge(
+            Object request,
+            Supplier<Response> supplier,
+            Function<InvocationCallback<Response>, Future<Response>> sender) {
+        final RequestHedger hedger = requestHedger;
+        if (hedger == null) {
+            return supplier;
+        }
+        final String operationName = Instrumentations.getOperationName(request);
+        if (!hedger.isHedged(operationName)) {
+            return supplier;
+        }
+        return () ->
+                hedger.execute(
+                        operationName,
+                        supplier,
+                        sender,
+                        () -> {
+                            final AdaptiveRateLimiter limiter = rateLimiter;
+                            return limiter == null || limiter.tryAcquire();
+                        });
+    }
+
+    /**
+     * Reports the latency and outcome of the request to the registered instrumentations.
+     * @param request the request
+     * @param supplier a supplier of Response
+     * @return a supplier of Response
+     */
+    private static Supplier<Response> instrument(Object request, Supplier<Response> supplier) {
+        if (!Instrumentations.isEnabled()) {
+            return supplier;
+        }
+        return () -> {
+            final long start = System.nanoTime();
+            final Response response;
+            try {
+                response = supplier.get();
+            } catch (RuntimeException e) {
+                Instrumentations.onRequestFailed(request, e, System.nanoTime() - start);
+                throw e;
+            }
+            Instrumentations.onResponse(
+                    request, response.getStatus(), response.getLength(), System.nanoTime() - start);
+            return response;
+        };
+    }
+
+    /**
+     * Same as {@link #instrument(Object, Supplier)}, for a request that is sent asynchronously.
+     * @param request the request
+     * @param call function that sends the request, given the callbacks
+     * @return function that sends the request, given the callbacks
+     */
+    private static BiFunction<Consumer<Response>, Consumer<Throwable>, Future<Response>> instrument(
+            Object request,
+            BiFunction<Consumer<Response>, Consumer<Throwable>, Future<Response>> call) {
+        if (!Instrumentations.isEnabled()) {
+            return call;
+        }
+        return (onSuccess, onError) -> {
+            final long start = System.nanoTime();
+            return call.apply(
+                    response -> {
+                        Instrumentations.onResponse(
+                                request,
+                                response.getStatus(),
+                                response.getLength(),
+                                System.nanoTime() - start);
+                        onSuccess.accept(response);
+                    },
+                    error -> {
+                        Instrumentations.onRequestFailed(request, error, System.nanoTime() - start);
+                        onError.accept(error);
+                    });
+        };
+    }
+
+    /**
+     * Waits for the rate limiter before the request is sent, and adapts the rate to the response.
+     * @param supplier a supplier of Response
+     * @return a supplier of Response
+     */
+    private Supplier<Response> limitRate(Supplier<Response> supplier) {
+        final AdaptiveRateLimiter limiter = rateLimiter;
+        if (limiter == null) {
+            return supplier;
+        }
+        return () -> {
+            limiter.acquire();
+            final Response response = supplier.get();
+            limiter.onResponse(response.getStatus());
+            return response;
+        };
+    }
+
     /**
      * Ideal name for this method is decorateFutureSupplierWithCircuitBreaker. However, I shortened it due to it's being private
      * It takes a Supplier<Future<Response>> and returns a Supplier<Future<Response>>, this pattern allows users to chain
      * different functionalities.
+     * @param request the request, used to select the circuit breaker
      * @param supplier a Supplier of Future<Response>
      * @return a Supplier of Future<Response>
      */
-    private Supplier<Future<Response>> decorateFuture(Supplier<Future<Response>> supplier) {
+    private Supplier<Future<Response>> decorateFuture(
+            Object request, Supplier<Future<Response>> supplier) {
         if (circuitBreaker == null) {
             return supplier;
         } else {
             return () -> {
                 try {
-                    return circuitBreaker.decorateFuture(supplier).get();
-                } catch (CallNotPermittedException e) {
+                    return circuitBreakerFor(request).decorateFuture(supplier).get();
+                } catch (CallNotAllowedException | CallNotPermittedException e) {
                     throw new BmcException(false, "CircuitBreaker is OPEN!", e, null);
                 }
             };
         }
     }
 
+    /**
+     * Returns the circuit breaker for the operation of the request on the current endpoint.
+     * @param request the request
+     * @return the circuit breaker
+     */
+    private JaxRsCircuitBreaker circuitBreakerFor(Object request) {
+        return circuitBreaker.forOperation(
+                endpointHost, Instrumentations.getOperationName(request));
+    }
+
     // Rest APIs
 
     /**
@@ -215,8 +542,11 @@ public class RestClient implements AutoCloseable {
     public <T extends BmcRequest> Response get(
             @NonNull WrappedInvocationBuilder ib, @NonNull T request) throws BmcException {
         InvocationInformation info = preprocessRequest(ib, request);
+        enableResponseCache(ib, request);
         try {
-            return decorateSupplier(ib::get).get();
+            return decorateSupplier(
+                            request, hedge(request, ib::get, callback -> ib.async().get(callback)))
+                    .get();
         } catch (ProcessingException ex) {
             throw convertToBmcException(baseTarget, ex, info);
         }
@@ -241,11 +571,13 @@ public class RestClient implements AutoCloseable {
             @Nullable Consumer<Response> onSuccess,
             @Nullable Consumer<Throwable> onError) {
         InvocationInformation info = preprocessRequest(ib, request);
+        enableResponseCache(ib, request);
 
         if (onSuccess == null && onError == null) {
-            return decorateFuture(ib.async()::get).get();
+            return decorateFuture(request, ib.async()::get).get();
         } else {
             return decorateFuture(
+                            request,
                             () ->
                                     ib.async()
                                             .get(
@@ -270,17 +602,13 @@ public class RestClient implements AutoCloseable {
                     REQUEST interceptedRequest,
                     WrappedInvocationBuilder ib,
                     com.google.common.base.Function<Response, RESPONSE> transformer) {
-        return h -> {
-            final com.oracle.bmc.util.internal.Consumer<Response> onSuccess =
-                    new com.oracle.bmc.http.internal.SuccessConsumer<>(
-                            h, transformer, interceptedRequest);
-            final com.oracle.bmc.util.internal.Consumer<Throwable> onError =
-                    new com.oracle.bmc.http.internal.ErrorConsumer<>(h, interceptedRequest);
-
-            Future<Response> responseFuture = get(ib, interceptedRequest, onSuccess, onError);
-            return new com.oracle.bmc.util.internal.TransformingFuture<>(
-                    responseFuture, transformer);
-        };
+        return futureSupplier(
+                interceptedRequest,
+                null,
+                ib,
+                transformer,
+                (onSuccess, onError) ->
+                        get(ib, interceptedRequest, onSuccess, onError));
     }
 
     /**
@@ -301,7 +629,7 @@ public class RestClient implements AutoCloseable {
         try {
             Entity<?> requestBody =
                     this.entityFactory.forPost(request, attemptToSerialize(request, body));
-            return decorateSupplier(() -> ib.post(requestBody)).get();
+            return decorateSupplier(request, () -> ib.post(requestBody)).get();
         } catch (ProcessingException e) {
             throw convertToBmcException(baseTarget, e, info);
         }
@@ -333,9 +661,10 @@ public class RestClient implements AutoCloseable {
                 this.entityFactory.forPost(request, attemptToSerialize(request, body));
 
         if (onSuccess == null && onError == null) {
-            return decorateFuture(() -> ib.async().post(requestBody)).get();
+            return decorateFuture(request, () -> ib.async().post(requestBody)).get();
         } else {
             return decorateFuture(
+                            request,
                             () ->
                                     ib.async()
                                             .post(
@@ -363,18 +692,13 @@ public class RestClient implements AutoCloseable {
                     Object body,
                     WrappedInvocationBuilder ib,
                     com.google.common.base.Function<Response, RESPONSE> transformer) {
-        return h -> {
-            final com.oracle.bmc.util.internal.Consumer<Response> onSuccess =
-                    new com.oracle.bmc.http.internal.SuccessConsumer<>(
-                            h, transformer, interceptedRequest);
-            final com.oracle.bmc.util.internal.Consumer<Throwable> onError =
-                    new com.oracle.bmc.http.internal.ErrorConsumer<>(h, interceptedRequest);
-
-            Future<Response> responseFuture =
-                    post(ib, body, interceptedRequest, onSuccess, onError);
-            return new com.oracle.bmc.util.internal.TransformingFuture<>(
-                    responseFuture, transformer);
-        };
+        return futureSupplier(
+                interceptedRequest,
+                body,
+                ib,
+                transformer,
+                (onSuccess, onError) ->
+                        post(ib, body, interceptedRequest, onSuccess, onError));
     }
 
     /**
@@ -392,17 +716,13 @@ public class RestClient implements AutoCloseable {
                     REQUEST interceptedRequest,
                     WrappedInvocationBuilder ib,
                     com.google.common.base.Function<Response, RESPONSE> transformer) {
-        return h -> {
-            final com.oracle.bmc.util.internal.Consumer<Response> onSuccess =
-                    new com.oracle.bmc.http.internal.SuccessConsumer<>(
-                            h, transformer, interceptedRequest);
-            final com.oracle.bmc.util.internal.Consumer<Throwable> onError =
-                    new com.oracle.bmc.http.internal.ErrorConsumer<>(h, interceptedRequest);
-
-            Future<Response> responseFuture = post(ib, interceptedRequest, onSuccess, onError);
-            return new com.oracle.bmc.util.internal.TransformingFuture<>(
-                    responseFuture, transformer);
-        };
+        return futureSupplier(
+                interceptedRequest,
+                null,
+                ib,
+                transformer,
+                (onSuccess, onError) ->
+                        post(ib, interceptedRequest, onSuccess, onError));
     }
 
     /**
@@ -475,7 +795,7 @@ public class RestClient implements AutoCloseable {
         try {
             Entity<?> requestBody =
                     this.entityFactory.forPatch(request, attemptToSerialize(request, body));
-            return decorateSupplier(() -> ib.method(PATCH_VERB, requestBody)).get();
+            return decorateSupplier(request, () -> ib.method(PATCH_VERB, requestBody)).get();
         } catch (ProcessingException e) {
             throw convertToBmcException(baseTarget, e, info);
         }
@@ -529,9 +849,10 @@ public class RestClient implements AutoCloseable {
                 this.entityFactory.forPatch(request, attemptToSerialize(request, body));
 
         if (onSuccess == null && onError == null) {
-            return decorateFuture(() -> ib.async().method(PATCH_VERB, requestBody)).get();
+            return decorateFuture(request, () -> ib.async().method(PATCH_VERB, requestBody)).get();
         } else {
             return decorateFuture(
+                            request,
                             () ->
                                     ib.async()
                                             .method(
@@ -558,17 +879,13 @@ public class RestClient implements AutoCloseable {
                     REQUEST interceptedRequest,
                     WrappedInvocationBuilder ib,
                     com.google.common.base.Function<Response, RESPONSE> transformer) {
-        return h -> {
-            final com.oracle.bmc.util.internal.Consumer<Response> onSuccess =
-                    new com.oracle.bmc.http.internal.SuccessConsumer<>(
-                            h, transformer, interceptedRequest);
-            final com.oracle.bmc.util.internal.Consumer<Throwable> onError =
-                    new com.oracle.bmc.http.internal.ErrorConsumer<>(h, interceptedRequest);
-
-            Future<Response> responseFuture = patch(ib, interceptedRequest, onSuccess, onError);
-            return new com.oracle.bmc.util.internal.TransformingFuture<>(
-                    responseFuture, transformer);
-        };
+        return futureSupplier(
+                interceptedRequest,
+                null,
+                ib,
+                transformer,
+                (onSuccess, onError) ->
+                        patch(ib, interceptedRequest, onSuccess, onError));
     }
 
     /**
@@ -588,18 +905,13 @@ public class RestClient implements AutoCloseable {
                     Object body,
                     WrappedInvocationBuilder ib,
                     com.google.common.base.Function<Response, RESPONSE> transformer) {
-        return h -> {
-            final com.oracle.bmc.util.internal.Consumer<Response> onSuccess =
-                    new com.oracle.bmc.http.internal.SuccessConsumer<>(
-                            h, transformer, interceptedRequest);
-            final com.oracle.bmc.util.internal.Consumer<Throwable> onError =
-                    new com.oracle.bmc.http.internal.ErrorConsumer<>(h, interceptedRequest);
-
-            Future<Response> responseFuture =
-                    patch(ib, body, interceptedRequest, onSuccess, onError);
-            return new com.oracle.bmc.util.internal.TransformingFuture<>(
-                    responseFuture, transformer);
-        };
+        return futureSupplier(
+                interceptedRequest,
+                body,
+                ib,
+                transformer,
+                (onSuccess, onError) ->
+                        patch(ib, body, interceptedRequest, onSuccess, onError));
     }
 
     /**
@@ -639,7 +951,7 @@ public class RestClient implements AutoCloseable {
         try {
             Entity<?> requestBody =
                     this.entityFactory.forPut(request, attemptToSerialize(request, body));
-            return decorateSupplier(() -> ib.put(requestBody)).get();
+            return decorateSupplier(request, () -> ib.put(requestBody)).get();
         } catch (ProcessingException e) {
             throw convertToBmcException(baseTarget, e, info);
         }
@@ -702,9 +1014,10 @@ public class RestClient implements AutoCloseable {
                 this.entityFactory.forPut(request, attemptToSerialize(request, body));
 
         if (onSuccess == null && onError == null) {
-            return decorateFuture(() -> ib.async().put(requestBody)).get();
+            return decorateFuture(request, () -> ib.async().put(requestBody)).get();
         } else {
             return decorateFuture(
+                            request,
                             () ->
                                     ib.async()
                                             .put(
@@ -730,17 +1043,13 @@ public class RestClient implements AutoCloseable {
                     REQUEST interceptedRequest,
                     WrappedInvocationBuilder ib,
                     com.google.common.base.Function<Response, RESPONSE> transformer) {
-        return h -> {
-            final com.oracle.bmc.util.internal.Consumer<Response> onSuccess =
-                    new com.oracle.bmc.http.internal.SuccessConsumer<>(
-                            h, transformer, interceptedRequest);
-            final com.oracle.bmc.util.internal.Consumer<Throwable> onError =
-                    new com.oracle.bmc.http.internal.ErrorConsumer<>(h, interceptedRequest);
-
-            Future<Response> responseFuture = put(ib, interceptedRequest, onSuccess, onError);
-            return new com.oracle.bmc.util.internal.TransformingFuture<>(
-                    responseFuture, transformer);
-        };
+        return futureSupplier(
+                interceptedRequest,
+                null,
+                ib,
+                transformer,
+                (onSuccess, onError) ->
+                        put(ib, interceptedRequest, onSuccess, onError));
     }
 
     /**
@@ -760,17 +1069,13 @@ public class RestClient implements AutoCloseable {
                     Object body,
                     WrappedInvocationBuilder ib,
                     com.google.common.base.Function<Response, RESPONSE> transformer) {
-        return h -> {
-            final com.oracle.bmc.util.internal.Consumer<Response> onSuccess =
-                    new com.oracle.bmc.http.internal.SuccessConsumer<>(
-                            h, transformer, interceptedRequest);
-            final com.oracle.bmc.util.internal.Consumer<Throwable> onError =
-                    new com.oracle.bmc.http.internal.ErrorConsumer<>(h, interceptedRequest);
-
-            Future<Response> responseFuture = put(ib, body, interceptedRequest, onSuccess, onError);
-            return new com.oracle.bmc.util.internal.TransformingFuture<>(
-                    responseFuture, transformer);
-        };
+        return futureSupplier(
+                interceptedRequest,
+                body,
+                ib,
+                transformer,
+                (onSuccess, onError) ->
+                        put(ib, body, interceptedRequest, onSuccess, onError));
     }
 
     /**
@@ -789,7 +1094,7 @@ public class RestClient implements AutoCloseable {
             @NonNull WrappedInvocationBuilder ib, @NonNull T request) throws BmcException {
         InvocationInformation info = preprocessRequest(ib, request);
         try {
-            return decorateSupplier(() -> ib.delete(Response.class)).get();
+            return decorateSupplier(request, () -> ib.delete(Response.class)).get();
         } catch (ProcessingException e) {
             throw convertToBmcException(baseTarget, e, info);
         }
@@ -820,9 +1125,10 @@ public class RestClient implements AutoCloseable {
         InvocationInformation info = preprocessRequest(ib, request);
 
         if (onSuccess == null && onError == null) {
-            return decorateFuture(() -> ib.async().delete()).get();
+            return decorateFuture(request, () -> ib.async().delete()).get();
         } else {
             return decorateFuture(
+                            request,
                             () ->
                                     ib.async()
                                             .delete(
@@ -847,17 +1153,13 @@ public class RestClient implements AutoCloseable {
                     REQUEST interceptedRequest,
                     WrappedInvocationBuilder ib,
                     com.google.common.base.Function<Response, RESPONSE> transformer) {
-        return h -> {
-            final com.oracle.bmc.util.internal.Consumer<Response> onSuccess =
-                    new com.oracle.bmc.http.internal.SuccessConsumer<>(
-                            h, transformer, interceptedRequest);
-            final com.oracle.bmc.util.internal.Consumer<Throwable> onError =
-                    new com.oracle.bmc.http.internal.ErrorConsumer<>(h, interceptedRequest);
-
-            Future<Response> responseFuture = delete(ib, interceptedRequest, onSuccess, onError);
-            return new com.oracle.bmc.util.internal.TransformingFuture<>(
-                    responseFuture, transformer);
-        };
+        return futureSupplier(
+                interceptedRequest,
+                null,
+                ib,
+                transformer,
+                (onSuccess, onError) ->
+                        delete(ib, interceptedRequest, onSuccess, onError));
     }
 
     /**
@@ -876,7 +1178,13 @@ public class RestClient implements AutoCloseable {
             @NonNull WrappedInvocationBuilder ib, @NonNull T request) throws BmcException {
         InvocationInformation info = preprocessRequest(ib, request);
         try {
-            return decorateSupplier(ib::head).get();
+            return decorateSupplier(
+                            request,
+                            hedge(
+                                    request,
+                                    ib::head,
+                                    callback -> ib.async().method(HttpMethod.HEAD, callback)))
+                    .get();
         } catch (ProcessingException ex) {
             throw convertToBmcException(baseTarget, ex, info);
         }
@@ -908,9 +1216,10 @@ public class RestClient implements AutoCloseable {
         InvocationInformation info = preprocessRequest(ib, request);
 
         if (onSuccess == null && onError == null) {
-            return decorateFuture(ib.async()::head).get();
+            return decorateFuture(request, ib.async()::head).get();
         } else {
             return decorateFuture(
+                            request,
                             () ->
                                     ib.async()
                                             .head(
@@ -935,19 +1244,245 @@ public class RestClient implements AutoCloseable {
                     REQUEST interceptedRequest,
                     WrappedInvocationBuilder ib,
                     com.google.common.base.Function<Response, RESPONSE> transformer) {
+        return futureSupplier(
+                interceptedRequest,
+                null,
+                ib,
+                transformer,
+                (onSuccess, onError) ->
+                        head(ib, interceptedRequest, onSuccess, onError));
+    }
+
+    /**
+     * Return the function that, given an {@link AsyncHandler}, makes the request and returns the
+     * future.  Requests are retried according to the retry configuration of the request or the
+     * client; the delay between attempts is scheduled, it does not hold a thread.
+     * <p>
+     * The returned future is completed before the handler is called.  Requests with an
+     * {@link InputStream} body are not retried, since the stream may not be readable again.
+     * @param interceptedRequest intercepted request
+     * @param body the body of the request, or null
+     * @param ib invocation builder
+     * @param transformer transformer from JAX-RS response to model response
+     * @param call function that sends one attempt of the request, given the callbacks
+     * @param <REQUEST> type of the request
+     * @param <RESPONSE> type of the response
+     * @return future for the request
+     */
+    private <REQUEST extends BmcRequest<?>, RESPONSE>
+            Function<AsyncHandler<REQUEST, RESPONSE>, Future<RESPONSE>> futureSupplier(
+                    REQUEST interceptedRequest,
+                    @Nullable Object body,
+                    WrappedInvocationBuilder ib,
+                    com.google.common.base.Function<Response, RESPONSE> transformer,
+                    BiFunction<Consumer<Response>, Consumer<Throwable>, Future<Response>> call) {
+        final BmcGenericRetrier retrier =
+                body instanceof InputStream
+                        ? new BmcGenericRetrier(RetryConfiguration.NO_RETRY_CONFIGURATION)
+                        : Retriers.createPreferredRetrier(
+                                interceptedRequest.getRetryConfiguration(), retryConfiguration);
+        RetryUtils.setClientRetriesHeader(ib, retrier);
         return h -> {
-            final com.oracle.bmc.util.internal.Consumer<Response> onSuccess =
-                    new com.oracle.bmc.http.internal.SuccessConsumer<>(
-                            h, transformer, interceptedRequest);
-            final com.oracle.bmc.util.internal.Consumer<Throwable> onError =
-                    new com.oracle.bmc.http.internal.ErrorConsumer<>(h, interceptedRequest);
-
-            Future<Response> responseFuture = head(ib, interceptedRequest, onSuccess, onError);
-            return new com.oracle.bmc.util.internal.TransformingFuture<>(
-                    responseFuture, transformer);
+            final AtomicBoolean sent = new AtomicBoolean();
+            final CompletableFuture<RESPONSE> retries =
+                    retrier.executeAsync(
+                            interceptedRequest,
+                            request ->
+                                    limitRate(
+                                            transformer,
+                                            instrument(interceptedRequest, call),
+                                            sent),
+                            Waiters.getDefaultScheduler());
+            if (!sent.get() && retries.isCompletedExceptionally()) {
+                // failed before the request was sent, e.g. because the circuit breaker is open
+                try {
+                    retries.getNow(null);
+                } catch (CompletionException e) {
+                    Throwables.throwIfUnchecked(e.getCause());
+                    throw e;
+                }
+            }
+
+            final CompletableResponseFuture<RESPONSE> result = new CompletableResponseFuture<>();
+            result.whenComplete(
+                    (response, error) -> {
+                        if (result.isCancelled()) {
+                            retries.cancel(true);
+                        }
+                    });
+            retries.whenComplete(
+                    (response, error) -> {
+                        if (error == null) {
+                            result.complete(response);
+                            notifySuccess(h, interceptedRequest, response);
+                        } else {
+                            final Throwable cause =
+                                    error instanceof CompletionException && error.getCause() != null
+                                            ? error.getCause()
+                                            : error;
+                            result.completeExceptionally(cause);
+                            if (h != null) {
+                                h.onError(interceptedRequest, cause);
+                            } else {
+                                LOG.debug("Detected failure, but no handler configured");
+                            }
+                        }
+                    });
+            return result;
         };
     }
 
+    /**
+     * Sends one attempt of an asynchronous request, once the rate limiter permits it.  The attempt
+     * is delayed on the scheduler, so no thread waits for the rate limiter.
+     * @param transformer transformer from JAX-RS response to model response
+     * @param call function that sends the request, given the callbacks
+     * @param sent set once the request has been sent
+     * @param <RESPONSE> type of the response
+     * @return future for the transformed response
+     */
+    private <RESPONSE> CompletableFuture<RESPONSE> limitRate(
+            com.google.common.base.Function<Response, RESPONSE> transformer,
+            BiFunction<Consumer<Response>, Consumer<Throwable>, Future<Response>> call,
+            AtomicBoolean sent) {
+        final AdaptiveRateLimiter limiter = rateLimiter;
+        if (limiter == null) {
+            return attempt(transformer, call, sent);
+        }
+        final BiFunction<Consumer<Response>, Consumer<Throwable>, Future<Response>> limitedCall =
+                (onSuccess, onError) ->
+                        call.apply(
+                                response -> {
+                                    limiter.onResponse(response.getStatus());
+                                    onSuccess.accept(response);
+                                },
+                                onError);
+        final long delayNanos = limiter.reserve();
+        if (delayNanos <= 0) {
+            return attempt(transformer, limitedCall, sent);
+        }
+        final CompletableFuture<RESPONSE> delayed = new CompletableFuture<>();
+        final ScheduledFuture<?> scheduled =
+                Waiters.getDefaultScheduler()
+                        .schedule(
+                                () -> {
+                                    if (delayed.isDone()) {
+                                        return;
+                                    }
+                                    final CompletableFuture<RESPONSE> attempt;
+                                    try {
+                                        attempt = attempt(transformer, limitedCall, sent);
+                                    } catch (RuntimeException e) {
+                                        delayed.completeExceptionally(e);
+                                        return;
+                                    }
+                                    delayed.whenComplete(
+                                            (r, t) -> {
+                                                if (delayed.isCancelled()) {
+                                                    attempt.cancel(true);
+                                                }
+                                            });
+                                    attempt.whenComplete(
+                                            (r, t) -> {
+                                                if (t != null) {
+                                                    delayed.completeExceptionally(t);
+                                                } else {
+                                                    delayed.complete(r);
+                                                }
+                                            });
+                                },
+                                delayNanos,
+                                TimeUnit.NANOSECONDS);
+        // the request is sent later, failures are reported through the future
+        sent.set(true);
+        delayed.whenComplete(
+                (r, t) -> {
+                    if (delayed.isCancelled()) {
+                        scheduled.cancel(false);
+                    }
+                });
+        return delayed;
+    }
+
+    /**
+     * Sends one attempt of an asynchronous request.
+     * @param transformer transformer from JAX-RS response to model response
+     * @param call function that sends the request, given the callbacks
+     * @param sent set once the request has been sent
+     * @param <RESPONSE> type of the response
+     * @return future for the transformed response
+     */
+    private static <RESPONSE> CompletableFuture<RESPONSE> attempt(
+            com.google.common.base.Function<Response, RESPONSE> transformer,
+            BiFunction<Consumer<Response>, Consumer<Throwable>, Future<Response>> call,
+            AtomicBoolean sent) {
+        final CompletableFuture<Response> response = new CompletableFuture<>();
+        final Future<Response> invocation =
+                call.apply(response::complete, response::completeExceptionally);
+        sent.set(true);
+        if (invocation.isDone() && !invocation.isCancelled() && !response.isDone()) {
+            // completed without calling back, e.g. because the circuit breaker is open
+            try {
+                response.complete(invocation.get());
+            } catch (ExecutionException e) {
+                response.completeExceptionally(
+                        toBmcExceptionIfNotPermitted(e.getCause() != null ? e.getCause() : e));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                response.completeExceptionally(e);
+            } catch (RuntimeException e) {
+                response.completeExceptionally(toBmcExceptionIfNotPermitted(e));
+            }
+        }
+        response.whenComplete(
+                (r, t) -> {
+                    if (invocation.isDone() && !invocation.isCancelled()) {
+                        // lets the circuit breaker record the outcome; does not block
+                        try {
+                            invocation.get();
+                        } catch (Exception e) {
+                            LOG.trace("Request failed", e);
+                        }
+                    }
+                });
+        final CompletableFuture<RESPONSE> transformed = response.thenApply(transformer::apply);
+        transformed.whenComplete(
+                (r, t) -> {
+                    if (transformed.isCancelled()) {
+                        invocation.cancel(true);
+                    }
+                });
+        return transformed;
+    }
+
+    /**
+     * Converts the exception of a call the circuit breaker did not permit into the exception
+     * thrown for synchronous requests.
+     * @param error the error of the call
+     * @return the exception to complete the request with
+     */
+    private static Throwable toBmcExceptionIfNotPermitted(Throwable error) {
+        if (error instanceof CallNotAllowedException
+                || error instanceof CallNotPermittedException) {
+            return new BmcException(false, "CircuitBreaker is OPEN!", error, null);
+        }
+        return error;
+    }
+
+    private static <REQUEST, RESPONSE> void notifySuccess(
+            AsyncHandler<REQUEST, RESPONSE> handler, REQUEST request, RESPONSE response) {
+        if (handler == null) {
+            LOG.debug("Request successful, but no handler configured");
+            return;
+        }
+        try {
+            handler.onSuccess(request, response);
+        } catch (Exception e) {
+            LOG.debug("Failure during success handling", e);
+            handler.onError(request, e);
+        }
+    }
+
     /**
      * Wraps a ProcessingException as a BmcException.
      *
@@ -5,59 +5,73 @@
 package com.oracle.bmc.http.internal;
 
 import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JavaType;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.databind.ser.FilterProvider;
 import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
 import com.google.common.annotations.VisibleForTesting;
 import com.oracle.bmc.ClientConfiguration;
+import com.oracle.bmc.ClientRuntime;
+import com.oracle.bmc.cache.ResponseCache;
 import com.oracle.bmc.circuitbreaker.internal.JaxRsCircuitBreakerImpl;
 import com.oracle.bmc.circuitbreaker.JaxRsCircuitBreaker;
+import com.oracle.bmc.hedging.RequestHedger;
 import com.oracle.bmc.http.ClientConfigurator;
 import com.oracle.bmc.http.signing.RequestSigner;
 import com.oracle.bmc.http.signing.SigningStrategy;
+import com.oracle.bmc.retrier.RetryConfiguration;
 import com.oracle.bmc.util.CircuitBreakerUtils;
 import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
 import org.glassfish.jersey.client.ClientProperties;
 import org.glassfish.jersey.client.JerseyClientBuilder;
 import org.glassfish.jersey.internal.InternalProperties;
-import org.glassfish.jersey.jackson.internal.jackson.jaxrs.json.JacksonJaxbJsonProvider;
+import org.glassfish.jersey.jackson.internal.jackson.jaxrs.cfg.Annotations;
 import org.glassfish.jersey.jackson.internal.jackson.jaxrs.json.JacksonJsonProvider;
 
 import javax.annotation.Nonnull;
 import javax.ws.rs.client.Client;
 import javax.ws.rs.client.ClientBuilder;
 import java.util.Collections;
+import java.util.List;
 import java.util.Map;
+import java.util.function.Supplier;
 
 /**
  * RestClientFactory is responsible for creating a new REST client whenever a
  * specific service instance is created. The factory will configure all of the
  * required filters and configuration options.
  */
+@Slf4j
 public class RestClientFactory {
-    private static final ObjectMapper DEFAULT_MAPPER = new ObjectMapper();
-    private static final JacksonJsonProvider JACKSON_JSON_PROVIDER =
-            new JacksonJaxbJsonProvider(
-                    DEFAULT_MAPPER, JacksonJaxbJsonProvider.DEFAULT_ANNOTATIONS);
     private static final ClientIdFilter CLIENT_ID_FILTER = new ClientIdFilter();
     private static final LogHeadersFilter LOG_HEADERS_FILTER = new LogHeadersFilter();
+    private static final ResponseCacheFilter RESPONSE_CACHE_FILTER = new ResponseCacheFilter();
 
-    static {
-        // Our default object mapper will ignore unknown properties when
-        // deserializing results
-        DEFAULT_MAPPER.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
-        // Serialize Date instances using the DateFormat we specify, do not serialize into
-        // timestamps.
-        DEFAULT_MAPPER.configure(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS, false);
-        // set explicit formatter that will serialize correctly
-        DEFAULT_MAPPER.setDateFormat(new RFC3339DateFormat());
-
-        FilterProvider filters =
-                new SimpleFilterProvider()
-                        .addFilter(ExplicitlySetFilter.NAME, ExplicitlySetFilter.INSTANCE);
-
-        DEFAULT_MAPPER.setFilterProvider(filters);
+    // holder, so that the mapper and the provider are only created when first used
+    private static class Jackson {
+        private static final ObjectMapper DEFAULT_MAPPER = new ObjectMapper();
+        // the models only use Jackson annotations, so JAXB annotations are not introspected
+        private static final JacksonJsonProvider JACKSON_JSON_PROVIDER =
+                new JacksonJsonProvider(DEFAULT_MAPPER, new Annotations[] {Annotations.JACKSON});
+
+        static {
+            // Our default object mapper will ignore unknown properties when
+            // deserializing results
+            DEFAULT_MAPPER.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+            // Serialize Date instances using the DateFormat we specify, do not serialize into
+            // timestamps.
+            DEFAULT_MAPPER.configure(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS, false);
+            // set explicit formatter that will serialize correctly
+            DEFAULT_MAPPER.setDateFormat(new RFC3339DateFormat());
+
+            FilterProvider filters =
+                    new SimpleFilterProvider()
+                            .addFilter(ExplicitlySetFilter.NAME, ExplicitlySetFilter.INSTANCE);
+
+            DEFAULT_MAPPER.setFilterProvider(filters);
+        }
     }
 
     @Getter private final ClientConfigurator clientConfigurator;
@@ -190,24 +204,58 @@ public class RestClientFactory {
             JaxRsCircuitBreaker circuitBreaker) {
         ClientConfiguration clientConfigurationToUse =
                 configuration != null ? configuration : ClientConfiguration.builder().build();
-        Client client =
-                createClient(
-                        defaultRequestSigner,
-                        requestSigners,
-                        clientConfigurationToUse,
-                        this.clientConfigurator);
+        final ClientConfigurator configurator = this.clientConfigurator;
+        final Supplier<Client> client =
+                () ->
+                        createClient(
+                                defaultRequestSigner,
+                                requestSigners,
+                                clientConfigurationToUse,
+                                configurator);
 
         if (circuitBreaker == null) {
             circuitBreaker =
                     CircuitBreakerUtils.getUserDefinedCircuitBreaker(clientConfigurationToUse);
         }
 
-        return new RestClient(
-                client,
-                new EntityFactory(),
-                circuitBreaker,
-                isNonBuffering,
-                this.clientConfigurator);
+        final RestClient restClient;
+        if (ClientRuntime.isLazyInitializationEnabled()) {
+            // the Jersey client is created when the first request is prepared
+            restClient =
+                    new RestClient(
+                            client,
+                            new EntityFactory(),
+                            circuitBreaker,
+                            isNonBuffering,
+                            this.clientConfigurator,
+                            clientConfigurationToUse.getRetryConfiguration(),
+                            clientConfigurationToUse.getRateLimiterConfiguration());
+        } else {
+            restClient =
+                    new RestClient(
+                            client.get(),
+                            new EntityFactory(),
+                            circuitBreaker,
+                            isNonBuffering,
+                            this.clientConfigurator,
+                            clientConfigurationToUse.getRetryConfiguration(),
+                            clientConfigurationToUse.getRateLimiterConfiguration());
+        }
+        if (clientConfigurationToUse.getHedgingConfiguration() != null) {
+            final RetryConfiguration retryConfiguration =
+                    clientConfigurationToUse.getRetryConfiguration();
+            restClient.setRequestHedger(
+                    new RequestHedger(
+                            clientConfigurationToUse.getHedgingConfiguration(),
+                            retryConfiguration != null
+                                    ? retryConfiguration.getRetryBudget()
+                                    : null));
+        }
+        if (clientConfigurationToUse.getResponseCacheConfiguration() != null) {
+            restClient.setResponseCache(
+                    new ResponseCache(clientConfigurationToUse.getResponseCacheConfiguration()));
+        }
+        return restClient;
     }
 
     @VisibleForTesting
@@ -221,7 +269,7 @@ public class RestClientFactory {
 
         Client client =
                 builder.build()
-                        .register(JACKSON_JSON_PROVIDER)
+                        .register(Jackson.JACKSON_JSON_PROVIDER)
                         .property(
                                 ClientProperties.CONNECT_TIMEOUT,
                                 configuration.getConnectionTimeoutMillis())
@@ -235,6 +283,9 @@ public class RestClientFactory {
         client.register(new AuthnClientFilter(defaultRequestSigner, requestSigners));
         client.register(CLIENT_ID_FILTER);
         client.register(LOG_HEADERS_FILTER);
+        if (configuration.getResponseCacheConfiguration() != null) {
+            client.register(RESPONSE_CACHE_FILTER);
+        }
 
         clientConfigurator.customizeClient(client);
         return client;
@@ -247,6 +298,31 @@ public class RestClientFactory {
      * @return The ObjectMapper used.
      */
     public static ObjectMapper getObjectMapper() {
-        return DEFAULT_MAPPER;
+        return Jackson.DEFAULT_MAPPER;
+    }
+
+    /**
+     * Creates and caches the JSON serializers and deserializers for the given model classes, and
+     * the classes they reference, so that the first request using them does not pay for it.
+     * <p>
+     * Call this at startup, for example with the response models of the operations whose latency
+     * matters, like {@code Instance.class}.
+     * @param modelClasses the model classes
+     */
+    public static void warmUp(Class<?>... modelClasses) {
+        final ObjectMapper mapper = Jackson.DEFAULT_MAPPER;
+        for (Class<?> modelClass : modelClasses) {
+            final JavaType type = mapper.constructType(modelClass);
+            final JavaType listType =
+                    mapper.getTypeFactory().constructCollectionType(List.class, type);
+            try {
+                // looking up the reader and writer creates the (de)serializers eagerly
+                mapper.readerFor(type);
+                mapper.readerFor(listType);
+                mapper.writerFor(type);
+            } catch (RuntimeException e) {
+                LOG.debug("Failed to warm up JSON handling for {}", modelClass, e);
+            }
+        }
     }
 }
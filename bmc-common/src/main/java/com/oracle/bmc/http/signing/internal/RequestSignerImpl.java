@@ -11,6 +11,7 @@ import com.google.common.base.Preconditions;
 import com.google.common.base.Supplier;
 import com.google.common.collect.ImmutableList;
 import com.google.common.hash.Hashing;
+import com.google.common.hash.HashingInputStream;
 import com.google.common.io.ByteStreams;
 import com.oracle.bmc.http.internal.RestClientFactory;
 import com.oracle.bmc.http.signing.RequestSigner;
@@ -41,6 +42,8 @@ import java.util.Locale;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.TimeZone;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * Implementation of the {@linkplain RequestSigner} interface
@@ -52,6 +55,14 @@ import java.util.TimeZone;
 public class RequestSignerImpl implements RequestSigner {
     private static final SignatureSigner SIGNER = new SignatureSigner();
 
+    private static final ThreadLocal<SimpleDateFormat> DATE_FORMATTER =
+            new ThreadLocal<SimpleDateFormat>() {
+                @Override
+                protected SimpleDateFormat initialValue() {
+                    return createFormatter();
+                }
+            };
+
     private final KeySupplier<RSAPrivateKey> keySupplier;
     private final SigningConfiguration signingConfiguration;
     private final Supplier<String> keyIdSupplier;
@@ -161,12 +172,14 @@ public class RequestSignerImpl implements RequestSigner {
             final String path = extractPath(uri);
 
             // 1) get the required headers that must be signed, and the ones that should be signed if present
-            final List<String> requiredHeaders =
-                    getRequiredSigningHeaders(lowerHttpMethod, signingConfiguration);
-            final List<String> optionalHeaders =
-                    getOptionalSigningHeaders(lowerHttpMethod, signingConfiguration);
+            final SigningTemplate template = signingConfiguration.getTemplate(lowerHttpMethod);
+            final List<String> optionalHeaders = template.optionalHeaders;
+            List<String> requiredHeaders = template.requiredHeaders;
             for (String optionalHeaderName : optionalHeaders) {
                 if (headers.get(optionalHeaderName) != null) {
+                    if (requiredHeaders == template.requiredHeaders) {
+                        requiredHeaders = new ArrayList<>(template.requiredHeaders);
+                    }
                     requiredHeaders.add(optionalHeaderName);
                 }
             }
@@ -200,15 +213,17 @@ public class RequestSignerImpl implements RequestSigner {
             final String signature = sign(key, algorithm, stringToSign);
 
             // 6) calculate the auth header and add to all the missing headers that should be added
+            final String headersParameter =
+                    (requiredHeaders == template.requiredHeaders)
+                            ? template.requiredHeadersParameter
+                            : StringUtils.join(requiredHeaders, " ");
             final String authorizationHeader =
                     calculateAuthorizationHeader(
                             keyId,
-                            lowerHttpMethod,
                             signature,
                             algorithm,
                             version.getVersionName(),
-                            requiredHeaders,
-                            optionalHeaders);
+                            headersParameter);
             missingHeaders.put(Constants.AUTHORIZATION_HEADER, authorizationHeader);
 
             // 7) add any auth headers that were passed in as part of the original headers to the headers being returned
@@ -304,7 +319,7 @@ public class RequestSignerImpl implements RequestSigner {
         Map<String, String> missingHeaders = new HashMap<>();
 
         if (isRequiredHeaderMissing(Constants.DATE, requiredHeaders, existingHeaders)) {
-            missingHeaders.put(Constants.DATE, createFormatter().format(new Date()));
+            missingHeaders.put(Constants.DATE, DATE_FORMATTER.get().format(new Date()));
         }
 
         if (isRequiredHeaderMissing(Constants.HOST, requiredHeaders, existingHeaders)) {
@@ -355,13 +370,24 @@ public class RequestSignerImpl implements RequestSigner {
             }
         }
 
-        final byte[] bodyBytes = readBodyBytes(body);
+        final boolean isContentLengthMissing =
+                isRequiredHeaderMissing(Constants.CONTENT_LENGTH, requiredHeaders, existingHeaders);
+        final boolean isContentSha256Missing =
+                isRequiredHeaderMissing(
+                        Constants.X_CONTENT_SHA256, requiredHeaders, existingHeaders);
+        if (!isContentLengthMissing && !isContentSha256Missing) {
+            // the caller already supplied both, the body does not have to be read at all; this also
+            // allows signing streams that cannot be read twice
+            return missingHeaders;
+        }
+
+        final BodyDigest bodyDigest = digestBody(body);
 
-        if (isRequiredHeaderMissing(Constants.CONTENT_LENGTH, requiredHeaders, existingHeaders)) {
-            missingHeaders.put(Constants.CONTENT_LENGTH, Integer.toString(bodyBytes.length));
+        if (isContentLengthMissing) {
+            missingHeaders.put(Constants.CONTENT_LENGTH, Long.toString(bodyDigest.length));
         }
-        if (isRequiredHeaderMissing(Constants.X_CONTENT_SHA256, requiredHeaders, existingHeaders)) {
-            missingHeaders.put(Constants.X_CONTENT_SHA256, calculateBodySHA256(bodyBytes));
+        if (isContentSha256Missing) {
+            missingHeaders.put(Constants.X_CONTENT_SHA256, base64Encode(bodyDigest.sha256));
         }
 
         return missingHeaders;
@@ -372,11 +398,6 @@ public class RequestSignerImpl implements RequestSigner {
         return requiredHeaders.contains(headerName) && !existingHeaders.containsKey(headerName);
     }
 
-    private static String calculateBodySHA256(final byte[] body) {
-        byte[] hash = Hashing.sha256().hashBytes(body).asBytes();
-        return base64Encode(hash);
-    }
-
     @VisibleForTesting
     static String calculateStringToSign(
             String httpMethod,
@@ -387,7 +408,7 @@ public class RequestSignerImpl implements RequestSigner {
 
         // Header name and value are separated with ": " and each (name, value)
         // pair is separated with "\n"
-        List<String> signatureParts = new ArrayList<>();
+        final StringBuilder stringToSign = new StringBuilder(256);
 
         // Use the order from requiredHeaders, which must match the order
         // when creating the authorization header
@@ -424,10 +445,13 @@ public class RequestSignerImpl implements RequestSigner {
                 throw exception;
             }
 
-            signatureParts.add(String.format("%s: %s", headerName, headerValue));
+            if (stringToSign.length() > 0) {
+                stringToSign.append('\n');
+            }
+            stringToSign.append(headerName).append(": ").append(headerValue);
         }
 
-        return StringUtils.join(signatureParts, "\n");
+        return stringToSign.toString();
     }
 
     private static String sign(RSAPrivateKey key, Algorithm algorithm, String stringToSign) {
@@ -437,72 +461,88 @@ public class RequestSignerImpl implements RequestSigner {
         return base64Encode(signature);
     }
 
+    /**
+     * Calculate the authorization header.
+     *
+     * @param headersParameter space delimited list of signed headers, e.g. "date (request-target) content-length"
+     */
     private static String calculateAuthorizationHeader(
             final String keyId,
-            final String httpMethod,
             final String signature,
             final Algorithm algorithm,
             final String version,
-            final List<String> requiredHeaders,
-            final List<String> optionalHeaders) {
-        final String authorizationHeader =
-                "Signature headers=\"%s\",keyId=\"%s\","
-                        + "algorithm=\"%s\",signature=\"%s\",version=\"%s\"";
-        // Space delimited: "date (request-target) content-length" etc
-        String headers = StringUtils.join(requiredHeaders, " ");
-
-        final String algorithmName = algorithm.getSpecName();
-        return String.format(
-                authorizationHeader, headers, keyId, algorithmName, signature, version);
-    }
-
-    private static List<String> getRequiredSigningHeaders(
-            final String httpMethod, final SigningConfiguration signingConfiguration) {
-        List<String> headerNames = signingConfiguration.headersToSign.get(httpMethod);
-        return getIgnoreCaseHeaders(headerNames);
+            final String headersParameter) {
+        return new StringBuilder(512)
+                .append("Signature headers=\"")
+                .append(headersParameter)
+                .append("\",keyId=\"")
+                .append(keyId)
+                .append("\",algorithm=\"")
+                .append(algorithm.getSpecName())
+                .append("\",signature=\"")
+                .append(signature)
+                .append("\",version=\"")
+                .append(version)
+                .append('"')
+                .toString();
     }
 
     private static List<String> getIgnoreCaseHeaders(List<String> headerNames) {
         if (headerNames == null) {
-            return new ArrayList<>(0);
+            return ImmutableList.of();
         }
-        ArrayList<String> result = new ArrayList<>(headerNames.size());
+        ImmutableList.Builder<String> result = ImmutableList.builder();
         for (String headerName : headerNames) {
             result.add(headerName.toLowerCase());
         }
-        return result;
-    }
-
-    private static List<String> getOptionalSigningHeaders(
-            final String httpMethod, final SigningConfiguration signingConfiguration) {
-        List<String> headerNames = signingConfiguration.optionalHeadersToSign.get(httpMethod);
-        return getIgnoreCaseHeaders(headerNames);
+        return result.build();
     }
 
-    private static byte[] readBodyBytes(Object body) throws IOException {
+    /**
+     * Calculate the length and the SHA-256 hash of the body.
+     * <p>
+     * Streams are read incrementally through the digest, so the body is never held in memory.
+     */
+    private static BodyDigest digestBody(Object body) throws IOException {
         // empty body is OK
         if (body == null) {
-            return "".getBytes(StandardCharsets.UTF_8);
+            return digestBytes(new byte[0]);
         }
         // if already a string, just use it unchanged
         if (body instanceof String) {
-            return ((String) body).getBytes(StandardCharsets.UTF_8);
+            return digestBytes(((String) body).getBytes(StandardCharsets.UTF_8));
         } else if (body instanceof DuplicatableInputStream) {
-            final InputStream duplicatedBody = ((DuplicatableInputStream) body).duplicate();
-            return ByteStreams.toByteArray(duplicatedBody);
+            try (InputStream duplicatedBody = ((DuplicatableInputStream) body).duplicate()) {
+                return digestStream(duplicatedBody);
+            }
         } else if (body instanceof KeepOpenInputStream) {
-            byte[] byteArr = ByteStreams.toByteArray((KeepOpenInputStream) body);
+            BodyDigest bodyDigest = digestStream((KeepOpenInputStream) body);
             Retriers.tryResetStreamForRetry((InputStream) body, true);
-            return byteArr;
+            return bodyDigest;
         } else if (body instanceof InputStream) {
             // TODO: Allow input streams to be signed, but for now restrict to DIS until we can refactor
             throw new IllegalArgumentException(
-                    "Only DuplicatableInputStream supported for body that needs signing.");
+                    "Only DuplicatableInputStream supported for body that needs signing. "
+                            + "Alternatively, supply the '"
+                            + Constants.CONTENT_LENGTH
+                            + "' and '"
+                            + Constants.X_CONTENT_SHA256
+                            + "' headers.");
         }
 
         throw new IllegalArgumentException("Unexpected body type: " + body.getClass().getName());
     }
 
+    private static BodyDigest digestBytes(byte[] bytes) {
+        return new BodyDigest(bytes.length, Hashing.sha256().hashBytes(bytes).asBytes());
+    }
+
+    private static BodyDigest digestStream(InputStream stream) throws IOException {
+        final HashingInputStream hashingStream = new HashingInputStream(Hashing.sha256(), stream);
+        final long length = ByteStreams.exhaust(hashingStream);
+        return new BodyDigest(length, hashingStream.hash().asBytes());
+    }
+
     private static String base64Encode(byte[] bytes) {
         // encodeBase64String changed from chunked in v1.4 to not chunked in
         // v1.5 so we cannot rely on which version is going to be used by clients,
@@ -533,5 +573,58 @@ public class RequestSignerImpl implements RequestSigner {
          * Flag indicating whether InputStreams in PUT requests are allowed to skip content headers.
          */
         private final boolean skipContentHeadersForStreamingPutRequests;
+        /**
+         * Map of lower case HTTP method to the signing template for that method, computed on first use.
+         */
+        private final ConcurrentMap<String, SigningTemplate> templates = new ConcurrentHashMap<>();
+
+        private SigningTemplate getTemplate(final String lowerHttpMethod) {
+            SigningTemplate template = templates.get(lowerHttpMethod);
+            if (template == null) {
+                template =
+                        new SigningTemplate(
+                                getIgnoreCaseHeaders(headersToSign.get(lowerHttpMethod)),
+                                getIgnoreCaseHeaders(
+                                        optionalHeadersToSign.get(lowerHttpMethod)));
+                SigningTemplate existing = templates.putIfAbsent(lowerHttpMethod, template);
+                if (existing != null) {
+                    template = existing;
+                }
+            }
+            return template;
+        }
+    }
+
+    /**
+     * Length and SHA-256 hash of a request body.
+     */
+    @RequiredArgsConstructor
+    private static final class BodyDigest {
+        private final long length;
+        private final byte[] sha256;
+    }
+
+    /**
+     * The parts of the signature that only depend on the signing configuration and the HTTP method.
+     */
+    private static final class SigningTemplate {
+        /**
+         * Lower case names of the headers that must be signed. Immutable.
+         */
+        private final List<String> requiredHeaders;
+        /**
+         * Lower case names of the headers that are signed if present. Immutable.
+         */
+        private final List<String> optionalHeaders;
+        /**
+         * The "headers" parameter of the authorization header if none of the optional headers are present.
+         */
+        private final String requiredHeadersParameter;
+
+        private SigningTemplate(List<String> requiredHeaders, List<String> optionalHeaders) {
+            this.requiredHeaders = requiredHeaders;
+            this.optionalHeaders = optionalHeaders;
+            this.requiredHeadersParameter = StringUtils.join(requiredHeaders, " ");
+        }
     }
 }
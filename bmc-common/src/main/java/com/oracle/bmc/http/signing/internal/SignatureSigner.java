@@ -9,22 +9,41 @@ import java.security.NoSuchAlgorithmException;
 import java.security.Signature;
 import java.security.SignatureException;
 import java.security.interfaces.RSAPrivateKey;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import javax.annotation.Nonnull;
 import javax.annotation.concurrent.Immutable;
 
 import org.apache.commons.lang3.StringUtils;
 
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
 
 import lombok.extern.slf4j.Slf4j;
 
 /**
  * The SignatureSigner is used to actually sign a message with a private key. This version is specific to RSA.
+ * <p>
+ * {@link Signature} engines are kept in a small pool per algorithm, and are only re-initialized when
+ * the private key changes. Looking up the provider and initializing the key are by far the most
+ * expensive parts of signing a request, and neither has to be repeated while the same key is in use.
+ * <p>
+ * An engine keeps the key it was initialized with. The pool is bounded, independent of the number of
+ * threads, and an engine is re-initialized with the new key when the key changes, so replaced keys
+ * do not stay reachable from idle threads.
  */
 @Immutable
 @Slf4j
 public class SignatureSigner {
+    private static final int MAX_IDLE_SIGNATURES = 16;
+
+    // idle engines by algorithm, most recently used first
+    private static final ConcurrentMap<String, Deque<CachedSignature>> IDLE_SIGNATURES =
+            new ConcurrentHashMap<>();
 
     /**
      * Sign the given message using the given private key
@@ -50,14 +69,94 @@ public class SignatureSigner {
                 (null != message) && (0 < message.length), "message must not be null or empty");
         Preconditions.checkArgument(!StringUtils.isBlank(algorithm));
 
+        CachedSignature cached = take(IDLE_SIGNATURES.get(algorithm), privateKey);
         try {
-            final Signature signature = Signature.getInstance(algorithm);
-            signature.initSign(privateKey);
-            signature.update(message);
-            return signature.sign();
+            if (cached == null) {
+                cached = new CachedSignature(Signature.getInstance(algorithm));
+            }
+            final byte[] signature = cached.sign(privateKey, message);
+            // the pool of an algorithm is only created once an engine for it was created, so
+            // unknown algorithms don't leave an entry behind
+            release(
+                    IDLE_SIGNATURES.computeIfAbsent(algorithm, a -> new ArrayDeque<>()), cached);
+            return signature;
         } catch (final NoSuchAlgorithmException | InvalidKeyException | SignatureException e) {
             LOG.debug("Error signing message", e);
+            // the engine may be left in an undefined state, don't reuse it
             throw new SignedRequestException(e);
         }
     }
+
+    /**
+     * Takes an idle engine, preferably one that is initialized with the key.  Otherwise the least
+     * recently used engine is taken, and re-initialized with the key.
+     */
+    private static CachedSignature take(Deque<CachedSignature> idle, RSAPrivateKey privateKey) {
+        if (idle == null) {
+            return null;
+        }
+        synchronized (idle) {
+            final Iterator<CachedSignature> iterator = idle.iterator();
+            while (iterator.hasNext()) {
+                final CachedSignature cached = iterator.next();
+                if (cached.initializedKey == privateKey) {
+                    iterator.remove();
+                    return cached;
+                }
+            }
+            return idle.pollLast();
+        }
+    }
+
+    private static void release(Deque<CachedSignature> idle, CachedSignature cached) {
+        synchronized (idle) {
+            idle.addFirst(cached);
+            if (idle.size() > MAX_IDLE_SIGNATURES) {
+                idle.removeLast();
+            }
+        }
+    }
+
+    @VisibleForTesting
+    static boolean hasPool(String algorithm) {
+        return IDLE_SIGNATURES.containsKey(algorithm);
+    }
+
+    @VisibleForTesting
+    static int getIdleSignatureCount(String algorithm) {
+        final Deque<CachedSignature> idle = IDLE_SIGNATURES.get(algorithm);
+        if (idle == null) {
+            return 0;
+        }
+        synchronized (idle) {
+            return idle.size();
+        }
+    }
+
+    /**
+     * A {@link Signature} engine together with the key it was last initialized with.
+     * <p>
+     * After {@link Signature#sign()} the engine is reset to the state it was in after the last call
+     * to {@link Signature#initSign(java.security.PrivateKey)}, so it can be reused for the same key.
+     */
+    private static final class CachedSignature {
+        private final Signature signature;
+        private RSAPrivateKey initializedKey;
+
+        private CachedSignature(Signature signature) {
+            this.signature = signature;
+        }
+
+        private byte[] sign(RSAPrivateKey privateKey, byte[] message)
+                throws InvalidKeyException, SignatureException {
+            if (privateKey != initializedKey) {
+                // clear first, so a failed initialization won't leave a stale key behind
+                initializedKey = null;
+                signature.initSign(privateKey);
+                initializedKey = privateKey;
+            }
+            signature.update(message);
+            return signature.sign();
+        }
+    }
 }
@@ -0,0 +1,169 @@
+/**
+ * Copyright (c) 2016, 2021, Oracle and/or its affiliates.  All rights reserved.
+ * This software is dual-licensed to you under the Universal Permissive License (UPL) 1.0 as shown at https://oss.oracle.com/licenses/upl or Apache License 2.0 as shown at http://www.apache.org/licenses/LICENSE-2.0. You may choose either license.
+ */
+package com.oracle.bmc.instrumentation;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import lombok.Getter;
+import lombok.Value;
+
+/**
+ * An {@link SdkInstrumentation} that keeps latency histograms and counters in memory, by service
+ * and operation.
+ * <p>
+ * Read the metrics with {@link #getOperationMetrics()}, for example to export them periodically
+ * to a monitoring system.
+ */
+public class HistogramInstrumentation implements SdkInstrumentation {
+    private final ConcurrentMap<OperationKey, OperationMetrics> operations =
+            new ConcurrentHashMap<>();
+
+    /**
+     * Time it took to sign requests.
+     */
+    @Getter private final LatencyHistogram signingLatency = new LatencyHistogram();
+
+    private final LongAdder circuitBreakerTransitions = new LongAdder();
+
+    @Override
+    public void onResponse(
+            String serviceName,
+            String operationName,
+            int statusCode,
+            long contentLength,
+            long latencyNanos) {
+        final OperationMetrics metrics = metrics(serviceName, operationName);
+        metrics.latency.record(latencyNanos);
+        if (statusCode >= 400) {
+            metrics.errorResponses.increment();
+        }
+        if (contentLength > 0) {
+            metrics.bytesReceived.add(contentLength);
+        }
+    }
+
+    @Override
+    public void onRequestFailed(
+            String serviceName, String operationName, Throwable error, long latencyNanos) {
+        final OperationMetrics metrics = metrics(serviceName, operationName);
+        metrics.latency.record(latencyNanos);
+        metrics.failedRequests.increment();
+    }
+
+    @Override
+    public void onRetry(String serviceName, String operationName, int retry, Throwable cause) {
+        metrics(serviceName, operationName).retries.increment();
+    }
+
+    @Override
+    public void onRequestSigned(String httpMethod, long signingNanos) {
+        signingLatency.record(signingNanos);
+    }
+
+    @Override
+    public void onWaiterPoll(String serviceName, String operationName, int poll) {
+        metrics(serviceName, operationName).waiterPolls.increment();
+    }
+
+    @Override
+    public void onCircuitBreakerStateTransition(
+            String circuitBreakerName, String fromState, String toState) {
+        circuitBreakerTransitions.increment();
+    }
+
+    /**
+     * Returns the number of circuit breaker state transitions.
+     * @return the number of transitions
+     */
+    public long getCircuitBreakerTransitions() {
+        return circuitBreakerTransitions.sum();
+    }
+
+    /**
+     * Returns the metrics of all operations that were called.
+     * @return the metrics, by service and operation
+     */
+    public Map<OperationKey, OperationMetrics> getOperationMetrics() {
+        return Collections.unmodifiableMap(new HashMap<>(operations));
+    }
+
+    private OperationMetrics metrics(String serviceName, String operationName) {
+        final OperationKey key = new OperationKey(serviceName, operationName);
+        final OperationMetrics metrics = operations.get(key);
+        return metrics != null
+                ? metrics
+                : operations.computeIfAbsent(key, k -> new OperationMetrics());
+    }
+
+    /**
+     * Identifies an operation of a service.
+     */
+    @Value
+    public static class OperationKey {
+        String serviceName;
+        String operationName;
+    }
+
+    /**
+     * Metrics of one operation.
+     */
+    public static class OperationMetrics {
+        /**
+         * Latency of the requests, until the response headers were received or the request failed.
+         */
+        @Getter private final LatencyHistogram latency = new LatencyHistogram();
+
+        private final LongAdder errorResponses = new LongAdder();
+        private final LongAdder failedRequests = new LongAdder();
+        private final LongAdder retries = new LongAdder();
+        private final LongAdder waiterPolls = new LongAdder();
+        private final LongAdder bytesReceived = new LongAdder();
+
+        /**
+         * Returns the number of responses with a status code of 400 or above.
+         * @return the number of error responses
+         */
+        public long getErrorResponses() {
+            return errorResponses.sum();
+        }
+
+        /**
+         * Returns the number of requests that failed without a response.
+         * @return the number of failed requests
+         */
+        public long getFailedRequests() {
+            return failedRequests.sum();
+        }
+
+        /**
+         * Returns the number of retries.
+         * @return the number of retries
+         */
+        public long getRetries() {
+            return retries.sum();
+        }
+
+        /**
+         * Returns the number of waiter polls.
+         * @return the number of polls
+         */
+        public long getWaiterPolls() {
+            return waiterPolls.sum();
+        }
+
+        /**
+         * Returns the number of response body bytes, as announced by the Content-Length header.
+         * @return the number of bytes
+         */
+        public long getBytesReceived() {
+            return bytesReceived.sum();
+        }
+    }
+}
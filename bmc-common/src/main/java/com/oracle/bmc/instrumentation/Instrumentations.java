@@ -0,0 +1,225 @@
+/**
+ * Copyright (c) 2016, 2021, Oracle and/or its affiliates.  All rights reserved.
+ * This software is dual-licensed to you under the Universal Permissive License (UPL) 1.0 as shown at https://oss.oracle.com/licenses/upl or Apache License 2.0 as shown at http://www.apache.org/licenses/LICENSE-2.0. You may choose either license.
+ */
+package com.oracle.bmc.instrumentation;
+
+import java.util.Arrays;
+
+import com.oracle.bmc.InternalSdk;
+
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Registry of the {@link SdkInstrumentation}s that receive events about the requests of all
+ * clients.
+ * <p>
+ * If nothing is registered, which is the default, the SDK only checks {@link #isEnabled()} and
+ * does not measure anything.
+ */
+@Slf4j
+public final class Instrumentations {
+    private static final String UNKNOWN_SERVICE = "unknown";
+    private static final String REQUESTS_PACKAGE = ".requests.";
+    private static final String REQUEST_SUFFIX = "Request";
+
+    private static final ClassValue<String[]> NAMES =
+            new ClassValue<String[]>() {
+                @Override
+                protected String[] computeValue(Class<?> requestClass) {
+                    return computeNames(requestClass);
+                }
+            };
+
+    private static volatile SdkInstrumentation[] instrumentations = new SdkInstrumentation[0];
+
+    private Instrumentations() {}
+
+    /**
+     * Registers an instrumentation.
+     * @param instrumentation the instrumentation
+     */
+    public static synchronized void register(@NonNull SdkInstrumentation instrumentation) {
+        final SdkInstrumentation[] updated =
+                Arrays.copyOf(instrumentations, instrumentations.length + 1);
+        updated[instrumentations.length] = instrumentation;
+        instrumentations = updated;
+    }
+
+    /**
+     * Unregisters an instrumentation.
+     * @param instrumentation the instrumentation
+     * @return true if the instrumentation was registered
+     */
+    public static synchronized boolean unregister(@NonNull SdkInstrumentation instrumentation) {
+        for (int i = 0; i < instrumentations.length; i++) {
+            if (instrumentations[i] == instrumentation) {
+                final SdkInstrumentation[] updated =
+                        new SdkInstrumentation[instrumentations.length - 1];
+                System.arraycopy(instrumentations, 0, updated, 0, i);
+                System.arraycopy(
+                        instrumentations, i + 1, updated, i, instrumentations.length - i - 1);
+                instrumentations = updated;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns true if any instrumentation is registered.
+     * @return true if events should be reported
+     */
+    public static boolean isEnabled() {
+        return instrumentations.length > 0;
+    }
+
+    /**
+     * Returns the service name for a request, see {@link SdkInstrumentation}.
+     * @param request the request
+     * @return the service name
+     */
+    public static String getServiceName(@NonNull Object request) {
+        return NAMES.get(request.getClass())[0];
+    }
+
+    /**
+     * Returns the operation name for a request, see {@link SdkInstrumentation}.
+     * @param request the request
+     * @return the operation name
+     */
+    public static String getOperationName(@NonNull Object request) {
+        return NAMES.get(request.getClass())[1];
+    }
+
+    private static String[] computeNames(Class<?> requestClass) {
+        final String className = requestClass.getName();
+        String operationName = requestClass.getSimpleName();
+        if (operationName.endsWith(REQUEST_SUFFIX)
+                && operationName.length() > REQUEST_SUFFIX.length()) {
+            operationName =
+                    operationName.substring(0, operationName.length() - REQUEST_SUFFIX.length());
+        }
+        String serviceName = UNKNOWN_SERVICE;
+        final int requestsPackage = className.lastIndexOf(REQUESTS_PACKAGE);
+        if (requestsPackage > 0) {
+            final String servicePackage = className.substring(0, requestsPackage);
+            serviceName = servicePackage.substring(servicePackage.lastIndexOf('.') + 1);
+        }
+        return new String[] {serviceName, operationName};
+    }
+
+    /**
+     * Reports a response, see {@link SdkInstrumentation#onResponse}.
+     * @param request the request
+     * @param statusCode the HTTP status code
+     * @param contentLength the length of the response body, or -1 if not known
+     * @param latencyNanos the latency, in nanoseconds
+     */
+    @InternalSdk
+    public static void onResponse(
+            Object request, int statusCode, long contentLength, long latencyNanos) {
+        for (SdkInstrumentation instrumentation : instrumentations) {
+            try {
+                instrumentation.onResponse(
+                        getServiceName(request),
+                        getOperationName(request),
+                        statusCode,
+                        contentLength,
+                        latencyNanos);
+            } catch (RuntimeException e) {
+                LOG.debug("Instrumentation failed", e);
+            }
+        }
+    }
+
+    /**
+     * Reports a failed request, see {@link SdkInstrumentation#onRequestFailed}.
+     * @param request the request
+     * @param error the error
+     * @param latencyNanos the time until the request failed, in nanoseconds
+     */
+    @InternalSdk
+    public static void onRequestFailed(Object request, Throwable error, long latencyNanos) {
+        for (SdkInstrumentation instrumentation : instrumentations) {
+            try {
+                instrumentation.onRequestFailed(
+                        getServiceName(request), getOperationName(request), error, latencyNanos);
+            } catch (RuntimeException e) {
+                LOG.debug("Instrumentation failed", e);
+            }
+        }
+    }
+
+    /**
+     * Reports a retry, see {@link SdkInstrumentation#onRetry}.
+     * @param request the request
+     * @param retry the number of the retry, starting at 1
+     * @param cause the exception that caused the retry
+     */
+    @InternalSdk
+    public static void onRetry(Object request, int retry, Throwable cause) {
+        for (SdkInstrumentation instrumentation : instrumentations) {
+            try {
+                instrumentation.onRetry(
+                        getServiceName(request), getOperationName(request), retry, cause);
+            } catch (RuntimeException e) {
+                LOG.debug("Instrumentation failed", e);
+            }
+        }
+    }
+
+    /**
+     * Reports a signed request, see {@link SdkInstrumentation#onRequestSigned}.
+     * @param httpMethod the HTTP method of the request
+     * @param signingNanos the time it took to sign the request, in nanoseconds
+     */
+    @InternalSdk
+    public static void onRequestSigned(String httpMethod, long signingNanos) {
+        for (SdkInstrumentation instrumentation : instrumentations) {
+            try {
+                instrumentation.onRequestSigned(httpMethod, signingNanos);
+            } catch (RuntimeException e) {
+                LOG.debug("Instrumentation failed", e);
+            }
+        }
+    }
+
+    /**
+     * Reports a waiter poll, see {@link SdkInstrumentation#onWaiterPoll}.
+     * @param request the request used to poll
+     * @param poll the number of the poll, starting at 1
+     */
+    @InternalSdk
+    public static void onWaiterPoll(Object request, int poll) {
+        for (SdkInstrumentation instrumentation : instrumentations) {
+            try {
+                instrumentation.onWaiterPoll(
+                        getServiceName(request), getOperationName(request), poll);
+            } catch (RuntimeException e) {
+                LOG.debug("Instrumentation failed", e);
+            }
+        }
+    }
+
+    /**
+     * Reports a circuit breaker state transition, see
+     * {@link SdkInstrumentation#onCircuitBreakerStateTransition}.
+     * @param circuitBreakerName the name of the circuit breaker
+     * @param fromState the previous state
+     * @param toState the new state
+     */
+    @InternalSdk
+    public static void onCircuitBreakerStateTransition(
+            String circuitBreakerName, String fromState, String toState) {
+        for (SdkInstrumentation instrumentation : instrumentations) {
+            try {
+                instrumentation.onCircuitBreakerStateTransition(
+                        circuitBreakerName, fromState, toState);
+            } catch (RuntimeException e) {
+                LOG.debug("Instrumentation failed", e);
+            }
+        }
+    }
+}
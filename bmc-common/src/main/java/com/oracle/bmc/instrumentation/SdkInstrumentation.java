@@ -0,0 +1,81 @@
+/**
+ * Copyright (c) 2016, 2021, Oracle and/or its affiliates.  All rights reserved.
+ * This software is dual-licensed to you under the Universal Permissive License (UPL) 1.0 as shown at https://oss.oracle.com/licenses/upl or Apache License 2.0 as shown at http://www.apache.org/licenses/LICENSE-2.0. You may choose either license.
+ */
+package com.oracle.bmc.instrumentation;
+
+/**
+ * Receives events about the requests the SDK makes, for example to record metrics or traces.
+ * <p>
+ * Register an implementation with {@link Instrumentations#register(SdkInstrumentation)}.  All
+ * methods have empty default implementations, so only the events of interest need to be
+ * implemented.  The methods are called on the threads making the requests, including the threads
+ * of the HTTP client for asynchronous requests; they must be thread-safe, fast, and must not block.
+ * <p>
+ * Events about a request are tagged with the service and operation name, derived from the request
+ * class: {@code com.oracle.bmc.objectstorage.requests.GetObjectRequest} has the service name
+ * {@code objectstorage} and the operation name {@code GetObject}.
+ */
+public interface SdkInstrumentation {
+
+    /**
+     * Called when a response was received.  The latency is the time until the status and headers
+     * were received; it does not include reading the body.
+     * @param serviceName the service name
+     * @param operationName the operation name
+     * @param statusCode the HTTP status code
+     * @param contentLength the length of the response body, or -1 if not known
+     * @param latencyNanos the latency, in nanoseconds
+     */
+    default void onResponse(
+            String serviceName,
+            String operationName,
+            int statusCode,
+            long contentLength,
+            long latencyNanos) {}
+
+    /**
+     * Called when a request failed without a response, for example because the connection failed
+     * or timed out.
+     * @param serviceName the service name
+     * @param operationName the operation name
+     * @param error the error
+     * @param latencyNanos the time until the request failed, in nanoseconds
+     */
+    default void onRequestFailed(
+            String serviceName, String operationName, Throwable error, long latencyNanos) {}
+
+    /**
+     * Called before a call is retried.
+     * @param serviceName the service name
+     * @param operationName the operation name
+     * @param retry the number of the retry, starting at 1
+     * @param cause the exception that caused the retry
+     */
+    default void onRetry(String serviceName, String operationName, int retry, Throwable cause) {}
+
+    /**
+     * Called when a request was signed.
+     * @param httpMethod the HTTP method of the request
+     * @param signingNanos the time it took to sign the request, in nanoseconds
+     */
+    default void onRequestSigned(String httpMethod, long signingNanos) {}
+
+    /**
+     * Called before a waiter polls for the state of a resource.
+     * @param serviceName the service name
+     * @param operationName the operation name used to poll
+     * @param poll the number of the poll, starting at 1
+     */
+    default void onWaiterPoll(String serviceName, String operationName, int poll) {}
+
+    /**
+     * Called when a circuit breaker created by the SDK changes its state.
+     * @param circuitBreakerName the name of the circuit breaker, the endpoint host and operation it
+     *                           is used for if it is partitioned
+     * @param fromState the previous state, for example {@code CLOSED}
+     * @param toState the new state, for example {@code OPEN}
+     */
+    default void onCircuitBreakerStateTransition(
+            String circuitBreakerName, String fromState, String toState) {}
+}
@@ -0,0 +1,174 @@
+/**
+ * Copyright (c) 2016, 2021, Oracle and/or its affiliates.  All rights reserved.
+ * This software is dual-licensed to you under the Universal Permissive License (UPL) 1.0 as shown at https://oss.oracle.com/licenses/upl or Apache License 2.0 as shown at http://www.apache.org/licenses/LICENSE-2.0. You may choose either license.
+ */
+package com.oracle.bmc.paginator.internal;
+
+import com.google.common.base.Function;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Queue;
+import java.util.concurrent.Executor;
+
+/**
+ * An iterator for iterating over response objects returned from a list operation, like
+ * {@link ResponseIterator}, which fetches the next pages on an executor while the caller processes
+ * the current one.
+ * <p>
+ * Since every request needs the page token of the previous response, the pages are still fetched
+ * one after the other, but up to {@code prefetchDepth} pages ahead of the caller.  No executor
+ * thread waits for the caller: if the caller stops iterating, at most {@code prefetchDepth} pages
+ * are fetched and kept.
+ *
+ * This iterator does not support removal of elements.
+ *
+ * @param <REQUESTBUILDER> the type of a builder which can produce requests for a list operation
+ * @param <REQUEST> the type of a request to a list operation. This type must match the type produced
+ * by REQUESTBUILDER
+ * @param <RESPONSE> the type of the response from a list operation
+ */
+public class PrefetchingResponseIterator<REQUESTBUILDER, REQUEST, RESPONSE>
+        extends AbstractResponseIterator<REQUESTBUILDER, REQUEST, RESPONSE>
+        implements Iterator<RESPONSE> {
+    private final Executor executor;
+    private final int prefetchDepth;
+
+    // guarded by this
+    private final Queue<RESPONSE> fetchedPages = new ArrayDeque<>();
+    private boolean isFetching = false;
+    private boolean isLastPageFetched = false;
+    private RuntimeException fetchException = null;
+
+    // only used by the caller
+    private boolean isStarted = false;
+    private boolean isLastPageReturned = false;
+
+    /**
+     * Constructs a new PrefetchingResponseIterator.
+     *
+     * @param requestBuilder a builder object which can create requests for a list operation
+     * @param nextPageTokenRetrievalFunction a function which can extract the next page token from a
+     * response produced by a list operation
+     * @param requestBuilderFunction a function which can build a request for a list operation based on
+     * a builder object and a pagination token to use
+     * @param pageRetrievalFunction a function which will call a list operation with a request and return
+     * the response of the call
+     * @param executor the executor to fetch the pages on
+     * @param prefetchDepth the maximum number of pages to fetch ahead of the caller, at least 1
+     */
+    public PrefetchingResponseIterator(
+            final REQUESTBUILDER requestBuilder,
+            final Function<RESPONSE, String> nextPageTokenRetrievalFunction,
+            final Function<RequestBuilderAndToken<REQUESTBUILDER>, REQUEST> requestBuilderFunction,
+            final Function<REQUEST, RESPONSE> pageRetrievalFunction,
+            final Executor executor,
+            final int prefetchDepth) {
+        super(
+                requestBuilder,
+                nextPageTokenRetrievalFunction,
+                requestBuilderFunction,
+                pageRetrievalFunction);
+        if (prefetchDepth < 1) {
+            throw new IllegalArgumentException("The prefetch depth must be at least 1");
+        }
+        this.executor = executor;
+        this.prefetchDepth = prefetchDepth;
+    }
+
+    @Override
+    public boolean hasNext() {
+        return !isLastPageReturned;
+    }
+
+    @Override
+    public RESPONSE next() {
+        if (isLastPageReturned) {
+            throw new NoSuchElementException(
+                    "There are no more elements available to this iterator");
+        }
+        final RESPONSE page;
+        synchronized (this) {
+            if (!isStarted) {
+                isStarted = true;
+                fetchMorePages();
+            }
+            boolean isInterrupted = false;
+            while (fetchedPages.isEmpty() && fetchException == null) {
+                try {
+                    wait();
+                } catch (InterruptedException e) {
+                    isInterrupted = true;
+                }
+            }
+            if (isInterrupted) {
+                Thread.currentThread().interrupt();
+            }
+            if (fetchedPages.isEmpty()) {
+                isLastPageReturned = true;
+                throw fetchException;
+            }
+            page = fetchedPages.remove();
+            isLastPageReturned = fetchedPages.isEmpty() && isLastPageFetched;
+            fetchMorePages();
+        }
+        return page;
+    }
+
+    @Override
+    public void remove() {
+        throw new UnsupportedOperationException("Removal is not supported");
+    }
+
+    /**
+     * Starts fetching the next page, unless a page is being fetched already, enough pages were
+     * fetched ahead, or all pages were fetched.
+     */
+    private void fetchMorePages() {
+        if (isFetching
+                || isLastPageFetched
+                || fetchException != null
+                || fetchedPages.size() >= prefetchDepth) {
+            return;
+        }
+        isFetching = true;
+        try {
+            executor.execute(
+                    new Runnable() {
+                        @Override
+                        public void run() {
+                            fetchPage();
+                        }
+                    });
+        } catch (RuntimeException e) {
+            isFetching = false;
+            fetchException = e;
+            notifyAll();
+        }
+    }
+
+    private void fetchPage() {
+        // pages are fetched one at a time, and every fetch is submitted under the lock after the
+        // previous one released it, so the inherited state is only used by one thread at a time
+        RESPONSE page = null;
+        RuntimeException exception = null;
+        try {
+            fetchNextPage();
+            page = currentResponse;
+        } catch (RuntimeException e) {
+            exception = e;
+        }
+        synchronized (this) {
+            isFetching = false;
+            if (exception != null) {
+                fetchException = exception;
+            } else {
+                fetchedPages.add(page);
+                isLastPageFetched = nextPageToken == null;
+                fetchMorePages();
+            }
+            notifyAll();
+        }
+    }
+}
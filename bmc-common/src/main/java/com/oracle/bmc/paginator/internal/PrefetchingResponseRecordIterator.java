@@ -0,0 +1,91 @@
+/**
+ * Copyright (c) 2016, 2021, Oracle and/or its affiliates.  All rights reserved.
+ * This software is dual-licensed to you under the Universal Permissive License (UPL) 1.0 as shown at https://oss.oracle.com/licenses/upl or Apache License 2.0 as shown at http://www.apache.org/licenses/LICENSE-2.0. You may choose either license.
+ */
+package com.oracle.bmc.paginator.internal;
+
+import com.google.common.base.Function;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.Executor;
+
+/**
+ * An iterator for iterating over the models/resources returned from a list operation, like
+ * {@link ResponseRecordIterator}, which fetches the next pages on an executor while the caller
+ * processes the items of the current one.  See {@link PrefetchingResponseIterator}.
+ *
+ * This iterator does not support removal of elements.
+ *
+ * @param <REQUESTBUILDER> the type of a builder which can produce requests for a list operation
+ * @param <REQUEST> the type of a request to a list operation. This type must match the type produced
+ * by REQUESTBUILDER
+ * @param <RESPONSE> the type of the response from a list operation
+ * @param <ITEMTYPE> the type of the model/resource returned inside the response
+ */
+public class PrefetchingResponseRecordIterator<REQUESTBUILDER, REQUEST, RESPONSE, ITEMTYPE>
+        implements Iterator<ITEMTYPE> {
+    private final PrefetchingResponseIterator<REQUESTBUILDER, REQUEST, RESPONSE> pages;
+    private final Function<RESPONSE, List<ITEMTYPE>> retrieveItemsFromResponseFunction;
+
+    private Iterator<ITEMTYPE> currentIterator = Collections.emptyIterator();
+
+    /**
+     * Constructs a new PrefetchingResponseRecordIterator.
+     *
+     * @param requestBuilder a builder object which can create requests for a list operation
+     * @param nextPageTokenRetrievalFunction a function which can extract the next page token from a
+     * response produced by a list operation
+     * @param requestBuilderFunction a function which can build a request for a list operation based on
+     * a builder object and a pagination token to use
+     * @param pageRetrievalFunction a function which will call a list operation with a request and return
+     * the response of the call
+     * @param retrieveItemsFromResponseFunction a function which can extract the collection of results
+     * from a response produced by a list operation
+     * @param executor the executor to fetch the pages on
+     * @param prefetchDepth the maximum number of pages to fetch ahead of the caller, at least 1
+     */
+    public PrefetchingResponseRecordIterator(
+            final REQUESTBUILDER requestBuilder,
+            final Function<RESPONSE, String> nextPageTokenRetrievalFunction,
+            final Function<RequestBuilderAndToken<REQUESTBUILDER>, REQUEST> requestBuilderFunction,
+            final Function<REQUEST, RESPONSE> pageRetrievalFunction,
+            final Function<RESPONSE, List<ITEMTYPE>> retrieveItemsFromResponseFunction,
+            final Executor executor,
+            final int prefetchDepth) {
+        this.pages =
+                new PrefetchingResponseIterator<>(
+                        requestBuilder,
+                        nextPageTokenRetrievalFunction,
+                        requestBuilderFunction,
+                        pageRetrievalFunction,
+                        executor,
+                        prefetchDepth);
+        this.retrieveItemsFromResponseFunction = retrieveItemsFromResponseFunction;
+    }
+
+    @Override
+    public boolean hasNext() {
+        // skip empty pages
+        while (!currentIterator.hasNext() && pages.hasNext()) {
+            currentIterator = retrieveItemsFromResponseFunction.apply(pages.next()).iterator();
+        }
+        return currentIterator.hasNext();
+    }
+
+    @Override
+    public ITEMTYPE next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException(
+                    "There are no more elements available to this iterator");
+        }
+        return currentIterator.next();
+    }
+
+    @Override
+    public void remove() {
+        throw new UnsupportedOperationException("Removal is not supported");
+    }
+}
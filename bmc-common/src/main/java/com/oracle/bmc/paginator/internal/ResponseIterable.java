@@ -8,6 +8,11 @@ import com.google.common.base.Function;
 import com.google.common.base.Supplier;
 
 import java.util.Iterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.Executor;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * An iterable which can be used to iterate over responses returned from calling a list operation. Since
@@ -24,6 +29,8 @@ public class ResponseIterable<REQUESTBUILDER, REQUEST, RESPONSE> implements Iter
     private final Function<RESPONSE, String> nextPageTokenRetrievalFunction;
     private final Function<REQUEST, RESPONSE> pageRetrievalFunction;
     private final Function<RequestBuilderAndToken<REQUESTBUILDER>, REQUEST> requestBuilderFunction;
+    private final Executor executor;
+    private final int prefetchDepth;
 
     /**
      * Creates a new iterable.
@@ -41,19 +48,88 @@ public class ResponseIterable<REQUESTBUILDER, REQUEST, RESPONSE> implements Iter
             final Function<RESPONSE, String> nextPageTokenRetrievalFunction,
             final Function<RequestBuilderAndToken<REQUESTBUILDER>, REQUEST> requestBuilderFunction,
             final Function<REQUEST, RESPONSE> pageRetrievalFunction) {
+        this(
+                requestBuilderSupplier,
+                nextPageTokenRetrievalFunction,
+                requestBuilderFunction,
+                pageRetrievalFunction,
+                null,
+                0);
+    }
 
+    private ResponseIterable(
+            final Supplier<REQUESTBUILDER> requestBuilderSupplier,
+            final Function<RESPONSE, String> nextPageTokenRetrievalFunction,
+            final Function<RequestBuilderAndToken<REQUESTBUILDER>, REQUEST> requestBuilderFunction,
+            final Function<REQUEST, RESPONSE> pageRetrievalFunction,
+            final Executor executor,
+            final int prefetchDepth) {
         this.requestBuilderSupplier = requestBuilderSupplier;
         this.nextPageTokenRetrievalFunction = nextPageTokenRetrievalFunction;
         this.requestBuilderFunction = requestBuilderFunction;
         this.pageRetrievalFunction = pageRetrievalFunction;
+        this.executor = executor;
+        this.prefetchDepth = prefetchDepth;
+    }
+
+    /**
+     * Returns an iterable over the same responses, whose iterators fetch up to
+     * {@code prefetchDepth} pages ahead of the caller on the given executor, see
+     * {@link PrefetchingResponseIterator}.
+     *
+     * @param executor the executor to fetch the pages on
+     * @param prefetchDepth the maximum number of pages to fetch ahead of the caller, at least 1
+     * @return the prefetching iterable
+     */
+    public ResponseIterable<REQUESTBUILDER, REQUEST, RESPONSE> prefetching(
+            final Executor executor, final int prefetchDepth) {
+        if (executor == null) {
+            throw new IllegalArgumentException("The executor must not be null");
+        }
+        if (prefetchDepth < 1) {
+            throw new IllegalArgumentException("The prefetch depth must be at least 1");
+        }
+        return new ResponseIterable<>(
+                requestBuilderSupplier,
+                nextPageTokenRetrievalFunction,
+                requestBuilderFunction,
+                pageRetrievalFunction,
+                executor,
+                prefetchDepth);
     }
 
     @Override
     public Iterator<RESPONSE> iterator() {
+        if (executor != null) {
+            return new PrefetchingResponseIterator<REQUESTBUILDER, REQUEST, RESPONSE>(
+                    requestBuilderSupplier.get(),
+                    nextPageTokenRetrievalFunction,
+                    requestBuilderFunction,
+                    pageRetrievalFunction,
+                    executor,
+                    prefetchDepth);
+        }
         return new ResponseIterator<REQUESTBUILDER, REQUEST, RESPONSE>(
                 requestBuilderSupplier.get(),
                 nextPageTokenRetrievalFunction,
                 requestBuilderFunction,
                 pageRetrievalFunction);
     }
+
+    @Override
+    public Spliterator<RESPONSE> spliterator() {
+        return Spliterators.spliteratorUnknownSize(
+                iterator(), Spliterator.ORDERED | Spliterator.NONNULL);
+    }
+
+    /**
+     * Returns a sequential stream of the responses.  The pages are fetched as the stream is
+     * consumed; if this iterable is {@link #prefetching(Executor, int) prefetching}, at most the
+     * prefetch depth of pages is buffered ahead of the stream.
+     *
+     * @return the stream of responses
+     */
+    public Stream<RESPONSE> stream() {
+        return StreamSupport.stream(spliterator(), false);
+    }
 }
@@ -9,6 +9,11 @@ import com.google.common.base.Supplier;
 
 import java.util.List;
 import java.util.Iterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.Executor;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * An iterable which can be used to iterate over the models/resources returned by a list operation. These
@@ -30,6 +35,8 @@ public class ResponseRecordIterable<REQUESTBUILDER, REQUEST, RESPONSE, ITEMTYPE>
     private final Function<REQUEST, RESPONSE> pageRetrievalFunction;
     private final Function<RequestBuilderAndToken<REQUESTBUILDER>, REQUEST> requestBuilderFunction;
     private final Function<RESPONSE, List<ITEMTYPE>> retrieveItemsFromResponseFunction;
+    private final Executor executor;
+    private final int prefetchDepth;
 
     /**
      * Creates a new iterable.
@@ -48,16 +55,73 @@ public class ResponseRecordIterable<REQUESTBUILDER, REQUEST, RESPONSE, ITEMTYPE>
             final Function<RequestBuilderAndToken<REQUESTBUILDER>, REQUEST> requestBuilderFunction,
             final Function<REQUEST, RESPONSE> pageRetrievalFunction,
             final Function<RESPONSE, List<ITEMTYPE>> retrieveItemsFromResponseFunction) {
+        this(
+                requestBuilderSupplier,
+                nextPageTokenRetrievalFunction,
+                requestBuilderFunction,
+                pageRetrievalFunction,
+                retrieveItemsFromResponseFunction,
+                null,
+                0);
+    }
 
+    private ResponseRecordIterable(
+            final Supplier<REQUESTBUILDER> requestBuilderSupplier,
+            final Function<RESPONSE, String> nextPageTokenRetrievalFunction,
+            final Function<RequestBuilderAndToken<REQUESTBUILDER>, REQUEST> requestBuilderFunction,
+            final Function<REQUEST, RESPONSE> pageRetrievalFunction,
+            final Function<RESPONSE, List<ITEMTYPE>> retrieveItemsFromResponseFunction,
+            final Executor executor,
+            final int prefetchDepth) {
         this.requestBuilderSupplier = requestBuilderSupplier;
         this.nextPageTokenRetrievalFunction = nextPageTokenRetrievalFunction;
         this.requestBuilderFunction = requestBuilderFunction;
         this.pageRetrievalFunction = pageRetrievalFunction;
         this.retrieveItemsFromResponseFunction = retrieveItemsFromResponseFunction;
+        this.executor = executor;
+        this.prefetchDepth = prefetchDepth;
+    }
+
+    /**
+     * Returns an iterable over the same models/resources, whose iterators fetch up to
+     * {@code prefetchDepth} pages ahead of the caller on the given executor, see
+     * {@link PrefetchingResponseRecordIterator}.
+     *
+     * @param executor the executor to fetch the pages on
+     * @param prefetchDepth the maximum number of pages to fetch ahead of the caller, at least 1
+     * @return the prefetching iterable
+     */
+    public ResponseRecordIterable<REQUESTBUILDER, REQUEST, RESPONSE, ITEMTYPE> prefetching(
+            final Executor executor, final int prefetchDepth) {
+        if (executor == null) {
+            throw new IllegalArgumentException("The executor must not be null");
+        }
+        if (prefetchDepth < 1) {
+            throw new IllegalArgumentException("The prefetch depth must be at least 1");
+        }
+        return new ResponseRecordIterable<>(
+                requestBuilderSupplier,
+                nextPageTokenRetrievalFunction,
+                requestBuilderFunction,
+                pageRetrievalFunction,
+                retrieveItemsFromResponseFunction,
+                executor,
+                prefetchDepth);
     }
 
     @Override
     public Iterator<ITEMTYPE> iterator() {
+        if (executor != null) {
+            return new PrefetchingResponseRecordIterator<
+                    REQUESTBUILDER, REQUEST, RESPONSE, ITEMTYPE>(
+                    requestBuilderSupplier.get(),
+                    nextPageTokenRetrievalFunction,
+                    requestBuilderFunction,
+                    pageRetrievalFunction,
+                    retrieveItemsFromResponseFunction,
+                    executor,
+                    prefetchDepth);
+        }
         return new ResponseRecordIterator<REQUESTBUILDER, REQUEST, RESPONSE, ITEMTYPE>(
                 requestBuilderSupplier.get(),
                 nextPageTokenRetrievalFunction,
@@ -65,4 +129,21 @@ public class ResponseRecordIterable<REQUESTBUILDER, REQUEST, RESPONSE, ITEMTYPE>
                 pageRetrievalFunction,
                 retrieveItemsFromResponseFunction);
     }
+
+    @Override
+    public Spliterator<ITEMTYPE> spliterator() {
+        return Spliterators.spliteratorUnknownSize(
+                iterator(), Spliterator.ORDERED | Spliterator.NONNULL);
+    }
+
+    /**
+     * Returns a sequential stream of the models/resources.  The pages are fetched as the stream is
+     * consumed; if this iterable is {@link #prefetching(Executor, int) prefetching}, at most the
+     * prefetch depth of pages is buffered ahead of the stream.
+     *
+     * @return the stream of models/resources
+     */
+    public Stream<ITEMTYPE> stream() {
+        return StreamSupport.stream(spliterator(), false);
+    }
 }
@@ -0,0 +1,284 @@
+/**
+ * Copyright (c) 2016, 2021, Oracle and/or its affiliates.  All rights reserved.
+ * This software is dual-licensed to you under the Universal Permissive License (UPL) 1.0 as shown at https://oss.oracle.com/licenses/upl or Apache License 2.0 as shown at http://www.apache.org/licenses/LICENSE-2.0. You may choose either license.
+ */
+package com.oracle.bmc.ratelimit;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+import com.oracle.bmc.model.BmcException;
+
+import lombok.NonNull;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Client-side token bucket rate limiter, whose rate adapts to the responses of the service
+ * (additive increase, multiplicative decrease).
+ * <p>
+ * Every request takes a token before it is sent.  If no token is left, the request waits until the
+ * bucket has refilled, instead of being sent and throttled by the service.  The rate grows slowly
+ * while requests succeed, and drops quickly when the service responds with 429 or 503, so it stays
+ * close to the limit of the service.
+ * <p>
+ * Limiters are shared by all clients that talk to the same endpoint, see
+ * {@link #forEndpoint(String, RateLimiterConfiguration)}.
+ */
+@Slf4j
+public class AdaptiveRateLimiter {
+    private static final int TOO_MANY_REQUESTS = 429;
+    private static final int SERVICE_UNAVAILABLE = 503;
+    private static final double NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private static final ConcurrentMap<String, AdaptiveRateLimiter> SHARED_LIMITERS =
+            new ConcurrentHashMap<>();
+
+    private final RateLimiterConfiguration configuration;
+    private final LongSupplier nanoClock;
+    private final long decreaseIntervalNanos;
+    private final long maxWaitNanos;
+
+    // guarded by this
+    private double requestsPerSecond;
+    private double tokens;
+    private long lastRefillNanos;
+    private long lastDecreaseNanos;
+    private long permittedRequests;
+    private long delayedRequests;
+    private long totalDelayNanos;
+    private long throttledResponses;
+    private long rejectedRequests;
+
+    /**
+     * Creates a new rate limiter that is not shared.
+     * @param configuration the configuration
+     */
+    public AdaptiveRateLimiter(@NonNull RateLimiterConfiguration configuration) {
+        this(configuration, System::nanoTime);
+    }
+
+    AdaptiveRateLimiter(RateLimiterConfiguration configuration, LongSupplier nanoClock) {
+        if (configuration.getMinRequestsPerSecond() <= 0
+                || configuration.getMaxRequestsPerSecond()
+                        < configuration.getMinRequestsPerSecond()
+                || configuration.getMultiplicativeDecrease() <= 0
+                || configuration.getMultiplicativeDecrease() >= 1
+                || configuration.getMaxWait().isNegative()) {
+            throw new IllegalArgumentException("Invalid rate limiter configuration");
+        }
+        this.configuration = configuration;
+        this.nanoClock = nanoClock;
+        this.decreaseIntervalNanos = configuration.getDecreaseInterval().toNanos();
+        this.maxWaitNanos = configuration.getMaxWait().toNanos();
+        this.requestsPerSecond =
+                clamp(
+                        configuration.getInitialRequestsPerSecond(),
+                        configuration.getMinRequestsPerSecond(),
+                        configuration.getMaxRequestsPerSecond());
+        this.tokens = maxTokens();
+        this.lastRefillNanos = nanoClock.getAsLong();
+        this.lastDecreaseNanos = this.lastRefillNanos - this.decreaseIntervalNanos;
+    }
+
+    /**
+     * Returns the rate limiter for the endpoint.  If the configuration is shared per endpoint, all
+     * callers with the same endpoint get the same limiter, created with the configuration of the
+     * first caller.
+     * @param endpoint the endpoint of the client
+     * @param configuration the configuration
+     * @return the rate limiter
+     */
+    public static AdaptiveRateLimiter forEndpoint(
+            @NonNull String endpoint, @NonNull RateLimiterConfiguration configuration) {
+        if (!configuration.isSharedPerEndpoint()) {
+            return new AdaptiveRateLimiter(configuration);
+        }
+        return SHARED_LIMITERS.computeIfAbsent(
+                endpoint, e -> new AdaptiveRateLimiter(configuration));
+    }
+
+    /**
+     * Returns the metrics of the rate limiters shared per endpoint.
+     * @return the metrics, by endpoint
+     */
+    public static Map<String, Metrics> getSharedMetrics() {
+        final Map<String, Metrics> metrics = new HashMap<>();
+        for (Map.Entry<String, AdaptiveRateLimiter> entry : SHARED_LIMITERS.entrySet()) {
+            metrics.put(entry.getKey(), entry.getValue().getMetrics());
+        }
+        return Collections.unmodifiableMap(metrics);
+    }
+
+    /**
+     * Takes a token, and waits until the request may be sent.
+     * @throws BmcException if the request would have to wait longer than the maximum wait, or if
+     *                      the thread was interrupted while waiting
+     */
+    public void acquire() {
+        final long delayNanos = reserve();
+        if (delayNanos > 0) {
+            try {
+                TimeUnit.NANOSECONDS.sleep(delayNanos);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new BmcException(
+                        false, "Interrupted while waiting for the rate limiter", e, null);
+            }
+        }
+    }
+
+    /**
+     * Takes a token, and returns how long the caller has to wait before the request may be sent.
+     * Use this instead of {@link #acquire()} to wait without blocking a thread.
+     * @return the time to wait, in nanoseconds, or 0 if the request may be sent now
+     * @throws BmcException if the request would have to wait longer than the maximum wait; no
+     *                      token is taken then
+     */
+    public synchronized long reserve() {
+        refill(nanoClock.getAsLong());
+        if (tokens >= 1) {
+            tokens -= 1;
+            permittedRequests++;
+            return 0;
+        }
+        // the token is taken from the future, wait until it has been added
+        final long delayNanos = (long) ((1 - tokens) / requestsPerSecond * NANOS_PER_SECOND);
+        if (delayNanos > maxWaitNanos) {
+            rejectedRequests++;
+            throw new BmcException(
+                    false,
+                    "Rate limit exceeded, the request would have to wait "
+                            + TimeUnit.NANOSECONDS.toMillis(delayNanos)
+                            + " ms, more than the maximum of "
+                            + TimeUnit.NANOSECONDS.toMillis(maxWaitNanos)
+                            + " ms",
+                    null,
+                    null);
+        }
+        tokens -= 1;
+        permittedRequests++;
+        delayedRequests++;
+        totalDelayNanos += delayNanos;
+        return delayNanos;
+    }
+
+    /**
+     * Takes a token if one is available now, without waiting.  Use this for optional requests,
+     * like hedged requests, that are not worth waiting for.
+     * @return true if a token was taken and the request may be sent now
+     */
+    public synchronized boolean tryAcquire() {
+        refill(nanoClock.getAsLong());
+        if (tokens < 1) {
+            return false;
+        }
+        tokens -= 1;
+        permittedRequests++;
+        return true;
+    }
+
+    /**
+     * Adapts the rate to the status code of a response.
+     * @param statusCode the HTTP status code
+     */
+    public void onResponse(int statusCode) {
+        if (statusCode == TOO_MANY_REQUESTS || statusCode == SERVICE_UNAVAILABLE) {
+            onThrottled();
+        } else if (statusCode < 500) {
+            onSuccess();
+        }
+    }
+
+    private synchronized void onSuccess() {
+        // grows by additiveIncrease per second at the current rate
+        requestsPerSecond =
+                Math.min(
+                        configuration.getMaxRequestsPerSecond(),
+                        requestsPerSecond + configuration.getAdditiveIncrease() / requestsPerSecond);
+    }
+
+    private synchronized void onThrottled() {
+        throttledResponses++;
+        final long now = nanoClock.getAsLong();
+        if (now - lastDecreaseNanos < decreaseIntervalNanos) {
+            return;
+        }
+        refill(now);
+        lastDecreaseNanos = now;
+        requestsPerSecond =
+                Math.max(
+                        configuration.getMinRequestsPerSecond(),
+                        requestsPerSecond * configuration.getMultiplicativeDecrease());
+        // do not send the saved up burst into a service that is throttling
+        tokens = Math.min(tokens, 1);
+        LOG.debug("Throttled, reducing rate to {} requests per second", requestsPerSecond);
+    }
+
+    private void refill(long now) {
+        final long elapsed = now - lastRefillNanos;
+        if (elapsed > 0) {
+            tokens = Math.min(maxTokens(), tokens + elapsed * requestsPerSecond / NANOS_PER_SECOND);
+            lastRefillNanos = now;
+        }
+    }
+
+    private double maxTokens() {
+        return Math.max(1, requestsPerSecond * configuration.getMaxBurstSeconds());
+    }
+
+    /**
+     * Returns the current metrics of this rate limiter.
+     * @return the metrics
+     */
+    public synchronized Metrics getMetrics() {
+        return new Metrics(
+                requestsPerSecond,
+                permittedRequests,
+                delayedRequests,
+                TimeUnit.NANOSECONDS.toMillis(totalDelayNanos),
+                throttledResponses,
+                rejectedRequests);
+    }
+
+    private static double clamp(double value, double min, double max) {
+        return Math.max(min, Math.min(max, value));
+    }
+
+    /**
+     * Metrics of an {@link AdaptiveRateLimiter}.
+     */
+    @Value
+    public static class Metrics {
+        /**
+         * The current rate, in requests per second.
+         */
+        double requestsPerSecond;
+        /**
+         * Number of requests that took a token.
+         */
+        long permittedRequests;
+        /**
+         * Number of requests that had to wait for a token.
+         */
+        long delayedRequests;
+        /**
+         * Total time requests waited for a token, in milliseconds.
+         */
+        long totalDelayMillis;
+        /**
+         * Number of responses with status 429 or 503.
+         */
+        long throttledResponses;
+        /**
+         * Number of requests that failed because they would have waited longer than the maximum
+         * wait.
+         */
+        long rejectedRequests;
+    }
+}
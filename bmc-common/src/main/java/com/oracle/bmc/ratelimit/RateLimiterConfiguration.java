@@ -0,0 +1,76 @@
+/**
+ * Copyright (c) 2016, 2021, Oracle and/or its affiliates.  All rights reserved.
+ * This software is dual-licensed to you under the Universal Permissive License (UPL) 1.0 as shown at https://oss.oracle.com/licenses/upl or Apache License 2.0 as shown at http://www.apache.org/licenses/LICENSE-2.0. You may choose either license.
+ */
+package com.oracle.bmc.ratelimit;
+
+import java.time.Duration;
+
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * A {@link RateLimiterConfiguration} configures an {@link AdaptiveRateLimiter}.
+ *
+ * The rate starts at the initial rate.  It grows by additiveIncrease requests per second for every
+ * second of successful requests, and is multiplied by multiplicativeDecrease when the service
+ * throttles (429) or is unavailable (503), at most once per decreaseInterval.
+ */
+@Builder
+public class RateLimiterConfiguration {
+
+    public static final double DEFAULT_INITIAL_REQUESTS_PER_SECOND = 50;
+    public static final double DEFAULT_MIN_REQUESTS_PER_SECOND = 1;
+    public static final double DEFAULT_MAX_REQUESTS_PER_SECOND = 1000;
+    public static final double DEFAULT_ADDITIVE_INCREASE = 1;
+    public static final double DEFAULT_MULTIPLICATIVE_DECREASE = 0.5;
+    public static final int DEFAULT_DECREASE_INTERVAL = 1; // Seconds
+    public static final double DEFAULT_MAX_BURST_SECONDS = 1;
+    public static final int DEFAULT_MAX_WAIT = 10; // Seconds
+
+    @Getter @Builder.Default
+    private final double initialRequestsPerSecond = DEFAULT_INITIAL_REQUESTS_PER_SECOND;
+
+    @Getter @Builder.Default
+    private final double minRequestsPerSecond = DEFAULT_MIN_REQUESTS_PER_SECOND;
+
+    @Getter @Builder.Default
+    private final double maxRequestsPerSecond = DEFAULT_MAX_REQUESTS_PER_SECOND;
+
+    /**
+     * Requests per second added to the rate for every second of successful requests.
+     */
+    @Getter @Builder.Default private final double additiveIncrease = DEFAULT_ADDITIVE_INCREASE;
+
+    /**
+     * Factor the rate is multiplied with when the service throttles, between 0 and 1.
+     */
+    @Getter @Builder.Default
+    private final double multiplicativeDecrease = DEFAULT_MULTIPLICATIVE_DECREASE;
+
+    /**
+     * Minimum time between two decreases, so that a burst of throttled responses to requests that
+     * were sent at the same time only decreases the rate once.
+     */
+    @Getter @Builder.Default
+    private final Duration decreaseInterval = Duration.ofSeconds(DEFAULT_DECREASE_INTERVAL);
+
+    /**
+     * How many seconds worth of unused requests may be saved up and sent at once.
+     */
+    @Getter @Builder.Default private final double maxBurstSeconds = DEFAULT_MAX_BURST_SECONDS;
+
+    /**
+     * Maximum time a request waits for the rate limiter.  A request that would have to wait longer
+     * fails instead, so that the requests queued up behind the limiter stay bounded when callers
+     * send faster than the rate for a long time.
+     */
+    @Getter @Builder.Default
+    private final Duration maxWait = Duration.ofSeconds(DEFAULT_MAX_WAIT);
+
+    /**
+     * If true, all clients talking to the same endpoint share one rate limiter.  Otherwise every
+     * client has its own.
+     */
+    @Getter @Builder.Default private final boolean sharedPerEndpoint = true;
+}
@@ -6,6 +6,7 @@ package com.oracle.bmc.retrier;
 
 import com.google.common.base.Optional;
 import com.google.common.base.Suppliers;
+import com.oracle.bmc.instrumentation.Instrumentations;
 import com.oracle.bmc.model.BmcException;
 import com.oracle.bmc.waiter.GenericWaiter;
 import lombok.Getter;
@@ -15,6 +16,12 @@ import org.apache.commons.lang3.mutable.MutableObject;
 import org.checkerframework.checker.nullness.qual.Nullable;
 
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Function;
 
 /**
@@ -25,6 +32,7 @@ import java.util.function.Function;
 public class BmcGenericRetrier {
     @Getter private final GenericWaiter waiter;
     @Getter private final RetryCondition retryCondition;
+    @Getter private final RetryBudget retryBudget;
 
     /**
      * Creates a new retrier with the given configuration.
@@ -33,6 +41,7 @@ public class BmcGenericRetrier {
     public BmcGenericRetrier(@NonNull final RetryConfiguration retryConfiguration) {
         this.waiter = new GenericWaiter(retryConfiguration);
         this.retryCondition = retryConfiguration.getRetryCondition();
+        this.retryBudget = retryConfiguration.getRetryBudget();
     }
 
     /**
@@ -47,12 +56,20 @@ public class BmcGenericRetrier {
             @NonNull final REQUEST requestToUse,
             @NonNull final Function<REQUEST, RESPONSE> functionCall) {
         MutableObject<BmcException> lastKnownException = new MutableObject<>();
+        final AtomicInteger retries = new AtomicInteger();
+        if (retryBudget != null) {
+            retryBudget.onRequest();
+        }
         final Optional<RESPONSE> response =
                 waiter.execute(
                         Suppliers.ofInstance(requestToUse),
                         (request) -> {
                             if (lastKnownException.getValue() != null) {
                                 // we know there was a previous exception, so this must be a retry
+                                if (!tryAcquireRetry()) {
+                                    throw lastKnownException.getValue();
+                                }
+                                onRetry(request, retries, lastKnownException.getValue());
                                 LOG.debug(
                                         "Retrying: {}", lastKnownException.getValue().getMessage());
                             }
@@ -76,6 +93,111 @@ public class BmcGenericRetrier {
         throw lastKnownException.getValue();
     }
 
+    /**
+     * Executes the asynchronous functionCall based upon the {@link RetryConfiguration} of this
+     * retrier.
+     * <p>
+     * Retries are scheduled on the given scheduler after the delay of the retry configuration; no
+     * thread waits between the attempts.  Cancelling the returned future cancels the current
+     * attempt and stops further retries.
+     * @param requestToUse The request that is passed to the functionCall
+     * @param functionCall Function that will be invoked to send out the request.
+     * @param scheduler The scheduler used to wait between attempts.
+     * @param <REQUEST> Request object class
+     * @param <RESPONSE> Response object class
+     * @return A future for the successful response
+     */
+    public <REQUEST, RESPONSE> CompletableFuture<RESPONSE> executeAsync(
+            @NonNull final REQUEST requestToUse,
+            @NonNull final Function<REQUEST, ? extends CompletionStage<RESPONSE>> functionCall,
+            @NonNull final ScheduledExecutorService scheduler) {
+        final AtomicReference<BmcException> lastKnownException = new AtomicReference<>();
+        final AtomicInteger retries = new AtomicInteger();
+        if (retryBudget != null) {
+            retryBudget.onRequest();
+        }
+        final CompletableFuture<Optional<RESPONSE>> response =
+                waiter.executeAsyncCalls(
+                        Suppliers.ofInstance(requestToUse),
+                        (request) -> {
+                            if (lastKnownException.get() != null) {
+                                // we know there was a previous exception, so this must be a retry
+                                if (!tryAcquireRetry()) {
+                                    throw lastKnownException.get();
+                                }
+                                onRetry(request, retries, lastKnownException.get());
+                                LOG.debug("Retrying: {}", lastKnownException.get().getMessage());
+                            }
+                            final CompletableFuture<RESPONSE> attempt =
+                                    doAsyncFunctionCall(request, functionCall);
+                            final CompletableFuture<RESPONSE> handled =
+                                    attempt.handle(
+                                            (r, t) -> {
+                                                if (t == null) {
+                                                    return r;
+                                                }
+                                                final Throwable cause =
+                                                        t instanceof CompletionException
+                                                                        && t.getCause() != null
+                                                                ? t.getCause()
+                                                                : t;
+                                                if (!(cause instanceof BmcException)
+                                                        || !retryCondition.shouldBeRetried(
+                                                                (BmcException) cause)) {
+                                                    LOG.debug(
+                                                            "Not retrying, not retriable: {}",
+                                                            cause.getMessage());
+                                                    throw new CompletionException(cause);
+                                                }
+                                                lastKnownException.set((BmcException) cause);
+                                                return null;
+                                            });
+                            handled.whenComplete(
+                                    (r, t) -> {
+                                        if (handled.isCancelled()) {
+                                            attempt.cancel(true);
+                                        }
+                                    });
+                            return handled;
+                        },
+                        Objects::nonNull,
+                        scheduler);
+
+        final CompletableFuture<RESPONSE> result = new CompletableFuture<>();
+        response.whenComplete(
+                (r, t) -> {
+                    if (t != null) {
+                        result.completeExceptionally(t);
+                    } else if (r.isPresent()) {
+                        result.complete(r.get());
+                    } else {
+                        result.completeExceptionally(lastKnownException.get());
+                    }
+                });
+        result.whenComplete(
+                (r, t) -> {
+                    if (result.isCancelled()) {
+                        response.cancel(true);
+                    }
+                });
+        return result;
+    }
+
+    private static void onRetry(Object request, AtomicInteger retries, BmcException cause) {
+        final int retry = retries.incrementAndGet();
+        if (Instrumentations.isEnabled()) {
+            Instrumentations.onRetry(request, retry, cause);
+        }
+    }
+
+    private boolean tryAcquireRetry() {
+        if (retryBudget == null || retryBudget.tryAcquireRetry()) {
+            return true;
+        }
+        LOG.debug("Not retrying, retry budget exhausted");
+        return false;
+    }
+
     /**
      * Executes the actual function call. Can be overridden, e.g. for debugging.
      * @param functionCall Function that will be invoked to send out the request.
@@ -88,4 +210,24 @@ public class BmcGenericRetrier {
             @Nullable @NonNull REQUEST request, @NonNull Function<REQUEST, RESPONSE> functionCall) {
         return functionCall.apply(request);
     }
+
+    /**
+     * Starts the actual asynchronous function call. Can be overridden, e.g. for debugging.
+     * @param functionCall Function that will be invoked to send out the request.
+     * @param request request data for the function call
+     * @param <REQUEST> Request object class
+     * @param <RESPONSE> Response object class
+     * @return A stage for the successful response
+     */
+    protected <REQUEST, RESPONSE> CompletableFuture<RESPONSE> doAsyncFunctionCall(
+            @NonNull REQUEST request,
+            @NonNull Function<REQUEST, ? extends CompletionStage<RESPONSE>> functionCall) {
+        try {
+            return functionCall.apply(request).toCompletableFuture();
+        } catch (RuntimeException e) {
+            final CompletableFuture<RESPONSE> failed = new CompletableFuture<>();
+            failed.completeExceptionally(e);
+            return failed;
+        }
+    }
 }
@@ -0,0 +1,124 @@
+/**
+ * Copyright (c) 2016, 2021, Oracle and/or its affiliates.  All rights reserved.
+ * This software is dual-licensed to you under the Universal Permissive License (UPL) 1.0 as shown at https://oss.oracle.com/licenses/upl or Apache License 2.0 as shown at http://www.apache.org/licenses/LICENSE-2.0. You may choose either license.
+ */
+package com.oracle.bmc.retrier;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+import lombok.Value;
+
+/**
+ * Limits retries to a share of the requests, so that retries do not multiply the load on a
+ * service that is already overloaded.
+ * <p>
+ * Every request deposits {@code retryRatio} tokens, up to {@code maxTokens}, and every retry takes
+ * one token.  In addition, {@code minRetriesPerSecond} retries are always allowed, so that a low
+ * rate of requests can still be retried.  If no token is left, the call fails with the last
+ * exception instead of being retried.
+ * <p>
+ * A budget is shared by all retriers created from the {@link RetryConfiguration} it is set on.
+ */
+public class RetryBudget {
+    private static final double NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final double retryRatio;
+    private final double maxTokens;
+    private final double minRetriesPerSecond;
+    private final LongSupplier nanoClock;
+
+    // guarded by this
+    private double tokens;
+    private double minRetryTokens;
+    private long lastRefillNanos;
+    private long permittedRetries;
+    private long rejectedRetries;
+
+    /**
+     * Creates a retry budget.
+     * @param retryRatio tokens deposited per request, for example 0.1 to allow one retry per ten
+     *                   requests
+     * @param maxTokens maximum number of saved up tokens
+     * @param minRetriesPerSecond retries per second that are allowed regardless of the requests
+     */
+    public RetryBudget(double retryRatio, double maxTokens, double minRetriesPerSecond) {
+        this(retryRatio, maxTokens, minRetriesPerSecond, System::nanoTime);
+    }
+
+    RetryBudget(
+            double retryRatio,
+            double maxTokens,
+            double minRetriesPerSecond,
+            LongSupplier nanoClock) {
+        if (retryRatio < 0 || maxTokens < 1 || minRetriesPerSecond < 0) {
+            throw new IllegalArgumentException("Invalid retry budget");
+        }
+        this.retryRatio = retryRatio;
+        this.maxTokens = maxTokens;
+        this.minRetriesPerSecond = minRetriesPerSecond;
+        this.nanoClock = nanoClock;
+        this.tokens = maxTokens;
+        this.minRetryTokens = Math.max(1, minRetriesPerSecond);
+        this.lastRefillNanos = nanoClock.getAsLong();
+    }
+
+    /**
+     * Deposits tokens for a new request.  Called once per call, before its first attempt.
+     */
+    public synchronized void onRequest() {
+        tokens = Math.min(maxTokens, tokens + retryRatio);
+    }
+
+    /**
+     * Takes a token for a retry.
+     * @return true if the retry is allowed
+     */
+    public synchronized boolean tryAcquireRetry() {
+        final long now = nanoClock.getAsLong();
+        minRetryTokens =
+                Math.min(
+                        Math.max(1, minRetriesPerSecond),
+                        minRetryTokens
+                                + (now - lastRefillNanos) * minRetriesPerSecond / NANOS_PER_SECOND);
+        lastRefillNanos = now;
+
+        if (tokens >= 1) {
+            tokens -= 1;
+        } else if (minRetriesPerSecond > 0 && minRetryTokens >= 1) {
+            minRetryTokens -= 1;
+        } else {
+            rejectedRetries++;
+            return false;
+        }
+        permittedRetries++;
+        return true;
+    }
+
+    /**
+     * Returns the current metrics of this retry budget.
+     * @return the metrics
+     */
+    public synchronized Metrics getMetrics() {
+        return new Metrics(tokens, permittedRetries, rejectedRetries);
+    }
+
+    /**
+     * Metrics of a {@link RetryBudget}.
+     */
+    @Value
+    public static class Metrics {
+        /**
+         * Number of retries currently available from the requests.
+         */
+        double availableTokens;
+        /**
+         * Number of retries allowed.
+         */
+        long permittedRetries;
+        /**
+         * Number of retries rejected because the budget was exhausted.
+         */
+        long rejectedRetries;
+    }
+}
@@ -22,6 +22,7 @@ import java.util.concurrent.TimeUnit;
  * The default termination strategy is a single attempt (i.e. no retry).
  * The default delay strategy is an exponential backoff strategy to a max wait of 30 seconds.
  * The default retry condition is {@link DefaultRetryCondition}.
+ * By default, there is no {@link RetryBudget}.
  */
 @ToString(callSuper = true)
 public class RetryConfiguration extends WaiterConfiguration {
@@ -39,14 +40,22 @@ public class RetryConfiguration extends WaiterConfiguration {
     @Getter private final RetryCondition retryCondition;
     @Getter private final RetryOptions retryOptions;
 
+    /**
+     * The retry budget shared by all calls using this configuration, or null if retries are only
+     * limited by the termination strategy.
+     */
+    @Getter private final RetryBudget retryBudget;
+
     private RetryConfiguration(
             @NonNull final TerminationStrategy terminationStrategy,
             @NonNull final DelayStrategy delayStrategy,
             @NonNull final RetryCondition retryCondition,
-            @NonNull final RetryOptions retryOptions) {
+            @NonNull final RetryOptions retryOptions,
+            final RetryBudget retryBudget) {
         super(terminationStrategy, delayStrategy);
         this.retryCondition = retryCondition;
         this.retryOptions = retryOptions;
+        this.retryBudget = retryBudget;
     }
 
     /**
@@ -72,6 +81,7 @@ public class RetryConfiguration extends WaiterConfiguration {
         private DelayStrategy delayStrategy = EXPONENTIAL_BACKOFF_DELAY_STRATEGY;
         private RetryCondition retryCondition = new DefaultRetryCondition();
         private RetryOptions retryOptions = DEFAULT_RETRY_OPTIONS;
+        private RetryBudget retryBudget;
 
         public Builder terminationStrategy(@NonNull final TerminationStrategy terminationStrategy) {
             this.terminationStrategy = terminationStrategy;
@@ -93,13 +103,22 @@ public class RetryConfiguration extends WaiterConfiguration {
             return this;
         }
 
+        public Builder retryBudget(final RetryBudget retryBudget) {
+            this.retryBudget = retryBudget;
+            return this;
+        }
+
         /**
          * Build the retry configuration
          * @return the retry configuration
          */
         public RetryConfiguration build() {
             return new RetryConfiguration(
-                    terminationStrategy, delayStrategy, retryCondition, retryOptions);
+                    terminationStrategy,
+                    delayStrategy,
+                    retryCondition,
+                    retryOptions,
+                    retryBudget);
         }
     }
 }
@@ -0,0 +1,76 @@
+/**
+ * Copyright (c) 2016, 2021, Oracle and/or its affiliates.  All rights reserved.
+ * This software is dual-licensed to you under the Universal Permissive License (UPL) 1.0 as shown at https://oss.oracle.com/licenses/upl or Apache License 2.0 as shown at http://www.apache.org/licenses/LICENSE-2.0. You may choose either license.
+ */
+package com.oracle.bmc.util;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+import java.util.function.BiFunction;
+
+import com.oracle.bmc.responses.AsyncHandler;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+/**
+ * Utility methods to work with the asynchronous service clients.
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public class AsyncUtils {
+
+    /**
+     * Calls a method of an asynchronous service client, and returns a {@link CompletableFuture}
+     * for its response, so that dependent calls can be composed without blocking a thread, for
+     * example:
+     * <pre>
+     * AsyncUtils.call(vcnClient::createVcn, createVcnRequest)
+     *         .thenCompose(vcn -&gt; AsyncUtils.call(vcnClient::createSubnet, subnetRequest(vcn)))
+     * </pre>
+     * The returned future is completed by the {@link AsyncHandler} of the call, and cancelling it
+     * cancels the call.  If the call cannot be started, the returned future fails with the
+     * exception.
+     *
+     * @param asyncMethod
+     *            The method of the asynchronous client, taking the request and a handler.
+     * @param request
+     *            The request to pass to the method.
+     * @param <REQUEST>
+     *            The request type.
+     * @param <RESPONSE>
+     *            The response type.
+     * @return A future for the response.
+     */
+    public static <REQUEST, RESPONSE> CompletableFuture<RESPONSE> call(
+            BiFunction<REQUEST, AsyncHandler<REQUEST, RESPONSE>, Future<RESPONSE>> asyncMethod,
+            REQUEST request) {
+        final CompletableFuture<RESPONSE> result = new CompletableFuture<>();
+        final Future<RESPONSE> call;
+        try {
+            call =
+                    asyncMethod.apply(
+                            request,
+                            new AsyncHandler<REQUEST, RESPONSE>() {
+                                @Override
+                                public void onSuccess(REQUEST request, RESPONSE response) {
+                                    result.complete(response);
+                                }
+
+                                @Override
+                                public void onError(REQUEST request, Throwable error) {
+                                    result.completeExceptionally(error);
+                                }
+                            });
+        } catch (RuntimeException e) {
+            result.completeExceptionally(e);
+            return result;
+        }
+        result.whenComplete(
+                (response, error) -> {
+                    if (result.isCancelled()) {
+                        call.cancel(true);
+                    }
+                });
+        return result;
+    }
+}
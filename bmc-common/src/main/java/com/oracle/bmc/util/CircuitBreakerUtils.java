@@ -7,7 +7,10 @@ package com.oracle.bmc.util;
 import com.oracle.bmc.ClientConfiguration;
 import com.oracle.bmc.circuitbreaker.CircuitBreakerConfiguration;
 import com.oracle.bmc.circuitbreaker.JaxRsCircuitBreaker;
+import com.oracle.bmc.circuitbreaker.StateTransitionListener;
 import com.oracle.bmc.circuitbreaker.internal.JaxRsCircuitBreakerImpl;
+import com.oracle.bmc.circuitbreaker.internal.JaxRsCircuitBreakerRegistry;
+import com.oracle.bmc.instrumentation.Instrumentations;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
@@ -31,7 +34,7 @@ public class CircuitBreakerUtils {
     }
 
     public static final JaxRsCircuitBreaker DEFAULT_CIRCUIT_BREAKER =
-            new JaxRsCircuitBreakerImpl(CircuitBreakerConfiguration.builder().build());
+            newCircuitBreaker(CircuitBreakerConfiguration.builder().build());
     private static final String OCI_SDK_DEFAULT_CIRCUITBREAKER_ENABLED_ENV_VAR =
             "OCI_SDK_DEFAULT_CIRCUITBREAKER_ENABLED";
 
@@ -46,8 +49,7 @@ public class CircuitBreakerUtils {
             }
 
             if (configuration.getCircuitBreakerConfiguration() != null) {
-                circuitBreaker =
-                        new JaxRsCircuitBreakerImpl(configuration.getCircuitBreakerConfiguration());
+                circuitBreaker = newCircuitBreaker(configuration.getCircuitBreakerConfiguration());
             } else if (configuration.getCircuitBreaker() != null)
                 circuitBreaker = configuration.getCircuitBreaker();
         } else {
@@ -55,8 +57,7 @@ public class CircuitBreakerUtils {
             CircuitBreakerConfiguration globalCircuitBreakerConfiguration =
                     CircuitBreakerUtils.getDefaultCircuitBreakerConfiguration();
             if (globalCircuitBreakerConfiguration != null) {
-                userGlobalCircuitBreaker =
-                        new JaxRsCircuitBreakerImpl(globalCircuitBreakerConfiguration);
+                userGlobalCircuitBreaker = newCircuitBreaker(globalCircuitBreakerConfiguration);
             } else if (isEnvBasedDefaultCircuitBreakerEnabled()) {
                 userGlobalCircuitBreaker = DEFAULT_CIRCUIT_BREAKER;
             }
@@ -66,6 +67,28 @@ public class CircuitBreakerUtils {
         return circuitBreaker;
     }
 
+    private static JaxRsCircuitBreaker newCircuitBreaker(
+            CircuitBreakerConfiguration configuration) {
+        final StateTransitionListener listener =
+                (name, fromState, toState) -> {
+                    LOG.debug(
+                            "Circuit breaker '{}' changed from {} to {}", name, fromState, toState);
+                    if (Instrumentations.isEnabled()) {
+                        Instrumentations.onCircuitBreakerStateTransition(name, fromState, toState);
+                    }
+                };
+        if (configuration.getPartitioning() == CircuitBreakerConfiguration.Partitioning.NONE) {
+            final JaxRsCircuitBreakerImpl circuitBreaker =
+                    new JaxRsCircuitBreakerImpl(configuration);
+            circuitBreaker.addStateTransitionListener(listener);
+            return circuitBreaker;
+        }
+        final JaxRsCircuitBreakerRegistry circuitBreaker =
+                new JaxRsCircuitBreakerRegistry(configuration);
+        circuitBreaker.addStateTransitionListener(listener);
+        return circuitBreaker;
+    }
+
     private static boolean isEnvBasedDefaultCircuitBreakerEnabled() {
         final String defaultCircuitBreakerEnvVariable =
                 System.getenv(OCI_SDK_DEFAULT_CIRCUITBREAKER_ENABLED_ENV_VAR);
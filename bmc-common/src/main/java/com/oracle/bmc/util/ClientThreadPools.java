@@ -0,0 +1,54 @@
+/**
+ * Copyright (c) 2016, 2021, Oracle and/or its affiliates.  All rights reserved.
+ * This software is dual-licensed to you under the Universal Permissive License (UPL) 1.0 as shown at https://oss.oracle.com/licenses/upl or Apache License 2.0 as shown at http://www.apache.org/licenses/LICENSE-2.0. You may choose either license.
+ */
+package com.oracle.bmc.util;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.oracle.bmc.ClientRuntime;
+import com.oracle.bmc.InternalSdk;
+
+/**
+ * Creates the executors that the service clients use when the caller does not pass one in.
+ */
+@InternalSdk
+public class ClientThreadPools {
+    /**
+     * Number of platform threads of the waiter executor.
+     */
+    static final int WAITER_THREADS = 50;
+
+    /**
+     * Creates the executor for the waiters of a service client.
+     * <p>
+     * If virtual threads are enabled, see {@link ClientRuntime#setVirtualThreadsEnabled(boolean)},
+     * each waiter runs on its own virtual thread.  Otherwise, the executor has up to 50 (core)
+     * daemon threads, which time out after 60s idle.
+     *
+     * @param namePrefix prefix of the thread names, followed by a counter
+     * @return the executor
+     */
+    public static ExecutorService newWaiterExecutor(String namePrefix) {
+        if (VirtualThreadUtils.isEnabled()) {
+            return VirtualThreadUtils.newThreadPerTaskExecutor(namePrefix);
+        }
+        final ThreadPoolExecutor threadPoolExecutor =
+                new ThreadPoolExecutor(
+                        WAITER_THREADS,
+                        WAITER_THREADS,
+                        60L,
+                        TimeUnit.SECONDS,
+                        new LinkedBlockingQueue<Runnable>(),
+                        new ThreadFactoryBuilder()
+                                .setDaemon(true)
+                                .setNameFormat(namePrefix + "%d")
+                                .build());
+        threadPoolExecutor.allowCoreThreadTimeOut(true);
+        return threadPoolExecutor;
+    }
+}
@@ -0,0 +1,80 @@
+/**
+ * Copyright (c) 2016, 2021, Oracle and/or its affiliates.  All rights reserved.
+ * This software is dual-licensed to you under the Universal Permissive License (UPL) 1.0 as shown at https://oss.oracle.com/licenses/upl or Apache License 2.0 as shown at http://www.apache.org/licenses/LICENSE-2.0. You may choose either license.
+ */
+package com.oracle.bmc.util;
+
+import java.util.concurrent.Executor;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import com.oracle.bmc.paginator.internal.ResponseIterable;
+import com.oracle.bmc.paginator.internal.ResponseRecordIterable;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+/**
+ * Utility methods to work with the iterables returned by the paginators of the service clients.
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public class PaginatorUtils {
+
+    /**
+     * Returns an iterable over the same responses or models/resources, which fetches up to
+     * {@code prefetchDepth} pages ahead of the caller on the given executor, while the caller
+     * processes the current page.  Pages are still requested one after the other, since every
+     * request needs the page token of the previous response.
+     *
+     * @param iterable
+     *            An iterable returned by a paginator.
+     * @param executor
+     *            The executor to fetch the pages on.
+     * @param prefetchDepth
+     *            The maximum number of pages to fetch ahead of the caller, at least 1.
+     * @return The prefetching iterable.
+     * @throws IllegalArgumentException
+     *            If the iterable was not returned by a paginator.
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> Iterable<T> prefetching(
+            Iterable<T> iterable, Executor executor, int prefetchDepth) {
+        if (iterable instanceof ResponseIterable) {
+            return ((ResponseIterable<?, ?, T>) iterable).prefetching(executor, prefetchDepth);
+        }
+        if (iterable instanceof ResponseRecordIterable) {
+            return ((ResponseRecordIterable<?, ?, ?, T>) iterable)
+                    .prefetching(executor, prefetchDepth);
+        }
+        throw new IllegalArgumentException("The iterable was not returned by a paginator");
+    }
+
+    /**
+     * Returns a sequential stream over an iterable returned by a paginator.  The pages are fetched
+     * as the stream is consumed.
+     *
+     * @param iterable
+     *            An iterable returned by a paginator.
+     * @return The stream.
+     */
+    public static <T> Stream<T> stream(Iterable<T> iterable) {
+        return StreamSupport.stream(iterable.spliterator(), false);
+    }
+
+    /**
+     * Returns a sequential stream over an iterable returned by a paginator, which fetches up to
+     * {@code prefetchDepth} pages ahead of the stream on the given executor.  See
+     * {@link #prefetching(Iterable, Executor, int)}.
+     *
+     * @param iterable
+     *            An iterable returned by a paginator.
+     * @param executor
+     *            The executor to fetch the pages on.
+     * @param prefetchDepth
+     *            The maximum number of pages to buffer ahead of the stream, at least 1.
+     * @return The stream.
+     */
+    public static <T> Stream<T> stream(Iterable<T> iterable, Executor executor, int prefetchDepth) {
+        return stream(prefetching(iterable, executor, prefetchDepth));
+    }
+}
@@ -0,0 +1,126 @@
+/**
+ * Copyright (c) 2016, 2021, Oracle and/or its affiliates.  All rights reserved.
+ * This software is dual-licensed to you under the Universal Permissive License (UPL) 1.0 as shown at https://oss.oracle.com/licenses/upl or Apache License 2.0 as shown at http://www.apache.org/licenses/LICENSE-2.0. You may choose either license.
+ */
+package com.oracle.bmc.util;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+import com.oracle.bmc.ClientRuntime;
+import com.oracle.bmc.InternalSdk;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Creates virtual threads on JDKs that support them, see
+ * {@link ClientRuntime#setVirtualThreadsEnabled(boolean)}.
+ * <p>
+ * The SDK is compiled for Java 8, so the virtual thread API is called reflectively.
+ */
+@Slf4j
+@InternalSdk
+public class VirtualThreadUtils {
+    private static final Method OF_VIRTUAL;
+    private static final Method BUILDER_NAME;
+    private static final Method BUILDER_FACTORY;
+    private static final Method NEW_THREAD_PER_TASK_EXECUTOR;
+
+    private static volatile boolean unsupportedLogged = false;
+
+    static {
+        Method ofVirtual = null;
+        Method builderName = null;
+        Method builderFactory = null;
+        Method newThreadPerTaskExecutor = null;
+        try {
+            ofVirtual = Thread.class.getMethod("ofVirtual");
+            final Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+            builderName = builderClass.getMethod("name", String.class, long.class);
+            builderFactory = builderClass.getMethod("factory");
+            newThreadPerTaskExecutor =
+                    Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class);
+            // fails if virtual threads are a preview feature that is not enabled
+            builderFactory.invoke(ofVirtual.invoke(null));
+        } catch (Throwable t) {
+            LOG.debug("Virtual threads are not supported", t);
+            ofVirtual = null;
+        }
+        OF_VIRTUAL = ofVirtual;
+        BUILDER_NAME = builderName;
+        BUILDER_FACTORY = builderFactory;
+        NEW_THREAD_PER_TASK_EXECUTOR = newThreadPerTaskExecutor;
+    }
+
+    /**
+     * Returns true if the JDK supports virtual threads.
+     * @return true if virtual threads are supported
+     */
+    public static boolean isSupported() {
+        return OF_VIRTUAL != null;
+    }
+
+    /**
+     * Returns true if virtual threads were requested and are supported.
+     * @return true if virtual threads should be used
+     */
+    public static boolean isEnabled() {
+        if (!ClientRuntime.isVirtualThreadsEnabled()) {
+            return false;
+        }
+        if (!isSupported()) {
+            if (!unsupportedLogged) {
+                unsupportedLogged = true;
+                LOG.warn("Virtual threads were enabled, but are not supported by this JDK");
+            }
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Creates a factory for virtual threads, named with the given prefix followed by a counter.
+     * @param namePrefix prefix of the thread names
+     * @return the thread factory
+     * @throws UnsupportedOperationException if virtual threads are not supported
+     */
+    public static ThreadFactory newThreadFactory(String namePrefix) {
+        if (!isSupported()) {
+            throw new UnsupportedOperationException("Virtual threads are not supported");
+        }
+        try {
+            final Object builder = BUILDER_NAME.invoke(OF_VIRTUAL.invoke(null), namePrefix, 0L);
+            return (ThreadFactory) BUILDER_FACTORY.invoke(builder);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Unable to create a virtual thread factory", e);
+        }
+    }
+
+    /**
+     * Creates an executor that starts a new virtual thread for each task.
+     * @param namePrefix prefix of the thread names
+     * @return the executor
+     * @throws UnsupportedOperationException if virtual threads are not supported
+     */
+    public static ExecutorService newThreadPerTaskExecutor(String namePrefix) {
+        final ThreadFactory threadFactory = newThreadFactory(namePrefix);
+        try {
+            return (ExecutorService) NEW_THREAD_PER_TASK_EXECUTOR.invoke(null, threadFactory);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Unable to create a virtual thread executor", e);
+        }
+    }
+
+    /**
+     * Returns a factory for virtual threads if they are enabled, or the given factory otherwise.
+     * @param namePrefix prefix of the virtual thread names
+     * @param platformThreadFactory the factory to use if virtual threads are not enabled
+     * @return the thread factory
+     */
+    public static ThreadFactory threadFactoryOrDefault(
+            String namePrefix, ThreadFactory platformThreadFactory) {
+        return isEnabled() ? newThreadFactory(namePrefix) : platformThreadFactory;
+    }
+}
@@ -0,0 +1,48 @@
+/**
+ * Copyright (c) 2016, 2021, Oracle and/or its affiliates.  All rights reserved.
+ * This software is dual-licensed to you under the Universal Permissive License (UPL) 1.0 as shown at https://oss.oracle.com/licenses/upl or Apache License 2.0 as shown at http://www.apache.org/licenses/LICENSE-2.0. You may choose either license.
+ */
+package com.oracle.bmc.util.internal;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import com.oracle.bmc.model.BmcException;
+
+/**
+ * CompletableFuture for the response of an asynchronous request.
+ * <p>
+ * Like {@link TransformingFuture}, {@link #get()} throws a {@link BmcException} for a failed
+ * request directly, instead of wrapping it in an {@link ExecutionException}.
+ *
+ * @param <RESPONSE> The response type.
+ */
+public class CompletableResponseFuture<RESPONSE> extends CompletableFuture<RESPONSE> {
+    @Override
+    public RESPONSE get() throws InterruptedException, ExecutionException {
+        try {
+            return super.get();
+        } catch (ExecutionException e) {
+            throw unwrapBmcException(e);
+        }
+    }
+
+    @Override
+    public RESPONSE get(long timeout, TimeUnit unit)
+            throws InterruptedException, ExecutionException, TimeoutException {
+        try {
+            return super.get(timeout, unit);
+        } catch (ExecutionException e) {
+            throw unwrapBmcException(e);
+        }
+    }
+
+    private static ExecutionException unwrapBmcException(ExecutionException e) {
+        if (e.getCause() instanceof BmcException) {
+            throw (BmcException) e.getCause();
+        }
+        return e;
+    }
+}
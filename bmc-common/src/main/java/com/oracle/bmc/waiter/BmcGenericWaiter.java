@@ -5,11 +5,16 @@
 package com.oracle.bmc.waiter;
 
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import com.google.common.base.Function;
 import com.google.common.base.Optional;
 import com.google.common.base.Predicate;
 import com.google.common.base.Supplier;
+import com.oracle.bmc.instrumentation.Instrumentations;
 import com.oracle.bmc.model.BmcException;
 
 import lombok.extern.slf4j.Slf4j;
@@ -70,7 +75,8 @@ public class BmcGenericWaiter {
         LOG.debug("Invoking waiter with 404 allowed set to {}", allow404);
         try {
             Optional<RESPONSE> response =
-                    waiter.execute(requestSupplier, functionCall, terminationPredicate);
+                    waiter.execute(
+                            requestSupplier, instrumentPolls(functionCall), terminationPredicate);
             if (response.isPresent()) {
                 return response.get();
             }
@@ -88,9 +94,105 @@ public class BmcGenericWaiter {
         throw new WaitConditionFailedException("Failed to reach desired condition");
     }
 
+    /**
+     * Same as {@link #execute(Supplier, Function, Predicate, boolean)}, except that it does not
+     * block, see {@link GenericWaiter#executeAsync}.
+     * <p>
+     * The returned future completes with {@link WaitConditionFailedException} if the termination
+     * condition was not met, or with the exception thrown by the function call.
+     *
+     * @param requestSupplier
+     *            Supplier that provides a new request instance to fetch the
+     *            current state.
+     * @param functionCall
+     *            Function that will be invoked to fetch the current state. It
+     *            will be provided the request instance given by the
+     *            requestSupplier.
+     * @param terminationPredicate
+     *            The termination predicate that will inspect the current state
+     *            (returned response instance) to determine if it is done
+     *            waiting.
+     * @param allow404 True to allow 404 responses to be accepted (ex, for termination
+     *            conditions).
+     * @param scheduler
+     *            The scheduler used to wait between polls.
+     * @param executor
+     *            The executor the polls are run on.
+     * @param <REQUEST>
+     *            Request object class
+     * @param <RESPONSE>
+     *            Response object class
+     * @return A future for the last response object that was received and was accepted by
+     *         the termination predicate (or null if 404 was allowed).
+     */
+    public <REQUEST, RESPONSE> CompletableFuture<RESPONSE> executeAsync(
+            Supplier<REQUEST> requestSupplier,
+            Function<REQUEST, RESPONSE> functionCall,
+            Predicate<RESPONSE> terminationPredicate,
+            final boolean allow404,
+            ScheduledExecutorService scheduler,
+            Executor executor) {
+        LOG.debug("Invoking async waiter with 404 allowed set to {}", allow404);
+        final CompletableFuture<Optional<RESPONSE>> polling =
+                waiter.executeAsync(
+                        requestSupplier,
+                        instrumentPolls(functionCall),
+                        terminationPredicate,
+                        scheduler,
+                        executor);
+        final CompletableFuture<RESPONSE> result = new CompletableFuture<>();
+        polling.whenComplete(
+                (response, error) -> {
+                    if (error == null) {
+                        if (response.isPresent()) {
+                            result.complete(response.get());
+                        } else {
+                            result.completeExceptionally(
+                                    new WaitConditionFailedException(
+                                            "Failed to reach desired condition"));
+                        }
+                        return;
+                    }
+                    if (error instanceof BmcException
+                            && ((BmcException) error).getStatusCode() == 404) {
+                        if (allow404) {
+                            LOG.debug("Allowing 404 response");
+                            result.complete(null);
+                            return;
+                        }
+                        LOG.debug("Received 404, waiter configured not to allow it");
+                    }
+                    result.completeExceptionally(error);
+                });
+        result.whenComplete(
+                (response, error) -> {
+                    if (result.isCancelled()) {
+                        polling.cancel(false);
+                    }
+                });
+        return result;
+    }
+
+    private static <REQUEST, RESPONSE> Function<REQUEST, RESPONSE> instrumentPolls(
+            final Function<REQUEST, RESPONSE> functionCall) {
+        if (!Instrumentations.isEnabled()) {
+            return functionCall;
+        }
+        final AtomicInteger polls = new AtomicInteger();
+        return new Function<REQUEST, RESPONSE>() {
+            @Override
+            public RESPONSE apply(REQUEST request) {
+                Instrumentations.onWaiterPoll(request, polls.incrementAndGet());
+                return functionCall.apply(request);
+            }
+        };
+    }
+
     /**
      * Same as {@link #execute(Supplier, Function, Predicate, boolean)} except it returns
      * a {@link Callable} that can be invoked later.
+     * <p>
+     * The callable is a {@link WaiterCallable}, which can also be executed without blocking.
      *
      * @param requestSupplier
      *            Supplier that provides a new request instance to fetch the
@@ -109,8 +211,6 @@ public class BmcGenericWaiter {
      *            Request object class
      * @param <RESPONSE>
      *            Response object class
-     * @return The last response object that was received and was accepted by
-     *         the termination predicate (or null if 404 was allowed).
      * @return A new Callable instance.
      */
     public <REQUEST, RESPONSE> Callable<RESPONSE> toCallable(
@@ -118,12 +218,60 @@ public class BmcGenericWaiter {
             final Function<REQUEST, RESPONSE> functionCall,
             final Predicate<RESPONSE> terminationPredicate,
             final boolean allow404) {
-        return new Callable<RESPONSE>() {
-            @Override
-            public RESPONSE call() throws Exception {
-                return execute(requestSupplier, functionCall, terminationPredicate, allow404);
-            }
-        };
+        return new WaiterCallable<>(requestSupplier, functionCall, terminationPredicate, allow404);
+    }
+
+    /**
+     * Callable returned by {@link #toCallable(Supplier, Function, Predicate, boolean)}.
+     * <p>
+     * Calling it blocks until the condition is met, while {@link #callAsync(Executor)} waits
+     * without holding a thread between polls.
+     *
+     * @param <REQUEST>
+     *            Request object class
+     * @param <RESPONSE>
+     *            Response object class
+     */
+    public final class WaiterCallable<REQUEST, RESPONSE> implements Callable<RESPONSE> {
+        private final Supplier<REQUEST> requestSupplier;
+        private final Function<REQUEST, RESPONSE> functionCall;
+        private final Predicate<RESPONSE> terminationPredicate;
+        private final boolean allow404;
+
+        private WaiterCallable(
+                Supplier<REQUEST> requestSupplier,
+                Function<REQUEST, RESPONSE> functionCall,
+                Predicate<RESPONSE> terminationPredicate,
+                boolean allow404) {
+            this.requestSupplier = requestSupplier;
+            this.functionCall = functionCall;
+            this.terminationPredicate = terminationPredicate;
+            this.allow404 = allow404;
+        }
+
+        @Override
+        public RESPONSE call() throws Exception {
+            return execute(requestSupplier, functionCall, terminationPredicate, allow404);
+        }
+
+        /**
+         * Executes the waiter without blocking, using {@link Waiters#getDefaultScheduler()}
+         * between polls.
+         *
+         * @param executor
+         *            The executor the polls are run on.
+         * @return A future for the response, see
+         *         {@link BmcGenericWaiter#executeAsync}.
+         */
+        public CompletableFuture<RESPONSE> callAsync(Executor executor) {
+            return executeAsync(
+                    requestSupplier,
+                    functionCall,
+                    terminationPredicate,
+                    allow404,
+                    Waiters.getDefaultScheduler(),
+                    executor);
+        }
     }
 
     /**
@@ -4,6 +4,14 @@
  */
 package com.oracle.bmc.waiter;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
 import com.google.common.base.Function;
 import com.google.common.base.Optional;
 import com.google.common.base.Predicate;
@@ -77,4 +85,188 @@ public class GenericWaiter {
 
         return Optional.absent();
     }
+
+    /**
+     * Same as {@link #execute(Supplier, Function, Predicate)}, except that it does not block.
+     * <p>
+     * Each poll is run on the given executor.  Between polls, the next poll is scheduled on the
+     * given scheduler using the delay strategy, so no thread is held while waiting.  Cancelling the
+     * returned future stops further polls.
+     *
+     * @param requestSupplier
+     *            Supplier that provides a new request instance to fetch the
+     *            current state.
+     * @param functionCall
+     *            Function that will be invoked to fetch the current state. It
+     *            will be provided the request instance given by the
+     *            requestSupplier.
+     * @param terminationPredicate
+     *            The termination predicate that will inspect the current state
+     *            (returned response instance) to determine if it is done
+     *            waiting.
+     * @param scheduler
+     *            The scheduler used to wait between polls.
+     * @param executor
+     *            The executor the polls are run on.
+     * @param <REQUEST>
+     *            Request object class
+     * @param <RESPONSE>
+     *            Response object class
+     * @return A future for the last response object that was received and was accepted by
+     *         the termination predicate, or empty if the waiter reached the max
+     *         timeout.  If a poll throws, the future completes with that exception.
+     */
+    public <REQUEST, RESPONSE> CompletableFuture<Optional<RESPONSE>> executeAsync(
+            Supplier<REQUEST> requestSupplier,
+            Function<REQUEST, RESPONSE> functionCall,
+            Predicate<RESPONSE> terminationPredicate,
+            ScheduledExecutorService scheduler,
+            Executor executor) {
+        return executeAsyncCalls(
+                requestSupplier,
+                request ->
+                        CompletableFuture.supplyAsync(() -> functionCall.apply(request), executor),
+                terminationPredicate,
+                scheduler);
+    }
+
+    /**
+     * Same as {@link #executeAsync(Supplier, Function, Predicate, ScheduledExecutorService,
+     * Executor)}, except that the function call itself is asynchronous.
+     * <p>
+     * The next poll is started when the previous call has completed and the delay has passed, so
+     * no thread is held by the waiter.  Cancelling the returned future stops further polls and
+     * cancels the current call.
+     *
+     * @param requestSupplier
+     *            Supplier that provides a new request instance to fetch the
+     *            current state.
+     * @param functionCall
+     *            Function that will be invoked to start fetching the current state. It
+     *            will be provided the request instance given by the
+     *            requestSupplier.
+     * @param terminationPredicate
+     *            The termination predicate that will inspect the current state
+     *            (returned response instance) to determine if it is done
+     *            waiting.
+     * @param scheduler
+     *            The scheduler used to wait between polls.
+     * @param <REQUEST>
+     *            Request object class
+     * @param <RESPONSE>
+     *            Response object class
+     * @return A future for the last response object that was received and was accepted by
+     *         the termination predicate, or empty if the waiter reached the max
+     *         timeout.  If a call fails, the future completes with that exception.
+     */
+    public <REQUEST, RESPONSE> CompletableFuture<Optional<RESPONSE>> executeAsyncCalls(
+            Supplier<REQUEST> requestSupplier,
+            java.util.function.Function<REQUEST, ? extends CompletionStage<RESPONSE>> functionCall,
+            Predicate<RESPONSE> terminationPredicate,
+            ScheduledExecutorService scheduler) {
+        final AsyncPoll<REQUEST, RESPONSE> poll =
+                new AsyncPoll<>(requestSupplier, functionCall, terminationPredicate, scheduler);
+        poll.run();
+        return poll.result;
+    }
+
+    /**
+     * One waiter execution of {@link #executeAsyncCalls}; re-schedules itself until it is done.
+     */
+    private class AsyncPoll<REQUEST, RESPONSE> implements Runnable {
+        private final Supplier<REQUEST> requestSupplier;
+        private final java.util.function.Function<REQUEST, ? extends CompletionStage<RESPONSE>>
+                functionCall;
+        private final Predicate<RESPONSE> terminationPredicate;
+        private final ScheduledExecutorService scheduler;
+        private final WaitContext context = new WaitContext(System.currentTimeMillis());
+        private final CompletableFuture<Optional<RESPONSE>> result = new CompletableFuture<>();
+        private volatile ScheduledFuture<?> nextPoll;
+        private volatile CompletableFuture<RESPONSE> currentCall;
+
+        private AsyncPoll(
+                Supplier<REQUEST> requestSupplier,
+                java.util.function.Function<REQUEST, ? extends CompletionStage<RESPONSE>>
+                        functionCall,
+                Predicate<RESPONSE> terminationPredicate,
+                ScheduledExecutorService scheduler) {
+            this.requestSupplier = requestSupplier;
+            this.functionCall = functionCall;
+            this.terminationPredicate = terminationPredicate;
+            this.scheduler = scheduler;
+            result.whenComplete(
+                    (response, error) -> {
+                        final ScheduledFuture<?> pending = nextPoll;
+                        if (pending != null) {
+                            pending.cancel(false);
+                        }
+                        final CompletableFuture<RESPONSE> running = currentCall;
+                        if (running != null && result.isCancelled()) {
+                            running.cancel(true);
+                        }
+                    });
+        }
+
+        @Override
+        public void run() {
+            if (result.isDone()) {
+                LOG.debug("Waiter was cancelled");
+                return;
+            }
+            final CompletableFuture<RESPONSE> call;
+            try {
+                LOG.debug("Invoking function call");
+                call = functionCall.apply(requestSupplier.get()).toCompletableFuture();
+            } catch (Throwable t) {
+                result.completeExceptionally(t);
+                return;
+            }
+            currentCall = call;
+            if (result.isCancelled()) {
+                // cancelled while starting the call
+                call.cancel(true);
+                return;
+            }
+            call.whenComplete(
+                    (r, error) -> {
+                        if (error != null) {
+                            result.completeExceptionally(
+                                    error instanceof CompletionException && error.getCause() != null
+                                            ? error.getCause()
+                                            : error);
+                        } else {
+                            onResponse(r);
+                        }
+                    });
+        }
+
+        private void onResponse(RESPONSE r) {
+            try {
+                if (terminationPredicate.apply(r)) {
+                    result.complete(Optional.of(r));
+                    return;
+                }
+                context.incrementAttempts();
+                context.setCurrentTime(System.currentTimeMillis());
+
+                if (waiterConfiguration.getTerminationStrategy().shouldTerminate(context)) {
+                    LOG.debug(
+                            "Termination strategy decided to terminate with context at: {}",
+                            context);
+                    result.complete(Optional.<RESPONSE>absent());
+                    return;
+                }
+
+                final long delay = waiterConfiguration.getDelayStrategy().nextDelay(context);
+                LOG.debug("Scheduling next poll in {}ms, context at: {}", delay, context);
+                nextPoll = scheduler.schedule(this, delay, TimeUnit.MILLISECONDS);
+                if (result.isDone()) {
+                    // cancelled while scheduling
+                    nextPoll.cancel(false);
+                }
+            } catch (Throwable t) {
+                result.completeExceptionally(t);
+            }
+        }
+    }
 }
@@ -4,6 +4,7 @@
  */
 package com.oracle.bmc.waiter;
 
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Future;
 
 import com.oracle.bmc.responses.AsyncHandler;
@@ -40,4 +41,29 @@ public interface Waiter<REQUEST, RESPONSE> {
      * @return A Future for the submitted request.
      */
     public Future<Void> execute(final AsyncHandler<REQUEST, RESPONSE> asyncHandler);
+
+    /**
+     * Executes the waiter callback and returns a CompletableFuture that is completed with
+     * either the successful response instance, or the exception thrown in case of failure.
+     * <p>
+     * Waiters created by the generated *Waiters classes do not hold a thread between polls.
+     *
+     * @return A CompletableFuture for the response.
+     */
+    public default CompletableFuture<RESPONSE> executeAsync() {
+        final CompletableFuture<RESPONSE> future = new CompletableFuture<>();
+        execute(
+                new AsyncHandler<REQUEST, RESPONSE>() {
+                    @Override
+                    public void onSuccess(REQUEST request, RESPONSE response) {
+                        future.complete(response);
+                    }
+
+                    @Override
+                    public void onError(REQUEST request, Throwable error) {
+                        future.completeExceptionally(error);
+                    }
+                });
+        return future;
+    }
 }
@@ -4,8 +4,13 @@
  */
 package com.oracle.bmc.waiter;
 
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+
 import javax.annotation.Nullable;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
 public class Waiters {
 
     /**
@@ -52,6 +57,33 @@ public class Waiters {
         return new BmcGenericWaiter(terminationStrategyToUse, delayStrategyToUse);
     }
 
+    /**
+     * Returns the scheduler that non-blocking waiters use to wait between polls.  It has a single
+     * daemon thread, which only schedules the polls; the polls themselves run on the waiter's
+     * executor.
+     *
+     * @return The shared scheduler.
+     */
+    public static ScheduledExecutorService getDefaultScheduler() {
+        return DefaultSchedulerHolder.SCHEDULER;
+    }
+
+    private static final class DefaultSchedulerHolder {
+        private static final ScheduledExecutorService SCHEDULER = createScheduler();
+
+        private static ScheduledExecutorService createScheduler() {
+            final ScheduledThreadPoolExecutor scheduler =
+                    new ScheduledThreadPoolExecutor(
+                            1,
+                            new ThreadFactoryBuilder()
+                                    .setDaemon(true)
+                                    .setNameFormat("oci-waiter-scheduler-%d")
+                                    .build());
+            scheduler.setRemoveOnCancelPolicy(true);
+            return scheduler;
+        }
+    }
+
     private static long secondsToMillis(int seconds) {
         return seconds * 1000L;
     }
@@ -5,10 +5,13 @@
 package com.oracle.bmc.waiter.internal;
 
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
 
 import com.oracle.bmc.responses.AsyncHandler;
+import com.oracle.bmc.waiter.BmcGenericWaiter;
 import com.oracle.bmc.waiter.Waiter;
 
 import lombok.Getter;
@@ -17,6 +20,9 @@ import lombok.RequiredArgsConstructor;
 /**
  * SimpleWaiterImpl is a basic wrapper around a Callable that executes an action, and
  * provides methods to either execute it synchronously or asynchronously.
+ * <p>
+ * If the callable was created by {@link BmcGenericWaiter#toCallable}, asynchronous executions
+ * only use the executor service while polling, and wait between polls without holding a thread.
  *
  * @param <REQUEST>
  *            The request type.
@@ -45,6 +51,33 @@ public class SimpleWaiterImpl<REQUEST, RESPONSE> implements Waiter<REQUEST, RESP
 
     @Override
     public Future<Void> execute(final AsyncHandler<REQUEST, RESPONSE> asyncHandler) {
+        if (callable instanceof BmcGenericWaiter.WaiterCallable) {
+            final CompletableFuture<RESPONSE> future = executeAsync();
+            final CompletableFuture<Void> result =
+                    future.handle(
+                            (response, error) -> {
+                                if (error == null) {
+                                    asyncHandler.onSuccess(request, response);
+                                    return null;
+                                }
+                                final Throwable cause =
+                                        error instanceof CompletionException
+                                                        && error.getCause() != null
+                                                ? error.getCause()
+                                                : error;
+                                if (cause instanceof Exception) {
+                                    asyncHandler.onError(request, cause);
+                                }
+                                throw new CompletionException(cause);
+                            });
+            result.whenComplete(
+                    (ignored, error) -> {
+                        if (result.isCancelled()) {
+                            future.cancel(false);
+                        }
+                    });
+            return result;
+        }
         return executorService.submit(
                 new Callable<Void>() {
                     @Override
@@ -60,4 +93,14 @@ public class SimpleWaiterImpl<REQUEST, RESPONSE> implements Waiter<REQUEST, RESP
                     }
                 });
     }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public CompletableFuture<RESPONSE> executeAsync() {
+        if (callable instanceof BmcGenericWaiter.WaiterCallable) {
+            return ((BmcGenericWaiter.WaiterCallable<?, RESPONSE>) callable)
+                    .callAsync(executorService);
+        }
+        return Waiter.super.executeAsync();
+    }
 }
@@ -0,0 +1,115 @@
+/**
+ * Copyright (c) 2016, 2021, Oracle and/or its affiliates.  All rights reserved.
+ * This software is dual-licensed to you under the Universal Permissive License (UPL) 1.0 as shown at https://oss.oracle.com/licenses/upl or Apache License 2.0 as shown at http://www.apache.org/licenses/LICENSE-2.0. You may choose either license.
+ */
+package com.oracle.bmc.auth.internal;
+
+import com.google.common.base.Function;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.util.Date;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class SecurityTokenRefresherTest {
+    private static KeyPair keyPair;
+
+    @BeforeClass
+    public static void generateKeyPair() throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        keyPair = generator.generateKeyPair();
+    }
+
+    @Test
+    public void getRefreshTimeMillis_fromLifetime() throws Exception {
+        long now = System.currentTimeMillis();
+        // the issue time is in the past on the server's clock, only the lifetime counts
+        long issueTime = now / 1000 * 1000 - 3_600_000L;
+        SecurityTokenAdapter token = createToken(issueTime, issueTime + 20_000L);
+
+        long refreshTime = token.getRefreshTimeMillis(0.5);
+
+        assertTrue(refreshTime >= now + 10_000L);
+        assertTrue(refreshTime <= System.currentTimeMillis() + 10_000L);
+    }
+
+    @Test
+    public void getRefreshTimeMillis_noToken() {
+        assertEquals(-1, new SecurityTokenAdapter(null, null).getRefreshTimeMillis(0.5));
+    }
+
+    @Test(timeout = 10000)
+    public void scheduleRefresh_refreshesAgainWithNewToken() throws Exception {
+        final CountDownLatch refreshed = new CountDownLatch(2);
+        final AtomicInteger refreshes = new AtomicInteger();
+        Object client = new Object();
+        SecurityTokenRefresher<Object> refresher =
+                new SecurityTokenRefresher<>(
+                        client,
+                        new Function<Object, SecurityTokenAdapter>() {
+                            @Override
+                            public SecurityTokenAdapter apply(Object input) {
+                                refreshes.incrementAndGet();
+                                refreshed.countDown();
+                                return createShortLivedToken();
+                            }
+                        },
+                        0.25);
+
+        refresher.scheduleRefresh(createShortLivedToken());
+
+        assertTrue(refreshed.await(5, TimeUnit.SECONDS));
+        refresher.cancel();
+        int refreshesAtCancel = refreshes.get();
+        Thread.sleep(500);
+        assertEquals(refreshesAtCancel, refreshes.get());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructor_invalidFraction() {
+        new SecurityTokenRefresher<>(
+                new Object(),
+                new Function<Object, SecurityTokenAdapter>() {
+                    @Override
+                    public SecurityTokenAdapter apply(Object input) {
+                        return null;
+                    }
+                },
+                1.0);
+    }
+
+    private static SecurityTokenAdapter createShortLivedToken() {
+        // JWT times only have a precision of seconds
+        long now = System.currentTimeMillis() / 1000 * 1000;
+        try {
+            return createToken(now, now + 2000);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static SecurityTokenAdapter createToken(long issueTime, long expirationTime)
+            throws Exception {
+        JWTClaimsSet claims =
+                new JWTClaimsSet.Builder()
+                        .issueTime(new Date(issueTime))
+                        .expirationTime(new Date(expirationTime))
+                        .build();
+        SignedJWT jwt = new SignedJWT(new JWSHeader(JWSAlgorithm.RS256), claims);
+        jwt.sign(new RSASSASigner(keyPair.getPrivate()));
+        return new SecurityTokenAdapter(jwt.serialize(), null);
+    }
+}
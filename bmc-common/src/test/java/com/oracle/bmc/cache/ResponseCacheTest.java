@@ -0,0 +1,183 @@
+/**
+ * Copyright (c) 2016, 2021, Oracle and/or its affiliates.  All rights reserved.
+ * This software is dual-licensed to you under the Universal Permissive License (UPL) 1.0 as shown at https://oss.oracle.com/licenses/upl or Apache License 2.0 as shown at http://www.apache.org/licenses/LICENSE-2.0. You may choose either license.
+ */
+package com.oracle.bmc.cache;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class ResponseCacheTest {
+    @Rule public TemporaryFolder folder = new TemporaryFolder();
+
+    private static CachedResponse response(String etag, int bodyBytes) {
+        return new CachedResponse(
+                etag,
+                0,
+                Collections.singletonMap(
+                        "content-type", Collections.singletonList("application/json")),
+                new byte[bodyBytes]);
+    }
+
+    @Test
+    public void inMemoryStoreEvictsLeastRecentlyUsed() {
+        final long size = response("a", 100).getSize();
+        final InMemoryResponseStore store = new InMemoryResponseStore(2 * size, null);
+
+        store.put("a", response("a", 100));
+        store.put("b", response("b", 100));
+        assertNotNull(store.get("a"));
+        store.put("c", response("c", 100));
+
+        assertNotNull(store.get("a"));
+        assertNull(store.get("b"));
+        assertNotNull(store.get("c"));
+        assertEquals(2 * size, store.getBytes());
+    }
+
+    @Test
+    public void evictedResponsesAreKeptOnDisk() throws Exception {
+        final Path directory = folder.newFolder().toPath();
+        final long size = response("a", 100).getSize();
+        final DiskResponseStore diskStore = new DiskResponseStore(directory, 1024 * 1024);
+        final InMemoryResponseStore store = new InMemoryResponseStore(size, diskStore);
+
+        store.put("https://example.com/a", response("a", 100));
+        store.put("https://example.com/b", response("b", 100));
+        assertTrue(diskStore.getBytes() > 0);
+
+        final CachedResponse a = store.get("https://example.com/a");
+        assertEquals("a", a.getEtag());
+        assertArrayEquals(new byte[100], a.getBody());
+        assertEquals(
+                Collections.singletonList("application/json"), a.getHeaders().get("content-type"));
+
+        // a new store reuses the files
+        final DiskResponseStore reopened = new DiskResponseStore(directory, 1024 * 1024);
+        assertEquals("b", reopened.get("https://example.com/b").getEtag());
+    }
+
+    @Test
+    public void diskStoreIsBoundedByBytes() throws Exception {
+        final DiskResponseStore store = new DiskResponseStore(folder.newFolder().toPath(), 1500);
+
+        store.put("a", response("a", 1000));
+        store.put("b", response("b", 1000));
+
+        assertNull(store.get("a"));
+        assertNotNull(store.get("b"));
+        assertTrue(store.getBytes() <= 1500);
+    }
+
+    @Test
+    public void diskStoreDeletesStaleTemporaryFiles() throws Exception {
+        final Path directory = folder.newFolder().toPath();
+        final Path stale = Files.createFile(directory.resolve("0a1b.response123.tmp"));
+        Files.setLastModifiedTime(
+                stale,
+                FileTime.fromMillis(System.currentTimeMillis() - TimeUnit.HOURS.toMillis(1)));
+        final Path inProgress = Files.createFile(directory.resolve("2c3d.response456.tmp"));
+
+        new DiskResponseStore(directory, 1024);
+
+        assertFalse(Files.exists(stale));
+        assertTrue(Files.exists(inProgress));
+    }
+
+    @Test
+    public void diskStoreFilesMatchEntriesWithConcurrentPutAndRemove() throws Exception {
+        final Path directory = folder.newFolder().toPath();
+        final DiskResponseStore store = new DiskResponseStore(directory, 1024 * 1024);
+        final ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            final Future<?> puts =
+                    executor.submit(
+                            () -> {
+                                for (int i = 0; i < 500; i++) {
+                                    store.put("a", response("a", 10));
+                                }
+                            });
+            final Future<?> removes =
+                    executor.submit(
+                            () -> {
+                                for (int i = 0; i < 500; i++) {
+                                    store.remove("a");
+                                }
+                            });
+            puts.get();
+            removes.get();
+        } finally {
+            executor.shutdownNow();
+        }
+
+        final long files;
+        try (Stream<Path> list = Files.list(directory)) {
+            files = list.count();
+        }
+        if (store.getBytes() > 0) {
+            assertEquals(1, files);
+            assertEquals("a", store.get("a").getEtag());
+        } else {
+            assertEquals(0, files);
+        }
+    }
+
+    @Test
+    public void responsesExpireAfterTimeToLive() {
+        final AtomicLong clock = new AtomicLong();
+        final ResponseCache cache =
+                new ResponseCache(
+                        ResponseCacheConfiguration.builder()
+                                .operation("GetPolicy", Duration.ofSeconds(10))
+                                .build(),
+                        clock::get);
+        assertTrue(cache.isCached("GetPolicy"));
+        cache.onModified("key", "etag", Collections.emptyMap(), new byte[10]);
+
+        clock.set(8000);
+        final CachedResponse cached = cache.get("GetPolicy", "key");
+        assertNotNull(cached);
+        cache.onNotModified("key", cached);
+
+        // revalidation restarts the time to live
+        clock.set(16000);
+        assertNotNull(cache.get("GetPolicy", "key"));
+        clock.set(19000);
+        assertNull(cache.get("GetPolicy", "key"));
+        assertEquals(1, cache.getMetrics().getExpiredResponses());
+    }
+
+    @Test
+    public void responsesWithoutEtagAreNotCached() {
+        final ResponseCache cache =
+                new ResponseCache(
+                        ResponseCacheConfiguration.builder()
+                                .operation("GetPolicy", Duration.ofSeconds(10))
+                                .build());
+        assertFalse(cache.isCached("ListPolicies"));
+
+        cache.onModified("key", null, Collections.emptyMap(), new byte[10]);
+
+        assertNull(cache.get("GetPolicy", "key"));
+    }
+}
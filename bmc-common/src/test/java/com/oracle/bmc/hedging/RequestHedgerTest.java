@@ -0,0 +1,248 @@
+/**
+ * Copyright (c) 2016, 2021, Oracle and/or its affiliates.  All rights reserved.
+ * This software is dual-licensed to you under the Universal Permissive License (UPL) 1.0 as shown at https://oss.oracle.com/licenses/upl or Apache License 2.0 as shown at http://www.apache.org/licenses/LICENSE-2.0. You may choose either license.
+ */
+package com.oracle.bmc.hedging;
+
+import com.oracle.bmc.retrier.RetryBudget;
+import org.junit.After;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import javax.ws.rs.ProcessingException;
+import javax.ws.rs.client.InvocationCallback;
+import javax.ws.rs.core.Response;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class RequestHedgerTest {
+    private static final String OPERATION = "GetObject";
+
+    private final ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(2);
+    private final List<CompletableFuture<Response>> sent = new ArrayList<>();
+
+    @After
+    public void tearDown() {
+        scheduler.shutdownNow();
+    }
+
+    private static RequestHedger hedger(int minimumNumberOfSamples, RetryBudget budget) {
+        return new RequestHedger(
+                HedgingConfiguration.builder()
+                        .minimumNumberOfSamples(minimumNumberOfSamples)
+                        .minDelay(Duration.ofMillis(20))
+                        .budget(budget)
+                        .build(),
+                null);
+    }
+
+    /**
+     * Responds to the n-th request after the n-th delay.  The returned futures do not stop the
+     * response when they are cancelled.
+     */
+    private Function<InvocationCallback<Response>, Future<Response>> sender(
+            Response[] responses, long... delaysMillis) {
+        return callback -> {
+            final int attempt = sent.size();
+            final CompletableFuture<Response> future = new CompletableFuture<>();
+            sent.add(future);
+            scheduler.schedule(
+                    () -> {
+                        if (responses[attempt] == null) {
+                            callback.failed(new ProcessingException("failed"));
+                        } else {
+                            callback.completed(responses[attempt]);
+                        }
+                    },
+                    delaysMillis[attempt],
+                    TimeUnit.MILLISECONDS);
+            return future;
+        };
+    }
+
+    private static void warmUp(RequestHedger hedger, int samples) {
+        final Response response = Mockito.mock(Response.class);
+        for (int i = 0; i < samples; i++) {
+            hedger.execute(
+                    OPERATION,
+                    () -> response,
+                    callback -> {
+                        throw new AssertionError("Should not be hedged");
+                    });
+        }
+    }
+
+    @Test
+    public void notHedgedUntilEnoughSamples() {
+        final RequestHedger hedger = hedger(3, null);
+        assertEquals(-1, hedger.getDelayNanos(OPERATION));
+
+        warmUp(hedger, 3);
+
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(20), hedger.getDelayNanos(OPERATION));
+        assertEquals(-1, hedger.getDelayNanos("HeadObject"));
+    }
+
+    @Test
+    public void slowRequestIsHedged() throws Exception {
+        final RequestHedger hedger = hedger(1, null);
+        warmUp(hedger, 1);
+        final Response slow = Mockito.mock(Response.class);
+        final Response fast = Mockito.mock(Response.class);
+
+        final Response response =
+                hedger.execute(
+                        OPERATION,
+                        () -> {
+                            throw new AssertionError("Should be sent asynchronously");
+                        },
+                        sender(new Response[] {slow, fast}, 300, 0));
+
+        assertSame(fast, response);
+        assertEquals(2, sent.size());
+        assertTrue(sent.get(0).isCancelled());
+        assertEquals(1, hedger.getMetrics().getHedgedRequests());
+        assertEquals(1, hedger.getMetrics().getWonHedgedRequests());
+
+        // the response that lost is closed when it arrives
+        Thread.sleep(500);
+        Mockito.verify(slow).close();
+        Mockito.verify(fast, Mockito.never()).close();
+    }
+
+    @Test
+    public void fastRequestIsNotHedged() {
+        final RequestHedger hedger = hedger(1, null);
+        warmUp(hedger, 1);
+        final Response fast = Mockito.mock(Response.class);
+
+        final Response response =
+                hedger.execute(OPERATION, () -> null, sender(new Response[] {fast}, 0));
+
+        assertSame(fast, response);
+        assertEquals(1, sent.size());
+        assertEquals(0, hedger.getMetrics().getHedgedRequests());
+    }
+
+    @Test
+    public void hedgesAreLimitedByBudget() {
+        final RequestHedger hedger = hedger(1, new RetryBudget(0, 1, 0));
+        warmUp(hedger, 1);
+        final Response first = Mockito.mock(Response.class);
+        final Response second = Mockito.mock(Response.class);
+        final Response third = Mockito.mock(Response.class);
+
+        assertSame(
+                second,
+                hedger.execute(
+                        OPERATION, () -> null, sender(new Response[] {first, second}, 200, 0)));
+        sent.clear();
+        assertSame(
+                third, hedger.execute(OPERATION, () -> null, sender(new Response[] {third}, 100)));
+
+        assertEquals(1, sent.size());
+        assertEquals(1, hedger.getMetrics().getHedgedRequests());
+        assertEquals(1, hedger.getMetrics().getRejectedHedgedRequests());
+    }
+
+    @Test
+    public void winningHedgeRecordsLatencyFromFirstRequest() {
+        final RequestHedger hedger =
+                new RequestHedger(
+                        HedgingConfiguration.builder()
+                                .minimumNumberOfSamples(1)
+                                .delayPercentile(0)
+                                .minDelay(Duration.ofMillis(1))
+                                .build(),
+                        null);
+        final Response response = Mockito.mock(Response.class);
+        hedger.execute(
+                OPERATION,
+                () -> {
+                    sleep(50);
+                    return response;
+                },
+                callback -> {
+                    throw new AssertionError("Should not be hedged");
+                });
+        final long delayNanos = hedger.getDelayNanos(OPERATION);
+        assertTrue(delayNanos >= TimeUnit.MILLISECONDS.toNanos(45));
+
+        // the first request never responds, the hedge responds right away
+        assertSame(
+                response,
+                hedger.execute(
+                        OPERATION,
+                        () -> null,
+                        sender(new Response[] {response, response}, 60000, 0)));
+
+        // the latency of the hedge alone would have lowered the delay
+        assertTrue(hedger.getDelayNanos(OPERATION) >= delayNanos);
+    }
+
+    @Test
+    public void notHedgedWithoutPermit() {
+        final RequestHedger hedger = hedger(1, null);
+        warmUp(hedger, 1);
+        final Response slow = Mockito.mock(Response.class);
+
+        assertSame(
+                slow,
+                hedger.execute(
+                        OPERATION,
+                        () -> null,
+                        sender(new Response[] {slow}, 100),
+                        () -> false));
+
+        assertEquals(1, sent.size());
+        assertEquals(0, hedger.getMetrics().getHedgedRequests());
+        assertEquals(1, hedger.getMetrics().getRejectedHedgedRequests());
+    }
+
+    @Test
+    public void failsWhenAllRequestsFail() {
+        final RequestHedger hedger = hedger(1, null);
+        warmUp(hedger, 1);
+        final Response late = Mockito.mock(Response.class);
+
+        // the first request fails after the hedge was sent, the hedge responds
+        assertSame(
+                late,
+                hedger.execute(
+                        OPERATION, () -> null, sender(new Response[] {null, late}, 50, 100)));
+
+        // a new hedger, the latency of the previous call would delay the hedge
+        final RequestHedger otherHedger = hedger(1, null);
+        warmUp(otherHedger, 1);
+        sent.clear();
+        try {
+            otherHedger.execute(
+                    OPERATION, () -> null, sender(new Response[] {null, null}, 50, 60));
+            fail("Should have thrown");
+        } catch (ProcessingException e) {
+            assertEquals("failed", e.getMessage());
+        }
+        assertEquals(2, sent.size());
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AssertionError(e);
+        }
+    }
+}
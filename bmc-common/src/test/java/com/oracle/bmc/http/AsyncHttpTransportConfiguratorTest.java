@@ -0,0 +1,261 @@
+/**
+ * Copyright (c) 2016, 2021, Oracle and/or its affiliates.  All rights reserved.
+ * This software is dual-licensed to you under the Universal Permissive License (UPL) 1.0 as shown at https://oss.oracle.com/licenses/upl or Apache License 2.0 as shown at http://www.apache.org/licenses/LICENSE-2.0. You may choose either license.
+ */
+package com.oracle.bmc.http;
+
+import org.glassfish.jersey.client.ClientProperties;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.ws.rs.ProcessingException;
+import javax.ws.rs.client.Client;
+import javax.ws.rs.client.ClientBuilder;
+import javax.ws.rs.client.ClientRequestFilter;
+import javax.ws.rs.client.Entity;
+import javax.ws.rs.client.InvocationCallback;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+import javax.net.ssl.SSLContext;
+import java.io.ByteArrayInputStream;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.*;
+
+public class AsyncHttpTransportConfiguratorTest {
+    private static final int RESPONSE_DELAY_MILLIS = 100;
+
+    private ScheduledExecutorService scheduler;
+    private Client client;
+    private final AtomicReference<AsyncHttpTransport.HttpRequest> lastRequest =
+            new AtomicReference<>();
+    private final AtomicReference<Throwable> transportFailure = new AtomicReference<>();
+    private final AtomicReference<Map<String, List<String>>> responseHeaders =
+            new AtomicReference<>(
+                    Collections.singletonMap("opc-request-id", Collections.singletonList("id")));
+
+    @Before
+    public void setUp() {
+        scheduler = Executors.newScheduledThreadPool(1);
+        // responds after a delay, without holding a thread in the meantime
+        AsyncHttpTransport transport =
+                request -> {
+                    lastRequest.set(request);
+                    CompletableFuture<AsyncHttpTransport.HttpResponse> future =
+                            new CompletableFuture<>();
+                    scheduler.schedule(
+                            () -> {
+                                if (transportFailure.get() != null) {
+                                    future.completeExceptionally(transportFailure.get());
+                                    return;
+                                }
+                                String body =
+                                        request.getMethod()
+                                                + " "
+                                                + request.getHeaders().get("authorization");
+                                future.complete(
+                                        AsyncHttpTransport.HttpResponse.builder()
+                                                .status(200)
+                                                .headers(responseHeaders.get())
+                                                .body(
+                                                        new ByteArrayInputStream(
+                                                                body.getBytes(
+                                                                        StandardCharsets.UTF_8)))
+                                                .build());
+                            },
+                            RESPONSE_DELAY_MILLIS,
+                            TimeUnit.MILLISECONDS);
+                    return future;
+                };
+
+        AsyncHttpTransportConfigurator configurator = new AsyncHttpTransportConfigurator(transport);
+        ClientBuilder builder =
+                ClientBuilder.newBuilder().property(ClientProperties.ASYNC_THREADPOOL_SIZE, 2);
+        configurator.customizeBuilder(builder);
+        client = builder.build();
+        configurator.customizeClient(client);
+        // stands in for the signing filter
+        client.register(
+                (ClientRequestFilter)
+                        requestContext ->
+                                requestContext.getHeaders().add("authorization", "signature"));
+    }
+
+    private AsyncHttpTransportConfigurator createConfigurator() {
+        return new AsyncHttpTransportConfigurator(
+                request -> {
+                    lastRequest.set(request);
+                    return new CompletableFuture<>();
+                });
+    }
+
+    @After
+    public void tearDown() {
+        client.close();
+        scheduler.shutdownNow();
+    }
+
+    @Test
+    public void synchronousGet() {
+        Response response = client.target("https://example.com/path").request().get();
+
+        assertEquals(200, response.getStatus());
+        assertEquals("id", response.getHeaderString("opc-request-id"));
+        assertEquals("GET [signature]", response.readEntity(String.class));
+        assertEquals("https://example.com/path", lastRequest.get().getUri().toString());
+        assertNull(lastRequest.get().getBody());
+    }
+
+    @Test
+    public void synchronousPostWithBody() {
+        Response response =
+                client.target("https://example.com/path")
+                        .request()
+                        .post(Entity.json("{\"name\":\"value\"}"));
+
+        assertEquals("POST [signature]", response.readEntity(String.class));
+        assertEquals(
+                "{\"name\":\"value\"}",
+                new String(lastRequest.get().getBody(), StandardCharsets.UTF_8));
+        Map<String, List<String>> headers = lastRequest.get().getHeaders();
+        assertTrue(headers.get("Content-Type").get(0).startsWith("application/json"));
+    }
+
+    @Test
+    public void asynchronousCallsDoNotHoldClientThreads() throws Exception {
+        // with 2 client threads blocking on the response, this would take 10 seconds
+        final int calls = 200;
+        final CountDownLatch done = new CountDownLatch(calls);
+        final AtomicInteger succeeded = new AtomicInteger();
+        for (int i = 0; i < calls; i++) {
+            client.target("https://example.com/path")
+                    .request()
+                    .async()
+                    .get(
+                            new InvocationCallback<Response>() {
+                                @Override
+                                public void completed(Response response) {
+                                    String body = response.readEntity(String.class);
+                                    if ("GET [signature]".equals(body)) {
+                                        succeeded.incrementAndGet();
+                                    }
+                                    done.countDown();
+                                }
+
+                                @Override
+                                public void failed(Throwable throwable) {
+                                    done.countDown();
+                                }
+                            });
+        }
+
+        assertTrue(done.await(3, TimeUnit.SECONDS));
+        assertEquals(calls, succeeded.get());
+    }
+
+    @Test
+    public void transportFailure() throws Exception {
+        transportFailure.set(new SocketTimeoutException("Read timed out"));
+
+        try {
+            client.target("https://example.com/path").request().get();
+            fail("Should have thrown");
+        } catch (ProcessingException e) {
+            assertTrue(e.getCause() instanceof SocketTimeoutException);
+        }
+
+        final CompletableFuture<Throwable> failure = new CompletableFuture<>();
+        client.target("https://example.com/path")
+                .request()
+                .async()
+                .get(
+                        new InvocationCallback<Response>() {
+                            @Override
+                            public void completed(Response response) {
+                                failure.complete(null);
+                            }
+
+                            @Override
+                            public void failed(Throwable throwable) {
+                                failure.complete(throwable);
+                            }
+                        });
+        Throwable throwable = failure.get(5, TimeUnit.SECONDS);
+        assertTrue(throwable instanceof ProcessingException);
+        assertTrue(throwable.getCause() instanceof SocketTimeoutException);
+    }
+
+    @Test
+    public void asynchronousCallFailsIfTheResponseCannotBeConverted() throws Exception {
+        Map<String, List<String>> headers = new HashMap<>();
+        headers.put("opc-request-id", null);
+        responseHeaders.set(headers);
+
+        final CompletableFuture<Throwable> failure = new CompletableFuture<>();
+        client.target("https://example.com/path")
+                .request()
+                .async()
+                .get(
+                        new InvocationCallback<Response>() {
+                            @Override
+                            public void completed(Response response) {
+                                failure.complete(null);
+                            }
+
+                            @Override
+                            public void failed(Throwable throwable) {
+                                failure.complete(throwable);
+                            }
+                        });
+        assertTrue(failure.get(5, TimeUnit.SECONDS) instanceof ProcessingException);
+    }
+
+    @Test
+    public void streamedBodyIsNotSentThroughTheTransport() {
+        try {
+            client.target("http://localhost:1/path")
+                    .request()
+                    .put(
+                            Entity.entity(
+                                    new ByteArrayInputStream(new byte[] {1, 2, 3}),
+                                    MediaType.APPLICATION_OCTET_STREAM_TYPE));
+            fail("Should have thrown");
+        } catch (ProcessingException e) {
+            // the blocking connector could not connect
+        }
+        assertNull(lastRequest.get());
+    }
+
+    @Test
+    public void customSslContextIsRejected() throws Exception {
+        SSLContext sslContext = SSLContext.getInstance("TLS");
+        sslContext.init(null, null, null);
+        AsyncHttpTransportConfigurator configurator = createConfigurator();
+        ClientBuilder builder = ClientBuilder.newBuilder().sslContext(sslContext);
+        configurator.customizeBuilder(builder);
+        Client sslClient = builder.build();
+        configurator.customizeClient(sslClient);
+        try {
+            sslClient.target("https://example.com/path").request().get();
+            fail("Should have thrown");
+        } catch (IllegalStateException e) {
+            assertTrue(e.getMessage().contains("SSL context"));
+        } finally {
+            sslClient.close();
+        }
+        assertNull(lastRequest.get());
+    }
+}
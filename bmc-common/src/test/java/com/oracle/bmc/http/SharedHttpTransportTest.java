@@ -0,0 +1,109 @@
+/**
+ * Copyright (c) 2016, 2021, Oracle and/or its affiliates.  All rights reserved.
+ * This software is dual-licensed to you under the Universal Permissive License (UPL) 1.0 as shown at https://oss.oracle.com/licenses/upl or Apache License 2.0 as shown at http://www.apache.org/licenses/LICENSE-2.0. You may choose either license.
+ */
+package com.oracle.bmc.http;
+
+import org.glassfish.jersey.apache.connector.ApacheConnectorProvider;
+import org.glassfish.jersey.client.ClientConfig;
+import org.glassfish.jersey.client.JerseyClient;
+import org.glassfish.jersey.client.JerseyClientBuilder;
+import org.junit.Test;
+
+import javax.ws.rs.ProcessingException;
+import javax.ws.rs.client.Client;
+import javax.ws.rs.client.ClientBuilder;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class SharedHttpTransportTest {
+    @Test
+    public void perEndpointLimits() {
+        try (SharedHttpTransport transport =
+                SharedHttpTransport.builder()
+                        .connectionPoolConfig(
+                                ApacheConnectionPoolConfig.builder()
+                                        .totalOpenConnections(200)
+                                        .defaultMaxConnectionsPerRoute(10)
+                                        .build())
+                        .maxConnectionsPerEndpoint("https://objectstorage.example.com", 100)
+                        .maxConnectionsPerEndpoint("http://localhost:8080", 5)
+                        .build()) {
+            assertEquals(200, transport.getConnectionManager().getMaxTotal());
+            assertEquals(10, transport.getConnectionManager().getDefaultMaxPerRoute());
+            assertEquals(
+                    100,
+                    transport
+                            .getConnectionManager()
+                            .getMaxPerRoute(
+                                    SharedHttpTransport.toRoute(
+                                            "https://objectstorage.example.com:443/n/")));
+            assertEquals(
+                    5,
+                    transport
+                            .getConnectionManager()
+                            .getMaxPerRoute(SharedHttpTransport.toRoute("http://localhost:8080")));
+            assertEquals(
+                    10,
+                    transport
+                            .getConnectionManager()
+                            .getMaxPerRoute(
+                                    SharedHttpTransport.toRoute("https://iaas.example.com")));
+        }
+    }
+
+    @Test
+    public void clientsShareTheTransportUntilAllAreClosed() {
+        SharedHttpTransport transport = SharedHttpTransport.builder().build();
+        ApacheConnectionPoolingClientConfigDecorator decorator =
+                new ApacheConnectionPoolingClientConfigDecorator(transport);
+        ApacheConfigurator configurator =
+                new ApacheConfigurator(
+                        Collections.<ClientConfigDecorator>singletonList(decorator));
+
+        Client first = createAndUseClient(configurator);
+        Client second = createAndUseClient(configurator);
+
+        assertSame(
+                transport.getConnectionManager(),
+                decorator.getPoolingHttpClientConnectionManager());
+        assertSame(transport.getAsyncExecutor(), ((JerseyClient) first).getExecutorService());
+        assertEquals(3, transport.getReferenceCount());
+
+        transport.close();
+        transport.close();
+        first.close();
+        assertEquals(1, transport.getReferenceCount());
+        assertFalse(transport.isShutdown());
+
+        second.close();
+        assertTrue(transport.isShutdown());
+        assertTrue(transport.getAsyncExecutor().isShutdown());
+
+        try {
+            decorator.customizeClientConfig(
+                    new ClientConfig().connectorProvider(new ApacheConnectorProvider()));
+            fail("Should have thrown");
+        } catch (IllegalStateException e) {
+            // expected
+        }
+    }
+
+    private static Client createAndUseClient(ClientConfigurator configurator) {
+        ClientBuilder builder = JerseyClientBuilder.newBuilder();
+        configurator.customizeBuilder(builder);
+        Client client = builder.build();
+        try {
+            // nothing listens on port 1, but the request initializes the client runtime
+            client.target("http://localhost:1").request().get().close();
+        } catch (ProcessingException e) {
+            // expected
+        }
+        return client;
+    }
+}
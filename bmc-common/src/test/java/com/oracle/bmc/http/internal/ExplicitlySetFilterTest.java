@@ -5,6 +5,7 @@
 package com.oracle.bmc.http.internal;
 
 import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonMappingException;
 import com.fasterxml.jackson.databind.SerializerProvider;
 import com.fasterxml.jackson.databind.ser.PropertyWriter;
 import com.oracle.bmc.requests.BmcRequest;
@@ -19,11 +20,15 @@ import java.io.IOException;
 import java.net.URI;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 import static org.mockito.Mockito.*;
 
-@Ignore("DEX-1801: Fix Mockito Problem in Release TeamCity Job")
 public class ExplicitlySetFilterTest {
+    private static final String DEX_1801 = "DEX-1801: Fix Mockito Problem in Release TeamCity Job";
+
+    @Ignore(DEX_1801)
     @Test
     public void testFieldInSuperclass() throws Exception {
         Subclass pojo = Subclass.builder().baseVal(1).subVal("two").build();
@@ -40,6 +45,7 @@ public class ExplicitlySetFilterTest {
         verifyNoMoreInteractions(writer);
     }
 
+    @Ignore(DEX_1801)
     @Test
     public void testFieldInSubclass() throws Exception {
         Subclass pojo = Subclass.builder().baseVal(1).subVal("two").build();
@@ -56,6 +62,7 @@ public class ExplicitlySetFilterTest {
         verifyNoMoreInteractions(writer);
     }
 
+    @Ignore(DEX_1801)
     @Test
     public void testExplicitNullFieldInSuperclass() throws Exception {
         Subclass pojo = Subclass.builder().baseVal(null).subVal("two").build();
@@ -72,6 +79,7 @@ public class ExplicitlySetFilterTest {
         verifyNoMoreInteractions(writer);
     }
 
+    @Ignore(DEX_1801)
     @Test
     public void testExplicitNullInSubclass() throws Exception {
         Subclass pojo = Subclass.builder().baseVal(1).subVal(null).build();
@@ -88,6 +96,7 @@ public class ExplicitlySetFilterTest {
         verifyNoMoreInteractions(writer);
     }
 
+    @Ignore(DEX_1801)
     @Test
     public void testNullFieldInSuperclass() throws Exception {
         Subclass pojo = Subclass.builder().subVal("two").build();
@@ -103,6 +112,7 @@ public class ExplicitlySetFilterTest {
         verifyNoMoreInteractions(writer);
     }
 
+    @Ignore(DEX_1801)
     @Test
     public void testNullInSubclass() throws Exception {
         Subclass pojo = Subclass.builder().baseVal(1).build();
@@ -118,6 +128,7 @@ public class ExplicitlySetFilterTest {
         verifyNoMoreInteractions(writer);
     }
 
+    @Ignore(DEX_1801)
     @Test
     public void deserializeNoDiscriminator() throws IOException {
         Subclass sub = Subclass.builder().baseVal(1).subVal("two").build();
@@ -149,6 +160,7 @@ public class ExplicitlySetFilterTest {
         }
     }
 
+    @Ignore(DEX_1801)
     @Test
     public void serializeSnakeCasedParameter() {
         Subclass sub = Subclass.builder().baseVal(1).subVal("two").majorVersion("1.0").build();
@@ -157,6 +169,58 @@ public class ExplicitlySetFilterTest {
         assertTrue(serializedBody.contains("\"major_version\":\"1.0\""));
     }
 
+    @Test
+    public void writeValue_explicitNullInSuperclass() throws Exception {
+        Subclass pojo = Subclass.builder().baseVal(null).subVal("two").build();
+
+        String json = RestClientFactory.getObjectMapper().writeValueAsString(pojo);
+
+        assertTrue(json, json.contains("\"baseVal\":null"));
+        assertTrue(json, json.contains("\"subVal\":\"two\""));
+        assertFalse(json, json.contains("major_version"));
+    }
+
+    @Test
+    public void writeValue_snakeCasedPropertyOfCamelCasedField() throws Exception {
+        Subclass pojo = Subclass.builder().majorVersion("1.0").build();
+
+        String json = RestClientFactory.getObjectMapper().writeValueAsString(pojo);
+
+        assertTrue(json, json.contains("\"major_version\":\"1.0\""));
+        assertFalse(json, json.contains("baseVal"));
+    }
+
+    @Test
+    public void writeValue_withoutExplicitlySetField() throws Exception {
+        String json =
+                RestClientFactory.getObjectMapper()
+                        .writeValueAsString(new NoExplicitlySet("value"));
+        assertEquals("{\"val\":\"value\"}", json);
+
+        try {
+            RestClientFactory.getObjectMapper().writeValueAsString(new NoExplicitlySet(null));
+            fail("Expected JsonMappingException");
+        } catch (JsonMappingException e) {
+            assertTrue(e.getCause() instanceof NoSuchFieldException);
+        }
+    }
+
+    @Test
+    public void writeValue_sameClassRepeatedly() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            Subclass first = Subclass.builder().baseVal(i).subVal(null).build();
+            Subclass second = Subclass.builder().subVal("sub" + i).build();
+
+            String firstJson = RestClientFactory.getObjectMapper().writeValueAsString(first);
+            String secondJson = RestClientFactory.getObjectMapper().writeValueAsString(second);
+
+            assertTrue(firstJson, firstJson.contains("\"baseVal\":" + i));
+            assertTrue(firstJson, firstJson.contains("\"subVal\":null"));
+            assertFalse(secondJson, secondJson.contains("baseVal"));
+            assertTrue(secondJson, secondJson.contains("\"subVal\":\"sub" + i + "\""));
+        }
+    }
+
     private static String serializeForPost(Object o) {
         Client client = mock(Client.class);
         EntityFactory ef = mock(EntityFactory.class);
@@ -173,6 +237,17 @@ public class ExplicitlySetFilterTest {
         }
     }
 
+    @com.fasterxml.jackson.annotation.JsonFilter(
+            com.oracle.bmc.http.internal.ExplicitlySetFilter.NAME)
+    static class NoExplicitlySet {
+        @com.fasterxml.jackson.annotation.JsonProperty("val")
+        private final String val;
+
+        NoExplicitlySet(String val) {
+            this.val = val;
+        }
+    }
+
     @lombok.Value
     @lombok.experimental.NonFinal
     @com.fasterxml.jackson.annotation.JsonTypeInfo(
@@ -0,0 +1,183 @@
+/**
+ * Copyright (c) 2016, 2021, Oracle and/or its affiliates.  All rights reserved.
+ * This software is dual-licensed to you under the Universal Permissive License (UPL) 1.0 as shown at https://oss.oracle.com/licenses/upl or Apache License 2.0 as shown at http://www.apache.org/licenses/LICENSE-2.0. You may choose either license.
+ */
+package com.oracle.bmc.http.internal;
+
+import com.oracle.bmc.cache.ResponseCache;
+import com.oracle.bmc.cache.ResponseCacheConfiguration;
+import org.apache.commons.io.IOUtils;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import javax.ws.rs.HttpMethod;
+import javax.ws.rs.client.ClientRequestContext;
+import javax.ws.rs.client.ClientResponseContext;
+import javax.ws.rs.core.MultivaluedHashMap;
+import javax.ws.rs.core.MultivaluedMap;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class ResponseCacheFilterTest {
+    private static final URI URI_GET_BUCKET = URI.create("https://objectstorage/n/ns/b/bucket");
+
+    private final ResponseCacheFilter filter = new ResponseCacheFilter();
+    private final ResponseCache cache =
+            new ResponseCache(
+                    ResponseCacheConfiguration.builder()
+                            .operation("GetBucket", Duration.ofMinutes(5))
+                            .build());
+
+    private ClientRequestContext request(String method, String... headers) {
+        final ClientRequestContext request = mock(ClientRequestContext.class);
+        final Map<String, Object> properties = new HashMap<>();
+        properties.put(ResponseCacheFilter.CACHE_PROPERTY, cache);
+        properties.put(ResponseCacheFilter.OPERATION_PROPERTY, "GetBucket");
+        final MultivaluedMap<String, Object> requestHeaders = new MultivaluedHashMap<>();
+        for (int i = 0; i < headers.length; i += 2) {
+            requestHeaders.putSingle(headers[i], headers[i + 1]);
+        }
+        when(request.getMethod()).thenReturn(method);
+        when(request.getUri()).thenReturn(URI_GET_BUCKET);
+        when(request.getHeaders()).thenReturn(requestHeaders);
+        when(request.getHeaderString(anyString()))
+                .thenAnswer(
+                        invocation -> {
+                            final Object value =
+                                    requestHeaders.getFirst(
+                                            (String) invocation.getArguments()[0]);
+                            return value != null ? value.toString() : null;
+                        });
+        when(request.getProperty(anyString()))
+                .thenAnswer(invocation -> properties.get(invocation.getArguments()[0]));
+        doAnswer(
+                        invocation ->
+                                properties.put(
+                                        (String) invocation.getArguments()[0],
+                                        invocation.getArguments()[1]))
+                .when(request)
+                .setProperty(anyString(), any());
+        doAnswer(invocation -> properties.remove(invocation.getArguments()[0]))
+                .when(request)
+                .removeProperty(anyString());
+        return request;
+    }
+
+    private static ClientResponseContext response(
+            int status, String etag, String requestId, String body) {
+        final ClientResponseContext response = mock(ClientResponseContext.class);
+        final MultivaluedMap<String, String> headers = new MultivaluedHashMap<>();
+        headers.putSingle("opc-request-id", requestId);
+        if (etag != null) {
+            headers.putSingle("etag", etag);
+        }
+        when(response.getStatus()).thenReturn(status);
+        when(response.getHeaders()).thenReturn(headers);
+        when(response.getHeaderString(anyString()))
+                .thenAnswer(
+                        invocation ->
+                                headers.getFirst(
+                                        ((String) invocation.getArguments()[0]).toLowerCase()));
+        when(response.hasEntity()).thenReturn(body != null);
+        when(response.getLength()).thenReturn(body != null ? body.length() : -1);
+        if (body != null) {
+            when(response.getEntityStream())
+                    .thenReturn(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)));
+        }
+        return response;
+    }
+
+    private static String readEntity(ClientResponseContext response) throws Exception {
+        final ArgumentCaptor<InputStream> entity = ArgumentCaptor.forClass(InputStream.class);
+        verify(response).setEntityStream(entity.capture());
+        return IOUtils.toString(entity.getValue(), StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void notModifiedResponseIsReplacedWithCachedResponse() throws Exception {
+        final ClientRequestContext firstRequest = request(HttpMethod.GET);
+        filter.filter(firstRequest);
+        assertNull(firstRequest.getHeaders().getFirst("if-none-match"));
+        final ClientResponseContext firstResponse = response(200, "etag-1", "id-1", "bucket");
+        filter.filter(firstRequest, firstResponse);
+        assertEquals("bucket", readEntity(firstResponse));
+
+        final ClientRequestContext secondRequest = request(HttpMethod.GET);
+        filter.filter(secondRequest);
+        assertEquals("etag-1", secondRequest.getHeaders().getFirst("if-none-match"));
+        final ClientResponseContext secondResponse = response(304, "etag-1", "id-2", null);
+        filter.filter(secondRequest, secondResponse);
+
+        verify(secondResponse).setStatus(200);
+        assertEquals("bucket", readEntity(secondResponse));
+        assertEquals("id-2", secondResponse.getHeaders().getFirst("opc-request-id"));
+        assertEquals(1, cache.getMetrics().getNotModifiedResponses());
+        assertEquals(1, cache.getMetrics().getModifiedResponses());
+    }
+
+    @Test
+    public void modifiedResponseReplacesCachedResponse() throws Exception {
+        final ClientRequestContext firstRequest = request(HttpMethod.GET);
+        filter.filter(firstRequest);
+        filter.filter(firstRequest, response(200, "etag-1", "id-1", "old"));
+
+        final ClientRequestContext secondRequest = request(HttpMethod.GET);
+        filter.filter(secondRequest);
+        final ClientResponseContext secondResponse = response(200, "etag-2", "id-2", "new");
+        filter.filter(secondRequest, secondResponse);
+        assertEquals("new", readEntity(secondResponse));
+
+        final ClientRequestContext thirdRequest = request(HttpMethod.GET);
+        filter.filter(thirdRequest);
+        assertEquals("etag-2", thirdRequest.getHeaders().getFirst("if-none-match"));
+    }
+
+    @Test
+    public void conditionalRequestIsNotCached() throws Exception {
+        final ClientRequestContext firstRequest = request(HttpMethod.GET);
+        filter.filter(firstRequest);
+        filter.filter(firstRequest, response(200, "etag-1", "id-1", "bucket"));
+
+        // the caller's own if-none-match is kept, and a 304 is passed through
+        final ClientRequestContext secondRequest = request(HttpMethod.GET, "if-none-match", "x");
+        filter.filter(secondRequest);
+        assertEquals("x", secondRequest.getHeaders().getFirst("if-none-match"));
+        final ClientResponseContext secondResponse = response(304, "etag-1", "id-2", null);
+        filter.filter(secondRequest, secondResponse);
+        verify(secondResponse, never()).setStatus(200);
+    }
+
+    @Test
+    public void largeResponseIsNotCached() throws Exception {
+        final ResponseCache smallCache =
+                new ResponseCache(
+                        ResponseCacheConfiguration.builder()
+                                .operation("GetBucket", Duration.ofMinutes(5))
+                                .maxEntryBytes(4)
+                                .build());
+        final ClientRequestContext firstRequest = request(HttpMethod.GET);
+        firstRequest.setProperty(ResponseCacheFilter.CACHE_PROPERTY, smallCache);
+        filter.filter(firstRequest);
+        final ClientResponseContext firstResponse = response(200, "etag-1", "id-1", "bucket");
+        when(firstResponse.getLength()).thenReturn(-1);
+        filter.filter(firstRequest, firstResponse);
+        assertEquals("bucket", readEntity(firstResponse));
+
+        assertNull(smallCache.get("GetBucket", URI_GET_BUCKET.toString()));
+    }
+}
@@ -6,22 +6,34 @@ package com.oracle.bmc.http.internal;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
 import com.oracle.bmc.io.internal.ContentLengthVerifyingInputStream;
 import com.oracle.bmc.io.internal.WrappedResponseInputStream;
 import com.oracle.bmc.model.BmcException;
 import org.junit.Test;
 
+import javax.ws.rs.ProcessingException;
+import javax.ws.rs.core.GenericType;
 import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.MultivaluedHashMap;
 import javax.ws.rs.core.MultivaluedMap;
 import javax.ws.rs.core.Response;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
 import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 import static org.hamcrest.Matchers.instanceOf;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
@@ -227,6 +239,202 @@ public class ResponseHelperTest {
         assertEquals(ImmutableList.of("100"), stringHeaders.get(HttpHeaders.CONTENT_LENGTH));
     }
 
+    @Test
+    public void testReadEntityItems_itemsProperty() throws Exception {
+        Response response = buildMockResponse(OPC_REQUEST_ID, JSON_MEDIA_TYPE, Response.Status.OK);
+        when(response.readEntity(InputStream.class))
+                .thenReturn(
+                        json(
+                                "{\"before\":1,\"items\":[{\"code\":\"a\",\"message\":\"m\"},"
+                                        + "{\"code\":\"b\"}],\"after\":{\"x\":[2]}}"));
+
+        JsonItemIterator<ResponseHelper.ErrorCodeAndMessage> items =
+                ResponseHelper.readEntityItems(
+                        response, ResponseHelper.ErrorCodeAndMessage.class, "items");
+
+        assertTrue(items.hasNext());
+        assertEquals("a", items.next().getCode());
+        assertEquals(ImmutableSet.of("before"), items.getOtherProperties().keySet());
+        verify(response, never()).close();
+        assertEquals("b", items.next().getCode());
+        assertFalse(items.hasNext());
+        assertEquals(ImmutableSet.of("before", "after"), items.getOtherProperties().keySet());
+        assertEquals(2, items.getOtherProperties().get("after").get("x").get(0).asInt());
+        verify(response, never()).bufferEntity();
+        verify(response).close();
+    }
+
+    @Test
+    public void testReadEntityItems_consumer() {
+        Response response = buildMockResponse(OPC_REQUEST_ID, JSON_MEDIA_TYPE, Response.Status.OK);
+        when(response.readEntity(InputStream.class))
+                .thenReturn(json("[{\"code\":\"a\"},{\"code\":\"b\"},{\"code\":\"c\"}]"));
+        List<String> codes = new ArrayList<>();
+
+        long count =
+                ResponseHelper.readEntityItems(
+                        response,
+                        ResponseHelper.ErrorCodeAndMessage.class,
+                        null,
+                        item -> codes.add(item.getCode()));
+
+        assertEquals(3, count);
+        assertEquals(ImmutableList.of("a", "b", "c"), codes);
+        verify(response).close();
+    }
+
+    @Test
+    public void testReadEntityItems_nullOrMissingItems() {
+        for (String body : new String[] {"{\"items\":null}", "{\"other\":true}"}) {
+            Response response =
+                    buildMockResponse(OPC_REQUEST_ID, JSON_MEDIA_TYPE, Response.Status.OK);
+            when(response.readEntity(InputStream.class)).thenReturn(json(body));
+
+            JsonItemIterator<ResponseHelper.ErrorCodeAndMessage> items =
+                    ResponseHelper.readEntityItems(
+                            response, ResponseHelper.ErrorCodeAndMessage.class, "items");
+
+            assertFalse(items.hasNext());
+            verify(response).close();
+        }
+    }
+
+    @Test
+    public void testReadEntityItems_notModified() {
+        Response response =
+                buildMockResponse(OPC_REQUEST_ID, JSON_MEDIA_TYPE, Response.Status.NOT_MODIFIED);
+
+        JsonItemIterator<ResponseHelper.ErrorCodeAndMessage> items =
+                ResponseHelper.readEntityItems(
+                        response, ResponseHelper.ErrorCodeAndMessage.class, "items");
+
+        assertFalse(items.hasNext());
+        verify(response, never()).readEntity(InputStream.class);
+        verify(response).close();
+    }
+
+    @Test
+    public void testReadEntityItems_truncated() {
+        Response response = buildMockResponse(OPC_REQUEST_ID, JSON_MEDIA_TYPE, Response.Status.OK);
+        when(response.readEntity(InputStream.class))
+                .thenReturn(json("{\"items\":[{\"code\":\"a\"},{\"co"));
+
+        JsonItemIterator<ResponseHelper.ErrorCodeAndMessage> items =
+                ResponseHelper.readEntityItems(
+                        response, ResponseHelper.ErrorCodeAndMessage.class, "items");
+
+        assertEquals("a", items.next().getCode());
+        try {
+            items.next();
+            fail("Should have thrown");
+        } catch (BmcException e) {
+            assertEquals(OPC_REQUEST_ID, e.getOpcRequestId());
+        }
+        verify(response).close();
+    }
+
+    @Test
+    public void testReadEntity_listIsBufferedByDefault() {
+        Response response = buildMockResponse(OPC_REQUEST_ID, JSON_MEDIA_TYPE, Response.Status.OK);
+        GenericType<List<ResponseHelper.ErrorCodeAndMessage>> type =
+                new GenericType<List<ResponseHelper.ErrorCodeAndMessage>>() {};
+        List<ResponseHelper.ErrorCodeAndMessage> items = new ArrayList<>();
+        when(response.readEntity(type)).thenReturn(items);
+
+        assertSame(items, ResponseHelper.readEntity(response, type));
+        verify(response).bufferEntity();
+        verify(response, never()).readEntity(InputStream.class);
+    }
+
+    @Test
+    public void testReadEntity_listIsStreamed() {
+        Response response = buildMockResponse(OPC_REQUEST_ID, JSON_MEDIA_TYPE, Response.Status.OK);
+        when(response.readEntity(InputStream.class))
+                .thenReturn(json("[{\"code\":\"a\"},{\"code\":\"b\"}]"));
+        GenericType<List<ResponseHelper.ErrorCodeAndMessage>> type =
+                new GenericType<List<ResponseHelper.ErrorCodeAndMessage>>() {};
+
+        ResponseHelper.shouldStreamListEntities(true);
+        try {
+            List<ResponseHelper.ErrorCodeAndMessage> items =
+                    ResponseHelper.readEntity(response, type);
+
+            assertEquals(2, items.size());
+            assertEquals("a", items.get(0).getCode());
+            assertEquals("b", items.get(1).getCode());
+            verify(response, never()).bufferEntity();
+            verify(response, never()).readEntity(type);
+            verify(response).close();
+
+            // async requests read the entity through both the AsyncHandler and the Future
+            assertSame(items, ResponseHelper.readEntity(response, type));
+            verify(response).readEntity(InputStream.class);
+        } finally {
+            ResponseHelper.shouldStreamListEntities(false);
+        }
+    }
+
+    @Test
+    public void testReadEntity_streamedEmptyOrNullList() {
+        ResponseHelper.shouldStreamListEntities(true);
+        try {
+            for (String body : new String[] {"", "null"}) {
+                Response response =
+                        buildMockResponse(OPC_REQUEST_ID, JSON_MEDIA_TYPE, Response.Status.OK);
+                when(response.readEntity(InputStream.class)).thenReturn(json(body));
+                GenericType<List<ResponseHelper.ErrorCodeAndMessage>> type =
+                        new GenericType<List<ResponseHelper.ErrorCodeAndMessage>>() {};
+
+                assertNull(ResponseHelper.readEntity(response, type));
+                // the second reader gets null too, without reading the closed response again
+                assertNull(ResponseHelper.readEntity(response, type));
+                verify(response).readEntity(InputStream.class);
+                verify(response).close();
+            }
+        } finally {
+            ResponseHelper.shouldStreamListEntities(false);
+        }
+    }
+
+    @Test
+    public void testReadEntity_streamedMalformedList() {
+        Response response = buildMockResponse(OPC_REQUEST_ID, JSON_MEDIA_TYPE, Response.Status.OK);
+        when(response.readEntity(InputStream.class)).thenReturn(json("[{\"code\":"));
+        GenericType<List<ResponseHelper.ErrorCodeAndMessage>> type =
+                new GenericType<List<ResponseHelper.ErrorCodeAndMessage>>() {};
+
+        ResponseHelper.shouldStreamListEntities(true);
+        try {
+            for (int i = 0; i < 2; i++) {
+                try {
+                    ResponseHelper.readEntity(response, type);
+                    fail("Expected ProcessingException");
+                } catch (ProcessingException e) {
+                    assertThat(e.getCause(), instanceOf(IOException.class));
+                }
+            }
+            verify(response).readEntity(InputStream.class);
+            verify(response).close();
+        } finally {
+            ResponseHelper.shouldStreamListEntities(false);
+        }
+    }
+
+    @Test
+    public void testReadEntity_otherGenericTypesAreBuffered() {
+        Response response = buildMockResponse(OPC_REQUEST_ID, JSON_MEDIA_TYPE, Response.Status.OK);
+        GenericType<Map<String, String>> type = new GenericType<Map<String, String>>() {};
+        when(response.readEntity(type)).thenReturn(ImmutableMap.of("a", "b"));
+
+        assertEquals(ImmutableMap.of("a", "b"), ResponseHelper.readEntity(response, type));
+        verify(response).bufferEntity();
+        verify(response, never()).readEntity(InputStream.class);
+    }
+
+    private static InputStream json(String json) {
+        return new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+    }
+
     private static Response buildMockResponse(
             final String opcRequestId, final MediaType mediaType, final Response.Status status) {
         final Response response = mock(Response.class);
@@ -5,9 +5,14 @@
 package com.oracle.bmc.http.internal;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
+import com.fasterxml.jackson.databind.ser.DefaultSerializerProvider;
 import com.google.common.collect.ImmutableList;
 import com.oracle.bmc.ClientConfiguration;
+import com.oracle.bmc.ClientRuntime;
 import com.oracle.bmc.circuitbreaker.CircuitBreakerConfiguration;
 import com.oracle.bmc.helper.EnvironmentVariablesHelper;
 import com.oracle.bmc.http.CompositeClientConfigurator;
@@ -21,6 +26,64 @@ import java.util.HashMap;
 import java.util.Map;
 
 public class RestClientFactoryTest {
+    @Test
+    public void warmUpCachesSerializers() {
+        final DefaultSerializerProvider serializers =
+                (DefaultSerializerProvider)
+                        RestClientFactory.getObjectMapper().getSerializerProvider();
+        final int cachedSerializers = serializers.cachedSerializersCount();
+
+        RestClientFactory.warmUp(WarmUpModel.class);
+
+        assertTrue(serializers.cachedSerializersCount() > cachedSerializers);
+    }
+
+    public static class WarmUpModel {
+        public String name;
+        public Map<String, Integer> counts;
+    }
+
+    @Test
+    public void lazyInitializationCreatesClientOnFirstUse() {
+        ClientRuntime.setLazyInitializationEnabled(true);
+        try {
+            RestClient client =
+                    RestClientFactoryBuilder.builder()
+                            .build()
+                            .create(null, null, ClientConfiguration.builder().build());
+            client.setEndpoint("https://example.com");
+            assertFalse(client.isClientCreated());
+
+            assertEquals("https://example.com", client.getBaseTarget().getUri().toString());
+            assertTrue(client.isClientCreated());
+
+            client.close();
+        } finally {
+            ClientRuntime.setLazyInitializationEnabled(false);
+        }
+    }
+
+    @Test
+    public void lazyClientIsNotCreatedAfterClose() {
+        ClientRuntime.setLazyInitializationEnabled(true);
+        try {
+            RestClient client =
+                    RestClientFactoryBuilder.builder()
+                            .build()
+                            .create(null, null, ClientConfiguration.builder().build());
+            client.setEndpoint("https://example.com");
+            client.close();
+            try {
+                client.getBaseTarget();
+                fail("Should have thrown");
+            } catch (IllegalStateException e) {
+                assertFalse(client.isClientCreated());
+            }
+        } finally {
+            ClientRuntime.setLazyInitializationEnabled(false);
+        }
+    }
+
     @Test
     public void isJacksonFeatureRegistered() {
         // The SDK uses the JerseyClient
@@ -7,9 +7,22 @@ package com.oracle.bmc.http.internal;
 import com.oracle.bmc.ClientConfiguration;
 import com.oracle.bmc.circuitbreaker.CallNotAllowedException;
 import com.oracle.bmc.circuitbreaker.CircuitBreakerConfiguration;
+import com.oracle.bmc.circuitbreaker.JaxRsCircuitBreaker;
+import com.oracle.bmc.circuitbreaker.internal.JaxRsCircuitBreakerImpl;
+import com.oracle.bmc.http.AsyncHttpTransport;
+import com.oracle.bmc.http.AsyncHttpTransportConfigurator;
+import com.oracle.bmc.instrumentation.HistogramInstrumentation;
+import com.oracle.bmc.instrumentation.Instrumentations;
+import com.oracle.bmc.instrumentation.requests.GetThingRequest;
 import com.oracle.bmc.model.BmcException;
+import com.oracle.bmc.ratelimit.AdaptiveRateLimiter;
+import com.oracle.bmc.ratelimit.RateLimiterConfiguration;
 import com.oracle.bmc.requests.BmcRequest;
+import com.oracle.bmc.responses.AsyncHandler;
+import com.oracle.bmc.retrier.RetryConfiguration;
 import com.oracle.bmc.util.internal.Consumer;
+import com.oracle.bmc.waiter.FixedTimeDelayStrategy;
+import com.oracle.bmc.waiter.MaxAttemptsTerminationStrategy;
 import org.junit.Before;
 import org.junit.Ignore;
 import org.junit.Test;
@@ -18,13 +31,24 @@ import org.mockito.Mockito;
 import org.mockito.MockitoAnnotations;
 import org.powermock.api.mockito.PowerMockito;
 
+import javax.ws.rs.client.Client;
+import javax.ws.rs.client.ClientBuilder;
 import javax.ws.rs.client.Invocation;
 import javax.ws.rs.core.MultivaluedHashMap;
 import javax.ws.rs.core.MultivaluedMap;
 import javax.ws.rs.core.Response;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.net.URI;
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static org.junit.Assert.*;
 import static org.mockito.Mockito.mock;
@@ -314,4 +338,267 @@ public class RestClientTest {
             }
         }
     }
+
+    @Test
+    public void asyncRequestIsRetried() throws Exception {
+        final AtomicInteger sends = new AtomicInteger();
+        RestClient client =
+                createAsyncClient(
+                        sends,
+                        2,
+                        RetryConfiguration.builder()
+                                .terminationStrategy(new MaxAttemptsTerminationStrategy(3))
+                                .delayStrategy(new FixedTimeDelayStrategy(10L))
+                                .build());
+        final CountDownLatch done = new CountDownLatch(1);
+        final AtomicInteger handlerCalls = new AtomicInteger();
+        final AtomicReference<String> handlerResponse = new AtomicReference<>();
+        try {
+            Future<String> future =
+                    client.getFutureSupplier(
+                                    new BmcRequest<Void>(),
+                                    client.getBaseTarget().path("path").request(),
+                                    RestClientTest::readSuccessfulResponse)
+                            .apply(
+                                    new AsyncHandler<BmcRequest<Void>, String>() {
+                                        @Override
+                                        public void onSuccess(
+                                                BmcRequest<Void> request, String response) {
+                                            handlerCalls.incrementAndGet();
+                                            handlerResponse.set(response);
+                                            done.countDown();
+                                        }
+
+                                        @Override
+                                        public void onError(
+                                                BmcRequest<Void> request, Throwable error) {
+                                            handlerCalls.incrementAndGet();
+                                            done.countDown();
+                                        }
+                                    });
+
+            assertEquals("body", future.get(5, TimeUnit.SECONDS));
+            assertTrue(done.await(5, TimeUnit.SECONDS));
+        } finally {
+            client.close();
+        }
+        assertEquals(3, sends.get());
+        assertEquals(1, handlerCalls.get());
+        assertEquals("body", handlerResponse.get());
+    }
+
+    @Test
+    public void asyncRequestFailureIsNotWrapped() throws Exception {
+        final AtomicInteger sends = new AtomicInteger();
+        RestClient client = createAsyncClient(sends, Integer.MAX_VALUE, null);
+        try {
+            client.getFutureSupplier(
+                            new BmcRequest<Void>(),
+                            client.getBaseTarget().path("path").request(),
+                            RestClientTest::readSuccessfulResponse)
+                    .apply(null)
+                    .get(5, TimeUnit.SECONDS);
+            fail("Should have thrown");
+        } catch (BmcException e) {
+            assertEquals(503, e.getStatusCode());
+        } finally {
+            client.close();
+        }
+        assertEquals(1, sends.get());
+    }
+
+    /**
+     * Creates a client whose requests fail with 503 the given number of times, then succeed.
+     */
+    @Test
+    public void asyncRequestIsRateLimited() throws Exception {
+        final AtomicInteger sends = new AtomicInteger();
+        RestClient client =
+                createAsyncClient(
+                        sends,
+                        1,
+                        RetryConfiguration.builder()
+                                .terminationStrategy(new MaxAttemptsTerminationStrategy(2))
+                                .delayStrategy(new FixedTimeDelayStrategy(0L))
+                                .build(),
+                        RateLimiterConfiguration.builder()
+                                .initialRequestsPerSecond(10)
+                                .maxBurstSeconds(0)
+                                .sharedPerEndpoint(false)
+                                .build());
+        try {
+            assertEquals(
+                    "body",
+                    client.getFutureSupplier(
+                                    new BmcRequest<Void>(),
+                                    client.getBaseTarget().path("path").request(),
+                                    RestClientTest::readSuccessfulResponse)
+                            .apply(null)
+                            .get(5, TimeUnit.SECONDS));
+        } finally {
+            client.close();
+        }
+        assertEquals(2, sends.get());
+        AdaptiveRateLimiter.Metrics metrics = client.getRateLimiter().getMetrics();
+        assertEquals(2, metrics.getPermittedRequests());
+        // the retry waited for the rate limiter, which was slowed down by the 503
+        assertEquals(1, metrics.getDelayedRequests());
+        assertEquals(1, metrics.getThrottledResponses());
+        assertTrue(metrics.getRequestsPerSecond() < 10);
+    }
+
+    @Test
+    public void asyncRequestIsInstrumented() throws Exception {
+        final HistogramInstrumentation instrumentation = new HistogramInstrumentation();
+        Instrumentations.register(instrumentation);
+        final AtomicInteger sends = new AtomicInteger();
+        RestClient client =
+                createAsyncClient(
+                        sends,
+                        1,
+                        RetryConfiguration.builder()
+                                .terminationStrategy(new MaxAttemptsTerminationStrategy(2))
+                                .delayStrategy(new FixedTimeDelayStrategy(0L))
+                                .build());
+        try {
+            client.getFutureSupplier(
+                            new GetThingRequest(),
+                            client.getBaseTarget().path("path").request(),
+                            RestClientTest::readSuccessfulResponse)
+                    .apply(null)
+                    .get(5, TimeUnit.SECONDS);
+        } finally {
+            Instrumentations.unregister(instrumentation);
+            client.close();
+        }
+        HistogramInstrumentation.OperationMetrics metrics =
+                instrumentation
+                        .getOperationMetrics()
+                        .get(
+                                new HistogramInstrumentation.OperationKey(
+                                        "instrumentation", "GetThing"));
+        assertEquals(2, metrics.getLatency().getCount());
+        assertEquals(1, metrics.getErrorResponses());
+        assertEquals(1, metrics.getRetries());
+    }
+
+    @Test
+    public void asyncRequestFailsWhenCircuitBreakerIsOpen() throws Exception {
+        JaxRsCircuitBreaker circuitBreaker =
+                new JaxRsCircuitBreakerImpl(
+                        CircuitBreakerConfiguration.builder()
+                                .minimumNumberOfCalls(1)
+                                .waitDurationInOpenState(Duration.ofMinutes(1))
+                                .build());
+        Response response503 = mock(Response.class);
+        Mockito.when(response503.getStatus()).thenReturn(503);
+        Mockito.when(response503.getStatusInfo()).thenReturn(Response.Status.SERVICE_UNAVAILABLE);
+        circuitBreaker.decorateSupplier(() -> response503).get();
+        try {
+            circuitBreaker.decorateSupplier(() -> response503).get();
+            fail("The circuit breaker should be open");
+        } catch (CallNotAllowedException e) {
+            // expected
+        }
+
+        final AtomicInteger sends = new AtomicInteger();
+        RestClient client =
+                createAsyncClient(
+                        sends, 0, RetryConfiguration.NO_RETRY_CONFIGURATION, null, circuitBreaker);
+        final CountDownLatch done = new CountDownLatch(1);
+        final AtomicReference<Throwable> handlerError = new AtomicReference<>();
+        try {
+            Future<String> future =
+                    client.getFutureSupplier(
+                                    new BmcRequest<Void>(),
+                                    client.getBaseTarget().path("path").request(),
+                                    RestClientTest::readSuccessfulResponse)
+                            .apply(
+                                    new AsyncHandler<BmcRequest<Void>, String>() {
+                                        @Override
+                                        public void onSuccess(
+                                                BmcRequest<Void> request, String response) {
+                                            done.countDown();
+                                        }
+
+                                        @Override
+                                        public void onError(
+                                                BmcRequest<Void> request, Throwable error) {
+                                            handlerError.set(error);
+                                            done.countDown();
+                                        }
+                                    });
+            try {
+                future.get(5, TimeUnit.SECONDS);
+                fail("Should have thrown");
+            } catch (BmcException e) {
+                assertTrue(e.getCause() instanceof CallNotAllowedException);
+            }
+            assertTrue(done.await(5, TimeUnit.SECONDS));
+        } finally {
+            client.close();
+        }
+        assertEquals(0, sends.get());
+        assertTrue(handlerError.get() instanceof BmcException);
+        assertTrue(handlerError.get().getCause() instanceof CallNotAllowedException);
+    }
+
+    private static RestClient createAsyncClient(
+            AtomicInteger sends, int failures, RetryConfiguration retryConfiguration) {
+        return createAsyncClient(sends, failures, retryConfiguration, null);
+    }
+
+    private static RestClient createAsyncClient(
+            AtomicInteger sends,
+            int failures,
+            RetryConfiguration retryConfiguration,
+            RateLimiterConfiguration rateLimiterConfiguration) {
+        return createAsyncClient(
+                sends, failures, retryConfiguration, rateLimiterConfiguration, null);
+    }
+
+    private static RestClient createAsyncClient(
+            AtomicInteger sends,
+            int failures,
+            RetryConfiguration retryConfiguration,
+            RateLimiterConfiguration rateLimiterConfiguration,
+            JaxRsCircuitBreaker circuitBreaker) {
+        AsyncHttpTransport transport =
+                request -> {
+                    int status = sends.incrementAndGet() <= failures ? 503 : 200;
+                    return CompletableFuture.completedFuture(
+                            AsyncHttpTransport.HttpResponse.builder()
+                                    .status(status)
+                                    .headers(Collections.emptyMap())
+                                    .body(
+                                            new ByteArrayInputStream(
+                                                    "body".getBytes(StandardCharsets.UTF_8)))
+                                    .build());
+                };
+        AsyncHttpTransportConfigurator configurator = new AsyncHttpTransportConfigurator(transport);
+        ClientBuilder builder = ClientBuilder.newBuilder();
+        configurator.customizeBuilder(builder);
+        Client jaxRsClient = builder.build();
+        configurator.customizeClient(jaxRsClient);
+
+        RestClient client =
+                new RestClient(
+                        jaxRsClient,
+                        new EntityFactory(),
+                        circuitBreaker,
+                        false,
+                        configurator,
+                        retryConfiguration,
+                        rateLimiterConfiguration);
+        client.setEndpoint("https://example.com");
+        return client;
+    }
+
+    private static String readSuccessfulResponse(Response response) {
+        if (response.getStatus() != 200) {
+            throw new BmcException(
+                    response.getStatus(), "ServiceUnavailable", "Service unavailable", "id");
+        }
+        return response.readEntity(String.class);
+    }
 }
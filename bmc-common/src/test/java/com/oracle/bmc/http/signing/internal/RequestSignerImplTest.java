@@ -10,12 +10,14 @@ import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Lists;
+import com.google.common.hash.Hashing;
 import com.google.common.io.ByteStreams;
 import com.oracle.bmc.http.internal.RestClientFactory;
 import com.oracle.bmc.http.signing.RequestSignerException;
 import com.oracle.bmc.http.signing.SigningStrategy;
 import com.oracle.bmc.io.internal.KeepOpenInputStream;
 import com.oracle.bmc.util.StreamUtils;
+import org.apache.commons.codec.binary.Base64;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
@@ -52,6 +54,7 @@ import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.verifyZeroInteractions;
 import static org.powermock.api.mockito.PowerMockito.mock;
 import static org.powermock.api.mockito.PowerMockito.mockStatic;
 import static org.powermock.api.mockito.PowerMockito.when;
@@ -149,6 +152,24 @@ public class RequestSignerImplTest {
         }
     }
 
+    @Test
+    public void calculateStringToSign() {
+        final Map<String, List<String>> headers = new HashMap<>();
+        headers.put("date", Collections.singletonList("Thu, 05 Jan 2014 21:31:40 GMT"));
+        headers.put("host", Collections.singletonList("example.com"));
+
+        assertEquals(
+                "date: Thu, 05 Jan 2014 21:31:40 GMT\n"
+                        + "(request-target): get /path?a=b\n"
+                        + "host: example.com",
+                RequestSignerImpl.calculateStringToSign(
+                        "get",
+                        "/path?a=b",
+                        headers,
+                        ImmutableList.of("date", Constants.REQUEST_TARGET, "host"),
+                        headers));
+    }
+
     @Test
     public void calculateMissingHeaders_postStringContentAsJson() throws IOException {
         calculateAndVerifyMissingHeaders(
@@ -225,6 +246,63 @@ public class RequestSignerImplTest {
                 SigningStrategy.STANDARD);
     }
 
+    @Test
+    public void calculateMissingHeaders_postInputStreamBodyWithSuppliedContentHeaders()
+            throws IOException {
+        final InputStream body = mock(InputStream.class);
+        final Map<String, List<String>> existingHeaders =
+                ImmutableMap.<String, List<String>>of(
+                        Constants.CONTENT_TYPE,
+                        ImmutableList.of(MediaType.APPLICATION_OCTET_STREAM),
+                        Constants.CONTENT_LENGTH,
+                        ImmutableList.of(Integer.toString(BYTE_BUFFER.length)),
+                        Constants.X_CONTENT_SHA256,
+                        ImmutableList.of(sha256(BYTE_BUFFER)));
+
+        final Map<String, String> missingHeaders =
+                RequestSignerImpl.calculateMissingHeaders(
+                        "post",
+                        URI.create("https://identity.us-phoenix-1.oraclecloud.com/20160918/users"),
+                        existingHeaders,
+                        body,
+                        Constants.ALL_HEADERS,
+                        new RequestSignerImpl.SigningConfiguration(
+                                SigningStrategy.STANDARD.getHeadersToSign(),
+                                SigningStrategy.STANDARD.getOptionalHeadersToSign(),
+                                SigningStrategy.STANDARD
+                                        .isSkipContentHeadersForStreamingPutRequests()));
+
+        assertEquals(ImmutableSet.of(Constants.DATE, Constants.HOST), missingHeaders.keySet());
+        verifyZeroInteractions(body);
+    }
+
+    @Test
+    public void calculateMissingHeaders_postDuplicatableInputStreamBodySha256()
+            throws IOException {
+        final Map<String, List<String>> existingHeaders =
+                ImmutableMap.<String, List<String>>of(
+                        Constants.CONTENT_TYPE,
+                        ImmutableList.of(MediaType.APPLICATION_OCTET_STREAM));
+
+        final Map<String, String> missingHeaders =
+                RequestSignerImpl.calculateMissingHeaders(
+                        "post",
+                        URI.create("https://identity.us-phoenix-1.oraclecloud.com/20160918/users"),
+                        existingHeaders,
+                        StreamUtils.createByteArrayInputStream(BYTE_BUFFER),
+                        Constants.ALL_HEADERS,
+                        new RequestSignerImpl.SigningConfiguration(
+                                SigningStrategy.STANDARD.getHeadersToSign(),
+                                SigningStrategy.STANDARD.getOptionalHeadersToSign(),
+                                SigningStrategy.STANDARD
+                                        .isSkipContentHeadersForStreamingPutRequests()));
+
+        assertEquals(sha256(BYTE_BUFFER), missingHeaders.get(Constants.X_CONTENT_SHA256));
+        assertEquals(
+                Integer.toString(BYTE_BUFFER.length),
+                missingHeaders.get(Constants.CONTENT_LENGTH));
+    }
+
     @Test
     public void calculateMissingHeaders_postKeepOpenInputStreamBody() throws IOException {
         final KeepOpenInputStream body =
@@ -425,6 +503,10 @@ public class RequestSignerImplTest {
         }
     }
 
+    private static String sha256(byte[] bytes) {
+        return Base64.encodeBase64String(Hashing.sha256().hashBytes(bytes).asBytes());
+    }
+
     private void calculateAndVerifyMissingHeaders(
             final String httpMethod,
             final String contentType,
@@ -0,0 +1,112 @@
+/**
+ * Copyright (c) 2016, 2021, Oracle and/or its affiliates.  All rights reserved.
+ * This software is dual-licensed to you under the Universal Permissive License (UPL) 1.0 as shown at https://oss.oracle.com/licenses/upl or Apache License 2.0 as shown at http://www.apache.org/licenses/LICENSE-2.0. You may choose either license.
+ */
+package com.oracle.bmc.http.signing.internal;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.Signature;
+import java.security.interfaces.RSAPrivateKey;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Tests for {@link SignatureSigner}.
+ */
+public class SignatureSignerTest {
+    private static final String ALGORITHM = Algorithm.RSAPSS256.getJvmName();
+    private static final byte[] MESSAGE = "date: today".getBytes(StandardCharsets.UTF_8);
+
+    private static KeyPair keyPair1;
+    private static KeyPair keyPair2;
+
+    @BeforeClass
+    public static void generateKeys() throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        keyPair1 = generator.generateKeyPair();
+        keyPair2 = generator.generateKeyPair();
+    }
+
+    @Test
+    public void sign_reusesEngineForSameKey() throws Exception {
+        SignatureSigner signer = new SignatureSigner();
+        RSAPrivateKey key = (RSAPrivateKey) keyPair1.getPrivate();
+
+        for (int i = 0; i < 3; ++i) {
+            assertTrue(verify(keyPair1, signer.sign(key, MESSAGE, ALGORITHM)));
+        }
+    }
+
+    @Test
+    public void sign_reinitializesEngineWhenKeyChanges() throws Exception {
+        SignatureSigner signer = new SignatureSigner();
+
+        byte[] first = signer.sign((RSAPrivateKey) keyPair1.getPrivate(), MESSAGE, ALGORITHM);
+        byte[] second = signer.sign((RSAPrivateKey) keyPair2.getPrivate(), MESSAGE, ALGORITHM);
+        byte[] third = signer.sign((RSAPrivateKey) keyPair1.getPrivate(), MESSAGE, ALGORITHM);
+
+        assertTrue(verify(keyPair1, first));
+        assertTrue(verify(keyPair2, second));
+        assertFalse(verify(keyPair1, second));
+        assertTrue(verify(keyPair1, third));
+    }
+
+    @Test
+    public void sign_poolIsBoundedIndependentOfThreads() throws Exception {
+        SignatureSigner signer = new SignatureSigner();
+        RSAPrivateKey key = (RSAPrivateKey) keyPair1.getPrivate();
+        CountDownLatch started = new CountDownLatch(32);
+        ExecutorService executor = Executors.newFixedThreadPool(32);
+        try {
+            List<Future<byte[]>> signatures = new ArrayList<>();
+            for (int i = 0; i < 32; ++i) {
+                signatures.add(
+                        executor.submit(
+                                () -> {
+                                    started.countDown();
+                                    started.await();
+                                    return signer.sign(key, MESSAGE, ALGORITHM);
+                                }));
+            }
+            for (Future<byte[]> signature : signatures) {
+                assertTrue(verify(keyPair1, signature.get()));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertTrue(SignatureSigner.getIdleSignatureCount(ALGORITHM) <= 16);
+    }
+
+    @Test
+    public void sign_unknownAlgorithm() {
+        try {
+            new SignatureSigner()
+                    .sign((RSAPrivateKey) keyPair1.getPrivate(), MESSAGE, "NoSuchAlg");
+            fail("Should have thrown");
+        } catch (SignedRequestException e) {
+            // expected
+        }
+        assertFalse(SignatureSigner.hasPool("NoSuchAlg"));
+    }
+
+    private static boolean verify(KeyPair keyPair, byte[] signature) throws Exception {
+        Signature verifier = Signature.getInstance(ALGORITHM);
+        verifier.initVerify(keyPair.getPublic());
+        verifier.update(MESSAGE);
+        return verifier.verify(signature);
+    }
+}
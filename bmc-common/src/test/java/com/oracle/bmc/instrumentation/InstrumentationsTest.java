@@ -0,0 +1,125 @@
+/**
+ * Copyright (c) 2016, 2021, Oracle and/or its affiliates.  All rights reserved.
+ * This software is dual-licensed to you under the Universal Permissive License (UPL) 1.0 as shown at https://oss.oracle.com/licenses/upl or Apache License 2.0 as shown at http://www.apache.org/licenses/LICENSE-2.0. You may choose either license.
+ */
+package com.oracle.bmc.instrumentation;
+
+import com.google.common.base.Suppliers;
+import com.oracle.bmc.instrumentation.requests.GetThingRequest;
+import com.oracle.bmc.model.BmcException;
+import com.oracle.bmc.retrier.BmcGenericRetrier;
+import com.oracle.bmc.retrier.RetryConfiguration;
+import com.oracle.bmc.waiter.BmcGenericWaiter;
+import com.oracle.bmc.waiter.FixedTimeDelayStrategy;
+import com.oracle.bmc.waiter.MaxAttemptsTerminationStrategy;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class InstrumentationsTest {
+    private final HistogramInstrumentation instrumentation = new HistogramInstrumentation();
+
+    @Before
+    public void setUp() {
+        Instrumentations.register(instrumentation);
+    }
+
+    @After
+    public void tearDown() {
+        Instrumentations.unregister(instrumentation);
+    }
+
+    @Test
+    public void namesFromRequestClass() {
+        assertEquals("instrumentation", Instrumentations.getServiceName(new GetThingRequest()));
+        assertEquals("GetThing", Instrumentations.getOperationName(new GetThingRequest()));
+        assertEquals("unknown", Instrumentations.getServiceName("request"));
+        assertEquals("String", Instrumentations.getOperationName("request"));
+    }
+
+    @Test
+    public void registration() {
+        assertTrue(Instrumentations.isEnabled());
+        assertTrue(Instrumentations.unregister(instrumentation));
+        assertFalse(Instrumentations.unregister(instrumentation));
+        assertFalse(Instrumentations.isEnabled());
+    }
+
+    @Test
+    public void failingInstrumentationIsIgnored() {
+        final SdkInstrumentation failing =
+                new SdkInstrumentation() {
+                    @Override
+                    public void onRequestSigned(String httpMethod, long signingNanos) {
+                        throw new IllegalStateException();
+                    }
+                };
+        Instrumentations.register(failing);
+        try {
+            Instrumentations.onRequestSigned("GET", 1000);
+        } finally {
+            Instrumentations.unregister(failing);
+        }
+        assertEquals(1, instrumentation.getSigningLatency().getCount());
+    }
+
+    @Test
+    public void responsesRecordedByOperation() {
+        final GetThingRequest request = new GetThingRequest();
+        Instrumentations.onResponse(request, 200, 100, 1000);
+        Instrumentations.onResponse(request, 404, -1, 2000);
+        Instrumentations.onRequestFailed(request, new RuntimeException(), 3000);
+
+        final HistogramInstrumentation.OperationMetrics metrics = metrics();
+        assertEquals(3, metrics.getLatency().getCount());
+        assertEquals(1, metrics.getErrorResponses());
+        assertEquals(1, metrics.getFailedRequests());
+        assertEquals(100, metrics.getBytesReceived());
+    }
+
+    @Test
+    public void retriesReported() {
+        final AtomicInteger attempts = new AtomicInteger();
+        final BmcGenericRetrier retrier =
+                new BmcGenericRetrier(
+                        RetryConfiguration.builder()
+                                .terminationStrategy(new MaxAttemptsTerminationStrategy(3))
+                                .delayStrategy(new FixedTimeDelayStrategy(0L))
+                                .build());
+        retrier.execute(
+                new GetThingRequest(),
+                request -> {
+                    if (attempts.incrementAndGet() < 3) {
+                        throw new BmcException(503, "ServiceUnavailable", "bar", "baz");
+                    }
+                    return "success";
+                });
+
+        assertEquals(2, metrics().getRetries());
+    }
+
+    @Test
+    public void waiterPollsReported() throws Exception {
+        final AtomicInteger polls = new AtomicInteger();
+        new BmcGenericWaiter(new MaxAttemptsTerminationStrategy(5), new FixedTimeDelayStrategy(0))
+                .execute(
+                        Suppliers.ofInstance(new GetThingRequest()),
+                        request -> polls.incrementAndGet(),
+                        response -> response == 4,
+                        false);
+
+        assertEquals(4, metrics().getWaiterPolls());
+    }
+
+    private HistogramInstrumentation.OperationMetrics metrics() {
+        return instrumentation
+                .getOperationMetrics()
+                .get(new HistogramInstrumentation.OperationKey("instrumentation", "GetThing"));
+    }
+}
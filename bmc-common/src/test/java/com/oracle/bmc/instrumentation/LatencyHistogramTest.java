@@ -0,0 +1,52 @@
+/**
+ * Copyright (c) 2016, 2021, Oracle and/or its affiliates.  All rights reserved.
+ * This software is dual-licensed to you under the Universal Permissive License (UPL) 1.0 as shown at https://oss.oracle.com/licenses/upl or Apache License 2.0 as shown at http://www.apache.org/licenses/LICENSE-2.0. You may choose either license.
+ */
+package com.oracle.bmc.instrumentation;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class LatencyHistogramTest {
+
+    @Test
+    public void empty() {
+        final LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getPercentileNanos(99), 0);
+        assertEquals(0, histogram.getMeanNanos(), 0);
+    }
+
+    @Test
+    public void percentilesWithinBucketPrecision() {
+        final LatencyHistogram histogram = new LatencyHistogram();
+        for (long i = 1; i <= 1000; i++) {
+            histogram.record(i * 1000);
+        }
+        assertEquals(1000, histogram.getCount());
+        assertEquals(1_000_000, histogram.getMaxNanos());
+        assertEquals(500_500, histogram.getMeanNanos(), 0.1);
+        assertWithinPrecision(500_000, histogram.getPercentileNanos(50));
+        assertWithinPrecision(990_000, histogram.getPercentileNanos(99));
+        assertEquals(1_000_000, histogram.getPercentileNanos(100));
+    }
+
+    @Test
+    public void bucketsCoverAllValues() {
+        for (long value : new long[] {0, 1, 15, 16, 17, 1023, 1024, 123_456_789, Long.MAX_VALUE}) {
+            final int bucket = LatencyHistogram.bucketOf(value);
+            assertTrue(value <= LatencyHistogram.highestValueOf(bucket));
+            if (bucket > 0) {
+                assertTrue(value > LatencyHistogram.highestValueOf(bucket - 1));
+            }
+        }
+    }
+
+    private static void assertWithinPrecision(long expected, long actual) {
+        assertTrue(
+                "expected " + expected + " but was " + actual,
+                Math.abs(expected - actual) <= expected / 16);
+    }
+}
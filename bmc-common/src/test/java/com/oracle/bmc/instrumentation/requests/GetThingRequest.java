@@ -0,0 +1,12 @@
+/**
+ * Copyright (c) 2016, 2021, Oracle and/or its affiliates.  All rights reserved.
+ * This software is dual-licensed to you under the Universal Permissive License (UPL) 1.0 as shown at https://oss.oracle.com/licenses/upl or Apache License 2.0 as shown at http://www.apache.org/licenses/LICENSE-2.0. You may choose either license.
+ */
+package com.oracle.bmc.instrumentation.requests;
+
+import com.oracle.bmc.requests.BmcRequest;
+
+/**
+ * A request in the package layout of the generated requests, for the service "instrumentation".
+ */
+public class GetThingRequest extends BmcRequest<Void> {}
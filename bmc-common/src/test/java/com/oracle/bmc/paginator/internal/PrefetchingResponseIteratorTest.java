@@ -0,0 +1,239 @@
+/**
+ * Copyright (c) 2016, 2021, Oracle and/or its affiliates.  All rights reserved.
+ * This software is dual-licensed to you under the Universal Permissive License (UPL) 1.0 as shown at https://oss.oracle.com/licenses/upl or Apache License 2.0 as shown at http://www.apache.org/licenses/LICENSE-2.0. You may choose either license.
+ */
+package com.oracle.bmc.paginator.internal;
+
+import com.google.common.base.Function;
+import com.google.common.base.Supplier;
+import com.google.common.base.Suppliers;
+import com.oracle.bmc.model.BmcException;
+import com.oracle.bmc.util.PaginatorUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.*;
+
+public class PrefetchingResponseIteratorTest {
+    private static final Supplier<String> BUILDER = Suppliers.ofInstance("builder");
+    private static final Function<RequestBuilderAndToken<String>, Integer> REQUEST_BUILDER =
+            new Function<RequestBuilderAndToken<String>, Integer>() {
+                @Override
+                public Integer apply(RequestBuilderAndToken<String> input) {
+                    return input.getToken() == null ? 0 : Integer.valueOf(input.getToken().get());
+                }
+            };
+    private static final Function<Page, String> NEXT_PAGE_TOKEN =
+            new Function<Page, String>() {
+                @Override
+                public String apply(Page input) {
+                    return input.nextPage;
+                }
+            };
+    private static final Function<Page, List<String>> ITEMS =
+            new Function<Page, List<String>>() {
+                @Override
+                public List<String> apply(Page input) {
+                    return input.items;
+                }
+            };
+
+    private final AtomicInteger requests = new AtomicInteger();
+    private ExecutorService executor;
+
+    @Before
+    public void setUp() {
+        executor = Executors.newFixedThreadPool(2);
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void records_sameAsWithoutPrefetching() {
+        List<List<String>> pages =
+                Arrays.asList(
+                        Arrays.asList("A", "B"),
+                        Collections.<String>emptyList(),
+                        Collections.<String>emptyList(),
+                        Arrays.asList("C"),
+                        Collections.<String>emptyList());
+        ResponseRecordIterable<String, Integer, Page, String> iterable =
+                new ResponseRecordIterable<>(
+                        BUILDER, NEXT_PAGE_TOKEN, REQUEST_BUILDER, pages(pages), ITEMS);
+
+        List<String> expected = new ArrayList<>();
+        for (String item : iterable) {
+            expected.add(item);
+        }
+        List<String> actual = new ArrayList<>();
+        for (String item : iterable.prefetching(executor, 2)) {
+            actual.add(item);
+        }
+
+        assertEquals(Arrays.asList("A", "B", "C"), expected);
+        assertEquals(expected, actual);
+        assertEquals(10, requests.get());
+    }
+
+    @Test
+    public void responses_allPagesInOrder() {
+        Iterator<Page> iterator =
+                new ResponseIterable<>(BUILDER, NEXT_PAGE_TOKEN, REQUEST_BUILDER, numberedPages(20))
+                        .prefetching(executor, 3)
+                        .iterator();
+
+        for (int i = 0; i < 20; i++) {
+            assertTrue(iterator.hasNext());
+            assertEquals(Collections.singletonList(String.valueOf(i)), iterator.next().items);
+        }
+        assertFalse(iterator.hasNext());
+        assertEquals(20, requests.get());
+    }
+
+    @Test
+    public void prefetch_fetchesAheadWhileCallerProcesses() throws Exception {
+        final CountDownLatch secondPageFetched = new CountDownLatch(2);
+        final Function<Integer, Page> numberedPages = numberedPages(3);
+        Function<Integer, Page> pageRetrieval =
+                new Function<Integer, Page>() {
+                    @Override
+                    public Page apply(Integer input) {
+                        Page page = numberedPages.apply(input);
+                        secondPageFetched.countDown();
+                        return page;
+                    }
+                };
+        Iterator<Page> iterator =
+                new ResponseIterable<>(BUILDER, NEXT_PAGE_TOKEN, REQUEST_BUILDER, pageRetrieval)
+                        .prefetching(executor, 1)
+                        .iterator();
+
+        iterator.next();
+        // the caller holds the first page, the second one is fetched in the meantime
+        assertTrue(secondPageFetched.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void prefetch_boundedByDepth() throws Exception {
+        Iterator<Page> iterator =
+                new ResponseIterable<>(
+                                BUILDER, NEXT_PAGE_TOKEN, REQUEST_BUILDER, numberedPages(100))
+                        .prefetching(executor, 3)
+                        .iterator();
+
+        iterator.next();
+        Thread.sleep(200);
+        // the page returned, and 3 pages ahead of it
+        assertEquals(4, requests.get());
+
+        iterator.next();
+        Thread.sleep(200);
+        assertEquals(5, requests.get());
+    }
+
+    @Test
+    public void exception_rethrownToCaller() {
+        final Function<Integer, Page> numberedPages = numberedPages(5);
+        Function<Integer, Page> pageRetrieval =
+                new Function<Integer, Page>() {
+                    @Override
+                    public Page apply(Integer input) {
+                        if (input == 2) {
+                            throw new BmcException(500, "InternalServerError", "Failed", "opc-id");
+                        }
+                        return numberedPages.apply(input);
+                    }
+                };
+        Iterator<Page> iterator =
+                new ResponseIterable<>(BUILDER, NEXT_PAGE_TOKEN, REQUEST_BUILDER, pageRetrieval)
+                        .prefetching(executor, 2)
+                        .iterator();
+
+        iterator.next();
+        iterator.next();
+        assertTrue(iterator.hasNext());
+        try {
+            iterator.next();
+            fail("Should have thrown");
+        } catch (BmcException e) {
+            assertEquals(500, e.getStatusCode());
+        }
+        assertFalse(iterator.hasNext());
+    }
+
+    @Test
+    public void stream_prefetching() {
+        Iterable<String> iterable =
+                new ResponseRecordIterable<>(
+                        BUILDER, NEXT_PAGE_TOKEN, REQUEST_BUILDER, numberedPages(50), ITEMS);
+
+        List<String> items =
+                PaginatorUtils.stream(iterable, executor, 4).collect(Collectors.toList());
+
+        assertEquals(50, items.size());
+        for (int i = 0; i < 50; i++) {
+            assertEquals(String.valueOf(i), items.get(i));
+        }
+    }
+
+    @Test
+    public void stream_shortCircuitStopsFetching() throws Exception {
+        ResponseRecordIterable<String, Integer, Page, String> iterable =
+                new ResponseRecordIterable<>(
+                        BUILDER, NEXT_PAGE_TOKEN, REQUEST_BUILDER, numberedPages(100), ITEMS);
+
+        assertEquals("0", iterable.prefetching(executor, 2).stream().findFirst().get());
+        Thread.sleep(200);
+        assertEquals(3, requests.get());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void prefetching_notAPaginator() {
+        PaginatorUtils.prefetching(Arrays.asList("A"), executor, 1);
+    }
+
+    private Function<Integer, Page> numberedPages(final int count) {
+        List<List<String>> pages = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            pages.add(Collections.singletonList(String.valueOf(i)));
+        }
+        return pages(pages);
+    }
+
+    private Function<Integer, Page> pages(final List<List<String>> pages) {
+        return new Function<Integer, Page>() {
+            @Override
+            public Page apply(Integer input) {
+                requests.incrementAndGet();
+                String nextPage = input + 1 < pages.size() ? String.valueOf(input + 1) : null;
+                return new Page(pages.get(input), nextPage);
+            }
+        };
+    }
+
+    private static class Page {
+        private final List<String> items;
+        private final String nextPage;
+
+        Page(List<String> items, String nextPage) {
+            this.items = items;
+            this.nextPage = nextPage;
+        }
+    }
+}
@@ -0,0 +1,169 @@
+/**
+ * Copyright (c) 2016, 2021, Oracle and/or its affiliates.  All rights reserved.
+ * This software is dual-licensed to you under the Universal Permissive License (UPL) 1.0 as shown at https://oss.oracle.com/licenses/upl or Apache License 2.0 as shown at http://www.apache.org/licenses/LICENSE-2.0. You may choose either license.
+ */
+package com.oracle.bmc.ratelimit;
+
+import com.oracle.bmc.model.BmcException;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class AdaptiveRateLimiterTest {
+    private final AtomicLong nanos = new AtomicLong();
+
+    private AdaptiveRateLimiter limiter(double requestsPerSecond) {
+        return new AdaptiveRateLimiter(
+                RateLimiterConfiguration.builder()
+                        .initialRequestsPerSecond(requestsPerSecond)
+                        .decreaseInterval(Duration.ofSeconds(1))
+                        .build(),
+                nanos::get);
+    }
+
+    @Test
+    public void burstThenDelayed() {
+        final AdaptiveRateLimiter limiter = limiter(10);
+        for (int i = 0; i < 10; i++) {
+            assertEquals(0, limiter.reserve());
+        }
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(100), limiter.reserve());
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(200), limiter.reserve());
+
+        nanos.addAndGet(TimeUnit.MILLISECONDS.toNanos(300));
+        assertEquals(0, limiter.reserve());
+
+        final AdaptiveRateLimiter.Metrics metrics = limiter.getMetrics();
+        assertEquals(13, metrics.getPermittedRequests());
+        assertEquals(2, metrics.getDelayedRequests());
+        assertEquals(300, metrics.getTotalDelayMillis());
+    }
+
+    @Test
+    public void throttledResponseHalvesRateOncePerInterval() {
+        final AdaptiveRateLimiter limiter = limiter(100);
+        limiter.onResponse(429);
+        assertEquals(50, limiter.getMetrics().getRequestsPerSecond(), 0.001);
+        limiter.onResponse(503);
+        assertEquals(50, limiter.getMetrics().getRequestsPerSecond(), 0.001);
+
+        nanos.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        limiter.onResponse(503);
+        assertEquals(25, limiter.getMetrics().getRequestsPerSecond(), 0.001);
+        assertEquals(3, limiter.getMetrics().getThrottledResponses());
+
+        // the saved up burst is dropped
+        assertEquals(0, limiter.reserve());
+        assertTrue(limiter.reserve() > 0);
+    }
+
+    @Test
+    public void successIncreasesRateAdditively() {
+        final AdaptiveRateLimiter limiter = limiter(10);
+        // one second worth of successful requests adds one request per second
+        for (int i = 0; i < 10; i++) {
+            limiter.onResponse(200);
+        }
+        assertEquals(11, limiter.getMetrics().getRequestsPerSecond(), 0.1);
+
+        limiter.onResponse(500);
+        limiter.onResponse(404);
+        assertEquals(11.1, limiter.getMetrics().getRequestsPerSecond(), 0.1);
+    }
+
+    @Test
+    public void failsFastAboveMaxWait() {
+        final AdaptiveRateLimiter limiter =
+                new AdaptiveRateLimiter(
+                        RateLimiterConfiguration.builder()
+                                .initialRequestsPerSecond(10)
+                                .maxWait(Duration.ofMillis(200))
+                                .build(),
+                        nanos::get);
+        for (int i = 0; i < 10; i++) {
+            assertEquals(0, limiter.reserve());
+        }
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(100), limiter.reserve());
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(200), limiter.reserve());
+        for (int i = 0; i < 2; i++) {
+            try {
+                limiter.reserve();
+                fail("Should have thrown");
+            } catch (BmcException e) {
+                assertTrue(e.isClientSide());
+            }
+        }
+
+        // the rejected requests did not take a token
+        nanos.addAndGet(TimeUnit.MILLISECONDS.toNanos(200));
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(100), limiter.reserve());
+
+        final AdaptiveRateLimiter.Metrics metrics = limiter.getMetrics();
+        assertEquals(13, metrics.getPermittedRequests());
+        assertEquals(3, metrics.getDelayedRequests());
+        assertEquals(2, metrics.getRejectedRequests());
+    }
+
+    @Test
+    public void tryAcquireDoesNotWait() {
+        final AdaptiveRateLimiter limiter = limiter(2);
+        assertTrue(limiter.tryAcquire());
+        assertTrue(limiter.tryAcquire());
+        assertFalse(limiter.tryAcquire());
+        // a failed attempt does not take a token from the future
+        nanos.addAndGet(TimeUnit.MILLISECONDS.toNanos(500));
+        assertEquals(0, limiter.reserve());
+        assertEquals(3, limiter.getMetrics().getPermittedRequests());
+    }
+
+    @Test
+    public void rateStaysWithinBounds() {
+        final AdaptiveRateLimiter limiter =
+                new AdaptiveRateLimiter(
+                        RateLimiterConfiguration.builder()
+                                .initialRequestsPerSecond(4)
+                                .minRequestsPerSecond(2)
+                                .maxRequestsPerSecond(5)
+                                .decreaseInterval(Duration.ZERO)
+                                .build(),
+                        nanos::get);
+        for (int i = 0; i < 100; i++) {
+            limiter.onResponse(200);
+        }
+        assertEquals(5, limiter.getMetrics().getRequestsPerSecond(), 0.001);
+        for (int i = 0; i < 10; i++) {
+            limiter.onResponse(429);
+        }
+        assertEquals(2, limiter.getMetrics().getRequestsPerSecond(), 0.001);
+    }
+
+    @Test
+    public void sharedPerEndpoint() {
+        final RateLimiterConfiguration configuration = RateLimiterConfiguration.builder().build();
+        assertSame(
+                AdaptiveRateLimiter.forEndpoint("https://shared.example.com", configuration),
+                AdaptiveRateLimiter.forEndpoint("https://shared.example.com", configuration));
+        assertTrue(AdaptiveRateLimiter.getSharedMetrics().containsKey("https://shared.example.com"));
+
+        final RateLimiterConfiguration notShared =
+                RateLimiterConfiguration.builder().sharedPerEndpoint(false).build();
+        assertNotSame(
+                AdaptiveRateLimiter.forEndpoint("https://other.example.com", notShared),
+                AdaptiveRateLimiter.forEndpoint("https://other.example.com", notShared));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void invalidConfiguration() {
+        new AdaptiveRateLimiter(
+                RateLimiterConfiguration.builder().multiplicativeDecrease(1.5).build());
+    }
+}
@@ -9,9 +9,16 @@ import com.oracle.bmc.waiter.FixedTimeDelayStrategy;
 import com.oracle.bmc.waiter.MaxAttemptsTerminationStrategy;
 import org.junit.Test;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Supplier;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.doThrow;
@@ -122,4 +129,141 @@ public class BmcGenericRetrierTest {
 
         verify(request, times(1)).get();
     }
+
+    @Test
+    public void executeAsync_retryForInternalServerError() throws Exception {
+        final Supplier<String> request = setupMockRequest(500, "InternalServerError");
+        final BmcGenericRetrier retrier = new BmcGenericRetrier(CUSTOM_RETRY_CONFIGURATION);
+        final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+        try {
+            CompletableFuture<String> response =
+                    retrier.executeAsync(request, BmcGenericRetrierTest::supplyAsync, scheduler);
+
+            assertEquals("success", response.get(5, TimeUnit.SECONDS));
+        } finally {
+            scheduler.shutdownNow();
+        }
+
+        verify(request, times(2)).get();
+    }
+
+    @Test
+    public void executeAsync_noRetryForInvalidParameter() throws Exception {
+        final Supplier<String> request = setupMockRequest(400, "InvalidParameter");
+        final BmcGenericRetrier retrier = new BmcGenericRetrier(CUSTOM_RETRY_CONFIGURATION);
+        final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+        try {
+            retrier.executeAsync(request, BmcGenericRetrierTest::supplyAsync, scheduler)
+                    .get(5, TimeUnit.SECONDS);
+            fail("Should have thrown");
+        } catch (ExecutionException e) {
+            assertEquals(400, ((BmcException) e.getCause()).getStatusCode());
+        } finally {
+            scheduler.shutdownNow();
+        }
+
+        verify(request, times(1)).get();
+    }
+
+    @Test
+    public void executeAsync_lastExceptionAfterMaxAttempts() throws Exception {
+        final Supplier<String> request = mock(Supplier.class);
+        doThrow(new BmcException(503, "ServiceUnavailable", "bar", "baz")).when(request).get();
+        final BmcGenericRetrier retrier = new BmcGenericRetrier(CUSTOM_RETRY_CONFIGURATION);
+        final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+        try {
+            retrier.executeAsync(request, BmcGenericRetrierTest::supplyAsync, scheduler)
+                    .get(5, TimeUnit.SECONDS);
+            fail("Should have thrown");
+        } catch (ExecutionException e) {
+            assertEquals(503, ((BmcException) e.getCause()).getStatusCode());
+        } finally {
+            scheduler.shutdownNow();
+        }
+
+        verify(request, times(2)).get();
+    }
+
+    @Test
+    public void executeAsync_cancelStopsRetries() throws Exception {
+        final AtomicInteger attempts = new AtomicInteger();
+        final CompletableFuture<String> pending = new CompletableFuture<>();
+        final BmcGenericRetrier retrier =
+                new BmcGenericRetrier(
+                        RetryConfiguration.builder()
+                                .terminationStrategy(new MaxAttemptsTerminationStrategy(10))
+                                .delayStrategy(new FixedTimeDelayStrategy(10L))
+                                .build());
+        final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+        try {
+            CompletableFuture<String> response =
+                    retrier.executeAsync(
+                            "request",
+                            r -> {
+                                attempts.incrementAndGet();
+                                return pending;
+                            },
+                            scheduler);
+
+            assertTrue(response.cancel(true));
+            assertTrue(pending.isCancelled());
+            Thread.sleep(100);
+        } finally {
+            scheduler.shutdownNow();
+        }
+
+        assertEquals(1, attempts.get());
+    }
+
+    @Test
+    public void noRetryWhenRetryBudgetExhausted() {
+        final Supplier<String> request = mock(Supplier.class);
+        doThrow(new BmcException(503, "ServiceUnavailable", "bar", "baz")).when(request).get();
+        final BmcGenericRetrier retrier =
+                new BmcGenericRetrier(
+                        RetryConfiguration.builder()
+                                .terminationStrategy(new MaxAttemptsTerminationStrategy(5))
+                                .delayStrategy(new FixedTimeDelayStrategy(0L))
+                                .retryBudget(new RetryBudget(0, 2, 0))
+                                .build());
+        try {
+            retrier.execute(request, Supplier::get);
+            fail("Should have thrown");
+        } catch (BmcException e) {
+            assertEquals(503, e.getStatusCode());
+        }
+
+        // the first attempt, and the two retries of the budget
+        verify(request, times(3)).get();
+        assertEquals(1, retrier.getRetryBudget().getMetrics().getRejectedRetries());
+    }
+
+    @Test
+    public void executeAsync_noRetryWhenRetryBudgetExhausted() throws Exception {
+        final Supplier<String> request = mock(Supplier.class);
+        doThrow(new BmcException(503, "ServiceUnavailable", "bar", "baz")).when(request).get();
+        final BmcGenericRetrier retrier =
+                new BmcGenericRetrier(
+                        RetryConfiguration.builder()
+                                .terminationStrategy(new MaxAttemptsTerminationStrategy(5))
+                                .delayStrategy(new FixedTimeDelayStrategy(0L))
+                                .retryBudget(new RetryBudget(0, 1, 0))
+                                .build());
+        final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+        try {
+            retrier.executeAsync(request, BmcGenericRetrierTest::supplyAsync, scheduler)
+                    .get(5, TimeUnit.SECONDS);
+            fail("Should have thrown");
+        } catch (ExecutionException e) {
+            assertEquals(503, ((BmcException) e.getCause()).getStatusCode());
+        } finally {
+            scheduler.shutdownNow();
+        }
+
+        verify(request, times(2)).get();
+    }
+
+    private static CompletableFuture<String> supplyAsync(Supplier<String> request) {
+        return CompletableFuture.supplyAsync(request);
+    }
 }
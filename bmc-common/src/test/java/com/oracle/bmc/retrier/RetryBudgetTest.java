@@ -0,0 +1,64 @@
+/**
+ * Copyright (c) 2016, 2021, Oracle and/or its affiliates.  All rights reserved.
+ * This software is dual-licensed to you under the Universal Permissive License (UPL) 1.0 as shown at https://oss.oracle.com/licenses/upl or Apache License 2.0 as shown at http://www.apache.org/licenses/LICENSE-2.0. You may choose either license.
+ */
+package com.oracle.bmc.retrier;
+
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class RetryBudgetTest {
+    private final AtomicLong nanos = new AtomicLong();
+
+    @Test
+    public void retriesLimitedToRatioOfRequests() {
+        final RetryBudget budget = new RetryBudget(0.5, 1, 0, nanos::get);
+        // the budget starts full
+        assertTrue(budget.tryAcquireRetry());
+        assertFalse(budget.tryAcquireRetry());
+
+        budget.onRequest();
+        assertFalse(budget.tryAcquireRetry());
+        budget.onRequest();
+        assertTrue(budget.tryAcquireRetry());
+
+        final RetryBudget.Metrics metrics = budget.getMetrics();
+        assertEquals(2, metrics.getPermittedRetries());
+        assertEquals(2, metrics.getRejectedRetries());
+    }
+
+    @Test
+    public void tokensCappedAtMax() {
+        final RetryBudget budget = new RetryBudget(1, 2, 0, nanos::get);
+        for (int i = 0; i < 10; i++) {
+            budget.onRequest();
+        }
+        assertTrue(budget.tryAcquireRetry());
+        assertTrue(budget.tryAcquireRetry());
+        assertFalse(budget.tryAcquireRetry());
+    }
+
+    @Test
+    public void minRetriesPerSecondAllowedWithoutRequests() {
+        final RetryBudget budget = new RetryBudget(0, 1, 2, nanos::get);
+        assertTrue(budget.tryAcquireRetry()); // saved up token
+        assertTrue(budget.tryAcquireRetry());
+        assertTrue(budget.tryAcquireRetry());
+        assertFalse(budget.tryAcquireRetry());
+
+        nanos.addAndGet(TimeUnit.MILLISECONDS.toNanos(500));
+        assertTrue(budget.tryAcquireRetry());
+        assertFalse(budget.tryAcquireRetry());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void invalidBudget() {
+        new RetryBudget(-1, 1, 0);
+    }
+}
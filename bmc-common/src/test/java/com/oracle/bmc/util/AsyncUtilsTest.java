@@ -0,0 +1,72 @@
+/**
+ * Copyright (c) 2016, 2021, Oracle and/or its affiliates.  All rights reserved.
+ * This software is dual-licensed to you under the Universal Permissive License (UPL) 1.0 as shown at https://oss.oracle.com/licenses/upl or Apache License 2.0 as shown at http://www.apache.org/licenses/LICENSE-2.0. You may choose either license.
+ */
+package com.oracle.bmc.util;
+
+import com.oracle.bmc.model.BmcException;
+import com.oracle.bmc.responses.AsyncHandler;
+import org.junit.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.*;
+
+public class AsyncUtilsTest {
+    private final AtomicReference<AsyncHandler<String, Integer>> handler = new AtomicReference<>();
+    private final CompletableFuture<Integer> call = new CompletableFuture<>();
+
+    private Future<Integer> asyncMethod(String request, AsyncHandler<String, Integer> handler) {
+        this.handler.set(handler);
+        return call;
+    }
+
+    @Test
+    public void call_success() throws Exception {
+        CompletableFuture<Integer> future =
+                AsyncUtils.call(this::asyncMethod, "request").thenApply(i -> i + 1);
+        assertFalse(future.isDone());
+
+        handler.get().onSuccess("request", 41);
+
+        assertEquals(42, future.get(5, TimeUnit.SECONDS).intValue());
+    }
+
+    @Test
+    public void call_error() throws Exception {
+        CompletableFuture<Integer> future = AsyncUtils.call(this::asyncMethod, "request");
+
+        handler.get().onError("request", new BmcException(404, "NotFound", "Not found", "id"));
+
+        try {
+            future.get(5, TimeUnit.SECONDS);
+            fail("Should have thrown");
+        } catch (ExecutionException e) {
+            assertEquals(404, ((BmcException) e.getCause()).getStatusCode());
+        }
+    }
+
+    @Test
+    public void call_cancelCancelsCall() {
+        CompletableFuture<Integer> future = AsyncUtils.call(this::asyncMethod, "request");
+
+        assertTrue(future.cancel(true));
+        assertTrue(call.isCancelled());
+    }
+
+    @Test
+    public void call_failureToStart() {
+        CompletableFuture<Integer> future =
+                AsyncUtils.call(
+                        (String request, AsyncHandler<String, Integer> h) -> {
+                            throw new IllegalStateException("closed");
+                        },
+                        "request");
+
+        assertTrue(future.isCompletedExceptionally());
+    }
+}
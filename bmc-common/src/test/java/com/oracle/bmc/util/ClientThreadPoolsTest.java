@@ -0,0 +1,71 @@
+/**
+ * Copyright (c) 2016, 2021, Oracle and/or its affiliates.  All rights reserved.
+ * This software is dual-licensed to you under the Universal Permissive License (UPL) 1.0 as shown at https://oss.oracle.com/licenses/upl or Apache License 2.0 as shown at http://www.apache.org/licenses/LICENSE-2.0. You may choose either license.
+ */
+package com.oracle.bmc.util;
+
+import com.oracle.bmc.ClientRuntime;
+import org.junit.After;
+import org.junit.Assume;
+import org.junit.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class ClientThreadPoolsTest {
+    @After
+    public void tearDown() {
+        ClientRuntime.setVirtualThreadsEnabled(false);
+    }
+
+    @Test
+    public void newWaiterExecutor_platformThreads() throws Exception {
+        ExecutorService executor = ClientThreadPools.newWaiterExecutor("Test-waiters-");
+        try {
+            assertTrue(executor instanceof ThreadPoolExecutor);
+            ThreadPoolExecutor threadPoolExecutor = (ThreadPoolExecutor) executor;
+            assertEquals(ClientThreadPools.WAITER_THREADS, threadPoolExecutor.getCorePoolSize());
+            assertEquals(ClientThreadPools.WAITER_THREADS, threadPoolExecutor.getMaximumPoolSize());
+            assertTrue(threadPoolExecutor.allowsCoreThreadTimeOut());
+
+            Thread thread = executor.submit(Thread::currentThread).get(5, TimeUnit.SECONDS);
+            assertEquals("Test-waiters-0", thread.getName());
+            assertTrue(thread.isDaemon());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void newWaiterExecutor_virtualThreadsNotSupported() {
+        Assume.assumeFalse(VirtualThreadUtils.isSupported());
+        ClientRuntime.setVirtualThreadsEnabled(true);
+
+        ExecutorService executor = ClientThreadPools.newWaiterExecutor("Test-waiters-");
+        try {
+            assertTrue(executor instanceof ThreadPoolExecutor);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void newWaiterExecutor_virtualThreads() throws Exception {
+        Assume.assumeTrue(VirtualThreadUtils.isSupported());
+        ClientRuntime.setVirtualThreadsEnabled(true);
+
+        ExecutorService executor = ClientThreadPools.newWaiterExecutor("Test-waiters-");
+        try {
+            assertFalse(executor instanceof ThreadPoolExecutor);
+            String name =
+                    executor.submit(() -> Thread.currentThread().getName())
+                            .get(5, TimeUnit.SECONDS);
+            assertEquals("Test-waiters-0", name);
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,68 @@
+/**
+ * Copyright (c) 2016, 2021, Oracle and/or its affiliates.  All rights reserved.
+ * This software is dual-licensed to you under the Universal Permissive License (UPL) 1.0 as shown at https://oss.oracle.com/licenses/upl or Apache License 2.0 as shown at http://www.apache.org/licenses/LICENSE-2.0. You may choose either license.
+ */
+package com.oracle.bmc.util;
+
+import com.oracle.bmc.ClientRuntime;
+import org.junit.After;
+import org.junit.Assume;
+import org.junit.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class VirtualThreadUtilsTest {
+    private final ThreadFactory platformThreadFactory = Executors.defaultThreadFactory();
+
+    @After
+    public void tearDown() {
+        ClientRuntime.setVirtualThreadsEnabled(false);
+    }
+
+    @Test
+    public void disabledByDefault() {
+        assertFalse(VirtualThreadUtils.isEnabled());
+        assertSame(
+                platformThreadFactory,
+                VirtualThreadUtils.threadFactoryOrDefault("test-", platformThreadFactory));
+    }
+
+    @Test
+    public void enabledButNotSupported() {
+        Assume.assumeFalse(VirtualThreadUtils.isSupported());
+        ClientRuntime.setVirtualThreadsEnabled(true);
+
+        assertFalse(VirtualThreadUtils.isEnabled());
+        assertSame(
+                platformThreadFactory,
+                VirtualThreadUtils.threadFactoryOrDefault("test-", platformThreadFactory));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void newThreadFactory_notSupported() {
+        Assume.assumeFalse(VirtualThreadUtils.isSupported());
+        VirtualThreadUtils.newThreadFactory("test-");
+    }
+
+    @Test
+    public void newThreadPerTaskExecutor_supported() throws Exception {
+        Assume.assumeTrue(VirtualThreadUtils.isSupported());
+        ClientRuntime.setVirtualThreadsEnabled(true);
+
+        assertTrue(VirtualThreadUtils.isEnabled());
+        ExecutorService executor = VirtualThreadUtils.newThreadPerTaskExecutor("test-");
+        try {
+            String name =
+                    executor.submit(() -> Thread.currentThread().getName())
+                            .get(5, TimeUnit.SECONDS);
+            assertTrue(name.startsWith("test-"));
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
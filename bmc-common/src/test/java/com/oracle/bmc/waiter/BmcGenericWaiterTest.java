@@ -0,0 +1,261 @@
+/**
+ * Copyright (c) 2016, 2021, Oracle and/or its affiliates.  All rights reserved.
+ * This software is dual-licensed to you under the Universal Permissive License (UPL) 1.0 as shown at https://oss.oracle.com/licenses/upl or Apache License 2.0 as shown at http://www.apache.org/licenses/LICENSE-2.0. You may choose either license.
+ */
+package com.oracle.bmc.waiter;
+
+import com.google.common.base.Function;
+import com.google.common.base.Predicate;
+import com.google.common.base.Suppliers;
+import com.oracle.bmc.model.BmcException;
+import com.oracle.bmc.responses.AsyncHandler;
+import com.oracle.bmc.waiter.internal.SimpleWaiterImpl;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.*;
+
+public class BmcGenericWaiterTest {
+    private static final Predicate<Integer> IS_THREE =
+            new Predicate<Integer>() {
+                @Override
+                public boolean apply(Integer input) {
+                    return input == 3;
+                }
+            };
+
+    private final BmcGenericWaiter waiter =
+            new BmcGenericWaiter(
+                    new MaxAttemptsTerminationStrategy(5), new FixedTimeDelayStrategy(10));
+    private final AtomicInteger calls = new AtomicInteger();
+    private ThreadPoolExecutor executor;
+
+    @Before
+    public void setUp() {
+        executor = (ThreadPoolExecutor) Executors.newFixedThreadPool(1);
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void executeAsync_conditionMet() throws Exception {
+        CompletableFuture<Integer> future =
+                waiter.executeAsync(
+                        Suppliers.ofInstance("request"),
+                        counter(),
+                        IS_THREE,
+                        false,
+                        Waiters.getDefaultScheduler(),
+                        executor);
+
+        assertEquals(3, future.get(5, TimeUnit.SECONDS).intValue());
+        assertEquals(3, calls.get());
+    }
+
+    @Test
+    public void executeAsync_conditionNotMet() throws Exception {
+        CompletableFuture<Integer> future =
+                waiter.executeAsync(
+                        Suppliers.ofInstance("request"),
+                        counter(),
+                        alwaysFalse(),
+                        false,
+                        Waiters.getDefaultScheduler(),
+                        executor);
+
+        try {
+            future.get(5, TimeUnit.SECONDS);
+            fail("Should have thrown");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof BmcGenericWaiter.WaitConditionFailedException);
+        }
+        assertEquals(5, calls.get());
+    }
+
+    @Test
+    public void executeAsync_allow404() throws Exception {
+        CompletableFuture<Integer> future =
+                waiter.executeAsync(
+                        Suppliers.ofInstance("request"),
+                        notFound(),
+                        IS_THREE,
+                        true,
+                        Waiters.getDefaultScheduler(),
+                        executor);
+
+        assertNull(future.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void executeAsync_404NotAllowed() throws Exception {
+        CompletableFuture<Integer> future =
+                waiter.executeAsync(
+                        Suppliers.ofInstance("request"),
+                        notFound(),
+                        IS_THREE,
+                        false,
+                        Waiters.getDefaultScheduler(),
+                        executor);
+
+        try {
+            future.get(5, TimeUnit.SECONDS);
+            fail("Should have thrown");
+        } catch (ExecutionException e) {
+            assertEquals(404, ((BmcException) e.getCause()).getStatusCode());
+        }
+    }
+
+    @Test
+    public void executeAsync_cancelStopsPolling() throws Exception {
+        BmcGenericWaiter slowWaiter =
+                new BmcGenericWaiter(
+                        new MaxAttemptsTerminationStrategy(100), new FixedTimeDelayStrategy(50));
+        CompletableFuture<Integer> future =
+                slowWaiter.executeAsync(
+                        Suppliers.ofInstance("request"),
+                        counter(),
+                        alwaysFalse(),
+                        false,
+                        Waiters.getDefaultScheduler(),
+                        executor);
+
+        while (calls.get() == 0) {
+            Thread.sleep(5);
+        }
+        assertTrue(future.cancel(false));
+        int callsAtCancel = calls.get();
+        Thread.sleep(200);
+        assertTrue(calls.get() <= callsAtCancel + 1);
+    }
+
+    @Test
+    public void simpleWaiter_pollsWithoutHoldingExecutorThread() throws Exception {
+        // with a single executor thread, waits that each sleep 200ms would take 4s one after the
+        // other
+        final BmcGenericWaiter slowWaiter =
+                new BmcGenericWaiter(
+                        new MaxAttemptsTerminationStrategy(5), new FixedTimeDelayStrategy(100));
+        final int waits = 20;
+        final CountDownLatch done = new CountDownLatch(waits);
+        final AtomicReference<Throwable> failure = new AtomicReference<>();
+        for (int i = 0; i < waits; i++) {
+            final AtomicInteger counter = new AtomicInteger();
+            Waiter<String, Integer> simpleWaiter =
+                    new SimpleWaiterImpl<>(
+                            executor,
+                            slowWaiter.toCallable(
+                                    Suppliers.ofInstance("request"),
+                                    new Function<String, Integer>() {
+                                        @Override
+                                        public Integer apply(String input) {
+                                            return counter.incrementAndGet();
+                                        }
+                                    },
+                                    IS_THREE,
+                                    false),
+                            "request");
+            simpleWaiter.execute(
+                    new AsyncHandler<String, Integer>() {
+                        @Override
+                        public void onSuccess(String request, Integer response) {
+                            done.countDown();
+                        }
+
+                        @Override
+                        public void onError(String request, Throwable error) {
+                            failure.set(error);
+                            done.countDown();
+                        }
+                    });
+        }
+
+        assertTrue(done.await(2, TimeUnit.SECONDS));
+        assertNull(failure.get());
+    }
+
+    @Test
+    public void simpleWaiter_asyncHandlerOnError() throws Exception {
+        final AtomicReference<Throwable> failure = new AtomicReference<>();
+        Waiter<String, Integer> simpleWaiter =
+                new SimpleWaiterImpl<>(
+                        executor,
+                        waiter.toCallable(
+                                Suppliers.ofInstance("request"), counter(), alwaysFalse(), false),
+                        "request");
+
+        Future<Void> future =
+                simpleWaiter.execute(
+                        new AsyncHandler<String, Integer>() {
+                            @Override
+                            public void onSuccess(String request, Integer response) {}
+
+                            @Override
+                            public void onError(String request, Throwable error) {
+                                failure.set(error);
+                            }
+                        });
+
+        try {
+            future.get(5, TimeUnit.SECONDS);
+            fail("Should have thrown");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof BmcGenericWaiter.WaitConditionFailedException);
+        }
+        assertTrue(failure.get() instanceof BmcGenericWaiter.WaitConditionFailedException);
+    }
+
+    @Test
+    public void executeAsync_defaultForOtherWaiters() throws Exception {
+        ExecutorService otherExecutor = Executors.newSingleThreadExecutor();
+        try {
+            Waiter<String, Integer> simpleWaiter =
+                    new SimpleWaiterImpl<>(otherExecutor, () -> 42, "request");
+
+            assertEquals(42, simpleWaiter.executeAsync().get(5, TimeUnit.SECONDS).intValue());
+        } finally {
+            otherExecutor.shutdownNow();
+        }
+    }
+
+    private Function<String, Integer> counter() {
+        return new Function<String, Integer>() {
+            @Override
+            public Integer apply(String input) {
+                return calls.incrementAndGet();
+            }
+        };
+    }
+
+    private static Function<String, Integer> notFound() {
+        return new Function<String, Integer>() {
+            @Override
+            public Integer apply(String input) {
+                throw new BmcException(404, "NotAuthorizedOrNotFound", "Not found", "opc-id");
+            }
+        };
+    }
+
+    private static Predicate<Integer> alwaysFalse() {
+        return new Predicate<Integer>() {
+            @Override
+            public boolean apply(Integer input) {
+                return false;
+            }
+        };
+    }
+}
@@ -0,0 +1,357 @@
+/**
+ * Copyright (c) 2016, 2021, Oracle and/or its affiliates.  All rights reserved.
+ * This software is dual-licensed to you under the Universal Permissive License (UPL) 1.0 as shown at https://oss.oracle.com/licenses/upl or Apache License 2.0 as shown at http://www.apache.org/licenses/LICENSE-2.0. You may choose either license.
+ */
+package com.oracle.bmc.encryption;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+import com.oracle.bmc.auth.AuthenticationDetailsProvider;
+import com.oracle.bmc.encryption.internal.CryptoAlgorithm;
+import com.oracle.bmc.encryption.internal.DataKey;
+import com.oracle.bmc.encryption.internal.EncryptionKey;
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * A MasterKeyProvider that caches data keys, to avoid calling OCI KMS for every message that is
+ * encrypted or decrypted.
+ * <p>
+ * A generated data key is reused to encrypt further messages with the same encryption context
+ * until it has been used for maxMessagesPerDataKey messages or maxBytesPerDataKey bytes, or until
+ * it is older than maxDataKeyAge.  One data key is cached per encryption context, and the least
+ * recently used ones are evicted when more than maxDataKeys are cached.  Messages encrypted from a
+ * stream have no known length, so they only reuse data keys if maxBytesPerDataKey is not limited.
+ * Decrypted data keys are cached by their encrypted data key, for up to maxDecryptedDataKeyAge, and
+ * the least recently used ones are evicted when more than maxDecryptedDataKeys are cached.
+ * <p>
+ * The cached keys are kept as byte arrays and overwritten with zeros when they are evicted, expire,
+ * or when {@link #clearCaches()} is called.  Keys that have been handed to the cipher, and the
+ * encoded keys returned by the master key, are not covered.
+ * <p>
+ * Reusing data keys trades isolation between messages for fewer KMS calls; keep the limits as low as
+ * the workload allows.  By default a data key encrypts at most 1000 messages, in line with the data
+ * key caches of other encryption SDKs; this is far below the 2^32 messages a key may encrypt with
+ * random IVs, and bounds how many messages a single compromised data key exposes.
+ */
+public class CachingKmsMasterKeyProvider
+        implements MasterKeyProvider<AuthenticationDetailsProvider> {
+    private static final Duration DEFAULT_MAX_DATA_KEY_AGE = Duration.ofMinutes(5);
+    private static final long DEFAULT_MAX_MESSAGES_PER_DATA_KEY = 1000;
+    private static final int DEFAULT_MAX_DATA_KEYS = 100;
+    private static final int DEFAULT_MAX_DECRYPTED_DATA_KEYS = 1000;
+
+    private final KmsMasterKeyProvider delegate;
+    private final long maxDataKeyAgeNanos;
+    private final long maxMessagesPerDataKey;
+    private final long maxBytesPerDataKey;
+    private final int maxDataKeys;
+    private final int maxDecryptedDataKeys;
+    private final long maxDecryptedDataKeyAgeNanos;
+    private final LongSupplier nanoClock;
+
+    private final LinkedHashMap<Map<String, String>, CachedDataKey> dataKeys;
+    private final LinkedHashMap<EncryptionKey, CachedKey> decryptedDataKeys;
+
+    private final AtomicLong dataKeyHits = new AtomicLong();
+    private final AtomicLong dataKeyMisses = new AtomicLong();
+    private final AtomicLong decryptedDataKeyHits = new AtomicLong();
+    private final AtomicLong decryptedDataKeyMisses = new AtomicLong();
+
+    /**
+     * Initialize CachingKmsMasterKeyProvider.
+     * @param delegate The provider whose master key generates and decrypts the data keys.
+     * @param maxDataKeyAge How long a generated data key is reused.  Defaults to 5 minutes.
+     * @param maxMessagesPerDataKey How many messages a generated data key encrypts.  Defaults to 1000.
+     * @param maxBytesPerDataKey How many bytes a generated data key encrypts.  Defaults to no limit.
+     * @param maxDataKeys How many generated data keys are cached, one per encryption context.
+     *      Defaults to 100.
+     * @param maxDecryptedDataKeys How many decrypted data keys are cached.  Defaults to 1000.
+     * @param maxDecryptedDataKeyAge How long a decrypted data key is cached.  Defaults to
+     *      maxDataKeyAge.
+     */
+    @Builder
+    private CachingKmsMasterKeyProvider(
+            KmsMasterKeyProvider delegate,
+            Duration maxDataKeyAge,
+            Long maxMessagesPerDataKey,
+            Long maxBytesPerDataKey,
+            Integer maxDataKeys,
+            Integer maxDecryptedDataKeys,
+            Duration maxDecryptedDataKeyAge) {
+        this(
+                delegate,
+                maxDataKeyAge,
+                maxMessagesPerDataKey,
+                maxBytesPerDataKey,
+                maxDataKeys,
+                maxDecryptedDataKeys,
+                maxDecryptedDataKeyAge,
+                System::nanoTime);
+    }
+
+    CachingKmsMasterKeyProvider(
+            KmsMasterKeyProvider delegate,
+            Duration maxDataKeyAge,
+            Long maxMessagesPerDataKey,
+            Long maxBytesPerDataKey,
+            Integer maxDataKeys,
+            Integer maxDecryptedDataKeys,
+            Duration maxDecryptedDataKeyAge,
+            LongSupplier nanoClock) {
+        if (delegate == null) {
+            throw new IllegalArgumentException("Please provide the KmsMasterKeyProvider to cache.");
+        }
+        this.delegate = delegate;
+        Duration dataKeyAge = maxDataKeyAge != null ? maxDataKeyAge : DEFAULT_MAX_DATA_KEY_AGE;
+        this.maxDataKeyAgeNanos = dataKeyAge.toNanos();
+        this.maxMessagesPerDataKey =
+                maxMessagesPerDataKey != null
+                        ? maxMessagesPerDataKey
+                        : DEFAULT_MAX_MESSAGES_PER_DATA_KEY;
+        this.maxBytesPerDataKey = maxBytesPerDataKey != null ? maxBytesPerDataKey : Long.MAX_VALUE;
+        this.maxDataKeys = maxDataKeys != null ? maxDataKeys : DEFAULT_MAX_DATA_KEYS;
+        this.maxDecryptedDataKeys =
+                maxDecryptedDataKeys != null
+                        ? maxDecryptedDataKeys
+                        : DEFAULT_MAX_DECRYPTED_DATA_KEYS;
+        this.maxDecryptedDataKeyAgeNanos =
+                (maxDecryptedDataKeyAge != null ? maxDecryptedDataKeyAge : dataKeyAge).toNanos();
+        if (this.maxMessagesPerDataKey <= 0
+                || this.maxBytesPerDataKey <= 0
+                || this.maxDataKeys <= 0
+                || this.maxDecryptedDataKeys < 0) {
+            throw new IllegalArgumentException("Cache limits must be positive.");
+        }
+        this.dataKeys = new LinkedHashMap<>(16, 0.75f, true);
+        this.decryptedDataKeys = new LinkedHashMap<>(16, 0.75f, true);
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * Get kmsMasterKey of the wrapped provider.
+     */
+    @Override
+    public KmsMasterKey getMasterKey() {
+        return delegate.getMasterKey();
+    }
+
+    /**
+     * Get Authentication Details Provider of the wrapped provider.
+     */
+    @Override
+    public AuthenticationDetailsProvider getAuthenticationProvider() {
+        return delegate.getAuthenticationProvider();
+    }
+
+    /**
+     * Get Crypto Algorithm of the wrapped provider.
+     */
+    @Override
+    public CryptoAlgorithm getCryptoAlgorithm() {
+        return delegate.getCryptoAlgorithm();
+    }
+
+    @Override
+    public DataKey generateDataKey(long plaintextLength) {
+        return generateDataKey(plaintextLength, null);
+    }
+
+    @Override
+    public DataKey generateDataKey(long plaintextLength, Map<String, String> context) {
+        final Map<String, String> cacheKey =
+                context != null
+                        ? Collections.unmodifiableMap(new HashMap<>(context))
+                        : Collections.<String, String>emptyMap();
+        final long now = nanoClock.getAsLong();
+        synchronized (this) {
+            final CachedDataKey cached = dataKeys.get(cacheKey);
+            if (cached != null && cached.canEncrypt(plaintextLength, now)) {
+                dataKeyHits.incrementAndGet();
+                return cached.use(plaintextLength);
+            }
+        }
+        dataKeyMisses.incrementAndGet();
+        final DataKey generated = delegate.generateDataKey(plaintextLength);
+        final byte[] plaintext = Base64.getDecoder().decode(generated.getPlaintext());
+
+        final KmsMasterKey masterKey = getMasterKey();
+        putDecryptedDataKey(
+                new EncryptionKey(
+                        masterKey.getRegion(),
+                        masterKey.getVaultId(),
+                        masterKey.getKmsMasterKeyId(),
+                        generated.getCiphertext()),
+                plaintext.clone(),
+                now);
+
+        final CachedDataKey cached = new CachedDataKey(generated, plaintext, now);
+        if (!cached.canEncrypt(plaintextLength, now)) {
+            cached.clear();
+            return generated;
+        }
+        synchronized (this) {
+            final CachedDataKey previous = dataKeys.put(cacheKey, cached);
+            if (previous != null) {
+                previous.clear();
+            }
+            evictLeastRecentlyUsed(dataKeys, maxDataKeys);
+            return cached.use(plaintextLength);
+        }
+    }
+
+    @Override
+    public String decryptDataKey(
+            EncryptionKey encryptionKey, Supplier<? extends MasterKey> masterKey) {
+        final long now = nanoClock.getAsLong();
+        synchronized (this) {
+            final CachedKey cached = decryptedDataKeys.get(encryptionKey);
+            if (cached != null) {
+                if (now - cached.createdNanos < maxDecryptedDataKeyAgeNanos) {
+                    decryptedDataKeyHits.incrementAndGet();
+                    return Base64.getEncoder().encodeToString(cached.plaintext);
+                }
+                decryptedDataKeys.remove(encryptionKey).clear();
+            }
+        }
+        decryptedDataKeyMisses.incrementAndGet();
+        final String decrypted = delegate.decryptDataKey(encryptionKey, masterKey);
+        putDecryptedDataKey(encryptionKey, Base64.getDecoder().decode(decrypted), now);
+        return decrypted;
+    }
+
+    private synchronized void putDecryptedDataKey(
+            EncryptionKey encryptionKey, byte[] plaintext, long createdNanos) {
+        if (maxDecryptedDataKeys == 0) {
+            Arrays.fill(plaintext, (byte) 0);
+            return;
+        }
+        final CachedKey previous =
+                decryptedDataKeys.put(encryptionKey, new CachedKey(plaintext, createdNanos));
+        if (previous != null) {
+            previous.clear();
+        }
+        evictLeastRecentlyUsed(decryptedDataKeys, maxDecryptedDataKeys);
+    }
+
+    private static void evictLeastRecentlyUsed(
+            LinkedHashMap<?, ? extends CachedKey> keys, int maxKeys) {
+        final Iterator<? extends CachedKey> leastRecentlyUsed = keys.values().iterator();
+        while (keys.size() > maxKeys) {
+            leastRecentlyUsed.next().clear();
+            leastRecentlyUsed.remove();
+        }
+    }
+
+    /**
+     * Removes all cached data keys, and overwrites them with zeros.
+     */
+    public synchronized void clearCaches() {
+        for (CachedKey cached : dataKeys.values()) {
+            cached.clear();
+        }
+        dataKeys.clear();
+        for (CachedKey cached : decryptedDataKeys.values()) {
+            cached.clear();
+        }
+        decryptedDataKeys.clear();
+    }
+
+    /**
+     * Get the number of cache hits and misses so far.
+     * @return Statistics
+     */
+    public synchronized Statistics getStatistics() {
+        return new Statistics(
+                dataKeyHits.get(),
+                dataKeyMisses.get(),
+                decryptedDataKeyHits.get(),
+                decryptedDataKeyMisses.get(),
+                dataKeys.size(),
+                decryptedDataKeys.size());
+    }
+
+    /**
+     * Cache statistics of a CachingKmsMasterKeyProvider.
+     */
+    @Value
+    public static class Statistics {
+        /**
+         * Number of messages encrypted with a cached data key.
+         */
+        long dataKeyHits;
+        /**
+         * Number of data keys generated by KMS.
+         */
+        long dataKeyMisses;
+        /**
+         * Number of messages decrypted with a cached data key.
+         */
+        long decryptedDataKeyHits;
+        /**
+         * Number of data keys decrypted by KMS.
+         */
+        long decryptedDataKeyMisses;
+        /**
+         * Number of generated data keys currently cached.
+         */
+        int cachedDataKeys;
+        /**
+         * Number of decrypted data keys currently cached.
+         */
+        int cachedDecryptedDataKeys;
+    }
+
+    private static class CachedKey {
+        final byte[] plaintext;
+        final long createdNanos;
+
+        CachedKey(byte[] plaintext, long createdNanos) {
+            this.plaintext = plaintext;
+            this.createdNanos = createdNanos;
+        }
+
+        void clear() {
+            Arrays.fill(plaintext, (byte) 0);
+        }
+    }
+
+    private class CachedDataKey extends CachedKey {
+        private final String ciphertext;
+        private final String plaintextChecksum;
+        private long messages = 0;
+        private long bytes = 0;
+
+        CachedDataKey(DataKey dataKey, byte[] plaintext, long createdNanos) {
+            super(plaintext, createdNanos);
+            this.ciphertext = dataKey.getCiphertext();
+            this.plaintextChecksum = dataKey.getPlaintextChecksum();
+        }
+
+        boolean canEncrypt(long plaintextLength, long now) {
+            if (plaintextLength < 0 && maxBytesPerDataKey != Long.MAX_VALUE) {
+                return false;
+            }
+            return now - createdNanos < maxDataKeyAgeNanos
+                    && messages < maxMessagesPerDataKey
+                    && Math.max(plaintextLength, 0) <= maxBytesPerDataKey - bytes;
+        }
+
+        DataKey use(long plaintextLength) {
+            messages++;
+            bytes += Math.max(plaintextLength, 0);
+            return new DataKey(
+                    ciphertext, Base64.getEncoder().encodeToString(plaintext), plaintextChecksum);
+        }
+    }
+}
@@ -4,8 +4,13 @@
  */
 package com.oracle.bmc.encryption;
 
+import java.util.Map;
+import java.util.function.Supplier;
+
 import com.oracle.bmc.auth.AbstractAuthenticationDetailsProvider;
 import com.oracle.bmc.encryption.internal.CryptoAlgorithm;
+import com.oracle.bmc.encryption.internal.DataKey;
+import com.oracle.bmc.encryption.internal.EncryptionKey;
 
 /**
  * Represents a MasterKeyProvider that holds MasterKeys.
@@ -16,4 +21,43 @@ public interface MasterKeyProvider<K extends AbstractAuthenticationDetailsProvid
     K getAuthenticationProvider();
 
     CryptoAlgorithm getCryptoAlgorithm();
+
+    /**
+     * Returns the data key to encrypt a message with.
+     * <p>
+     * The default implementation generates a new data key for every message.
+     * @param plaintextLength The length of the message, or -1 if it is not known.
+     * @return DataKey
+     */
+    default DataKey generateDataKey(long plaintextLength) {
+        return getMasterKey().generateDataEncryptionKey(getCryptoAlgorithm());
+    }
+
+    /**
+     * Returns the data key to encrypt a message with the given encryption context.
+     * <p>
+     * The default implementation ignores the context.
+     * @param plaintextLength The length of the message, or -1 if it is not known.
+     * @param context The encryption context of the message, or null.
+     * @return DataKey
+     */
+    default DataKey generateDataKey(long plaintextLength, Map<String, String> context) {
+        return generateDataKey(plaintextLength);
+    }
+
+    /**
+     * Decrypts the data key of a message.
+     * <p>
+     * The default implementation decrypts the data key every time.
+     * @param encryptionKey The encrypted data key, as stored in the header of the message.
+     * @param masterKey Returns the master key the data key was encrypted under.
+     * @return Decrypted data key
+     */
+    default String decryptDataKey(
+            EncryptionKey encryptionKey, Supplier<? extends MasterKey> masterKey) {
+        return masterKey
+                .get()
+                .decryptDataKey(
+                        encryptionKey.getEncryptedDataKey(), encryptionKey.getMasterKeyId());
+    }
 }
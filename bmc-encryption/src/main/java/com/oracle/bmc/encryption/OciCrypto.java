@@ -7,9 +7,11 @@ package com.oracle.bmc.encryption;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.Map;
+import java.util.function.Function;
 
 import com.oracle.bmc.encryption.internal.DecryptionHandler;
 import com.oracle.bmc.encryption.internal.EncryptionHandler;
+import com.oracle.bmc.encryption.internal.SegmentCipher;
 import lombok.Value;
 
 /**
@@ -40,9 +42,19 @@ import lombok.Value;
  * into memory before returning it. To avoid out of memory errors during decryption, ensure that
  * you allocate Java virtual memory four times the data size that needs to be decrypted.
  * For example, use 8GB VM (-Xmx8G) to decrypt a 2GB file.
+ * <p>
+ * Streams created with a segment size use the segmented format instead, which encrypts the data in
+ * segments that are authenticated individually. Such streams are encrypted and decrypted using
+ * a constant amount of memory, have no size limit, and can be decrypted starting at any offset.
+ * The segmented format can only be decrypted by SDK versions that support it.
  */
 @Value
 public class OciCrypto {
+    /**
+     * The default number of bytes per segment for the segmented format.
+     */
+    public static final int DEFAULT_SEGMENT_SIZE = SegmentCipher.DEFAULT_SEGMENT_SIZE;
+
     /**
      * Creates a new CryptoInputStream that allows reading data from the encrypted stream
      * under the provided master key.
@@ -75,6 +87,28 @@ public class OciCrypto {
         return crypto.getEncryptInputStream(inputStream, context).getResult();
     }
 
+    /**
+     * Creates a new CryptoInputStream that allows reading data from the encrypted stream
+     * under the provided master key, using the segmented format.
+     * @param masterKeyProvider  A MasterKeyProvider to use for encrypting the data.
+     * @param inputStream The stream to be encrypt.
+     * @param context Optional additional data to be provided as input to authenticated encryption algorithms.
+     *                Map Keys may NO match the prefix oci-* as that namespace is reserved for OCI internal keys
+     *                that may be added to the AAD.
+     * @param segmentSize The number of bytes per segment, for example {@link #DEFAULT_SEGMENT_SIZE}.
+     *                    Must be between 1 KiB and 4 MiB.
+     *                    Decrypting a range reads up to one additional segment.
+     * @return OciCryptoInputStream
+     */
+    public OciCryptoInputStream createEncryptingStream(
+            MasterKeyProvider masterKeyProvider,
+            final InputStream inputStream,
+            Map<String, String> context,
+            int segmentSize) {
+        EncryptionHandler crypto = new EncryptionHandler(masterKeyProvider);
+        return crypto.getEncryptInputStream(inputStream, context, segmentSize).getResult();
+    }
+
     /**
      * Creates a new CryptoInputStream that allows reading decrypted data from the underlying
      * encrypted stream.
@@ -89,6 +123,31 @@ public class OciCrypto {
         return crypto.getDecryptInputStream(inputStream).getResult();
     }
 
+    /**
+     * Creates a new CryptoInputStream that allows reading decrypted data starting at the given offset,
+     * for example to decrypt a range of an object using ranged GET requests.
+     * <p>
+     * The encrypted data is read from the streams returned by encryptedStreamSupplier, which is called
+     * with offset 0 to read the header, and, if the data uses the segmented format, with the offset of
+     * the segment that contains the requested offset.  The returned streams must end at the end of the
+     * encrypted data.  Data that does not use the segmented format is decrypted from the start.
+     * An offset more than one segment after the end of the data is rejected, since the data may
+     * have been truncated.
+     * @param masterKeyProvider  A MasterKeyProvider to use for decrypting the data.
+     * @param plaintextOffset The offset in the decrypted data of the first byte to return.
+     * @param encryptedStreamSupplier Returns the encrypted data starting at the given offset.
+     * @return OciCryptoInputStream
+     * @throws IOException when an input stream read error occurs.
+     */
+    public OciCryptoInputStream createDecryptingStream(
+            MasterKeyProvider masterKeyProvider,
+            long plaintextOffset,
+            Function<Long, InputStream> encryptedStreamSupplier)
+            throws IOException {
+        DecryptionHandler crypto = new DecryptionHandler(masterKeyProvider);
+        return crypto.getDecryptInputStream(plaintextOffset, encryptedStreamSupplier).getResult();
+    }
+
     /**
      * Encrypts data.
      * @param masterKeyProvider  A MasterKeyProvider to use for encrypting the data.
@@ -10,6 +10,8 @@ import java.security.InvalidKeyException;
 import java.security.SecureRandom;
 import java.security.spec.AlgorithmParameterSpec;
 import java.util.Base64;
+import java.util.Map;
+import java.util.function.Supplier;
 import javax.crypto.Cipher;
 import javax.crypto.spec.GCMParameterSpec;
 import javax.crypto.spec.SecretKeySpec;
@@ -38,8 +40,8 @@ public abstract class CipherHandler {
         return iv;
     }
 
-    protected DataKey generateDataKey() {
-        return provider.getMasterKey().generateDataEncryptionKey(provider.getCryptoAlgorithm());
+    protected DataKey generateDataKey(long plaintextLength, Map<String, String> context) {
+        return provider.generateDataKey(plaintextLength, context);
     }
 
     private SecretKeySpec generateSecretKeySpec(DataKey dataKey) {
@@ -48,11 +50,10 @@ public abstract class CipherHandler {
     }
 
     protected SecretKeySpec getSecretKeySpec(
-            EncryptionHeader encryptionHeader, KmsMasterKey decryptionKmsMasterKey) {
+            EncryptionHeader encryptionHeader, Supplier<KmsMasterKey> decryptionKmsMasterKey) {
         String decryptDataKey =
-                decryptionKmsMasterKey.decryptDataKey(
-                        encryptionHeader.getEncryptionKey().getEncryptedDataKey(),
-                        encryptionHeader.getEncryptionKey().getMasterKeyId());
+                provider.decryptDataKey(
+                        encryptionHeader.getEncryptionKey(), decryptionKmsMasterKey);
         byte[] secretKeyBytes = Base64.getDecoder().decode(decryptDataKey);
         return new SecretKeySpec(secretKeyBytes, provider.getCryptoAlgorithm().getAlgorithm());
     }
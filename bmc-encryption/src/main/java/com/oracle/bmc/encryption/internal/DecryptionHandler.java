@@ -5,9 +5,13 @@
 package com.oracle.bmc.encryption.internal;
 
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.PushbackInputStream;
+import java.util.function.Function;
 import javax.crypto.Cipher;
+import javax.crypto.spec.SecretKeySpec;
 
 import com.oracle.bmc.auth.AuthenticationDetailsProvider;
 import com.oracle.bmc.encryption.*;
@@ -25,30 +29,163 @@ public class DecryptionHandler extends CipherHandler {
     public WithEncryptionHeader<OciCryptoInputStream> getDecryptInputStream(
             final InputStream inputStream) throws IOException {
         EncryptionHeader encryptionHeader = serializeHeader.readHeader(inputStream);
-        KmsMasterKey kmsMasterKey = createDecryptionKmsMasterKey(encryptionHeader);
-        Cipher cipher =
-                initCipher(
-                        Cipher.DECRYPT_MODE,
-                        super.getSecretKeySpec(encryptionHeader, kmsMasterKey),
-                        encryptionHeader);
+        SecretKeySpec dataKeySpec = getSecretKeySpec(encryptionHeader);
+        if (encryptionHeader.isSegmented()) {
+            return new WithEncryptionHeader<>(
+                    new SegmentedDecryptionStream(
+                            inputStream,
+                            createSegmentCipher(dataKeySpec, encryptionHeader),
+                            encryptionHeader),
+                    encryptionHeader);
+        }
+        Cipher cipher = initCipher(Cipher.DECRYPT_MODE, dataKeySpec, encryptionHeader);
         return new WithEncryptionHeader<>(
                 new DecryptionStream(inputStream, cipher, encryptionHeader), encryptionHeader);
     }
 
+    /**
+     * Decrypts the data starting at the given plaintext offset.
+     * <p>
+     * The header is read from the stream returned for offset 0.  For data in the segmented format,
+     * the stream is then opened again at the segment that contains the plaintext offset, unless that
+     * is the first segment.  If there is no such segment, the previous segment must be the last
+     * one.  Data in the format that encrypts all data at once is decrypted from the start, and the
+     * bytes before the offset are skipped.
+     *
+     * @param plaintextOffset offset of the first byte to decrypt
+     * @param encryptedStreamSupplier returns the encrypted data starting at the given offset, and
+     *      ending at the end of the encrypted data
+     * @return the decrypted stream
+     * @throws IOException if the data could not be read
+     */
+    public WithEncryptionHeader<OciCryptoInputStream> getDecryptInputStream(
+            long plaintextOffset, Function<Long, InputStream> encryptedStreamSupplier)
+            throws IOException {
+        if (plaintextOffset < 0) {
+            throw new IllegalArgumentException("Plaintext offset must not be negative");
+        }
+        InputStream inputStream = encryptedStreamSupplier.apply(0L);
+        EncryptionHeader encryptionHeader;
+        try {
+            encryptionHeader = serializeHeader.readHeader(inputStream);
+        } catch (IOException | RuntimeException e) {
+            inputStream.close();
+            throw e;
+        }
+        SecretKeySpec dataKeySpec = getSecretKeySpec(encryptionHeader);
+
+        if (!encryptionHeader.isSegmented()) {
+            Cipher cipher = initCipher(Cipher.DECRYPT_MODE, dataKeySpec, encryptionHeader);
+            DecryptionStream decryptionStream =
+                    new DecryptionStream(inputStream, cipher, encryptionHeader);
+            long skipped = 0;
+            while (skipped < plaintextOffset) {
+                long bytesSkipped = decryptionStream.skip(plaintextOffset - skipped);
+                if (bytesSkipped <= 0) {
+                    break;
+                }
+                skipped += bytesSkipped;
+            }
+            return new WithEncryptionHeader<>(decryptionStream, encryptionHeader);
+        }
+
+        SegmentCipher segmentCipher = createSegmentCipher(dataKeySpec, encryptionHeader);
+        long encryptedOffset = segmentCipher.getEncryptedOffset(plaintextOffset);
+        if (encryptedOffset == encryptionHeader.getHeaderBytes().length) {
+            return new WithEncryptionHeader<>(
+                    new SegmentedDecryptionStream(
+                            inputStream, segmentCipher, encryptionHeader, plaintextOffset, false),
+                    encryptionHeader);
+        }
+        inputStream.close();
+        InputStream segmentStream = openSegment(encryptedStreamSupplier, encryptedOffset);
+        if (segmentStream != null) {
+            return new WithEncryptionHeader<>(
+                    new SegmentedDecryptionStream(
+                            segmentStream, segmentCipher, encryptionHeader, plaintextOffset, false),
+                    encryptionHeader);
+        }
+
+        // there is no segment at the offset, which is only valid if the previous segment is the
+        // last one; that is verified by decrypting the previous segment and skipping its bytes
+        long segmentStart = plaintextOffset - plaintextOffset % segmentCipher.getSegmentSize();
+        long previousSegmentOffset = segmentCipher.getEncryptedOffset(segmentStart - 1);
+        segmentStream = openSegment(encryptedStreamSupplier, previousSegmentOffset);
+        if (segmentStream == null) {
+            throw new RuntimeException(
+                    "Failed to decrypt the data. The offset is beyond the end of the data, or the encrypted data was truncated.");
+        }
+        SegmentedDecryptionStream decryptionStream =
+                new SegmentedDecryptionStream(
+                        segmentStream, segmentCipher, encryptionHeader, segmentStart - 1, false);
+        try {
+            decryptionStream.skip(1);
+        } catch (IOException | RuntimeException e) {
+            decryptionStream.close();
+            throw e;
+        }
+        return new WithEncryptionHeader<>(decryptionStream, encryptionHeader);
+    }
+
+    /**
+     * Opens the encrypted data at the given offset.
+     * @return the encrypted data, or null if there is no data at the offset
+     */
+    private static InputStream openSegment(
+            Function<Long, InputStream> encryptedStreamSupplier, long encryptedOffset)
+            throws IOException {
+        PushbackInputStream segmentStream =
+                new PushbackInputStream(encryptedStreamSupplier.apply(encryptedOffset));
+        int next = segmentStream.read();
+        if (next == -1) {
+            segmentStream.close();
+            return null;
+        }
+        segmentStream.unread(next);
+        return segmentStream;
+    }
+
     public OciCryptoResult decrypt(byte[] dataWithHeader) throws IOException {
         ByteArrayInputStream decryptInputStream = new ByteArrayInputStream(dataWithHeader);
         EncryptionHeader encryptionHeader = serializeHeader.readHeader(decryptInputStream);
-        KmsMasterKey kmsMasterKey = createDecryptionKmsMasterKey(encryptionHeader);
-        Cipher cipher =
-                initCipher(
-                        Cipher.DECRYPT_MODE,
-                        getSecretKeySpec(encryptionHeader, kmsMasterKey),
-                        encryptionHeader);
+        SecretKeySpec dataKeySpec = getSecretKeySpec(encryptionHeader);
+        if (encryptionHeader.isSegmented()) {
+            SegmentedDecryptionStream inputStream =
+                    new SegmentedDecryptionStream(
+                            decryptInputStream,
+                            createSegmentCipher(dataKeySpec, encryptionHeader),
+                            encryptionHeader);
+            ByteArrayOutputStream outputStream =
+                    new ByteArrayOutputStream(decryptInputStream.available());
+            byte[] buffer = new byte[1024 * 16];
+            int length;
+            while ((length = inputStream.read(buffer)) != -1) {
+                outputStream.write(buffer, 0, length);
+            }
+            return new OciCryptoResult(outputStream.toByteArray(), encryptionHeader);
+        }
+        Cipher cipher = initCipher(Cipher.DECRYPT_MODE, dataKeySpec, encryptionHeader);
         DecryptionStream inputStream =
                 new DecryptionStream(decryptInputStream, cipher, encryptionHeader);
         return new OciCryptoResult(inputStream.decrypt(), encryptionHeader);
     }
 
+    private SecretKeySpec getSecretKeySpec(final EncryptionHeader encryptionHeader) {
+        // the master key is only needed if the data key is not cached by the provider
+        return super.getSecretKeySpec(
+                encryptionHeader, () -> createDecryptionKmsMasterKey(encryptionHeader));
+    }
+
+    private SegmentCipher createSegmentCipher(
+            SecretKeySpec dataKeySpec, EncryptionHeader encryptionHeader) {
+        return new SegmentCipher(
+                cipher,
+                Cipher.DECRYPT_MODE,
+                dataKeySpec,
+                encryptionHeader,
+                provider.getCryptoAlgorithm());
+    }
+
     /**
      *  If this key provider already has the KMSMasterKey that was requested, it will return it.
      *  If it does not have a representation of the KMSMasterKey locally, it will attempt to
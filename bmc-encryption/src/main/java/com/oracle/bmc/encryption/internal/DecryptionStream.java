@@ -36,24 +36,39 @@ public class DecryptionStream extends OciCryptoInputStream {
      * if there is no more data because the end of the stream has been reached.
      */
     public int read(byte[] b) throws IOException {
+        return read(b, 0, b.length);
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
         if (!isInputStreamDecrypted) {
             byte[] result = decrypt();
             decryptInputStream = new ByteArrayInputStream(result);
             isInputStreamDecrypted = true;
         }
         // read the decrypted stream
-        return decryptInputStream.read(b);
+        return decryptInputStream.read(b, off, len);
     }
 
     protected byte[] decrypt() throws IOException {
+        // GCM only releases the plaintext once the tag has been verified, so the cipher buffers
+        // the ciphertext itself; passing it through update avoids a second copy here
         ByteArrayOutputStream bBuffer = new ByteArrayOutputStream();
         byte[] buffer = new byte[1024 * 16];
         int length = 0;
         try {
             while ((length = inputStream.read(buffer)) != -1) {
-                bBuffer.write(buffer, 0, length);
+                byte[] output = cipher.update(buffer, 0, length);
+                if (output != null) {
+                    bBuffer.write(output);
+                }
+            }
+            byte[] output = cipher.doFinal();
+            if (bBuffer.size() == 0) {
+                return output;
             }
-            return cipher.doFinal(bBuffer.toByteArray());
+            bBuffer.write(output);
+            return bBuffer.toByteArray();
         } catch (BadPaddingException | IllegalBlockSizeException e) {
             throw new RuntimeException("Failed to decrypt the data. ", e);
         }
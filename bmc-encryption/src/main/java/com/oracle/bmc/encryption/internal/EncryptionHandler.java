@@ -37,7 +37,7 @@ public class EncryptionHandler extends CipherHandler {
 
     public WithEncryptionHeader<OciCryptoInputStream> getEncryptInputStream(
             final InputStream inputStream, final Map<String, String> context) {
-        DataKey dataKey = super.generateDataKey();
+        DataKey dataKey = super.generateDataKey(-1, context);
         EncryptionHeader encryptionHeader =
                 serializeHeader.createHeader(dataKey, super.generateIV(), context);
         Cipher cipher =
@@ -46,9 +46,34 @@ public class EncryptionHandler extends CipherHandler {
                 new EncryptionStream(inputStream, cipher, encryptionHeader), encryptionHeader);
     }
 
+    public WithEncryptionHeader<OciCryptoInputStream> getEncryptInputStream(
+            final InputStream inputStream, final Map<String, String> context, int segmentSize) {
+        if (!SegmentCipher.isValidSegmentSize(segmentSize)) {
+            throw new IllegalArgumentException(
+                    "Segment size must be between "
+                            + SegmentCipher.MIN_SEGMENT_SIZE
+                            + " and "
+                            + SegmentCipher.MAX_SEGMENT_SIZE
+                            + " bytes");
+        }
+        DataKey dataKey = super.generateDataKey(-1, context);
+        EncryptionHeader encryptionHeader =
+                serializeHeader.createHeader(dataKey, super.generateIV(), context, segmentSize);
+        SegmentCipher segmentCipher =
+                new SegmentCipher(
+                        cipher,
+                        Cipher.ENCRYPT_MODE,
+                        generateSecretKeySpec(dataKey),
+                        encryptionHeader,
+                        provider.getCryptoAlgorithm());
+        return new WithEncryptionHeader<>(
+                new SegmentedEncryptionStream(inputStream, segmentCipher, encryptionHeader),
+                encryptionHeader);
+    }
+
     public OciCryptoResult encrypt(byte[] data, final Map<String, String> context)
             throws IOException {
-        DataKey dataKey = super.generateDataKey();
+        DataKey dataKey = super.generateDataKey(data.length, context);
         EncryptionHeader encryptionHeader =
                 serializeHeader.createHeader(dataKey, super.generateIV(), context);
 
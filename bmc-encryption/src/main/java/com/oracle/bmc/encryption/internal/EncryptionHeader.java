@@ -5,6 +5,7 @@
 package com.oracle.bmc.encryption.internal;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.oracle.bmc.encryption.internal.EncryptionKey;
@@ -17,6 +18,10 @@ public class EncryptionHeader {
     private String additionalAuthenticatedData;
     private List<EncryptionKey> encryptedDataKeys = new ArrayList<>();
     private String iv;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Integer segmentSize;
+
     private byte[] headerBytes;
 
     public void setEncryptionHeader(
@@ -65,4 +70,21 @@ public class EncryptionHeader {
     public String getIV() {
         return iv;
     }
+
+    /**
+     * Number of plaintext bytes per segment, or null if the data is not segmented.
+     * @see SegmentCipher
+     */
+    public Integer getSegmentSize() {
+        return segmentSize;
+    }
+
+    public void setSegmentSize(Integer segmentSize) {
+        this.segmentSize = segmentSize;
+    }
+
+    @JsonIgnore
+    public boolean isSegmented() {
+        return segmentSize != null;
+    }
 }
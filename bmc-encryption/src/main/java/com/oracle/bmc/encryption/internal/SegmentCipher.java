@@ -0,0 +1,141 @@
+/**
+ * Copyright (c) 2016, 2021, Oracle and/or its affiliates.  All rights reserved.
+ * This software is dual-licensed to you under the Universal Permissive License (UPL) 1.0 as shown at https://oss.oracle.com/licenses/upl or Apache License 2.0 as shown at http://www.apache.org/licenses/LICENSE-2.0. You may choose either license.
+ */
+package com.oracle.bmc.encryption.internal;
+
+import java.nio.ByteBuffer;
+import java.security.GeneralSecurityException;
+import javax.crypto.Cipher;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+
+/**
+ * Encrypts and decrypts the segments of the segmented format.
+ * <p>
+ * In the segmented format, the data following the header is split into segments of
+ * {@link EncryptionHeader#getSegmentSize()} plaintext bytes (the last segment may be shorter, and
+ * is empty only if the data is empty).  Every segment is encrypted on its own and followed by its
+ * own authentication tag, so segments can be decrypted and verified one at a time, in any order.
+ * <p>
+ * The IV of a segment is the IV from the header with the segment index XOR-ed into its last 8
+ * bytes.  The additional authenticated data of a segment is the encryption context, followed by
+ * the segment index (8 bytes) and a flag (1 byte) marking the last segment, which prevents
+ * reordering and truncation of segments.
+ */
+public class SegmentCipher {
+    /**
+     * Default number of plaintext bytes per segment.
+     */
+    public static final int DEFAULT_SEGMENT_SIZE = 64 * 1024;
+
+    /**
+     * Minimum number of plaintext bytes per segment.
+     */
+    public static final int MIN_SEGMENT_SIZE = 1024;
+
+    /**
+     * Maximum number of plaintext bytes per segment.  The segment size is read from the header, and
+     * a segment is buffered in memory, so larger segments are rejected.
+     */
+    public static final int MAX_SEGMENT_SIZE = 4 * 1024 * 1024;
+
+    private final Cipher cipher;
+    private final int mode;
+    private final SecretKeySpec dataKeySpec;
+    private final byte[] iv;
+    private final byte[] context;
+    private final int tagLen;
+    private final int segmentSize;
+    private final int headerLength;
+
+    public SegmentCipher(
+            Cipher cipher,
+            int mode,
+            SecretKeySpec dataKeySpec,
+            EncryptionHeader encryptionHeader,
+            CryptoAlgorithm cryptoAlgorithm) {
+        this.cipher = cipher;
+        this.mode = mode;
+        this.dataKeySpec = dataKeySpec;
+        this.iv = encryptionHeader.getIvBytes();
+        String aad = encryptionHeader.getAdditionalAuthenticatedData();
+        this.context = aad == null ? new byte[0] : aad.getBytes();
+        this.tagLen = cryptoAlgorithm.getTagLen();
+        this.segmentSize = encryptionHeader.getSegmentSize();
+        this.headerLength = encryptionHeader.getHeaderBytes().length;
+        if (iv.length < 8) {
+            throw new IllegalArgumentException("IV is too short for the segmented format");
+        }
+        if (!isValidSegmentSize(segmentSize)) {
+            throw new IllegalArgumentException("Invalid segment size: " + segmentSize);
+        }
+    }
+
+    /**
+     * Encrypts or decrypts one segment.
+     * @param segmentIndex index of the segment
+     * @param isFinal true if this is the last segment
+     * @param input the plaintext (encryption) or the ciphertext and tag (decryption)
+     * @param inputLen number of bytes in input
+     * @param output buffer for the result, at least {@link #getEncryptedSegmentSize()} bytes
+     * @return number of bytes written to output
+     * @throws GeneralSecurityException if the segment could not be processed, for example if
+     *      its tag does not match
+     */
+    public int process(
+            long segmentIndex, boolean isFinal, byte[] input, int inputLen, byte[] output)
+            throws GeneralSecurityException {
+        byte[] segmentIv = iv.clone();
+        for (int i = 0; i < 8; i++) {
+            segmentIv[segmentIv.length - 1 - i] ^= (byte) (segmentIndex >>> (8 * i));
+        }
+        ByteBuffer aad = ByteBuffer.allocate(context.length + 9);
+        aad.put(context).putLong(segmentIndex).put(isFinal ? (byte) 1 : (byte) 0);
+
+        cipher.init(mode, dataKeySpec, new GCMParameterSpec(tagLen * 8, segmentIv));
+        cipher.updateAAD(aad.array());
+        return cipher.doFinal(input, 0, inputLen, output, 0);
+    }
+
+    /**
+     * Returns true if the segment size is between {@link #MIN_SEGMENT_SIZE} and
+     * {@link #MAX_SEGMENT_SIZE}.
+     * @param segmentSize number of plaintext bytes per segment
+     * @return true if the segment size may be used
+     */
+    public static boolean isValidSegmentSize(int segmentSize) {
+        return segmentSize >= MIN_SEGMENT_SIZE && segmentSize <= MAX_SEGMENT_SIZE;
+    }
+
+    /**
+     * @return number of plaintext bytes per segment
+     */
+    public int getSegmentSize() {
+        return segmentSize;
+    }
+
+    /**
+     * @return number of bytes of a full encrypted segment, including its tag
+     */
+    public int getEncryptedSegmentSize() {
+        return segmentSize + tagLen;
+    }
+
+    /**
+     * @return number of bytes of the tag that follows every encrypted segment
+     */
+    public int getTagLen() {
+        return tagLen;
+    }
+
+    /**
+     * Returns the offset, in the encrypted data including the header, of the segment that contains
+     * the given plaintext offset.
+     * @param plaintextOffset offset in the plaintext
+     * @return offset of the encrypted segment
+     */
+    public long getEncryptedOffset(long plaintextOffset) {
+        return headerLength + (plaintextOffset / segmentSize) * getEncryptedSegmentSize();
+    }
+}
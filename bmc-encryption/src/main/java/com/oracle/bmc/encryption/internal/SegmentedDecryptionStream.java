@@ -0,0 +1,160 @@
+/**
+ * Copyright (c) 2016, 2021, Oracle and/or its affiliates.  All rights reserved.
+ * This software is dual-licensed to you under the Universal Permissive License (UPL) 1.0 as shown at https://oss.oracle.com/licenses/upl or Apache License 2.0 as shown at http://www.apache.org/licenses/LICENSE-2.0. You may choose either license.
+ */
+package com.oracle.bmc.encryption.internal;
+
+import com.oracle.bmc.encryption.OciCryptoInputStream;
+
+import javax.crypto.AEADBadTagException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PushbackInputStream;
+import java.security.GeneralSecurityException;
+
+/**
+ * Decrypts a stream in the segmented format, see {@link SegmentCipher}.  Only one segment is held in
+ * memory at a time, and every segment is verified before any of its bytes are returned.
+ * <p>
+ * The stream may also start at a segment other than the first one, to decrypt the data from an
+ * offset.  A stream created for a range may end before the last segment; any other stream must end
+ * with the segment marked as the last one.
+ */
+public class SegmentedDecryptionStream extends OciCryptoInputStream {
+    private final PushbackInputStream inputStream;
+    private final SegmentCipher segmentCipher;
+    private final boolean isRange;
+    private final byte[] ciphertext;
+    private final byte[] plaintext;
+    private int position = 0;
+    private int limit = 0;
+    private long segmentIndex;
+    private int bytesToSkip;
+    private boolean isFinalSegmentDecrypted = false;
+
+    /**
+     * Create a stream that decrypts all segments.
+     * @param inputStream the encrypted data, following the header
+     * @param segmentCipher the cipher for the segments
+     * @param header the header of the encrypted data
+     */
+    public SegmentedDecryptionStream(
+            final InputStream inputStream, SegmentCipher segmentCipher, EncryptionHeader header) {
+        this(inputStream, segmentCipher, header, 0L, false);
+    }
+
+    /**
+     * Create a stream that decrypts the segments starting at the segment that contains the given
+     * plaintext offset.
+     * @param inputStream the encrypted data, starting at
+     *      {@link SegmentCipher#getEncryptedOffset(long)} for the plaintext offset
+     * @param segmentCipher the cipher for the segments
+     * @param header the header of the encrypted data
+     * @param plaintextOffset offset of the first byte to return
+     * @param isRange true if the encrypted data may end before the last segment
+     */
+    public SegmentedDecryptionStream(
+            final InputStream inputStream,
+            SegmentCipher segmentCipher,
+            EncryptionHeader header,
+            long plaintextOffset,
+            boolean isRange) {
+        super(header);
+        this.inputStream = new PushbackInputStream(inputStream);
+        this.segmentCipher = segmentCipher;
+        this.isRange = isRange;
+        this.ciphertext = new byte[segmentCipher.getEncryptedSegmentSize()];
+        this.plaintext = new byte[segmentCipher.getEncryptedSegmentSize()];
+        this.segmentIndex = plaintextOffset / segmentCipher.getSegmentSize();
+        this.bytesToSkip = (int) (plaintextOffset % segmentCipher.getSegmentSize());
+    }
+
+    /**
+     * Reads up to len bytes of data from the input stream into
+     * an array of bytes.  An attempt is made to read as many as
+     * len bytes, but a smaller number may be read.
+     * The number of bytes actually read is returned as an integer.
+     *
+     * @param b The buffer into which the data is read.
+     * @param off The start offset in b.
+     * @param len The maximum number of bytes to read.
+     * @return The total number of bytes read into the buffer, or -1
+     * if there is no more data because the end of the stream has been reached.
+     */
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        while (position == limit) {
+            if (isFinalSegmentDecrypted || !decryptNextSegment()) {
+                return -1;
+            }
+        }
+        int result = Math.min(len, limit - position);
+        System.arraycopy(plaintext, position, b, off, result);
+        position += result;
+        return result;
+    }
+
+    /**
+     * Decrypts the next segment.  Unless the stream is a range, the data must end with the segment
+     * marked as the last one, so data truncated at a segment boundary is rejected.
+     * @return false if a range ended before the last segment
+     */
+    private boolean decryptNextSegment() throws IOException {
+        int ciphertextLength = SegmentedEncryptionStream.readFully(inputStream, ciphertext);
+        if (ciphertextLength == 0 && isRange) {
+            // the range ended
+            return false;
+        }
+        if (ciphertextLength < segmentCipher.getTagLen()) {
+            throw new RuntimeException(
+                    "Failed to decrypt the data. Encrypted data ended unexpectedly.");
+        }
+        boolean isFinal = ciphertextLength < ciphertext.length;
+        if (!isFinal) {
+            int next = inputStream.read();
+            if (next == -1) {
+                isFinal = true;
+            } else {
+                inputStream.unread(next);
+            }
+        }
+
+        try {
+            if (isFinal && isRange && ciphertextLength == ciphertext.length) {
+                // a range may end at any full segment, and the data may not end there
+                try {
+                    limit = decrypt(ciphertextLength, false);
+                    isFinal = false;
+                } catch (AEADBadTagException e) {
+                    limit = decrypt(ciphertextLength, true);
+                }
+            } else {
+                limit = decrypt(ciphertextLength, isFinal);
+            }
+        } catch (GeneralSecurityException e) {
+            throw new RuntimeException("Failed to decrypt the data. ", e);
+        }
+        position = Math.min(bytesToSkip, limit);
+        bytesToSkip = 0;
+        segmentIndex++;
+        isFinalSegmentDecrypted = isFinal;
+        return true;
+    }
+
+    private int decrypt(int ciphertextLength, boolean isFinal) throws GeneralSecurityException {
+        return segmentCipher.process(
+                segmentIndex, isFinal, ciphertext, ciphertextLength, plaintext);
+    }
+
+    /**
+     * Close the InputStream
+     * @throws IOException
+     */
+    @Override
+    public void close() throws IOException {
+        inputStream.close();
+    }
+}
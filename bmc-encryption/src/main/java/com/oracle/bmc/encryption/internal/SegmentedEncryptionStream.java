@@ -0,0 +1,120 @@
+/**
+ * Copyright (c) 2016, 2021, Oracle and/or its affiliates.  All rights reserved.
+ * This software is dual-licensed to you under the Universal Permissive License (UPL) 1.0 as shown at https://oss.oracle.com/licenses/upl or Apache License 2.0 as shown at http://www.apache.org/licenses/LICENSE-2.0. You may choose either license.
+ */
+package com.oracle.bmc.encryption.internal;
+
+import com.oracle.bmc.encryption.OciCryptoInputStream;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PushbackInputStream;
+import java.security.GeneralSecurityException;
+
+/**
+ * Encrypts a stream in the segmented format, see {@link SegmentCipher}.  Only one segment is held in
+ * memory at a time.
+ */
+public class SegmentedEncryptionStream extends OciCryptoInputStream {
+    private final PushbackInputStream inputStream;
+    private final SegmentCipher segmentCipher;
+    private final ByteArrayInputStream headerBuffer;
+    private final byte[] plaintext;
+    private final byte[] ciphertext;
+    private int position = 0;
+    private int limit = 0;
+    private long segmentIndex = 0;
+    private boolean isFinalSegmentEncrypted = false;
+
+    public SegmentedEncryptionStream(
+            final InputStream inputStream,
+            SegmentCipher segmentCipher,
+            final EncryptionHeader header) {
+        super(header);
+        this.inputStream = new PushbackInputStream(inputStream);
+        this.segmentCipher = segmentCipher;
+        this.headerBuffer = new ByteArrayInputStream(header.getHeaderBytes());
+        this.plaintext = new byte[segmentCipher.getSegmentSize()];
+        this.ciphertext = new byte[segmentCipher.getEncryptedSegmentSize()];
+    }
+
+    /**
+     * Reads up to len bytes of data from the input stream into
+     * an array of bytes.  An attempt is made to read as many as
+     * len bytes, but a smaller number may be read.
+     * The number of bytes actually read is returned as an integer.
+     *
+     * @param b The buffer into which the data is read.
+     * @param off The start offset in b.
+     * @param len The maximum number of bytes to read.
+     * @return The total number of bytes read into the buffer, or -1
+     * if there is no more data because the end of the stream has been reached.
+     */
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        // Read the header first unencrypted
+        int result = headerBuffer.read(b, off, len);
+        if (result != -1) {
+            return result;
+        }
+        if (position == limit) {
+            if (isFinalSegmentEncrypted) {
+                return -1;
+            }
+            encryptNextSegment();
+        }
+        result = Math.min(len, limit - position);
+        System.arraycopy(ciphertext, position, b, off, result);
+        position += result;
+        return result;
+    }
+
+    private void encryptNextSegment() throws IOException {
+        int plaintextLength = readFully(inputStream, plaintext);
+        boolean isFinal = plaintextLength < plaintext.length;
+        if (!isFinal) {
+            // a full segment is the last one if there is no more data
+            int next = inputStream.read();
+            if (next == -1) {
+                isFinal = true;
+            } else {
+                inputStream.unread(next);
+            }
+        }
+        try {
+            limit =
+                    segmentCipher.process(
+                            segmentIndex, isFinal, plaintext, plaintextLength, ciphertext);
+        } catch (GeneralSecurityException e) {
+            throw new RuntimeException("Failed to encrypt the data. ", e);
+        }
+        position = 0;
+        segmentIndex++;
+        isFinalSegmentEncrypted = isFinal;
+    }
+
+    static int readFully(InputStream inputStream, byte[] buffer) throws IOException {
+        int total = 0;
+        while (total < buffer.length) {
+            int bytesRead = inputStream.read(buffer, total, buffer.length - total);
+            if (bytesRead == -1) {
+                break;
+            }
+            total += bytesRead;
+        }
+        return total;
+    }
+
+    /**
+     * Close the InputStream
+     * @throws IOException
+     */
+    @Override
+    public void close() throws IOException {
+        inputStream.close();
+    }
+}
@@ -20,6 +20,7 @@ public class SerializeHeader {
     private final MasterKeyProvider provider;
     private final static int INITIAL_OFFSET = 6; //version(short) + header_size(int)
     private final static short VERSION = 1;
+    private final static short SEGMENTED_VERSION = 2;
 
     public SerializeHeader(MasterKeyProvider provider) {
         this.provider = provider;
@@ -28,11 +29,21 @@ public class SerializeHeader {
     // Encryption Header
     public EncryptionHeader createHeader(
             DataKey dataKey, byte[] IVbytes, Map<String, String> context) {
+        return createHeader(dataKey, IVbytes, context, null);
+    }
+
+    /**
+     * Create the header for the segmented format if a segment size is given, otherwise for the
+     * format that encrypts all data at once.
+     */
+    public EncryptionHeader createHeader(
+            DataKey dataKey, byte[] IVbytes, Map<String, String> context, Integer segmentSize) {
         EncryptionHeader encryptionHeader = createEncryptionHeader(dataKey, IVbytes, context);
+        encryptionHeader.setSegmentSize(segmentSize);
         String jsonHeader = serializeJsonHeader(encryptionHeader);
         int headerLength = jsonHeader.getBytes().length;
         ByteBuffer buffer = ByteBuffer.allocate(INITIAL_OFFSET + headerLength);
-        buffer.putShort(VERSION);
+        buffer.putShort(segmentSize != null ? SEGMENTED_VERSION : VERSION);
         buffer.putInt(headerLength);
         buffer.put(jsonHeader.getBytes());
         byte[] headerBytes = buffer.array();
@@ -92,39 +103,67 @@ public class SerializeHeader {
         byte[] readHeaderIntroBytes = new byte[INITIAL_OFFSET];
         readBytesFromStream(decryptInputStream, readHeaderIntroBytes);
 
+        short version = getVersion(readHeaderIntroBytes);
         int jsonHeaderSize = getHeaderSize(readHeaderIntroBytes);
 
         // Read header Json
         byte[] jsonHeaderBytes = new byte[jsonHeaderSize];
         readBytesFromStream(decryptInputStream, jsonHeaderBytes);
 
-        return deserializeJsonHeader(jsonHeaderBytes);
+        EncryptionHeader encryptionHeader = deserializeJsonHeader(jsonHeaderBytes);
+        if (encryptionHeader.isSegmented() != (version == SEGMENTED_VERSION)
+                || (encryptionHeader.isSegmented()
+                        && !SegmentCipher.isValidSegmentSize(encryptionHeader.getSegmentSize()))) {
+            throw new RuntimeException(
+                    "Encryption header has an invalid segment size for version "
+                            + version
+                            + ". Check if this encrypted file has the correct format.");
+        }
+        encryptionHeader.setHeaderBytes(
+                ByteBuffer.allocate(INITIAL_OFFSET + jsonHeaderSize)
+                        .put(readHeaderIntroBytes)
+                        .put(jsonHeaderBytes)
+                        .array());
+        return encryptionHeader;
     }
 
     public int getHeaderSize(byte[] data) {
-        ByteBuffer introHeader = ByteBuffer.wrap(data);
-        short version = introHeader.getShort();
-        if (version != VERSION) {
+        getVersion(data);
+        int size = ByteBuffer.wrap(data).getInt(Short.BYTES);
+        if (size <= 0) {
+            throw new RuntimeException(
+                    "Failed to read a valid encryption header size. Check if this encrypted file has the correct format.");
+        }
+        return size;
+    }
+
+    private short getVersion(byte[] data) {
+        short version = ByteBuffer.wrap(data).getShort();
+        if (version != VERSION && version != SEGMENTED_VERSION) {
             throw new RuntimeException(
                     "Encryption header from the encrypted file ("
                             + version
-                            + ") doesn't match expected version ("
+                            + ") doesn't match expected versions ("
                             + VERSION
+                            + ", "
+                            + SEGMENTED_VERSION
                             + "). Check if this encrypted file has the correct format.");
         }
-        int size = introHeader.getInt();
-        if (size <= 0) {
-            throw new RuntimeException(
-                    "Failed to read a valid encryption header size. Check if this encrypted file has the correct format.");
-        }
-        return size;
+        return version;
     }
 
     private int readBytesFromStream(final InputStream decryptInputStream, byte[] readBytes)
             throws IOException {
-        int readResult = decryptInputStream.read(readBytes);
-        if (readResult <= 0) {
-            throw new RuntimeException("Failed to read header from stream. Reached end of stream.");
+        // streams may return fewer bytes than requested, for example when reading from the network
+        int readResult = 0;
+        while (readResult < readBytes.length) {
+            int bytesRead =
+                    decryptInputStream.read(readBytes, readResult, readBytes.length - readResult);
+            if (bytesRead == -1) {
+                throw new RuntimeException(
+                        "Failed to read header from stream. Reached end of stream.");
+            }
+            readResult += bytesRead;
         }
         return readResult;
     }
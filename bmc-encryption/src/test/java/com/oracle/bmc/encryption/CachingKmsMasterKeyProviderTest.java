@@ -0,0 +1,209 @@
+/**
+ * Copyright (c) 2016, 2021, Oracle and/or its affiliates.  All rights reserved.
+ * This software is dual-licensed to you under the Universal Permissive License (UPL) 1.0 as shown at https://oss.oracle.com/licenses/upl or Apache License 2.0 as shown at http://www.apache.org/licenses/LICENSE-2.0. You may choose either license.
+ */
+package com.oracle.bmc.encryption;
+
+import com.oracle.bmc.encryption.internal.DataKey;
+import com.oracle.bmc.encryption.internal.EncryptionKey;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+public class CachingKmsMasterKeyProviderTest {
+    private static final Map<String, String> CONTEXT_A = Collections.singletonMap("tenant", "a");
+    private static final Map<String, String> CONTEXT_B = Collections.singletonMap("tenant", "b");
+
+    private final TestMasterKeyProvider kms = new TestMasterKeyProvider();
+    private final KmsMasterKeyProvider delegate = new KmsMasterKeyProvider(kms.getMasterKey());
+    private final AtomicLong nanos = new AtomicLong();
+
+    private CachingKmsMasterKeyProvider provider(
+            Long maxMessagesPerDataKey,
+            Long maxBytesPerDataKey,
+            Integer maxDataKeys,
+            Integer maxDecryptedDataKeys) {
+        return new CachingKmsMasterKeyProvider(
+                delegate,
+                Duration.ofMinutes(5),
+                maxMessagesPerDataKey,
+                maxBytesPerDataKey,
+                maxDataKeys,
+                maxDecryptedDataKeys,
+                null,
+                nanos::get);
+    }
+
+    private CachingKmsMasterKeyProvider provider() {
+        return provider(null, null, null, null);
+    }
+
+    @Test
+    public void generatedDataKeyIsReused() {
+        CachingKmsMasterKeyProvider provider = provider();
+        DataKey first = provider.generateDataKey(100, CONTEXT_A);
+        DataKey second = provider.generateDataKey(100, CONTEXT_A);
+
+        assertEquals(first, second);
+        assertEquals(1, kms.getGeneratedDataKeys());
+        CachingKmsMasterKeyProvider.Statistics statistics = provider.getStatistics();
+        assertEquals(1, statistics.getDataKeyHits());
+        assertEquals(1, statistics.getDataKeyMisses());
+        assertEquals(1, statistics.getCachedDataKeys());
+    }
+
+    @Test
+    public void decryptedDataKeyIsCached() {
+        CachingKmsMasterKeyProvider provider = provider();
+        DataKey generatedElsewhere = kms.getMasterKey().generateDataEncryptionKey(null);
+        EncryptionKey encryptionKey = encryptionKey(generatedElsewhere);
+
+        assertEquals(
+                generatedElsewhere.getPlaintext(),
+                provider.decryptDataKey(encryptionKey, kms::getMasterKey));
+        assertEquals(
+                generatedElsewhere.getPlaintext(),
+                provider.decryptDataKey(encryptionKey, kms::getMasterKey));
+        assertEquals(1, kms.getDecryptedDataKeys());
+
+        // keys generated by the provider are cached for decryption as well
+        DataKey generated = provider.generateDataKey(100, null);
+        assertEquals(
+                generated.getPlaintext(),
+                provider.decryptDataKey(encryptionKey(generated), kms::getMasterKey));
+        assertEquals(1, kms.getDecryptedDataKeys());
+
+        CachingKmsMasterKeyProvider.Statistics statistics = provider.getStatistics();
+        assertEquals(2, statistics.getDecryptedDataKeyHits());
+        assertEquals(1, statistics.getDecryptedDataKeyMisses());
+    }
+
+    @Test
+    public void dataKeysExpireByAge() {
+        CachingKmsMasterKeyProvider provider = provider();
+        DataKey first = provider.generateDataKey(100, null);
+        nanos.addAndGet(TimeUnit.MINUTES.toNanos(5) - 1);
+        assertEquals(first, provider.generateDataKey(100, null));
+        assertEquals(
+                first.getPlaintext(),
+                provider.decryptDataKey(encryptionKey(first), kms::getMasterKey));
+        assertEquals(0, kms.getDecryptedDataKeys());
+
+        nanos.incrementAndGet();
+        assertNotEquals(first, provider.generateDataKey(100, null));
+        assertEquals(2, kms.getGeneratedDataKeys());
+        assertEquals(
+                first.getPlaintext(),
+                provider.decryptDataKey(encryptionKey(first), kms::getMasterKey));
+        assertEquals(1, kms.getDecryptedDataKeys());
+    }
+
+    @Test
+    public void dataKeysExpireByMessageCount() {
+        CachingKmsMasterKeyProvider provider =
+                CachingKmsMasterKeyProvider.builder().delegate(delegate).build();
+        DataKey first = provider.generateDataKey(100, null);
+        for (int i = 1; i < 1000; i++) {
+            assertEquals(first, provider.generateDataKey(100, null));
+        }
+        assertEquals(1, kms.getGeneratedDataKeys());
+        assertNotEquals(first, provider.generateDataKey(100, null));
+        assertEquals(2, kms.getGeneratedDataKeys());
+
+        CachingKmsMasterKeyProvider limited = provider(2L, null, null, null);
+        DataKey limitedFirst = limited.generateDataKey(100, null);
+        assertEquals(limitedFirst, limited.generateDataKey(100, null));
+        assertNotEquals(limitedFirst, limited.generateDataKey(100, null));
+    }
+
+    @Test
+    public void dataKeysExpireByByteCount() {
+        CachingKmsMasterKeyProvider provider = provider(null, 1000L, null, null);
+        DataKey first = provider.generateDataKey(600, null);
+        assertEquals(first, provider.generateDataKey(400, null));
+        assertNotEquals(first, provider.generateDataKey(1, null));
+
+        // streams have no known length, so they do not reuse data keys with a byte limit
+        DataKey stream = provider.generateDataKey(-1, null);
+        assertNotEquals(stream, provider.generateDataKey(-1, null));
+    }
+
+    @Test
+    public void dataKeysAreCachedPerContext() {
+        CachingKmsMasterKeyProvider provider = provider();
+        DataKey a = provider.generateDataKey(100, CONTEXT_A);
+        DataKey b = provider.generateDataKey(100, CONTEXT_B);
+        DataKey none = provider.generateDataKey(100, null);
+
+        assertNotEquals(a, b);
+        assertNotEquals(a, none);
+        assertEquals(a, provider.generateDataKey(100, Collections.singletonMap("tenant", "a")));
+        assertEquals(b, provider.generateDataKey(100, CONTEXT_B));
+        assertEquals(none, provider.generateDataKey(100, Collections.emptyMap()));
+        assertEquals(3, kms.getGeneratedDataKeys());
+        assertEquals(3, provider.getStatistics().getCachedDataKeys());
+    }
+
+    @Test
+    public void leastRecentlyUsedKeysAreEvicted() {
+        CachingKmsMasterKeyProvider provider = provider(null, null, 2, 2);
+        DataKey a = provider.generateDataKey(100, CONTEXT_A);
+        DataKey b = provider.generateDataKey(100, CONTEXT_B);
+        assertEquals(a, provider.generateDataKey(100, CONTEXT_A));
+        provider.generateDataKey(100, null);
+
+        // b was used least recently
+        assertEquals(a, provider.generateDataKey(100, CONTEXT_A));
+        assertNotEquals(b, provider.generateDataKey(100, CONTEXT_B));
+        assertEquals(4, kms.getGeneratedDataKeys());
+        assertEquals(2, provider.getStatistics().getCachedDataKeys());
+
+        // the decrypted data keys of a and b were evicted by the later keys
+        provider.decryptDataKey(encryptionKey(a), kms::getMasterKey);
+        provider.decryptDataKey(encryptionKey(b), kms::getMasterKey);
+        assertEquals(2, kms.getDecryptedDataKeys());
+        assertEquals(2, provider.getStatistics().getCachedDecryptedDataKeys());
+    }
+
+    @Test
+    public void clearCachesRemovesAllKeys() {
+        CachingKmsMasterKeyProvider provider = provider();
+        DataKey first = provider.generateDataKey(100, null);
+        provider.clearCaches();
+
+        assertEquals(0, provider.getStatistics().getCachedDataKeys());
+        assertEquals(0, provider.getStatistics().getCachedDecryptedDataKeys());
+        assertNotEquals(first, provider.generateDataKey(100, null));
+        assertEquals(2, kms.getGeneratedDataKeys());
+    }
+
+    @Test
+    public void messagesAreEncryptedAndDecryptedWithCachedKeys() throws IOException {
+        CachingKmsMasterKeyProvider provider = provider();
+        OciCrypto ociCrypto = new OciCrypto();
+        byte[] first = ociCrypto.encryptData(provider, new byte[] {1, 2, 3}, CONTEXT_A).getResult();
+        byte[] second = ociCrypto.encryptData(provider, new byte[] {4, 5}, CONTEXT_A).getResult();
+
+        assertArrayEquals(new byte[] {1, 2, 3}, ociCrypto.decryptData(provider, first).getResult());
+        assertArrayEquals(new byte[] {4, 5}, ociCrypto.decryptData(provider, second).getResult());
+        assertEquals(1, kms.getGeneratedDataKeys());
+        assertEquals(0, kms.getDecryptedDataKeys());
+    }
+
+    private static EncryptionKey encryptionKey(DataKey dataKey) {
+        return new EncryptionKey(
+                TestMasterKeyProvider.REGION,
+                TestMasterKeyProvider.VAULT_ID,
+                TestMasterKeyProvider.MASTER_KEY_ID,
+                dataKey.getCiphertext());
+    }
+}
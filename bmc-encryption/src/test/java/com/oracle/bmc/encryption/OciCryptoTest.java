@@ -0,0 +1,237 @@
+/**
+ * Copyright (c) 2016, 2021, Oracle and/or its affiliates.  All rights reserved.
+ * This software is dual-licensed to you under the Universal Permissive License (UPL) 1.0 as shown at https://oss.oracle.com/licenses/upl or Apache License 2.0 as shown at http://www.apache.org/licenses/LICENSE-2.0. You may choose either license.
+ */
+package com.oracle.bmc.encryption;
+
+import org.junit.Test;
+
+import javax.crypto.Cipher;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+public class OciCryptoTest {
+    private static final Map<String, String> CONTEXT =
+            Collections.singletonMap("purpose", "test");
+
+    private final OciCrypto ociCrypto = new OciCrypto();
+    private final TestMasterKeyProvider provider = new TestMasterKeyProvider();
+
+    @Test
+    public void segmentedRoundTrip() throws IOException {
+        for (int segmentSize : new int[] {1024, 4096, OciCrypto.DEFAULT_SEGMENT_SIZE}) {
+            for (int length :
+                    new int[] {
+                        0,
+                        1,
+                        segmentSize - 1,
+                        segmentSize,
+                        segmentSize + 1,
+                        3 * segmentSize,
+                        3 * segmentSize + 5
+                    }) {
+                byte[] data = randomBytes(length);
+                byte[] encrypted = encrypt(data, segmentSize);
+                assertEquals("version", 2, ByteBuffer.wrap(encrypted).getShort());
+                assertArrayEquals(
+                        "segment size " + segmentSize + ", length " + length,
+                        data,
+                        decrypt(encrypted));
+                assertArrayEquals(data, ociCrypto.decryptData(provider, encrypted).getResult());
+            }
+        }
+    }
+
+    @Test
+    public void segmentedDecryptionFromOffset() throws IOException {
+        int segmentSize = 1024;
+        for (int length : new int[] {0, 100, 2 * segmentSize, 3 * segmentSize + 5}) {
+            byte[] data = randomBytes(length);
+            byte[] encrypted = encrypt(data, segmentSize);
+            for (int offset :
+                    new int[] {
+                        0,
+                        1,
+                        segmentSize - 1,
+                        segmentSize,
+                        segmentSize + 7,
+                        2 * segmentSize,
+                        3 * segmentSize,
+                        3 * segmentSize + 4
+                    }) {
+                int segments = Math.max(1, (length + segmentSize - 1) / segmentSize);
+                if (offset / segmentSize > segments) {
+                    // more than a segment after the end, where truncation cannot be ruled out
+                    try {
+                        decryptFrom(encrypted, offset);
+                        fail("Offset " + offset + " should have been rejected");
+                    } catch (RuntimeException e) {
+                        // expected
+                    }
+                    continue;
+                }
+                byte[] expected =
+                        offset < length
+                                ? Arrays.copyOfRange(data, offset, length)
+                                : new byte[0];
+                assertArrayEquals(
+                        "length " + length + ", offset " + offset,
+                        expected,
+                        decryptFrom(encrypted, offset));
+            }
+        }
+    }
+
+    @Test
+    public void segmentedDecryptionFromOffsetReadsOnlyTheNeededSegments() throws IOException {
+        int segmentSize = 1024;
+        byte[] data = randomBytes(4 * segmentSize);
+        byte[] encrypted = encrypt(data, segmentSize);
+        int headerLength = encrypted.length - 4 * (segmentSize + 16);
+        long[] requestedOffset = new long[1];
+        try (InputStream decrypted =
+                ociCrypto.createDecryptingStream(
+                        provider,
+                        2 * segmentSize + 10,
+                        offset -> {
+                            requestedOffset[0] = offset;
+                            return new ByteArrayInputStream(
+                                    encrypted,
+                                    offset.intValue(),
+                                    encrypted.length - offset.intValue());
+                        })) {
+            assertArrayEquals(
+                    Arrays.copyOfRange(data, 2 * segmentSize + 10, data.length),
+                    readAll(decrypted));
+        }
+        assertEquals(headerLength + 2 * (segmentSize + 16), requestedOffset[0]);
+    }
+
+    @Test
+    public void invalidSegmentSizeIsRejected() {
+        for (int segmentSize : new int[] {0, 1023, 4 * 1024 * 1024 + 1}) {
+            try {
+                ociCrypto.createEncryptingStream(
+                        provider, new ByteArrayInputStream(new byte[0]), CONTEXT, segmentSize);
+                fail("Segment size " + segmentSize + " should have been rejected");
+            } catch (IllegalArgumentException e) {
+                // expected
+            }
+        }
+    }
+
+    @Test
+    public void unsegmentedRoundTrip() throws IOException {
+        byte[] data = randomBytes(10000);
+        byte[] encrypted = ociCrypto.encryptData(provider, data, CONTEXT).getResult();
+        assertEquals(1, ByteBuffer.wrap(encrypted).getShort());
+        assertArrayEquals(data, ociCrypto.decryptData(provider, encrypted).getResult());
+        assertArrayEquals(data, decrypt(encrypted));
+        assertArrayEquals(
+                Arrays.copyOfRange(data, 5000, data.length), decryptFrom(encrypted, 5000));
+    }
+
+    @Test
+    public void existingUnsegmentedFormatIsDecrypted() throws Exception {
+        // a message in the format written before the segmented format was added
+        Random random = new Random(42);
+        byte[] key = new byte[32];
+        random.nextBytes(key);
+        byte[] iv = new byte[96];
+        random.nextBytes(iv);
+        provider.addDataKey("v1-data-key", Base64.getEncoder().encodeToString(key));
+        String aad = "{\"purpose\":\"test\"}";
+        String json =
+                "{\"encryptedContentFormat\":0,\"algorithmId\":0,"
+                        + "\"additionalAuthenticatedData\":\"{\\\"purpose\\\":\\\"test\\\"}\","
+                        + "\"encryptedDataKeys\":[{\"region\":\""
+                        + TestMasterKeyProvider.REGION
+                        + "\",\"vaultId\":\""
+                        + TestMasterKeyProvider.VAULT_ID
+                        + "\",\"masterKeyId\":\""
+                        + TestMasterKeyProvider.MASTER_KEY_ID
+                        + "\",\"encryptedDataKey\":\"v1-data-key\"}],"
+                        + "\"iv\":\""
+                        + Base64.getEncoder().encodeToString(iv)
+                        + "\"}";
+        byte[] data = "Hello, existing format".getBytes(StandardCharsets.UTF_8);
+        Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding");
+        cipher.init(
+                Cipher.ENCRYPT_MODE, new SecretKeySpec(key, "AES"), new GCMParameterSpec(128, iv));
+        cipher.updateAAD(aad.getBytes(StandardCharsets.UTF_8));
+        byte[] ciphertext = cipher.doFinal(data);
+        byte[] jsonBytes = json.getBytes(StandardCharsets.UTF_8);
+        byte[] encrypted =
+                ByteBuffer.allocate(6 + jsonBytes.length + ciphertext.length)
+                        .putShort((short) 1)
+                        .putInt(jsonBytes.length)
+                        .put(jsonBytes)
+                        .put(ciphertext)
+                        .array();
+
+        OciCryptoResult result = ociCrypto.decryptData(provider, encrypted);
+        assertArrayEquals(data, result.getResult());
+        assertEquals(CONTEXT, result.getContext());
+        assertArrayEquals(data, decrypt(encrypted));
+    }
+
+    private byte[] encrypt(byte[] data, int segmentSize) throws IOException {
+        try (InputStream encrypting =
+                ociCrypto.createEncryptingStream(
+                        provider, new ByteArrayInputStream(data), CONTEXT, segmentSize)) {
+            return readAll(encrypting);
+        }
+    }
+
+    private byte[] decrypt(byte[] encrypted) throws IOException {
+        try (InputStream decrypting =
+                ociCrypto.createDecryptingStream(provider, new ByteArrayInputStream(encrypted))) {
+            return readAll(decrypting);
+        }
+    }
+
+    private byte[] decryptFrom(byte[] encrypted, long plaintextOffset) throws IOException {
+        try (InputStream decrypting =
+                ociCrypto.createDecryptingStream(
+                        provider,
+                        plaintextOffset,
+                        offset ->
+                                new ByteArrayInputStream(
+                                        encrypted,
+                                        offset.intValue(),
+                                        encrypted.length - offset.intValue()))) {
+            return readAll(decrypting);
+        }
+    }
+
+    static byte[] readAll(InputStream inputStream) throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        byte[] buffer = new byte[777];
+        int length;
+        while ((length = inputStream.read(buffer)) != -1) {
+            outputStream.write(buffer, 0, length);
+        }
+        return outputStream.toByteArray();
+    }
+
+    private static byte[] randomBytes(int length) {
+        byte[] bytes = new byte[length];
+        new Random(length).nextBytes(bytes);
+        return bytes;
+    }
+}
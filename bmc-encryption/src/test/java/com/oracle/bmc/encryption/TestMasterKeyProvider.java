@@ -0,0 +1,97 @@
+/**
+ * Copyright (c) 2016, 2021, Oracle and/or its affiliates.  All rights reserved.
+ * This software is dual-licensed to you under the Universal Permissive License (UPL) 1.0 as shown at https://oss.oracle.com/licenses/upl or Apache License 2.0 as shown at http://www.apache.org/licenses/LICENSE-2.0. You may choose either license.
+ */
+package com.oracle.bmc.encryption;
+
+import com.oracle.bmc.auth.AuthenticationDetailsProvider;
+import com.oracle.bmc.encryption.internal.CryptoAlgorithm;
+import com.oracle.bmc.encryption.internal.DataKey;
+
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * A provider for a master key that generates and decrypts data keys locally, and counts the calls
+ * that would go to KMS.
+ */
+public class TestMasterKeyProvider implements MasterKeyProvider<AuthenticationDetailsProvider> {
+    static final String REGION = "us-phoenix-1";
+    static final String VAULT_ID = "ocid1.vault.oc1..vault";
+    static final String MASTER_KEY_ID = "ocid1.key.oc1..key";
+
+    private final KmsMasterKey masterKey = mock(KmsMasterKey.class);
+    private final Map<String, String> dataKeys = new HashMap<>();
+    private final SecureRandom random = new SecureRandom();
+    private final AtomicInteger generatedDataKeys = new AtomicInteger();
+    private final AtomicInteger decryptedDataKeys = new AtomicInteger();
+
+    public TestMasterKeyProvider() {
+        when(masterKey.getRegion()).thenReturn(REGION);
+        when(masterKey.getVaultId()).thenReturn(VAULT_ID);
+        when(masterKey.getKmsMasterKeyId()).thenReturn(MASTER_KEY_ID);
+        when(masterKey.generateDataEncryptionKey(any(CryptoAlgorithm.class)))
+                .thenAnswer(
+                        invocation -> {
+                            generatedDataKeys.incrementAndGet();
+                            byte[] key = new byte[getCryptoAlgorithm().getDataKeyLen()];
+                            random.nextBytes(key);
+                            String plaintext = Base64.getEncoder().encodeToString(key);
+                            String ciphertext = "encrypted-" + generatedDataKeys.get();
+                            synchronized (dataKeys) {
+                                dataKeys.put(ciphertext, plaintext);
+                            }
+                            return new DataKey(ciphertext, plaintext, null);
+                        });
+        when(masterKey.decryptDataKey(anyString(), anyString()))
+                .thenAnswer(
+                        invocation -> {
+                            decryptedDataKeys.incrementAndGet();
+                            synchronized (dataKeys) {
+                                return dataKeys.get(invocation.getArguments()[0]);
+                            }
+                        });
+    }
+
+    /**
+     * Makes a data key known to the provider.
+     * @param ciphertext the encrypted data key, as stored in the header
+     * @param plaintext the base64 encoded data key
+     */
+    public void addDataKey(String ciphertext, String plaintext) {
+        synchronized (dataKeys) {
+            dataKeys.put(ciphertext, plaintext);
+        }
+    }
+
+    @Override
+    public KmsMasterKey getMasterKey() {
+        return masterKey;
+    }
+
+    @Override
+    public AuthenticationDetailsProvider getAuthenticationProvider() {
+        return null;
+    }
+
+    @Override
+    public CryptoAlgorithm getCryptoAlgorithm() {
+        return CryptoAlgorithm.AES_256_GCM_IV12_TAG16;
+    }
+
+    public int getGeneratedDataKeys() {
+        return generatedDataKeys.get();
+    }
+
+    public int getDecryptedDataKeys() {
+        return decryptedDataKeys.get();
+    }
+}
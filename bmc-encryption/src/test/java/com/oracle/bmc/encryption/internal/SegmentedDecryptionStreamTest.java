@@ -0,0 +1,204 @@
+/**
+ * Copyright (c) 2016, 2021, Oracle and/or its affiliates.  All rights reserved.
+ * This software is dual-licensed to you under the Universal Permissive License (UPL) 1.0 as shown at https://oss.oracle.com/licenses/upl or Apache License 2.0 as shown at http://www.apache.org/licenses/LICENSE-2.0. You may choose either license.
+ */
+package com.oracle.bmc.encryption.internal;
+
+import com.oracle.bmc.encryption.OciCrypto;
+import com.oracle.bmc.encryption.TestMasterKeyProvider;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.fail;
+
+public class SegmentedDecryptionStreamTest {
+    private static final int SEGMENT_SIZE = 1024;
+    private static final int ENCRYPTED_SEGMENT_SIZE = SEGMENT_SIZE + 16;
+
+    private final OciCrypto ociCrypto = new OciCrypto();
+    private final TestMasterKeyProvider provider = new TestMasterKeyProvider();
+
+    @Test
+    public void truncationAtSegmentBoundaryIsRejected() throws IOException {
+        byte[] encrypted = encrypt(3 * SEGMENT_SIZE + 5);
+        int headerLength = headerLength(encrypted);
+        assertRejected(Arrays.copyOf(encrypted, headerLength + 3 * ENCRYPTED_SEGMENT_SIZE));
+        assertRejected(Arrays.copyOf(encrypted, headerLength + ENCRYPTED_SEGMENT_SIZE));
+        assertRejected(Arrays.copyOf(encrypted, headerLength));
+
+        // the data ends with a full segment
+        byte[] exactMultiple = encrypt(3 * SEGMENT_SIZE);
+        headerLength = headerLength(exactMultiple);
+        byte[] truncated = Arrays.copyOf(exactMultiple, headerLength + 2 * ENCRYPTED_SEGMENT_SIZE);
+        assertRejected(truncated);
+        assertRejectedFrom(truncated, SEGMENT_SIZE);
+        assertRejectedFrom(truncated, 2 * SEGMENT_SIZE);
+        assertRejectedFrom(truncated, 3 * SEGMENT_SIZE);
+    }
+
+    @Test
+    public void truncationWithinSegmentIsRejected() throws IOException {
+        byte[] encrypted = encrypt(2 * SEGMENT_SIZE);
+        assertRejected(Arrays.copyOf(encrypted, encrypted.length - 1));
+        assertRejected(Arrays.copyOf(encrypted, encrypted.length - ENCRYPTED_SEGMENT_SIZE + 10));
+    }
+
+    @Test
+    public void reorderedSegmentsAreRejected() throws IOException {
+        byte[] encrypted = encrypt(3 * SEGMENT_SIZE + 5);
+        int headerLength = headerLength(encrypted);
+        byte[] reordered = encrypted.clone();
+        System.arraycopy(
+                encrypted,
+                headerLength,
+                reordered,
+                headerLength + ENCRYPTED_SEGMENT_SIZE,
+                ENCRYPTED_SEGMENT_SIZE);
+        System.arraycopy(
+                encrypted,
+                headerLength + ENCRYPTED_SEGMENT_SIZE,
+                reordered,
+                headerLength,
+                ENCRYPTED_SEGMENT_SIZE);
+        assertRejected(reordered);
+        assertRejectedFrom(reordered, SEGMENT_SIZE);
+    }
+
+    @Test
+    public void duplicatedSegmentsAreRejected() throws IOException {
+        byte[] encrypted = encrypt(3 * SEGMENT_SIZE + 5);
+        int headerLength = headerLength(encrypted);
+        byte[] duplicated = encrypted.clone();
+        System.arraycopy(
+                encrypted,
+                headerLength,
+                duplicated,
+                headerLength + ENCRYPTED_SEGMENT_SIZE,
+                ENCRYPTED_SEGMENT_SIZE);
+        assertRejected(duplicated);
+
+        // a copy of a segment appended after the last one
+        byte[] exactMultiple = encrypt(2 * SEGMENT_SIZE);
+        headerLength = headerLength(exactMultiple);
+        byte[] appended =
+                Arrays.copyOf(exactMultiple, exactMultiple.length + ENCRYPTED_SEGMENT_SIZE);
+        System.arraycopy(
+                exactMultiple,
+                headerLength,
+                appended,
+                exactMultiple.length,
+                ENCRYPTED_SEGMENT_SIZE);
+        assertRejected(appended);
+    }
+
+    @Test
+    public void flippedBitsAreRejected() throws IOException {
+        byte[] encrypted = encrypt(3 * SEGMENT_SIZE + 5);
+        int headerLength = headerLength(encrypted);
+
+        byte[] flippedCiphertext = encrypted.clone();
+        flippedCiphertext[headerLength + ENCRYPTED_SEGMENT_SIZE + 100] ^= 1;
+        assertRejected(flippedCiphertext);
+        assertRejectedFrom(flippedCiphertext, SEGMENT_SIZE + 200);
+
+        byte[] flippedTag = encrypted.clone();
+        flippedTag[headerLength + ENCRYPTED_SEGMENT_SIZE - 1] ^= (byte) 0x80;
+        assertRejected(flippedTag);
+
+        byte[] flippedLastSegment = encrypted.clone();
+        flippedLastSegment[encrypted.length - 1] ^= 1;
+        assertRejected(flippedLastSegment);
+    }
+
+    @Test
+    public void segmentsBeforeTheTamperedSegmentAreReturned() throws IOException {
+        byte[] data = randomBytes(3 * SEGMENT_SIZE);
+        byte[] encrypted = encrypt(data);
+        encrypted[headerLength(encrypted) + 2 * ENCRYPTED_SEGMENT_SIZE + 1] ^= 1;
+        ByteArrayOutputStream decrypted = new ByteArrayOutputStream();
+        try (InputStream decrypting =
+                ociCrypto.createDecryptingStream(provider, new ByteArrayInputStream(encrypted))) {
+            byte[] buffer = new byte[SEGMENT_SIZE];
+            int length;
+            while ((length = decrypting.read(buffer)) != -1) {
+                decrypted.write(buffer, 0, length);
+            }
+            fail("Tampered data should have been rejected");
+        } catch (RuntimeException e) {
+            // expected
+        }
+        // only verified segments were returned
+        assertArrayEquals(Arrays.copyOf(data, 2 * SEGMENT_SIZE), decrypted.toByteArray());
+    }
+
+    private void assertRejected(byte[] encrypted) throws IOException {
+        try (InputStream decrypting =
+                ociCrypto.createDecryptingStream(provider, new ByteArrayInputStream(encrypted))) {
+            readAll(decrypting);
+            fail("Tampered data should have been rejected");
+        } catch (RuntimeException e) {
+            // expected
+        }
+    }
+
+    private void assertRejectedFrom(byte[] encrypted, long plaintextOffset) throws IOException {
+        try (InputStream decrypting =
+                ociCrypto.createDecryptingStream(
+                        provider,
+                        plaintextOffset,
+                        offset ->
+                                new ByteArrayInputStream(
+                                        encrypted,
+                                        offset.intValue(),
+                                        encrypted.length - offset.intValue()))) {
+            readAll(decrypting);
+            fail("Tampered data should have been rejected from offset " + plaintextOffset);
+        } catch (RuntimeException e) {
+            // expected
+        }
+    }
+
+    private byte[] encrypt(int length) throws IOException {
+        return encrypt(randomBytes(length));
+    }
+
+    private byte[] encrypt(byte[] data) throws IOException {
+        try (InputStream encrypting =
+                ociCrypto.createEncryptingStream(
+                        provider,
+                        new ByteArrayInputStream(data),
+                        Collections.singletonMap("purpose", "test"),
+                        SEGMENT_SIZE)) {
+            return readAll(encrypting);
+        }
+    }
+
+    private static int headerLength(byte[] encrypted) {
+        return 6 + ByteBuffer.wrap(encrypted).getInt(2);
+    }
+
+    private static byte[] readAll(InputStream inputStream) throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        byte[] buffer = new byte[4096];
+        int length;
+        while ((length = inputStream.read(buffer)) != -1) {
+            outputStream.write(buffer, 0, length);
+        }
+        return outputStream.toByteArray();
+    }
+
+    private static byte[] randomBytes(int length) {
+        byte[] bytes = new byte[length];
+        new Random(length).nextBytes(bytes);
+        return bytes;
+    }
+}
@@ -0,0 +1,56 @@
+/**
+ * Copyright (c) 2016, 2021, Oracle and/or its affiliates.  All rights reserved.
+ * This software is dual-licensed to you under the Universal Permissive License (UPL) 1.0 as shown at https://oss.oracle.com/licenses/upl or Apache License 2.0 as shown at http://www.apache.org/licenses/LICENSE-2.0. You may choose either license.
+ */
+package com.oracle.bmc.encryption.internal;
+
+import com.oracle.bmc.encryption.TestMasterKeyProvider;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+public class SerializeHeaderTest {
+    private final SerializeHeader serializeHeader =
+            new SerializeHeader(new TestMasterKeyProvider());
+    private final DataKey dataKey = new DataKey("encrypted", "plaintext", null);
+
+    @Test
+    public void segmentSizeIsRead() throws IOException {
+        for (int segmentSize :
+                new int[] {SegmentCipher.MIN_SEGMENT_SIZE, SegmentCipher.MAX_SEGMENT_SIZE}) {
+            EncryptionHeader header = readHeader(segmentSize);
+            assertEquals(Integer.valueOf(segmentSize), header.getSegmentSize());
+        }
+    }
+
+    @Test
+    public void invalidSegmentSizeIsRejected() throws IOException {
+        for (int segmentSize :
+                new int[] {
+                    -1,
+                    0,
+                    SegmentCipher.MIN_SEGMENT_SIZE - 1,
+                    SegmentCipher.MAX_SEGMENT_SIZE + 1,
+                    Integer.MAX_VALUE
+                }) {
+            try {
+                readHeader(segmentSize);
+                fail("Segment size " + segmentSize + " should have been rejected");
+            } catch (RuntimeException e) {
+                // expected
+            }
+        }
+    }
+
+    private EncryptionHeader readHeader(int segmentSize) throws IOException {
+        byte[] headerBytes =
+                serializeHeader
+                        .createHeader(dataKey, new byte[12], null, segmentSize)
+                        .getHeaderBytes();
+        return serializeHeader.readHeader(new ByteArrayInputStream(headerBytes));
+    }
+}
@@ -0,0 +1,296 @@
+/**
+ * Copyright (c) 2016, 2021, Oracle and/or its affiliates.  All rights reserved.
+ * This software is dual-licensed to you under the Universal Permissive License (UPL) 1.0 as shown at https://oss.oracle.com/licenses/upl or Apache License 2.0 as shown at http://www.apache.org/licenses/LICENSE-2.0. You may choose either license.
+ */
+package com.oracle.bmc.objectstorage.transfer;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.Validate;
+
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.ThreadSafe;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * A pool of part buffers with a memory budget, used by transfers that hold entire parts in memory.
+ * <p>
+ * Buffers are handed out in power-of-two size classes and are reused once they are released. The
+ * total size of all buffers, whether in use or idle in the pool, never exceeds
+ * {@link #getMaxTotalBytes()}. Idle buffers of other size classes are evicted to make room if needed.
+ * <p>
+ * Share one instance between several {@link DownloadManager}s (see
+ * {@link DownloadConfiguration.Builder#bufferPool(BufferPool)}) to cap the buffer memory used by all
+ * of them together. Downloads never wait for a buffer: if the budget is exhausted, they continue
+ * with fewer parallel parts instead. Uploads of streams that cannot be read in parallel (see
+ * {@link UploadConfiguration#getBufferPool()}) wait for buffers, which throttles reading the source
+ * stream to the speed of the uploads.
+ * <p>
+ * Buffers can be allocated on the Java heap or off-heap, using {@link ByteBuffer#allocateDirect(int)}.
+ * Off-heap buffers keep large parts out of the garbage collected heap entirely.
+ */
+@Slf4j
+@ThreadSafe
+public class BufferPool {
+    /**
+     * The smallest size class. Smaller requests are rounded up to this.
+     */
+    private static final int MIN_BUFFER_SIZE_IN_BYTES = 1024 * 1024;
+
+    /**
+     * The largest size class, the largest power of two that fits in an int.
+     */
+    private static final int MAX_BUFFER_SIZE_IN_BYTES = 1 << 30;
+
+    private final long maxTotalBytes;
+    private final boolean direct;
+
+    /**
+     * Idle buffers, by size class.
+     */
+    private final TreeMap<Integer, Deque<ByteBuffer>> idleBuffers = new TreeMap<>();
+
+    /**
+     * Total capacity of all buffers that are currently allocated, in use or idle.
+     */
+    private long allocatedBytes;
+
+    /**
+     * Total capacity of all buffers that are currently idle.
+     */
+    private long idleBytes;
+
+    /**
+     * Create a new buffer pool.
+     * @param maxTotalBytes the maximum number of bytes all buffers of this pool may use together
+     * @param direct true if buffers should be allocated off-heap, using {@link ByteBuffer#allocateDirect(int)}
+     */
+    public BufferPool(long maxTotalBytes, boolean direct) {
+        Validate.isTrue(
+                maxTotalBytes > 0, "maxTotalBytes [%s] must be greater than 0", maxTotalBytes);
+        this.maxTotalBytes = maxTotalBytes;
+        this.direct = direct;
+    }
+
+    /**
+     * The maximum number of bytes all buffers of this pool may use together.
+     * @return maximum number of bytes
+     */
+    public long getMaxTotalBytes() {
+        return maxTotalBytes;
+    }
+
+    /**
+     * Whether buffers are allocated off-heap.
+     * @return true if buffers are allocated off-heap
+     */
+    public boolean isDirect() {
+        return direct;
+    }
+
+    /**
+     * The total capacity of all buffers currently allocated by this pool, in use or idle.
+     * @return number of bytes
+     */
+    public synchronized long getAllocatedBytes() {
+        return allocatedBytes;
+    }
+
+    /**
+     * The total capacity of all buffers currently idle in this pool.
+     * @return number of bytes
+     */
+    public synchronized long getIdleBytes() {
+        return idleBytes;
+    }
+
+    /**
+     * Try to acquire a buffer with room for at least {@code size} bytes.
+     * <p>
+     * The returned buffer is cleared, and its limit is set to {@code size}. It has to be returned
+     * using {@link #release(ByteBuffer)} or {@link #discard(ByteBuffer)} once it is no longer used.
+     *
+     * @param size the number of bytes needed
+     * @return the buffer, or null if the memory budget does not allow another buffer of that size
+     */
+    @Nullable
+    public ByteBuffer tryAcquire(int size) {
+        Validate.inclusiveBetween(
+                1,
+                MAX_BUFFER_SIZE_IN_BYTES,
+                size,
+                "size [%s] must be between %s and %s",
+                size,
+                1,
+                MAX_BUFFER_SIZE_IN_BYTES);
+        final int sizeClass = sizeClass(size);
+
+        ByteBuffer buffer;
+        synchronized (this) {
+            buffer = pollIdle(sizeClass);
+            if (buffer == null) {
+                if (!reserve(sizeClass)) {
+                    LOG.debug(
+                            "Not enough room for a buffer of {} bytes ({} of {} bytes allocated)",
+                            sizeClass,
+                            allocatedBytes,
+                            maxTotalBytes);
+                    return null;
+                }
+            }
+        }
+        return prepare(buffer, size, sizeClass);
+    }
+
+    /**
+     * Acquire a buffer with room for at least {@code size} bytes, waiting until the memory budget
+     * allows another buffer of that size.
+     * <p>
+     * The returned buffer is cleared, and its limit is set to {@code size}. It has to be returned
+     * using {@link #release(ByteBuffer)} or {@link #discard(ByteBuffer)} once it is no longer used.
+     *
+     * @param size the number of bytes needed
+     * @return the buffer
+     * @throws InterruptedException if the thread was interrupted while waiting
+     * @throws IllegalArgumentException if a buffer of that size could never fit into the budget
+     */
+    public ByteBuffer acquire(int size) throws InterruptedException {
+        Validate.inclusiveBetween(
+                1,
+                MAX_BUFFER_SIZE_IN_BYTES,
+                size,
+                "size [%s] must be between %s and %s",
+                size,
+                1,
+                MAX_BUFFER_SIZE_IN_BYTES);
+        final int sizeClass = sizeClass(size);
+        Validate.isTrue(
+                sizeClass <= maxTotalBytes,
+                "Buffer of %s bytes does not fit into the budget of %s bytes",
+                sizeClass,
+                maxTotalBytes);
+
+        ByteBuffer buffer;
+        synchronized (this) {
+            while ((buffer = pollIdle(sizeClass)) == null && !reserve(sizeClass)) {
+                LOG.trace(
+                        "Waiting for room for a buffer of {} bytes ({} of {} bytes allocated)",
+                        sizeClass,
+                        allocatedBytes,
+                        maxTotalBytes);
+                wait();
+            }
+        }
+        return prepare(buffer, size, sizeClass);
+    }
+
+    /**
+     * Return a buffer to the pool, so it can be reused.
+     * <p>
+     * The buffer must not be used by the caller anymore.
+     *
+     * @param buffer buffer that was acquired from this pool
+     */
+    public void release(ByteBuffer buffer) {
+        final int sizeClass = buffer.capacity();
+        synchronized (this) {
+            Deque<ByteBuffer> buffers = idleBuffers.get(sizeClass);
+            if (buffers == null) {
+                buffers = new ArrayDeque<>();
+                idleBuffers.put(sizeClass, buffers);
+            }
+            buffers.push(buffer);
+            idleBytes += sizeClass;
+            notifyAll();
+        }
+    }
+
+    /**
+     * Return the budget used by a buffer to the pool, without reusing the buffer itself.
+     * <p>
+     * Use this if the buffer may still be written to, for example by a download that could not be stopped.
+     *
+     * @param buffer buffer that was acquired from this pool
+     */
+    public void discard(ByteBuffer buffer) {
+        unreserve(buffer.capacity());
+    }
+
+    /**
+     * Returns true if a buffer of this size can be acquired from this pool at all, i.e. if
+     * it is not larger than the largest buffer size and fits into the memory budget.
+     */
+    boolean fitsBudget(long size) {
+        return size > 0
+                && size <= MAX_BUFFER_SIZE_IN_BYTES
+                && sizeClass((int) size) <= maxTotalBytes;
+    }
+
+    /**
+     * Allocate the buffer if we did not get an idle one, and set it up for the caller.
+     */
+    private ByteBuffer prepare(ByteBuffer buffer, int size, int sizeClass) {
+        if (buffer == null) {
+            // allocate outside of the lock, allocating and zeroing large buffers takes a while
+            try {
+                buffer =
+                        direct
+                                ? ByteBuffer.allocateDirect(sizeClass)
+                                : ByteBuffer.allocate(sizeClass);
+            } catch (OutOfMemoryError e) {
+                unreserve(sizeClass);
+                throw e;
+            }
+        }
+        buffer.clear();
+        buffer.limit(size);
+        return buffer;
+    }
+
+    private ByteBuffer pollIdle(int sizeClass) {
+        final Deque<ByteBuffer> buffers = idleBuffers.get(sizeClass);
+        if (buffers == null || buffers.isEmpty()) {
+            return null;
+        }
+        final ByteBuffer buffer = buffers.pop();
+        if (buffers.isEmpty()) {
+            idleBuffers.remove(sizeClass);
+        }
+        idleBytes -= sizeClass;
+        return buffer;
+    }
+
+    private boolean reserve(int sizeClass) {
+        // evict idle buffers of other size classes, largest first, until the new buffer fits
+        while (allocatedBytes + sizeClass > maxTotalBytes && idleBytes > 0) {
+            final Map.Entry<Integer, Deque<ByteBuffer>> largest = idleBuffers.lastEntry();
+            largest.getValue().pop();
+            if (largest.getValue().isEmpty()) {
+                idleBuffers.remove(largest.getKey());
+            }
+            idleBytes -= largest.getKey();
+            allocatedBytes -= largest.getKey();
+        }
+        if (allocatedBytes + sizeClass > maxTotalBytes) {
+            return false;
+        }
+        allocatedBytes += sizeClass;
+        return true;
+    }
+
+    private synchronized void unreserve(int sizeClass) {
+        allocatedBytes -= sizeClass;
+        notifyAll();
+    }
+
+    private static int sizeClass(int size) {
+        if (size <= MIN_BUFFER_SIZE_IN_BYTES) {
+            return MIN_BUFFER_SIZE_IN_BYTES;
+        }
+        final int highestOneBit = Integer.highestOneBit(size);
+        return (highestOneBit == size) ? size : highestOneBit << 1;
+    }
+}
@@ -82,6 +82,11 @@ public class DownloadConfiguration {
      */
     private final ExecutorService executorService;
 
+    /**
+     * Pool for the part buffers of parallel downloads, or null if each download allocates its own buffers.
+     */
+    private final BufferPool bufferPool;
+
     /**
      * Create a configuration for the {@link DownloadManager}.
      * @param maxRetries maximum number of retries, not including the initial attempt.
@@ -100,6 +105,37 @@ public class DownloadConfiguration {
             long multipartDownloadThresholdInBytes,
             int parallelDownloads,
             ExecutorService executorService) {
+        this(
+                maxRetries,
+                initialBackoff,
+                maxBackoff,
+                partSizeInBytes,
+                multipartDownloadThresholdInBytes,
+                parallelDownloads,
+                executorService,
+                null);
+    }
+
+    /**
+     * Create a configuration for the {@link DownloadManager}.
+     * @param maxRetries maximum number of retries, not including the initial attempt.
+     * @param initialBackoff initial backoff, before a retry is performed.
+     * @param maxBackoff maximum backoff between retries
+     * @param partSizeInBytes the size in bytes of the individual parts as which the object is downloaded.
+     * @param multipartDownloadThresholdInBytes the threshold size in bytes at which we will start splitting the object into parts
+     * @param parallelDownloads maximum number of parallel downloads
+     * @param executorService executor service for parallel downloads
+     * @param bufferPool pool for the part buffers of parallel downloads, or null
+     */
+    public DownloadConfiguration(
+            int maxRetries,
+            Duration initialBackoff,
+            Duration maxBackoff,
+            int partSizeInBytes,
+            long multipartDownloadThresholdInBytes,
+            int parallelDownloads,
+            ExecutorService executorService,
+            BufferPool bufferPool) {
         Validate.isTrue(
                 maxRetries >= 0,
                 "maxRetries [%s] must be greater than or equal to %s",
@@ -147,6 +183,7 @@ public class DownloadConfiguration {
         this.multipartDownloadThresholdInBytes = multipartDownloadThresholdInBytes;
         this.parallelDownloads = parallelDownloads;
         this.executorService = executorService;
+        this.bufferPool = bufferPool;
     }
 
     /**
@@ -168,6 +205,7 @@ public class DownloadConfiguration {
         private long multipartDownloadThresholdInBytes;
         private int parallelDownloads;
         private ExecutorService executorService;
+        private BufferPool bufferPool;
 
         private Builder() {
             this.maxRetries = 10;
@@ -178,6 +216,7 @@ public class DownloadConfiguration {
                     DownloadConfiguration.MIN_PART_SIZE_IN_BYTES * 2;
             this.parallelDownloads = 3;
             this.executorService = null;
+            this.bufferPool = null;
         }
 
         /**
@@ -192,7 +231,8 @@ public class DownloadConfiguration {
                     this.partSizeInBytes,
                     this.multipartDownloadThresholdInBytes,
                     this.parallelDownloads,
-                    this.executorService);
+                    this.executorService,
+                    this.bufferPool);
         }
 
         /**
@@ -208,6 +248,7 @@ public class DownloadConfiguration {
             this.multipartDownloadThresholdInBytes = that.multipartDownloadThresholdInBytes;
             this.parallelDownloads = that.parallelDownloads;
             this.executorService = that.executorService;
+            this.bufferPool = that.bufferPool;
             return this;
         }
 
@@ -312,5 +353,22 @@ public class DownloadConfiguration {
             this.executorService = value;
             return this;
         }
+
+        /**
+         * The pool to take the part buffers of parallel downloads from. If this
+         * is null (the default) each download allocates new buffers for its parts.
+         *
+         * Share the same {@link BufferPool} between several {@link DownloadManager}s
+         * to limit the memory used for part buffers by all of them together. If the
+         * pool's budget is exhausted, downloads use fewer parallel parts, down to
+         * a single-threaded download, instead of waiting for memory.
+         *
+         * @param value pool for the part buffers of parallel downloads
+         * @return this builder
+         */
+        public Builder bufferPool(BufferPool value) {
+            this.bufferPool = value;
+            return this;
+        }
     }
 }
@@ -9,12 +9,16 @@ import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
 
 import com.oracle.bmc.objectstorage.ObjectStorage;
 import com.oracle.bmc.objectstorage.requests.GetObjectRequest;
 import com.oracle.bmc.objectstorage.responses.GetObjectResponse;
 import com.oracle.bmc.objectstorage.transfer.internal.download.DownloadExecution;
 import com.oracle.bmc.objectstorage.transfer.internal.download.MultithreadStream;
+import com.oracle.bmc.objectstorage.transfer.internal.download.ParallelFileDownload;
 import com.oracle.bmc.objectstorage.transfer.internal.download.RetryingStream;
 import com.oracle.bmc.retrier.RetryConfiguration;
 import com.oracle.bmc.waiter.MaxAttemptsTerminationStrategy;
@@ -52,31 +56,51 @@ public class DownloadManager {
      * modified during a get operation a retry can fail with a 412 or 404
      * status code.
      *
+     * If the object is downloaded in multiple parts, the stream is also a
+     * {@link java.nio.channels.ReadableByteChannel}, which can be used to read the
+     * data directly into a {@link ByteBuffer}.
+     *
      * @param request The request object containing the details to send
      * @return A response object containing details about the completed operation
      * @throws com.oracle.bmc.model.BmcException when an error occurs.
      */
     public GetObjectResponse getObject(GetObjectRequest request) {
-        // The retries in the download manager are smarter than the retries built into the client: The download
-        // manager modifies the request to only retry the parts that haven't been read yet. The client would retry
-        // the entire request, and re-download parts that have already been downloaded.
-        // We need to make sure we don't get (download manager) retries on top of (client) retries, though.
-        request =
-                GetObjectRequest.builder()
-                        .copy(request)
-                        .retryConfiguration(NO_RETRIES_IN_CLIENT)
-                        .build();
-
+        request = withoutClientRetries(request);
         final DownloadExecution execution = DownloadExecution.fromConfig(this.config);
+        final GetObjectResponse response = getFirstResponse(request, execution);
 
-        // Perform the first request. Even if we are going to do a multi-threaded
-        // download we request the entire object so that we know the total size.
-        // (We can close the response early if needed.)
-        GetObjectResponse response;
+        // When an if-match request fails (i.e. the object matches the etag)
+        // the getObject call does not throw an exception, but also does not
+        // return any data. Match that behavior.
+        if (response.isNotModified()) {
+            return response;
+        }
+        return withRetryingStream(request, response, execution);
+    }
+
+    /**
+     * The retries in the download manager are smarter than the retries built into the client: The download
+     * manager modifies the request to only retry the parts that haven't been read yet. The client would retry
+     * the entire request, and re-download parts that have already been downloaded.
+     * We need to make sure we don't get (download manager) retries on top of (client) retries, though.
+     */
+    private static GetObjectRequest withoutClientRetries(GetObjectRequest request) {
+        return GetObjectRequest.builder()
+                .copy(request)
+                .retryConfiguration(NO_RETRIES_IN_CLIENT)
+                .build();
+    }
+
+    /**
+     * Perform the first request. Even if we are going to do a multi-threaded
+     * download we request the entire object so that we know the total size.
+     * (We can close the response early if needed.)
+     */
+    private GetObjectResponse getFirstResponse(
+            GetObjectRequest request, DownloadExecution execution) {
         while (true) {
             try {
-                response = this.objectStorage.getObject(request);
-                break;
+                return this.objectStorage.getObject(request);
             } catch (Throwable t) {
                 if (execution.shouldRetryOn(t)) {
                     continue;
@@ -84,14 +108,49 @@ public class DownloadManager {
                 throw t;
             }
         }
+    }
 
-        // When an if-match request fails (i.e. the object matches the etag)
-        // the getObject call does not throw an exception, but also does not
-        // return any data. Match that behavior.
-        if (response.isNotModified()) {
-            return response;
+    /**
+     * Returns true if an object (or range) of this size should be downloaded in multiple parts.
+     */
+    private boolean isMultipartDownload(long contentLength) {
+        return this.config.getParallelDownloads() > 0
+                && contentLength > this.config.getMultipartDownloadThresholdInBytes()
+                && contentLength > DownloadConfiguration.MIN_PART_SIZE_IN_BYTES;
+    }
+
+    /**
+     * Size of the parts an object (or range) of this size is downloaded in.
+     */
+    private int partSize(long contentLength) {
+        // The first part will be downloaded by the foreground thread
+        // so we count it as a worker.
+        final int totalWorkers = this.config.getParallelDownloads() + 1;
+        assert totalWorkers >= 2;
+
+        // Is the object large enough to give each worker at least partSizeInBytes
+        // of data to download?
+        final int partSize;
+        if (contentLength >= (long) totalWorkers * (long) this.config.getPartSizeInBytes()) {
+            // This is a really big object -- each worker has at least partSizeInBytes
+            // of data to download.
+            partSize = this.config.getPartSizeInBytes();
+        } else {
+            // Divide the data evenly between the workers, respecting the minimum
+            // part size for all except the last part.
+            partSize =
+                    Math.max(
+                            Math.toIntExact(contentLength / totalWorkers),
+                            DownloadConfiguration.MIN_PART_SIZE_IN_BYTES);
         }
+        assert partSize <= this.config.getPartSizeInBytes();
+        assert partSize >= DownloadConfiguration.MIN_PART_SIZE_IN_BYTES;
+        LOG.trace("partSizeInBytes = {}", partSize);
+        return partSize;
+    }
 
+    private GetObjectResponse withRetryingStream(
+            GetObjectRequest request, GetObjectResponse response, DownloadExecution execution) {
         // We have read the object. Remember the etag so that a retried request
         // will fail if the object is changed underneath us.
         final String etag = response.getETag();
@@ -105,36 +164,10 @@ public class DownloadManager {
 
         // Do we want a single-threaded, or multi-threaded download?
         final InputStream stream;
-        if (this.config.getParallelDownloads() > 0
-                && response.getContentLength() > this.config.getMultipartDownloadThresholdInBytes()
-                && response.getContentLength() > DownloadConfiguration.MIN_PART_SIZE_IN_BYTES) {
+        if (isMultipartDownload(response.getContentLength())) {
             // This is a big object so we will use multiple threads to download
             // it. How big should each part be?
-            //
-            // The first part will be downloaded by the foreground thread
-            // so we count it as a worker.
-            final int totalWorkers = this.config.getParallelDownloads() + 1;
-            assert totalWorkers >= 2;
-
-            // Is the object large enough to give each worker at least partSizeInBytes
-            // of data to download?
-            final int partSize;
-            if (response.getContentLength()
-                    >= (long) totalWorkers * (long) this.config.getPartSizeInBytes()) {
-                // This is a really big object -- each worker has at least partSizeInBytes
-                // of data to download.
-                partSize = this.config.getPartSizeInBytes();
-            } else {
-                // Divide the data evenly between the workers, respecting the minimum
-                // part size for all except the last part.
-                partSize =
-                        Math.max(
-                                Math.toIntExact(response.getContentLength() / totalWorkers),
-                                DownloadConfiguration.MIN_PART_SIZE_IN_BYTES);
-            }
-            assert partSize <= this.config.getPartSizeInBytes();
-            assert partSize >= DownloadConfiguration.MIN_PART_SIZE_IN_BYTES;
-            LOG.trace("partSizeInBytes = {}", partSize);
+            final int partSize = partSize(response.getContentLength());
 
             // Total number of parts we will be downloading
             final int numParts =
@@ -143,9 +176,27 @@ public class DownloadManager {
 
             // The first part is downloaded by the foreground thread so we
             // do not need more than numParts-1 threads
-            final int numThreads = Math.min(this.config.getParallelDownloads(), numParts - 1);
+            int numThreads = Math.min(this.config.getParallelDownloads(), numParts - 1);
             assert numThreads > 0;
 
+            // If the part buffers are pooled, we can only use as many threads as we get buffers for
+            final BufferPool bufferPool = this.config.getBufferPool();
+            final List<ByteBuffer> buffers;
+            if (bufferPool != null) {
+                buffers = new ArrayList<>(numThreads);
+                for (int i = 0; i < numThreads; ++i) {
+                    final ByteBuffer buffer = bufferPool.tryAcquire(partSize);
+                    if (buffer == null) {
+                        break;
+                    }
+                    buffers.add(buffer);
+                }
+                LOG.trace("Acquired {} of {} part buffers", buffers.size(), numThreads);
+                numThreads = buffers.size();
+            } else {
+                buffers = null;
+            }
+
             // In cache, some requests set if-none-match to get an unchanged response back if the object hasn't changed.
             // For parallel downloads, the download manager adds the if-match header to ensure all parts are from the same
             // object version. But it is illegal to have both if-match and if-none-match in the same request. Therefore,
@@ -154,15 +205,33 @@ public class DownloadManager {
                 requestWithEtagBuilder.ifNoneMatch(null);
             }
 
-            stream =
-                    new MultithreadStream(
-                            this,
-                            requestWithEtagBuilder.build(),
-                            response.getContentLength(),
-                            retryingStream,
-                            this.config.getParallelDownloads(),
-                            this.config.getExecutorService(),
-                            partSize);
+            if (numThreads == 0) {
+                // No memory for part buffers. Use a single-threaded download.
+                LOG.debug("No part buffers available, downloading object in a single thread");
+                stream = retryingStream;
+            } else if (buffers != null) {
+                stream =
+                        new MultithreadStream(
+                                this,
+                                requestWithEtagBuilder.build(),
+                                response.getContentLength(),
+                                retryingStream,
+                                numThreads,
+                                this.config.getExecutorService(),
+                                partSize,
+                                buffers,
+                                bufferPool);
+            } else {
+                stream =
+                        new MultithreadStream(
+                                this,
+                                requestWithEtagBuilder.build(),
+                                response.getContentLength(),
+                                retryingStream,
+                                this.config.getParallelDownloads(),
+                                this.config.getExecutorService(),
+                                partSize);
+            }
         } else {
             // This is a small object. Use a single-threaded download.
             stream = retryingStream;
@@ -186,6 +255,15 @@ public class DownloadManager {
      *
      * The downloaded object will be saved in the specified file.
      *
+     * If the object is large enough to be downloaded in multiple parts (and no range is
+     * requested), the parts are downloaded in parallel and written straight to their
+     * position in the file, in whatever order they arrive. The parts that have been
+     * completed are recorded in a progress file next to the target (the target's name
+     * followed by {@value ParallelFileDownload#PROGRESS_FILE_SUFFIX}). If the download
+     * fails, calling this method again for the same object version and target only
+     * downloads the missing parts. The progress file is deleted when the download
+     * completes.
+     *
      * The response will be returned, but note that the stream has already been consumed.
      *
      * @param request The request object containing the details to send
@@ -195,7 +273,40 @@ public class DownloadManager {
      */
     public GetObjectResponse downloadObjectToFile(GetObjectRequest request, File target)
             throws IOException {
-        GetObjectResponse response = getObject(request);
+        request = withoutClientRetries(request);
+        final DownloadExecution execution = DownloadExecution.fromConfig(this.config);
+        GetObjectResponse response = getFirstResponse(request, execution);
+        if (response.isNotModified()) {
+            return response;
+        }
+
+        if (request.getRange() == null && isMultipartDownload(response.getContentLength())) {
+            final long objectSize = response.getContentLength();
+            final int partSize = partSize(objectSize);
+            final int numParts = Math.toIntExact((objectSize + partSize - 1) / partSize);
+            final GetObjectRequest requestWithEtag =
+                    GetObjectRequest.builder()
+                            .copy(request)
+                            .ifMatch(response.getETag())
+                            .ifNoneMatch(null)
+                            .build();
+            final InputStream firstPart =
+                    new RetryingStream(this.objectStorage, requestWithEtag, response, execution);
+            new ParallelFileDownload(
+                            this,
+                            requestWithEtag,
+                            response.getETag(),
+                            objectSize,
+                            firstPart,
+                            partSize,
+                            Math.min(this.config.getParallelDownloads(), numParts - 1),
+                            this.config.getExecutorService(),
+                            target)
+                    .download();
+            return GetObjectResponse.builder().copy(response).inputStream(firstPart).build();
+        }
+
+        response = withRetryingStream(request, response, execution);
 
         // use the stream contents; make sure to close the stream, e.g. by using try-with-resources
         try (final InputStream stream = response.getInputStream();
@@ -8,6 +8,7 @@ import java.io.File;
 import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.Map;
+import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutorService;
 import javax.ws.rs.client.Invocation;
 
@@ -269,6 +270,26 @@ public class MultipartObjectAssembler {
         return doUploadPart(stream, contentLength, md5, nextPartNumber);
     }
 
+    /**
+     * Add the next part to the upload, calculating its MD5 checksum in the
+     * thread that uploads the part.
+     *
+     * @param stream The stream to upload as the next part
+     * @param contentLength The content length of the part
+     * @param md5Calculation Calculates the MD5 checksum, optional
+     * @param onCompletion Run once the part has been uploaded or has failed, optional
+     * @return The part number assigned to this part
+     */
+    int addPart(
+            InputStream stream,
+            long contentLength,
+            Callable<String> md5Calculation,
+            Runnable onCompletion) {
+        int nextPartNumber = manifest.nextPartNumber();
+        return doUploadPart(
+                stream, contentLength, null, nextPartNumber, md5Calculation, onCompletion);
+    }
+
     /**
      * Adds a part to the upload.  The part will be ordered based on the part
      * number provided.
@@ -306,6 +327,16 @@ public class MultipartObjectAssembler {
     }
 
     private int doUploadPart(InputStream stream, long contentLength, String md5, int partNumber) {
+        return doUploadPart(stream, contentLength, md5, partNumber, null, null);
+    }
+
+    private int doUploadPart(
+            InputStream stream,
+            long contentLength,
+            String md5,
+            int partNumber,
+            Callable<String> md5Calculation,
+            Runnable onCompletion) {
         validateState();
         UploadPartRequest request =
                 UploadPartRequest.builder()
@@ -323,7 +354,7 @@ public class MultipartObjectAssembler {
 
         request.setRetryConfiguration(this.retryConfiguration);
 
-        transferManager.startTransfer(request);
+        transferManager.startTransfer(request, md5Calculation, onCompletion);
         return partNumber;
     }
 
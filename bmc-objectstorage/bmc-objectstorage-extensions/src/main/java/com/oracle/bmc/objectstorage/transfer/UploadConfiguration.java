@@ -80,6 +80,17 @@ public class UploadConfiguration {
      * failed uploads themselves).  Default is false.
      */
     private final boolean disableAutoAbort;
+    /**
+     * Pool to buffer parts in when uploading a stream that cannot be read in parallel (does not implement
+     * {@link DuplicatableInputStream}), or null (the default) to upload such streams one part at a time.
+     * <p>
+     * If set (and parallel uploads are allowed), the source stream is read into part buffers from this pool
+     * while earlier parts are still being uploaded, and the parts are uploaded (and their MD5 calculated, if
+     * enforced) in parallel.  Reading waits whenever the pool's memory budget is used up, so the memory used
+     * for buffered parts never exceeds the budget.  Parts larger than the budget (or larger than 1 GiB) are
+     * uploaded one at a time as before.
+     */
+    private final BufferPool bufferPool;
 
     @Deprecated
     public long getMinimumLengthPerUploadPart() {
@@ -95,7 +106,8 @@ public class UploadConfiguration {
             Boolean enforceMd5BeforeMultipartUpload,
             Boolean allowMultipartUploads,
             Boolean allowParallelUploads,
-            Boolean disableAutoAbort) {
+            Boolean disableAutoAbort,
+            BufferPool bufferPool) {
         this.minimumLengthForMultipartUpload =
                 getOrDefault(
                         minimumLengthForMultipartUpload, DEFAULT_MIN_LENGTH_FOR_MULTI_PART_UPLOAD);
@@ -107,6 +119,7 @@ public class UploadConfiguration {
         this.allowMultipartUploads = getOrDefault(allowMultipartUploads, true);
         this.allowParallelUploads = getOrDefault(allowParallelUploads, true);
         this.disableAutoAbort = getOrDefault(disableAutoAbort, false);
+        this.bufferPool = bufferPool;
 
         Validate.isTrue(
                 this.minimumLengthForMultipartUpload >= 0L,
@@ -13,6 +13,7 @@ import com.oracle.bmc.objectstorage.internal.ObjectStorageUtils;
 import com.oracle.bmc.objectstorage.requests.PutObjectRequest;
 import com.oracle.bmc.objectstorage.responses.CommitMultipartUploadResponse;
 import com.oracle.bmc.objectstorage.responses.PutObjectResponse;
+import com.oracle.bmc.objectstorage.transfer.internal.ByteBufferInputStream;
 import com.oracle.bmc.objectstorage.transfer.internal.MultipartUtils;
 import com.oracle.bmc.objectstorage.transfer.internal.StreamChunkCreator;
 import com.oracle.bmc.objectstorage.transfer.internal.StreamHelper;
@@ -20,6 +21,7 @@ import com.oracle.bmc.retrier.DefaultRetryCondition;
 import com.oracle.bmc.retrier.RetryCondition;
 import com.oracle.bmc.retrier.RetryConfiguration;
 import com.oracle.bmc.util.StreamUtils;
+import com.oracle.bmc.util.VirtualThreadUtils;
 import com.oracle.bmc.waiter.ExponentialBackoffDelayStrategy;
 import com.oracle.bmc.waiter.MaxAttemptsTerminationStrategy;
 import lombok.Getter;
@@ -33,9 +35,14 @@ import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
 import java.security.DigestOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * UploadManager simplifies interaction with the Object Storage service by abstracting away the method used
@@ -155,9 +162,19 @@ public class UploadManager {
                 new StreamChunkCreator(
                         request.getPutObjectBody(), request.getContentLength(), sizePerPart);
 
+        // Parts of streams that cannot be read in parallel can still be uploaded in parallel
+        // if we can buffer them
+        final BufferPool bufferPool = uploadConfiguration.getBufferPool();
+        final boolean bufferParts =
+                uploadConfiguration.isAllowParallelUploads()
+                        && !chunkCreator.supportsParallelReads()
+                        && bufferPool != null
+                        && bufferPool.fitsBudget(sizePerPart);
+
         final ExecutorService executorServiceToUse;
         final boolean shutdownExecutor;
-        if (uploadConfiguration.isAllowParallelUploads() && chunkCreator.supportsParallelReads()) {
+        if (uploadConfiguration.isAllowParallelUploads()
+                && (chunkCreator.supportsParallelReads() || bufferParts)) {
             if (uploadRequest.parallelUploadExecutorService != null) {
                 executorServiceToUse = uploadRequest.parallelUploadExecutorService;
                 shutdownExecutor = false;
@@ -168,12 +185,16 @@ public class UploadManager {
         } else {
             // chunks must be processed in order, use a
             // new single thread executor per upload request
-            executorServiceToUse = Executors.newSingleThreadExecutor();
+            executorServiceToUse =
+                    Executors.newSingleThreadExecutor(
+                            VirtualThreadUtils.threadFactoryOrDefault(
+                                    "upload-", Executors.defaultThreadFactory()));
             shutdownExecutor = true;
         }
 
         MultipartObjectAssembler assembler =
                 createAssembler(request, uploadRequest, executorServiceToUse);
+        final List<PooledPart> pooledParts = new ArrayList<>();
         MultipartManifest manifest = null;
         try {
             manifest =
@@ -186,7 +207,10 @@ public class UploadManager {
             while (chunkCreator.hasMore()) {
                 LOG.trace("Creating part {}", ++partCount);
                 StreamChunkCreator.SubRangeInputStream chunk = chunkCreator.next();
-                if (uploadConfiguration.isEnforceMd5BeforeMultipartUpload()) {
+                if (bufferParts) {
+                    addBufferedPart(
+                            assembler, chunk, bufferPool, pooledParts, progressTrackerFactory);
+                } else if (uploadConfiguration.isEnforceMd5BeforeMultipartUpload()) {
                     MD5Calculation md5Calculation = calculateMd5(chunk, chunk.length());
                     assembler.addPart(
                             ProgressTrackingInputStreamFactory.create(
@@ -246,7 +270,63 @@ public class UploadManager {
             if (shutdownExecutor) {
                 executorServiceToUse.shutdownNow();
             }
+
+            // parts that completed have already been returned to the pool, the rest
+            // may still be in use by uploads that did not stop
+            for (PooledPart pooledPart : pooledParts) {
+                pooledPart.discard();
+            }
+        }
+    }
+
+    /**
+     * Read the chunk into a buffer from the pool and add it as the next part.  This waits
+     * until the pool has room for the part, which limits how far reading the source stream
+     * can get ahead of the uploads.  The MD5, if enforced, is calculated in the upload thread.
+     */
+    private void addBufferedPart(
+            MultipartObjectAssembler assembler,
+            StreamChunkCreator.SubRangeInputStream chunk,
+            BufferPool bufferPool,
+            List<PooledPart> pooledParts,
+            ProgressTrackerFactory progressTrackerFactory) {
+        final int length = Math.toIntExact(chunk.length());
+        final ByteBuffer buffer;
+        try {
+            buffer = bufferPool.acquire(length);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BmcException(false, "Interrupted while waiting for a part buffer", e, null);
+        }
+        final PooledPart pooledPart = new PooledPart(bufferPool, buffer);
+        pooledParts.add(pooledPart);
+
+        final int bytesRead;
+        try {
+            bytesRead = StreamHelper.readFully(chunk, buffer);
+        } catch (IOException e) {
+            throw new BmcException(false, "Unable to read part", e, null);
+        }
+        if (bytesRead != length) {
+            throw new BmcException(
+                    false,
+                    "Failed to read all bytes of part: " + bytesRead + ", " + length,
+                    null,
+                    null);
         }
+        buffer.flip();
+
+        final Callable<String> md5Calculation =
+                uploadConfiguration.isEnforceMd5BeforeMultipartUpload()
+                        ? () -> StreamHelper.base64EncodeMd5Digest(buffer)
+                        : null;
+        assembler.addPart(
+                ProgressTrackingInputStreamFactory.create(
+                        new ByteBufferInputStream(buffer),
+                        progressTrackerFactory.getProgressTracker()),
+                length,
+                md5Calculation,
+                pooledPart);
     }
 
     /**
@@ -293,19 +373,29 @@ public class UploadManager {
     }
 
     private static ExecutorService buildDefaultParallelExecutor() {
+        final String namePrefix = "multipart-upload-" + System.currentTimeMillis() + "-";
         return Executors.newFixedThreadPool(
                 DEFAULT_NUM_MULTIPART_THREADS_PER_REQUEST,
-                new ThreadFactoryBuilder()
-                        .setNameFormat("multipart-upload-" + System.currentTimeMillis() + "-%d")
-                        .setDaemon(true)
-                        .build());
+                VirtualThreadUtils.threadFactoryOrDefault(
+                        namePrefix,
+                        new ThreadFactoryBuilder()
+                                .setNameFormat(namePrefix + "%d")
+                                .setDaemon(true)
+                                .build()));
     }
 
     private static MD5Calculation calculateMd5(InputStream stream, Long contentLength) {
         String md5 = null;
         InputStream streamToReturn = null;
 
-        if (stream instanceof DuplicatableInputStream) {
+        if (stream instanceof StreamChunkCreator.FileSubRangeInputStream) {
+            try {
+                md5 = ((StreamChunkCreator.FileSubRangeInputStream) stream).base64EncodeMd5Digest();
+            } catch (IOException e) {
+                throw new BmcException(false, "Unable to calculate MD5", e, null);
+            }
+            streamToReturn = stream;
+        } else if (stream instanceof DuplicatableInputStream) {
             md5 =
                     performMd5Calculation(
                             ((DuplicatableInputStream) stream).duplicate(),
@@ -362,6 +452,36 @@ public class UploadManager {
         return StreamHelper.base64Encode(digestOutputStream.getMessageDigest());
     }
 
+    /**
+     * A part buffer acquired from a {@link BufferPool}, which is returned to the pool
+     * exactly once.
+     */
+    @RequiredArgsConstructor
+    private static final class PooledPart implements Runnable {
+        private final BufferPool bufferPool;
+        private final ByteBuffer buffer;
+        private final AtomicBoolean returned = new AtomicBoolean();
+
+        /**
+         * Release the buffer for reuse, once the upload of the part is done with it.
+         */
+        @Override
+        public void run() {
+            if (returned.compareAndSet(false, true)) {
+                bufferPool.release(buffer);
+            }
+        }
+
+        /**
+         * Return the budget of the buffer without reusing it.
+         */
+        void discard() {
+            if (returned.compareAndSet(false, true)) {
+                bufferPool.discard(buffer);
+            }
+        }
+    }
+
     @RequiredArgsConstructor
     public static class UploadRequest {
         private final PutObjectRequest putObjectRequest;
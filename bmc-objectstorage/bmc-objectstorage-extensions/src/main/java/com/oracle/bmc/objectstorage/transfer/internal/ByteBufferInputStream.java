@@ -0,0 +1,97 @@
+/**
+ * Copyright (c) 2016, 2021, Oracle and/or its affiliates.  All rights reserved.
+ * This software is dual-licensed to you under the Universal Permissive License (UPL) 1.0 as shown at https://oss.oracle.com/licenses/upl or Apache License 2.0 as shown at http://www.apache.org/licenses/LICENSE-2.0. You may choose either license.
+ */
+package com.oracle.bmc.objectstorage.transfer.internal;
+
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+
+import com.oracle.bmc.io.DuplicatableInputStream;
+
+/**
+ * An InputStream that reads the remaining bytes of a {@link ByteBuffer}, which may be a heap or
+ * a direct buffer.
+ * <p>
+ * The stream reads from its own view of the buffer, so the position and limit of the buffer
+ * itself are never changed, and duplicates can be read in parallel.
+ */
+public class ByteBufferInputStream extends InputStream implements DuplicatableInputStream {
+    private final ByteBuffer source;
+    private final ByteBuffer buffer;
+    private int markPosition;
+
+    /**
+     * Create a new stream that reads the bytes between the position and the limit of the buffer.
+     * @param source the buffer; its contents must not be changed while the stream is used
+     */
+    public ByteBufferInputStream(ByteBuffer source) {
+        this.source = source;
+        this.buffer = source.duplicate();
+        this.markPosition = this.buffer.position();
+    }
+
+    @Override
+    public int read() {
+        if (!buffer.hasRemaining()) {
+            return -1;
+        }
+        return buffer.get() & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) {
+        if (len == 0) {
+            return 0;
+        }
+        if (!buffer.hasRemaining()) {
+            return -1;
+        }
+        final int bytesToRead = Math.min(len, buffer.remaining());
+        buffer.get(b, off, bytesToRead);
+        return bytesToRead;
+    }
+
+    @Override
+    public long skip(long n) {
+        if (n <= 0) {
+            return 0;
+        }
+        final int bytesToSkip = (int) Math.min(n, buffer.remaining());
+        buffer.position(buffer.position() + bytesToSkip);
+        return bytesToSkip;
+    }
+
+    @Override
+    public int available() {
+        return buffer.remaining();
+    }
+
+    @Override
+    public boolean markSupported() {
+        return true;
+    }
+
+    @Override
+    public synchronized void mark(int readlimit) {
+        markPosition = buffer.position();
+    }
+
+    @Override
+    public synchronized void reset() {
+        buffer.position(markPosition);
+    }
+
+    /**
+     * Returns the length of this stream.
+     * @return The length in bytes.
+     */
+    public long length() {
+        return source.remaining();
+    }
+
+    @Override
+    public InputStream duplicate() {
+        return new ByteBufferInputStream(source);
+    }
+}
@@ -35,7 +35,23 @@ public class MultipartTransferManager {
 
     private final List<Future<Void>> responses = new ArrayList<>();
 
-    public synchronized void startTransfer(final UploadPartRequest request) {
+    public void startTransfer(final UploadPartRequest request) {
+        startTransfer(request, null, null);
+    }
+
+    /**
+     * Start the transfer of a part.
+     *
+     * @param request the request to upload the part
+     * @param md5Calculation if not null, calculates the MD5 of the part in the transfer thread,
+     *                       right before the part is uploaded
+     * @param onCompletion if not null, run in the transfer thread once the part has been
+     *                     uploaded, or has failed
+     */
+    public synchronized void startTransfer(
+            final UploadPartRequest request,
+            final Callable<String> md5Calculation,
+            final Runnable onCompletion) {
         if (executor.isShutdown()) {
             throw new CancellationException("Executor used for transfers has been shutdown");
         }
@@ -47,18 +63,30 @@ public class MultipartTransferManager {
                             @Override
                             public Void call() throws Exception {
                                 try {
+                                    UploadPartRequest requestToUse = request;
+                                    if (md5Calculation != null) {
+                                        requestToUse =
+                                                UploadPartRequest.builder()
+                                                        .copy(request)
+                                                        .contentMD5(md5Calculation.call())
+                                                        .build();
+                                    }
                                     // Use a random sleep before each part begins upload.  Too many concurrent requests
                                     // starting around the same time leads to 409 conflicts.
                                     Thread.sleep(
                                             random.nextInt(
                                                     MAX_RANDOM_SLEEP_BEFORE_UPLOAD_START_MS));
-                                    UploadPartResponse response = client.uploadPart(request);
+                                    UploadPartResponse response = client.uploadPart(requestToUse);
                                     manifest.registerSuccess(request.getUploadPartNum(), response);
                                 } catch (Exception e) {
                                     LOG.error(
                                             "Failed to upload part " + request.getUploadPartNum(),
                                             e);
                                     manifest.registerFailure(request.getUploadPartNum(), e);
+                                } finally {
+                                    if (onCompletion != null) {
+                                        onCompletion.run();
+                                    }
                                 }
                                 return null;
                             }
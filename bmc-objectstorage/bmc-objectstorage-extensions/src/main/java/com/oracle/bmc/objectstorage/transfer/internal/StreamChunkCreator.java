@@ -5,10 +5,16 @@
 package com.oracle.bmc.objectstorage.transfer.internal;
 
 import com.oracle.bmc.io.DuplicatableInputStream;
+import com.oracle.bmc.io.internal.WrappedFileInputStream;
 import lombok.extern.slf4j.Slf4j;
 
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
 
 @Slf4j
 public class StreamChunkCreator {
@@ -40,6 +46,10 @@ public class StreamChunkCreator {
         return source instanceof DuplicatableInputStream;
     }
 
+    private boolean isSrcStreamFile() {
+        return source instanceof WrappedFileInputStream;
+    }
+
     /**
      * Test for whether or not there are any more chunks that can be created.
      * @return true if there are additional chunks, false if all done
@@ -71,8 +81,15 @@ public class StreamChunkCreator {
 
         SubRangeInputStream rangeInputStream = null;
 
-        // always use duplicated stream when possible, even if parallel reads not enabled
-        if (isSrcStreamDuplicable()) {
+        // files are read directly from the file, without duplicating the stream
+        if (isSrcStreamFile()) {
+            rangeInputStream =
+                    new FileSubRangeInputStream(
+                            ((WrappedFileInputStream) source).getSourceFile(),
+                            startPosition,
+                            endPosition);
+        } else if (isSrcStreamDuplicable()) {
+            // always use duplicated stream when possible, even if parallel reads not enabled
             rangeInputStream =
                     new DuplicatedSubRangeInputStream(
                             (DuplicatableInputStream) source, startPosition, endPosition);
@@ -158,6 +175,138 @@ public class StreamChunkCreator {
         }
     }
 
+    /**
+     * Creates a SubRangeInputStream over a sub-range of a file, which reads the bytes directly from a
+     * channel of the file using positional reads.
+     * <p>
+     * This class is used in place of {@link DuplicatedSubRangeInputStream} when the source stream is a
+     * {@link WrappedFileInputStream}.  Reads start at the part, without skipping to its start.
+     * <p>
+     * Every stream (and every duplicate, ex, for retries) opens its own channel when it is first
+     * read, and closes it once the end of the part has been read, or when the stream is closed.  A
+     * {@link FileChannel} is closed when a thread reading from it is interrupted, so a shared channel
+     * would fail all parts when one part is cancelled.
+     */
+    public static class FileSubRangeInputStream extends SubRangeInputStream
+            implements DuplicatableInputStream {
+        private final File file;
+        private final long desiredStartPositionInSource;
+        private final long desiredEndPositionInSource;
+        private long markPosition;
+        private FileChannel channel;
+
+        public FileSubRangeInputStream(
+                File file, long desiredStartPositionInSource, long desiredEndPositionInSource) {
+            super(
+                    null,
+                    desiredStartPositionInSource,
+                    desiredEndPositionInSource,
+                    desiredStartPositionInSource,
+                    false);
+            this.file = file;
+            this.desiredStartPositionInSource = desiredStartPositionInSource;
+            this.desiredEndPositionInSource = desiredEndPositionInSource;
+            this.markPosition = desiredStartPositionInSource;
+        }
+
+        @Override
+        public synchronized int read(byte[] b, int off, int len) throws IOException {
+            long bytesRemaining = desiredEndPositionInSource - currentStartPositionInSource;
+            if (bytesRemaining <= 0) {
+                close();
+                return -1;
+            }
+            if (len == 0) {
+                return 0;
+            }
+
+            if (bytesRemaining < len) {
+                len = (int) bytesRemaining;
+            }
+            if (channel == null) {
+                channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+            }
+            final int bytesRead;
+            try {
+                bytesRead = channel.read(ByteBuffer.wrap(b, off, len), currentStartPositionInSource);
+            } catch (ClosedChannelException e) {
+                // ex, closed because the thread was interrupted; open a new channel next time
+                channel = null;
+                throw e;
+            }
+            if (bytesRead == -1) {
+                throw new IOException(
+                        "File ended at byte "
+                                + currentStartPositionInSource
+                                + ", expected "
+                                + desiredEndPositionInSource
+                                + " bytes");
+            }
+            currentStartPositionInSource += bytesRead;
+            if (currentStartPositionInSource >= desiredEndPositionInSource) {
+                close();
+            }
+            return bytesRead;
+        }
+
+        @Override
+        public synchronized long skip(long n) {
+            if (n <= 0) {
+                return 0;
+            }
+            long bytesToSkip =
+                    Math.min(n, desiredEndPositionInSource - currentStartPositionInSource);
+            currentStartPositionInSource += bytesToSkip;
+            return bytesToSkip;
+        }
+
+        @Override
+        public boolean markSupported() {
+            return true;
+        }
+
+        @Override
+        public synchronized void mark(int readlimit) {
+            markPosition = currentStartPositionInSource;
+        }
+
+        @Override
+        public synchronized void reset() {
+            currentStartPositionInSource = markPosition;
+        }
+
+        @Override
+        public synchronized void close() {
+            if (channel != null) {
+                try {
+                    channel.close();
+                } catch (IOException e) {
+                    LOG.debug("Failed to close the channel", e);
+                }
+                channel = null;
+            }
+        }
+
+        @Override
+        public InputStream duplicate() {
+            return new FileSubRangeInputStream(
+                    file, desiredStartPositionInSource, desiredEndPositionInSource);
+        }
+
+        /**
+         * Base64 encodes the MD5 digest of this part, reading it from the file without going through
+         * an intermediate stream.  The position of this stream is not changed.
+         * @return The base64-encoded MD5 digest
+         * @throws IOException if the file could not be read
+         */
+        public String base64EncodeMd5Digest() throws IOException {
+            try (FileChannel md5Channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+                return StreamHelper.base64EncodeMd5Digest(
+                        md5Channel, desiredStartPositionInSource, length());
+            }
+        }
+    }
+
     /**
      * Creates a new SubRangeInputStream that represents a sub-range of bytes from another InputStream.
      * It's assumed the sub range stream can only be read once, and a sub range of bytes from another input stream.
@@ -4,9 +4,14 @@
  */
 package com.oracle.bmc.objectstorage.transfer.internal;
 
+import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
 import java.security.DigestOutputStream;
 import java.security.MessageDigest;
 
@@ -21,6 +26,7 @@ import com.oracle.bmc.util.StreamUtils;
  */
 public class StreamHelper {
     private static final int BUFFER_SIZE = 8 * 1024;
+    private static final int CHANNEL_BUFFER_SIZE = 64 * 1024;
 
     /**
      * Copy contents from the input stream into the output stream. The input
@@ -59,6 +65,85 @@ public class StreamHelper {
         return toBase64(DigestUtils.md5(buffer));
     }
 
+    /**
+     * Base64 encodes the MD5 digest of the remaining bytes in the given buffer.  The position
+     * of the buffer is not changed.
+     * @param buffer The buffer to encode
+     * @return The base64-encoded MD5 digest
+     */
+    public static String base64EncodeMd5Digest(ByteBuffer buffer) {
+        final MessageDigest digest = DigestUtils.getDigest(MessageDigestAlgorithms.MD5);
+        digest.update(buffer.duplicate());
+        return base64Encode(digest);
+    }
+
+    /**
+     * Base64 encodes the MD5 digest of a range of bytes of a file.  The position of the channel
+     * is not changed.
+     * @param channel The channel to read from
+     * @param position The position of the first byte in the file
+     * @param length The number of bytes to digest
+     * @return The base64-encoded MD5 digest
+     * @throws IOException if the range could not be read
+     */
+    public static String base64EncodeMd5Digest(FileChannel channel, long position, long length)
+            throws IOException {
+        final MessageDigest digest = DigestUtils.getDigest(MessageDigestAlgorithms.MD5);
+        final ByteBuffer buffer =
+                ByteBuffer.allocateDirect((int) Math.min(length, CHANNEL_BUFFER_SIZE));
+        final long end = position + length;
+        while (position < end) {
+            buffer.clear();
+            if (end - position < buffer.capacity()) {
+                buffer.limit((int) (end - position));
+            }
+            final int bytesRead = channel.read(buffer, position);
+            if (bytesRead == -1) {
+                throw new EOFException(
+                        "File ended at byte " + position + ", expected " + end + " bytes");
+            }
+            buffer.flip();
+            digest.update(buffer);
+            position += bytesRead;
+        }
+        return base64Encode(digest);
+    }
+
+    /**
+     * Read from the input stream into the buffer until the buffer is full or the stream
+     * ends.  The input stream is not closed.
+     *
+     * @param in
+     *            The stream to read from.
+     * @param buffer
+     *            The buffer to read into, from its position up to its limit.
+     * @return the number of bytes read.
+     * @throws IOException
+     *             if there were any issues
+     */
+    public static int readFully(InputStream in, ByteBuffer buffer) throws IOException {
+        final int start = buffer.position();
+        if (buffer.hasArray()) {
+            while (buffer.hasRemaining()) {
+                final int bytesRead =
+                        in.read(
+                                buffer.array(),
+                                buffer.arrayOffset() + buffer.position(),
+                                buffer.remaining());
+                if (bytesRead == -1) {
+                    break;
+                }
+                buffer.position(buffer.position() + bytesRead);
+            }
+        } else {
+            final ReadableByteChannel channel = Channels.newChannel(in);
+            while (buffer.hasRemaining() && channel.read(buffer) != -1) {
+                // keep reading
+            }
+        }
+        return buffer.position() - start;
+    }
+
     /**
      * Creates a DigestOutputStream where the digest uses MD5.
      * @param stream The output stream to write to.
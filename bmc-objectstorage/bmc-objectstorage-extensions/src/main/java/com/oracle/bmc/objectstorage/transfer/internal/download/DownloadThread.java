@@ -5,7 +5,11 @@
 package com.oracle.bmc.objectstorage.transfer.internal.download;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
 
 import com.oracle.bmc.objectstorage.requests.GetObjectRequest;
 import com.oracle.bmc.objectstorage.responses.GetObjectResponse;
@@ -19,8 +23,11 @@ import lombok.extern.slf4j.Slf4j;
  * {@link #run()} should be run asynchronously. It performs a request and reads
  * data into the provided buffer.
  *
- * {@link #read(byte[], int, int)} is used by another thread that wants to
- * consume the data that is being read.
+ * {@link #read(byte[], int, int)} (or {@link #read(ByteBuffer)}) is used by
+ * another thread that wants to consume the data that is being read.
+ *
+ * The buffer may be a heap or a direct buffer, and is owned by the caller; it
+ * can be reused once {@link #run()} has returned and all data has been read.
  */
 @Slf4j
 public class DownloadThread {
@@ -42,9 +49,16 @@ public class DownloadThread {
     private final int rangeSize;
 
     /**
-     * The buffer we read into.
+     * The buffer we read into. Only the contents are used, the position and
+     * limit of this buffer are never changed.
+     */
+    private final ByteBuffer buffer;
+
+    /**
+     * View of {@link #buffer} that is only used by {@link #read(byte[], int, int)}
+     * and {@link #read(ByteBuffer)} to copy data out.
      */
-    private final byte[] buffer;
+    private final ByteBuffer readView;
 
     /**
      * Used to synchronize {@link #run()} and {@link #read(byte[], int, int).}
@@ -91,14 +105,16 @@ public class DownloadThread {
     public DownloadThread(
             DownloadManager downloadManager,
             GetObjectRequest getObjectRequest,
-            byte[] buffer,
+            ByteBuffer buffer,
             int rangeSize) {
-        assert rangeSize <= buffer.length;
+        assert rangeSize <= buffer.capacity();
 
         this.downloadManager = downloadManager;
         this.getObjectRequest = getObjectRequest;
         this.rangeSize = rangeSize;
         this.buffer = buffer;
+        this.readView = buffer.duplicate();
+        this.readView.clear();
         this.lock = new Object();
         this.writeTo = 0;
         this.readFrom = 0;
@@ -118,7 +134,7 @@ public class DownloadThread {
      * Start reading data into {@link #buffer} where it can be read by
      * {@link #read(byte[], int, int)}.
      */
-    public byte[] run() throws IOException {
+    public ByteBuffer run() throws IOException {
         LOG.debug(
                 "Reading the first {} bytes from range '{}' from {}/{}/{}",
                 this.rangeSize,
@@ -131,19 +147,25 @@ public class DownloadThread {
                     this.downloadManager.getObject_singleThreaded(this.getObjectRequest);
             try {
                 LOG.debug(
-                        "buffer.length = '{}', rangeSize = '{}', contentLength = '{}'",
-                        this.buffer.length,
+                        "buffer.capacity = '{}', rangeSize = '{}', contentLength = '{}'",
+                        this.buffer.capacity(),
                         this.rangeSize,
                         getObjectResponse.getContentLength());
                 this.objectSize =
                         Math.min(
                                 Math.toIntExact(getObjectResponse.getContentLength()),
                                 this.rangeSize);
-                assert this.objectSize <= this.buffer.length;
+                assert this.objectSize <= this.buffer.capacity();
                 assert this.objectSize <= this.rangeSize;
+                final InputStream inputStream = getObjectResponse.getInputStream();
+                // Heap buffers are read into directly, direct buffers through a channel
+                final ReadableByteChannel channel =
+                        this.buffer.hasArray() ? null : Channels.newChannel(inputStream);
+                final ByteBuffer writeView = this.buffer.duplicate();
+                writeView.clear();
                 while (true) {
                     assert this.writeTo >= this.readFrom;
-                    assert this.writeTo <= this.buffer.length;
+                    assert this.writeTo <= this.buffer.capacity();
 
                     // If the operation is cancelled we stop the thread.
                     if (this.cancelRequested) {
@@ -154,10 +176,18 @@ public class DownloadThread {
                     if (dataRemaining <= 0) {
                         break;
                     }
-                    final int bytesRead =
-                            getObjectResponse
-                                    .getInputStream()
-                                    .read(this.buffer, this.writeTo, dataRemaining);
+                    final int bytesRead;
+                    if (channel == null) {
+                        bytesRead =
+                                inputStream.read(
+                                        this.buffer.array(),
+                                        this.buffer.arrayOffset() + this.writeTo,
+                                        dataRemaining);
+                    } else {
+                        writeView.limit(this.objectSize);
+                        writeView.position(this.writeTo);
+                        bytesRead = channel.read(writeView);
+                    }
                     if (bytesRead < 0) {
                         LOG.error(
                                 "Truncated download. Got {} from read (expected {} bytes remaining)",
@@ -202,22 +232,67 @@ public class DownloadThread {
     }
 
     /**
-     * Read data from {@link #buffer}. If there is no
-     * @param b
-     * @param off
-     * @param len
-     * @return
-     * @throws InterruptedException
+     * Read data from {@link #buffer}. If there is no data available yet, this
+     * blocks until there is.
+     * @param b the array to copy the data into
+     * @param off the offset in the array
+     * @param len the maximum number of bytes to copy
+     * @return the number of bytes copied, or -1 if all data has been read
+     * @throws IOException if the background read failed or was cancelled
      */
     public int read(byte b[], int off, int len) throws IOException {
         if (len == 0) {
             return 0;
         }
 
+        final int dataLength = reserveRead(len);
+        if (dataLength < 0) {
+            return -1;
+        }
+
+        // We have some data to copy out
+        this.readView.get(b, off, dataLength);
+        LOG.trace("Got {} bytes from buffer", dataLength);
+        return dataLength;
+    }
+
+    /**
+     * Read data from {@link #buffer} into the given buffer. If there is no data
+     * available yet, this blocks until there is.
+     * @param dst the buffer to copy the data into
+     * @return the number of bytes copied, or -1 if all data has been read
+     * @throws IOException if the background read failed or was cancelled
+     */
+    public int read(ByteBuffer dst) throws IOException {
+        if (!dst.hasRemaining()) {
+            return 0;
+        }
+
+        final int dataLength = reserveRead(dst.remaining());
+        if (dataLength < 0) {
+            return -1;
+        }
+
+        // We have some data to copy out
+        final int readViewLimit = this.readView.limit();
+        this.readView.limit(this.readView.position() + dataLength);
+        dst.put(this.readView);
+        this.readView.limit(readViewLimit);
+        LOG.trace("Got {} bytes from buffer", dataLength);
+        return dataLength;
+    }
+
+    /**
+     * Wait until there is data to read, and reserve up to {@code len} bytes of
+     * it. On return, {@link #readView} is positioned at the start of the
+     * reserved data.
+     * @return the number of bytes reserved, or -1 if all data has been read
+     */
+    private int reserveRead(int len) throws IOException {
         // Where in the buffer we should copy data from
         final int bufferIndex;
 
-        // Where we should copy the data to
+        // How much data we can copy
         final int dataLength;
 
         synchronized (this.lock) {
@@ -256,9 +331,7 @@ public class DownloadThread {
             this.readFrom += dataLength;
         }
 
-        // We have some data to copy out
-        System.arraycopy(this.buffer, bufferIndex, b, off, dataLength);
-        LOG.trace("Got {} bytes from buffer", dataLength);
+        this.readView.position(bufferIndex);
         return dataLength;
     }
 }
@@ -6,18 +6,25 @@ package com.oracle.bmc.objectstorage.transfer.internal.download;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.util.List;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.ReentrantLock;
 import javax.annotation.Nullable;
 
 import com.oracle.bmc.model.Range;
 import com.oracle.bmc.objectstorage.requests.GetObjectRequest;
+import com.oracle.bmc.objectstorage.transfer.BufferPool;
 import com.oracle.bmc.objectstorage.transfer.DownloadManager;
 import com.oracle.bmc.util.StreamUtils;
+import com.oracle.bmc.util.VirtualThreadUtils;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.Value;
@@ -26,9 +33,13 @@ import lombok.extern.slf4j.Slf4j;
 /**
  * An InputStream that can resume a broken download by making a range read
  * request to Object Storage.
+ * <p>
+ * This stream is also a {@link ReadableByteChannel}, so the data can be read
+ * directly into a (direct) {@link ByteBuffer}, without copying it through an
+ * intermediate array first.
  */
 @Slf4j
-public class MultithreadStream extends InputStream {
+public class MultithreadStream extends InputStream implements ReadableByteChannel {
 
     /**
      * Download manager we can use to create new requests.
@@ -61,6 +72,18 @@ public class MultithreadStream extends InputStream {
      */
     private final int partSize;
 
+    /**
+     * Pool the part buffers were acquired from, or null if the buffers
+     * are not pooled.
+     */
+    private final BufferPool bufferPool;
+
+    /**
+     * Channel for reading the first part into a direct {@link ByteBuffer},
+     * created on first use.
+     */
+    private ReadableByteChannel firstPartChannel;
+
     /**
      * Used to manage the threads we have.
      */
@@ -97,6 +120,12 @@ public class MultithreadStream extends InputStream {
      */
     private boolean isClosed;
 
+    /**
+     * Guards the reads and close.  A lock instead of a monitor, so a virtual thread that blocks on
+     * a download while holding it does not pin its carrier thread.
+     */
+    private final ReentrantLock lock = new ReentrantLock();
+
     public MultithreadStream(
             DownloadManager downloadManager,
             GetObjectRequest baseRequest,
@@ -105,6 +134,37 @@ public class MultithreadStream extends InputStream {
             int numThreads,
             ExecutorService executorService,
             int partSize) {
+        this(
+                downloadManager,
+                baseRequest,
+                objectSize,
+                firstPart,
+                numThreads,
+                executorService,
+                partSize,
+                null,
+                null);
+    }
+
+    /**
+     * Create a new stream.
+     * @param buffers the buffers to use for the parts; there must be one for
+     *                each thread, each with a capacity of at least {@code partSize}.
+     *                If null, buffers are allocated as needed.
+     * @param bufferPool the pool that {@code buffers} were acquired from. The buffers
+     *                   are returned to the pool when they are no longer used.
+     *                   Null if the buffers are not pooled.
+     */
+    public MultithreadStream(
+            DownloadManager downloadManager,
+            GetObjectRequest baseRequest,
+            long objectSize,
+            InputStream firstPart,
+            int numThreads,
+            ExecutorService executorService,
+            int partSize,
+            @Nullable List<ByteBuffer> buffers,
+            @Nullable BufferPool bufferPool) {
         assert partSize > 0;
         assert numThreads > 0;
         // If the object is not bigger than a single part we should not
@@ -117,6 +177,9 @@ public class MultithreadStream extends InputStream {
         this.numThreads = numThreads;
         this.partSize = partSize;
         this.firstPart = firstPart;
+        this.bufferPool = bufferPool;
+        assert buffers == null || buffers.size() == numThreads;
+        assert bufferPool == null || buffers != null;
 
         this.bytesReadSoFar = 0;
 
@@ -126,7 +189,11 @@ public class MultithreadStream extends InputStream {
 
         // Start the threads
         if (executorService == null) {
-            this.executorService = Executors.newFixedThreadPool(this.numThreads);
+            this.executorService =
+                    Executors.newFixedThreadPool(
+                            this.numThreads,
+                            VirtualThreadUtils.threadFactoryOrDefault(
+                                    "multithread-download-", Executors.defaultThreadFactory()));
             this.shutdownExecutorService = true;
         } else {
             this.executorService = executorService;
@@ -136,12 +203,32 @@ public class MultithreadStream extends InputStream {
         // The foreground thread will read the first part
         final int readsToStart = Math.min(numThreads, numParts - 1);
         for (int i = 0; i < readsToStart; ++i) {
-            this.asyncReads[i] = this.startAsyncRead(null);
+            this.asyncReads[i] = this.startAsyncRead(buffers == null ? null : buffers.get(i));
+        }
+        // Buffers that are not needed, because the object has fewer parts than we have threads
+        if (buffers != null && bufferPool != null) {
+            for (int i = readsToStart; i < buffers.size(); ++i) {
+                bufferPool.release(buffers.get(i));
+            }
         }
     }
 
     @Override
-    public synchronized void close() throws IOException {
+    public boolean isOpen() {
+        return !this.isClosed;
+    }
+
+    @Override
+    public void close() throws IOException {
+        lock.lock();
+        try {
+            closeLocked();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void closeLocked() throws IOException {
         // If any threads are still running, cancel them.
         for (int i = 0; i < this.asyncReads.length; ++i) {
             if (this.asyncReads[i] != null) {
@@ -158,11 +245,18 @@ public class MultithreadStream extends InputStream {
         for (int i = 0; i < this.asyncReads.length; ++i) {
             if (this.asyncReads[i] != null) {
                 final long millisToWait = Math.max(0L, stopMillis - System.currentTimeMillis());
+                boolean stopped = false;
                 try {
                     this.asyncReads[i].future.get(millisToWait, TimeUnit.MILLISECONDS);
-                } catch (InterruptedException | ExecutionException | TimeoutException e) {
+                    stopped = true;
+                } catch (ExecutionException e) {
+                    stopped = true;
+                    LOG.warn("Ignoring exception from async read", e);
+                } catch (InterruptedException | TimeoutException e) {
                     LOG.warn("Ignoring exception from async read", e);
                 }
+                this.returnBuffer(this.asyncReads[i].buffer, stopped);
+                this.asyncReads[i] = null;
             }
         }
 
@@ -189,11 +283,41 @@ public class MultithreadStream extends InputStream {
     }
 
     @Override
-    public synchronized int read(byte b[], int off, int len) throws IOException {
+    public int read(byte b[], int off, int len) throws IOException {
         if (len == 0) {
             return 0;
         }
+        return this.read(len, new ArrayReadTarget(b, off));
+    }
+
+    @Override
+    public int read(ByteBuffer dst) throws IOException {
+        if (!dst.hasRemaining()) {
+            return 0;
+        }
+        if (dst.hasArray()) {
+            final int bytesRead =
+                    this.read(
+                            dst.remaining(),
+                            new ArrayReadTarget(dst.array(), dst.arrayOffset() + dst.position()));
+            if (bytesRead > 0) {
+                dst.position(dst.position() + bytesRead);
+            }
+            return bytesRead;
+        }
+        return this.read(dst.remaining(), new ByteBufferReadTarget(dst));
+    }
 
+    private int read(int len, ReadTarget target) throws IOException {
+        lock.lock();
+        try {
+            return readLocked(len, target);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private int readLocked(int len, ReadTarget target) throws IOException {
         // Nothing left to read?
         if (this.allDataRead()) {
             return -1;
@@ -207,7 +331,7 @@ public class MultithreadStream extends InputStream {
             // The first part has some more data for us.
             final int maxBytesToRead =
                     Math.min(len, Math.toIntExact((long) this.partSize - this.bytesReadSoFar));
-            final int bytesRead = this.firstPart.read(b, off, maxBytesToRead);
+            final int bytesRead = target.readFirstPart(maxBytesToRead);
             if (bytesRead < 0) {
                 LOG.error(
                         "Truncated download. Got {} from read (expected {} bytes remaining)",
@@ -234,7 +358,7 @@ public class MultithreadStream extends InputStream {
             // thread will have some data.
             LOG.trace("Reading from thread {}", this.asyncReadIndex);
             final AsyncRead asyncRead = this.asyncReads[this.asyncReadIndex];
-            final int bytesRead = asyncRead.thread.read(b, off, len);
+            final int bytesRead = target.readAsync(asyncRead.thread, len);
             if (bytesRead < 0) {
                 LOG.error("Truncated download. Got {} from read", bytesRead);
                 throw new IOException("Truncated read");
@@ -251,27 +375,39 @@ public class MultithreadStream extends InputStream {
             if (asyncRead.thread.allDataRead()) {
                 // This thread has no more data. Shut it down.
                 this.asyncReads[this.asyncReadIndex] = null;
+                final ByteBuffer buffer;
                 try {
-                    final byte[] buffer = joinAsyncRead(asyncRead);
+                    buffer = joinAsyncRead(asyncRead);
                     assert buffer != null;
-                    // Have we read all the data?
-                    if (this.allDataRead()) {
-                        // Nothing left to read, so we don't need the executor
-                        // service any more.
+                } catch (ExecutionException e) {
+                    this.returnBuffer(asyncRead.buffer, true);
+                    throw new IOException("Unable to start AsyncRead", e);
+                } catch (InterruptedException e) {
+                    this.returnBuffer(asyncRead.buffer, false);
+                    throw new IOException("Unable to start AsyncRead", e);
+                }
+                // Have we read all the data?
+                if (this.allDataRead()) {
+                    // Nothing left to read, so we don't need the executor
+                    // service any more.
+                    this.returnBuffer(buffer, true);
+                    try {
                         this.shutdownExecutorService();
-                    } else {
-                        // Time to start a new read?
-                        if (!this.allReadsStarted()) {
-                            // Start a new read
-                            this.asyncReads[this.asyncReadIndex] = this.startAsyncRead(buffer);
-                            assert this.asyncReads[this.asyncReadIndex] != null;
-                        }
-                        // There is more data to read so we move to the next async read
-                        this.advanceAsyncReadIndex();
+                    } catch (InterruptedException e) {
+                        throw new IOException("Unable to start AsyncRead", e);
+                    }
+                } else {
+                    // Time to start a new read?
+                    if (!this.allReadsStarted()) {
+                        // Start a new read
+                        this.asyncReads[this.asyncReadIndex] = this.startAsyncRead(buffer);
                         assert this.asyncReads[this.asyncReadIndex] != null;
+                    } else {
+                        this.returnBuffer(buffer, true);
                     }
-                } catch (InterruptedException | ExecutionException e) {
-                    throw new IOException("Unable to start AsyncRead", e);
+                    // There is more data to read so we move to the next async read
+                    this.advanceAsyncReadIndex();
+                    assert this.asyncReads[this.asyncReadIndex] != null;
                 }
             }
 
@@ -279,10 +415,27 @@ public class MultithreadStream extends InputStream {
         }
     }
 
+    /**
+     * Return a buffer to the pool, if the buffers are pooled.
+     * @param buffer the buffer
+     * @param reusable true if the buffer is not used by a download thread anymore
+     */
+    private void returnBuffer(ByteBuffer buffer, boolean reusable) {
+        if (this.bufferPool == null) {
+            return;
+        }
+        if (reusable) {
+            this.bufferPool.release(buffer);
+        } else {
+            LOG.debug("Async read did not stop, not reusing its buffer");
+            this.bufferPool.discard(buffer);
+        }
+    }
+
     /**
      * Wait for an async read to finish and return its buffer.
      */
-    private byte[] joinAsyncRead(AsyncRead asyncRead)
+    private ByteBuffer joinAsyncRead(AsyncRead asyncRead)
             throws ExecutionException, InterruptedException {
         assert asyncRead.thread.allDataRead();
         return asyncRead.future.get();
@@ -335,7 +488,7 @@ public class MultithreadStream extends InputStream {
      *               buffer is allocated.
      * @return The new async read.
      */
-    private AsyncRead startAsyncRead(@Nullable byte[] buffer) {
+    private AsyncRead startAsyncRead(@Nullable ByteBuffer buffer) {
         boolean isEndOnlyRange =
                 this.baseRequest.getRange() != null
                         && this.baseRequest.getRange().getStartByte() == null
@@ -351,9 +504,9 @@ public class MultithreadStream extends InputStream {
 
         // Get the buffer
         if (buffer == null) {
-            buffer = new byte[Math.toIntExact(rangeSize)];
+            buffer = ByteBuffer.allocate(rangeSize);
         } else {
-            assert buffer.length >= Math.toIntExact(rangeSize);
+            assert buffer.capacity() >= rangeSize;
         }
 
         // Start the async read
@@ -367,8 +520,8 @@ public class MultithreadStream extends InputStream {
                 this.asyncReadIndex);
         final DownloadThread thread =
                 new DownloadThread(this.downloadManager, getObjectRequest, buffer, rangeSize);
-        final Future<byte[]> future = this.executorService.submit(() -> thread.run());
-        final AsyncRead asyncRead = new AsyncRead(future, thread);
+        final Future<ByteBuffer> future = this.executorService.submit(() -> thread.run());
+        final AsyncRead asyncRead = new AsyncRead(future, thread, buffer);
         this.nextReadOffset += rangeSize;
         return asyncRead;
     }
@@ -385,16 +538,85 @@ public class MultithreadStream extends InputStream {
         /**
          * Completes when the async thread finishes.
          */
-        private final Future<byte[]> future;
+        private final Future<ByteBuffer> future;
 
         /**
          * The download thread we can read from.
          */
         private final DownloadThread thread;
 
-        public AsyncRead(Future<byte[]> future, DownloadThread thread) {
+        /**
+         * The buffer the download thread reads into.
+         */
+        private final ByteBuffer buffer;
+
+        public AsyncRead(Future<ByteBuffer> future, DownloadThread thread, ByteBuffer buffer) {
             this.future = future;
             this.thread = thread;
+            this.buffer = buffer;
+        }
+    }
+
+    /**
+     * Where {@link #read(int, ReadTarget)} copies the data to.
+     */
+    private interface ReadTarget {
+        /**
+         * Read up to {@code len} bytes from {@link #firstPart}.
+         */
+        int readFirstPart(int len) throws IOException;
+
+        /**
+         * Read up to {@code len} bytes from the given download thread.
+         */
+        int readAsync(DownloadThread thread, int len) throws IOException;
+    }
+
+    private final class ArrayReadTarget implements ReadTarget {
+        private final byte[] b;
+        private final int off;
+
+        private ArrayReadTarget(byte[] b, int off) {
+            this.b = b;
+            this.off = off;
+        }
+
+        @Override
+        public int readFirstPart(int len) throws IOException {
+            return MultithreadStream.this.firstPart.read(this.b, this.off, len);
+        }
+
+        @Override
+        public int readAsync(DownloadThread thread, int len) throws IOException {
+            return thread.read(this.b, this.off, len);
+        }
+    }
+
+    private final class ByteBufferReadTarget implements ReadTarget {
+        private final ByteBuffer dst;
+
+        private ByteBufferReadTarget(ByteBuffer dst) {
+            this.dst = dst;
+        }
+
+        @Override
+        public int readFirstPart(int len) throws IOException {
+            if (MultithreadStream.this.firstPartChannel == null) {
+                MultithreadStream.this.firstPartChannel =
+                        Channels.newChannel(MultithreadStream.this.firstPart);
+            }
+            final int dstLimit = this.dst.limit();
+            this.dst.limit(this.dst.position() + len);
+            try {
+                return MultithreadStream.this.firstPartChannel.read(this.dst);
+            } finally {
+                this.dst.limit(dstLimit);
+            }
+        }
+
+        @Override
+        public int readAsync(DownloadThread thread, int len) throws IOException {
+            return thread.read(this.dst);
         }
     }
 
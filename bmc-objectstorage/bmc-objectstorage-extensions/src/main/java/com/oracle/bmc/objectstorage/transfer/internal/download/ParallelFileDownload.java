@@ -0,0 +1,449 @@
+/**
+ * Copyright (c) 2016, 2021, Oracle and/or its affiliates.  All rights reserved.
+ * This software is dual-licensed to you under the Universal Permissive License (UPL) 1.0 as shown at https://oss.oracle.com/licenses/upl or Apache License 2.0 as shown at http://www.apache.org/licenses/LICENSE-2.0. You may choose either license.
+ */
+package com.oracle.bmc.objectstorage.transfer.internal.download;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.InterruptedIOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import com.oracle.bmc.model.Range;
+import com.oracle.bmc.objectstorage.requests.GetObjectRequest;
+import com.oracle.bmc.objectstorage.responses.GetObjectResponse;
+import com.oracle.bmc.objectstorage.transfer.DownloadManager;
+import com.oracle.bmc.util.StreamUtils;
+import com.oracle.bmc.util.VirtualThreadUtils;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Downloads an object into a file in parallel parts.
+ * <p>
+ * Unlike {@link MultithreadStream}, the parts do not have to be consumed in order: each part
+ * is written straight to its offset in the file using positional writes, and a thread that
+ * finishes a part immediately starts on the next part that has not been started yet. Nothing
+ * is buffered in memory besides a small copy buffer per thread.
+ * <p>
+ * Completed parts are recorded in a progress file next to the target (see {@link #progressFile(File)}).
+ * If a download fails, the progress file is kept, and the next download of the same object version
+ * into the same file only downloads the parts that are missing. The progress file is deleted once
+ * the download has completed.
+ */
+@Slf4j
+public class ParallelFileDownload {
+
+    /**
+     * Suffix of the progress file, appended to the name of the target file.
+     */
+    public static final String PROGRESS_FILE_SUFFIX = ".download-progress";
+
+    /**
+     * First token of the progress file header, identifying the format.
+     */
+    private static final String PROGRESS_FILE_VERSION = "v1";
+
+    /**
+     * Size of the buffer each thread copies data through.
+     */
+    private static final int COPY_BUFFER_SIZE_IN_BYTES = 256 * 1024;
+
+    /**
+     * Download manager we can use to create new requests.
+     */
+    private final DownloadManager downloadManager;
+
+    /**
+     * Request that can be cloned to read the object. It must have if-match set to the
+     * etag of the object, and must not have a range.
+     */
+    private final GetObjectRequest baseRequest;
+
+    /**
+     * Etag of the object being downloaded.
+     */
+    private final String etag;
+
+    /**
+     * Total size of the object.
+     */
+    private final long objectSize;
+
+    /**
+     * Input stream we can read the first part from.
+     */
+    private final InputStream firstPart;
+
+    /**
+     * Size of every part except the last one.
+     */
+    private final int partSize;
+
+    /**
+     * Number of parts.
+     */
+    private final int numParts;
+
+    /**
+     * Maximum number of background threads to use.
+     */
+    private final int numThreads;
+
+    /**
+     * Executor service for the background threads, or null if we should create our own.
+     */
+    private final ExecutorService executorService;
+
+    /**
+     * The file we are downloading to.
+     */
+    private final File target;
+
+    /**
+     * The progress file for {@link #target}.
+     */
+    private final File progressFile;
+
+    /**
+     * Parts that have not been started yet.
+     */
+    private final Queue<Integer> pendingParts = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Writer for the progress file. Guarded by itself.
+     */
+    private Writer progressWriter;
+
+    /**
+     * The first failure of any part. Once this is set, the other threads stop.
+     */
+    private final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+    public ParallelFileDownload(
+            DownloadManager downloadManager,
+            GetObjectRequest baseRequest,
+            String etag,
+            long objectSize,
+            InputStream firstPart,
+            int partSize,
+            int numThreads,
+            ExecutorService executorService,
+            File target) {
+        assert baseRequest.getRange() == null;
+        assert partSize > 0;
+        assert numThreads > 0;
+
+        this.downloadManager = downloadManager;
+        this.baseRequest = baseRequest;
+        this.etag = etag;
+        this.objectSize = objectSize;
+        this.firstPart = firstPart;
+        this.partSize = partSize;
+        this.numParts = Math.toIntExact((objectSize + partSize - 1) / partSize);
+        this.numThreads = numThreads;
+        this.executorService = executorService;
+        this.target = target;
+        this.progressFile = progressFile(target);
+    }
+
+    /**
+     * The progress file used when downloading to {@code target}.
+     * @param target the file the object is downloaded to
+     * @return the progress file
+     */
+    public static File progressFile(File target) {
+        return new File(target.getPath() + PROGRESS_FILE_SUFFIX);
+    }
+
+    /**
+     * Download the object. The first part is read from the first part stream by the calling
+     * thread, which then helps the background threads with the remaining parts.
+     *
+     * @throws IOException if the download failed; the progress file is kept in that case
+     */
+    public void download() throws IOException {
+        try {
+            final BitSet completedParts = this.readProgress();
+            for (int part = 0; part < this.numParts; ++part) {
+                if (!completedParts.get(part)) {
+                    this.pendingParts.add(part);
+                }
+            }
+            LOG.debug(
+                    "Downloading {} of {} parts of {}/{}/{} into {}",
+                    this.pendingParts.size(),
+                    this.numParts,
+                    this.baseRequest.getNamespaceName(),
+                    this.baseRequest.getBucketName(),
+                    this.baseRequest.getObjectName(),
+                    this.target);
+
+            final boolean resume = completedParts.cardinality() > 0;
+            try (final FileChannel channel = this.openTarget(resume)) {
+                this.progressWriter = this.openProgressWriter(resume);
+                try {
+                    this.downloadParts(channel);
+                } finally {
+                    synchronized (this.progressWriter) {
+                        this.progressWriter.close();
+                    }
+                }
+                if (channel.size() > this.objectSize) {
+                    channel.truncate(this.objectSize);
+                }
+            }
+        } finally {
+            StreamUtils.closeQuietly(this.firstPart);
+        }
+
+        if (!this.progressFile.delete()) {
+            LOG.warn("Unable to delete progress file {}", this.progressFile);
+        }
+    }
+
+    private void downloadParts(final FileChannel channel) throws IOException {
+        final boolean firstPartPending = this.pendingParts.remove(0);
+        final int threadsToStart = Math.min(this.numThreads, this.pendingParts.size());
+
+        final ExecutorService executor;
+        if (threadsToStart == 0) {
+            executor = null;
+        } else if (this.executorService == null) {
+            executor =
+                    Executors.newFixedThreadPool(
+                            threadsToStart,
+                            VirtualThreadUtils.threadFactoryOrDefault(
+                                    "parallel-download-", Executors.defaultThreadFactory()));
+        } else {
+            executor = this.executorService;
+        }
+
+        final List<Future<Void>> futures = new ArrayList<>(threadsToStart);
+        try {
+            for (int i = 0; i < threadsToStart; ++i) {
+                futures.add(
+                        executor.submit(
+                                () -> {
+                                    this.downloadPendingParts(channel);
+                                    return null;
+                                }));
+            }
+
+            try {
+                if (firstPartPending) {
+                    this.writePart(channel, 0, this.firstPart);
+                }
+                // Help with the remaining parts
+                this.downloadPendingParts(channel);
+            } catch (IOException | RuntimeException e) {
+                if (!this.failure.compareAndSet(null, e) && this.failure.get() != e) {
+                    LOG.debug("Ignoring additional failure", e);
+                }
+            }
+
+            for (Future<Void> future : futures) {
+                try {
+                    future.get();
+                } catch (ExecutionException e) {
+                    // already recorded as the failure
+                } catch (InterruptedException e) {
+                    this.failure.compareAndSet(null, e);
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("Interrupted while downloading parts");
+                }
+            }
+            this.throwIfFailed();
+        } finally {
+            if (this.failure.get() != null) {
+                for (Future<Void> future : futures) {
+                    future.cancel(true);
+                }
+            }
+            if (executor != null && this.executorService == null) {
+                executor.shutdownNow();
+                try {
+                    executor.awaitTermination(1, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+    }
+
+    /**
+     * Download parts until there are no pending parts left, or another part has failed.
+     */
+    private void downloadPendingParts(FileChannel channel) throws IOException {
+        try {
+            Integer part;
+            while (this.failure.get() == null && (part = this.pendingParts.poll()) != null) {
+                final long start = (long) part * this.partSize;
+                final long end = Math.min(start + this.partSize, this.objectSize) - 1;
+                final GetObjectRequest request =
+                        GetObjectRequest.builder()
+                                .copy(this.baseRequest)
+                                .range(new Range(start, end))
+                                .build();
+                LOG.debug("Starting download of part {} ({}-{})", part, start, end);
+                final GetObjectResponse response =
+                        this.downloadManager.getObject_singleThreaded(request);
+                try (final InputStream stream = response.getInputStream()) {
+                    this.writePart(channel, part, stream);
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            if (!this.failure.compareAndSet(null, e)) {
+                LOG.debug("Ignoring additional failure", e);
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Copy a part from the stream to its offset in the file, and record it as completed.
+     */
+    private void writePart(FileChannel channel, int part, InputStream stream)
+            throws IOException {
+        final long start = (long) part * this.partSize;
+        final long partLength = Math.min(this.partSize, this.objectSize - start);
+        final byte[] buffer = new byte[(int) Math.min(COPY_BUFFER_SIZE_IN_BYTES, partLength)];
+        long position = start;
+        long remaining = partLength;
+        while (remaining > 0) {
+            if (this.failure.get() != null) {
+                throw new InterruptedIOException("Download of part " + part + " was cancelled");
+            }
+            final int bytesRead = stream.read(buffer, 0, (int) Math.min(buffer.length, remaining));
+            if (bytesRead < 0) {
+                LOG.error(
+                        "Truncated download of part {}. Got {} from read (expected {} bytes remaining)",
+                        part,
+                        bytesRead,
+                        remaining);
+                throw new IOException("Truncated read");
+            }
+            final ByteBuffer data = ByteBuffer.wrap(buffer, 0, bytesRead);
+            while (data.hasRemaining()) {
+                position += channel.write(data, position);
+            }
+            remaining -= bytesRead;
+        }
+
+        // Only record the part once its data has reached the file
+        channel.force(false);
+        synchronized (this.progressWriter) {
+            this.progressWriter.write(part + "\n");
+            this.progressWriter.flush();
+        }
+        LOG.trace("Completed part {}", part);
+    }
+
+    private FileChannel openTarget(boolean resume) throws IOException {
+        if (resume) {
+            return FileChannel.open(
+                    this.target.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        }
+        return FileChannel.open(
+                this.target.toPath(),
+                StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+    }
+
+    private Writer openProgressWriter(boolean resume) throws IOException {
+        final Writer writer =
+                new OutputStreamWriter(
+                        new FileOutputStream(this.progressFile, resume), StandardCharsets.UTF_8);
+        if (!resume) {
+            writer.write(this.progressHeader() + "\n");
+            writer.flush();
+        }
+        return writer;
+    }
+
+    private String progressHeader() {
+        return PROGRESS_FILE_VERSION + " " + this.objectSize + " " + this.partSize + " " + this.etag;
+    }
+
+    /**
+     * Read the parts completed by a previous download. If there is no progress file, or
+     * it belongs to a different object version or part size, nothing can be reused.
+     */
+    private BitSet readProgress() {
+        final BitSet completedParts = new BitSet(this.numParts);
+        if (!this.progressFile.isFile() || !this.target.isFile()) {
+            return completedParts;
+        }
+        try (final BufferedReader reader =
+                new BufferedReader(
+                        new InputStreamReader(
+                                new FileInputStream(this.progressFile), StandardCharsets.UTF_8))) {
+            final String header = reader.readLine();
+            if (!this.progressHeader().equals(header)) {
+                LOG.info(
+                        "Progress file {} does not match the object, downloading all parts",
+                        this.progressFile);
+                return completedParts;
+            }
+            final long targetLength = this.target.length();
+            String line;
+            while ((line = reader.readLine()) != null) {
+                try {
+                    final int part = Integer.parseInt(line);
+                    final long partEnd =
+                            Math.min((long) (part + 1) * this.partSize, this.objectSize);
+                    if (part >= 0 && part < this.numParts && partEnd <= targetLength) {
+                        completedParts.set(part);
+                    }
+                } catch (NumberFormatException e) {
+                    // the last line may be incomplete if the previous download was killed
+                    LOG.debug("Ignoring line '{}' in progress file {}", line, this.progressFile);
+                }
+            }
+        } catch (IOException e) {
+            LOG.warn("Unable to read progress file {}, downloading all parts", this.progressFile, e);
+            completedParts.clear();
+        }
+        LOG.info(
+                "Resuming download into {}, {} of {} parts already completed",
+                this.target,
+                completedParts.cardinality(),
+                this.numParts);
+        return completedParts;
+    }
+
+    private void throwIfFailed() throws IOException {
+        final Throwable t = this.failure.get();
+        if (t == null) {
+            return;
+        }
+        if (t instanceof IOException) {
+            throw (IOException) t;
+        }
+        if (t instanceof RuntimeException) {
+            throw (RuntimeException) t;
+        }
+        throw new IOException(t);
+    }
+}
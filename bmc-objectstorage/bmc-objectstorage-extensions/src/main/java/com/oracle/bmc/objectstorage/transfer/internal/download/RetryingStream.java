@@ -6,6 +6,7 @@ package com.oracle.bmc.objectstorage.transfer.internal.download;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.concurrent.locks.ReentrantLock;
 
 import com.oracle.bmc.model.Range;
 import com.oracle.bmc.objectstorage.ObjectStorage;
@@ -56,6 +57,12 @@ public class RetryingStream extends InputStream {
      */
     private boolean isClosed;
 
+    /**
+     * Guards the reads and close.  A lock instead of a monitor, so a virtual thread that blocks on
+     * the network while holding it does not pin its carrier thread.
+     */
+    private final ReentrantLock lock = new ReentrantLock();
+
     public RetryingStream(
             ObjectStorage objectStorage,
             GetObjectRequest request,
@@ -71,17 +78,31 @@ public class RetryingStream extends InputStream {
     }
 
     @Override
-    public synchronized void close() throws IOException {
-        if (this.response != null) {
-            StreamUtils.closeQuietly(this.response.getInputStream());
+    public void close() throws IOException {
+        lock.lock();
+        try {
+            if (this.response != null) {
+                StreamUtils.closeQuietly(this.response.getInputStream());
+            }
+            this.response = null;
+            this.request = null;
+            this.isClosed = true;
+        } finally {
+            lock.unlock();
         }
-        this.response = null;
-        this.request = null;
-        this.isClosed = true;
     }
 
     @Override
-    public synchronized int read() throws IOException {
+    public int read() throws IOException {
+        lock.lock();
+        try {
+            return readLocked();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private int readLocked() throws IOException {
         if (this.bytesInResponse == this.bytesReadFromResponse) {
             return -1;
         }
@@ -107,7 +128,16 @@ public class RetryingStream extends InputStream {
     }
 
     @Override
-    public synchronized int read(byte b[], int off, int len) throws IOException {
+    public int read(byte b[], int off, int len) throws IOException {
+        lock.lock();
+        try {
+            return readLocked(b, off, len);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private int readLocked(byte b[], int off, int len) throws IOException {
         if (len == 0) {
             return 0;
         }
@@ -0,0 +1,128 @@
+/**
+ * Copyright (c) 2016, 2021, Oracle and/or its affiliates.  All rights reserved.
+ * This software is dual-licensed to you under the Universal Permissive License (UPL) 1.0 as shown at https://oss.oracle.com/licenses/upl or Apache License 2.0 as shown at http://www.apache.org/licenses/LICENSE-2.0. You may choose either license.
+ */
+package com.oracle.bmc.objectstorage.transfer;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class BufferPoolTest {
+    private static final int MB = 1024 * 1024;
+
+    @Test
+    public void acquire_roundsUpToSizeClass() {
+        BufferPool pool = new BufferPool(16 * MB, false);
+
+        ByteBuffer small = pool.tryAcquire(100);
+        ByteBuffer odd = pool.tryAcquire(3 * MB);
+
+        assertEquals(MB, small.capacity());
+        assertEquals(100, small.limit());
+        assertEquals(0, small.position());
+        assertEquals(4 * MB, odd.capacity());
+        assertEquals(3 * MB, odd.limit());
+        assertEquals(5 * MB, pool.getAllocatedBytes());
+        assertFalse(small.isDirect());
+    }
+
+    @Test
+    public void acquire_direct() {
+        BufferPool pool = new BufferPool(MB, true);
+
+        assertTrue(pool.tryAcquire(MB).isDirect());
+    }
+
+    @Test
+    public void release_reusesBuffer() {
+        BufferPool pool = new BufferPool(2 * MB, false);
+
+        ByteBuffer buffer = pool.tryAcquire(2 * MB);
+        buffer.position(10);
+        pool.release(buffer);
+        assertEquals(2 * MB, pool.getIdleBytes());
+
+        ByteBuffer reused = pool.tryAcquire(2 * MB - 1);
+        assertSame(buffer, reused);
+        assertEquals(0, reused.position());
+        assertEquals(2 * MB - 1, reused.limit());
+        assertEquals(0, pool.getIdleBytes());
+        assertEquals(2 * MB, pool.getAllocatedBytes());
+    }
+
+    @Test
+    public void acquire_budgetExhausted() {
+        BufferPool pool = new BufferPool(3 * MB, false);
+
+        ByteBuffer first = pool.tryAcquire(2 * MB);
+        assertNotNull(first);
+        assertNull(pool.tryAcquire(2 * MB));
+        assertNotNull(pool.tryAcquire(MB));
+        assertNull(pool.tryAcquire(MB));
+
+        pool.discard(first);
+        assertEquals(MB, pool.getAllocatedBytes());
+        assertNotNull(pool.tryAcquire(2 * MB));
+    }
+
+    @Test
+    public void acquire_evictsIdleBuffersOfOtherSizes() {
+        BufferPool pool = new BufferPool(4 * MB, false);
+
+        ByteBuffer large = pool.tryAcquire(2 * MB);
+        ByteBuffer small = pool.tryAcquire(MB);
+        pool.release(large);
+        pool.release(small);
+        assertEquals(3 * MB, pool.getIdleBytes());
+
+        ByteBuffer replacement = pool.tryAcquire(4 * MB);
+        assertNotNull(replacement);
+        assertEquals(0, pool.getIdleBytes());
+        assertEquals(4 * MB, pool.getAllocatedBytes());
+    }
+
+    @Test(timeout = 10000)
+    public void acquire_waitsForRelease() throws Exception {
+        final BufferPool pool = new BufferPool(2 * MB, false);
+        final ByteBuffer first = pool.acquire(2 * MB);
+
+        final CountDownLatch acquired = new CountDownLatch(1);
+        final Thread waiter =
+                new Thread(
+                        () -> {
+                            try {
+                                pool.acquire(MB);
+                                acquired.countDown();
+                            } catch (InterruptedException e) {
+                                Thread.currentThread().interrupt();
+                            }
+                        });
+        waiter.start();
+        assertFalse(acquired.await(200, TimeUnit.MILLISECONDS));
+
+        pool.release(first);
+        assertTrue(acquired.await(5, TimeUnit.SECONDS));
+        waiter.join();
+        assertEquals(MB, pool.getAllocatedBytes());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void acquire_largerThanBudget() throws Exception {
+        new BufferPool(2 * MB, false).acquire(2 * MB + 1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructor_invalidBudget() {
+        new BufferPool(0, false);
+    }
+}
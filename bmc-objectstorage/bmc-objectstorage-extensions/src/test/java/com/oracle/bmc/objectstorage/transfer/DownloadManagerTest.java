@@ -12,14 +12,23 @@ import com.oracle.bmc.objectstorage.responses.GetObjectResponse;
 import com.oracle.bmc.objectstorage.transfer.helper.MockObject;
 import com.oracle.bmc.objectstorage.transfer.helper.MockObjectStorage;
 import com.oracle.bmc.objectstorage.transfer.helper.NoFailureInjector;
+import com.oracle.bmc.objectstorage.transfer.internal.download.ParallelFileDownload;
 import org.junit.AfterClass;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.BeforeClass;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
+import java.io.File;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.concurrent.ExecutorService;
@@ -41,6 +50,8 @@ public class DownloadManagerTest {
      */
     private static ExecutorService executorService;
 
+    @Rule public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
     private ObjectStorage objectStorage;
     private String namespaceName;
     private String bucketName;
@@ -310,6 +321,190 @@ public class DownloadManagerTest {
         }
     }
 
+    @Test
+    public void pooledBuffers() throws Exception {
+        for (boolean direct : new boolean[] {false, true}) {
+            final BufferPool bufferPool = new BufferPool(32 * 1024 * 1024, direct);
+            final DownloadConfiguration config =
+                    DownloadConfiguration.builder()
+                            .partSizeInBytes(4 * 1024 * 1024)
+                            .multipartDownloadThresholdInBytes(4 * 1024 * 1024)
+                            .parallelDownloads(8)
+                            .executorService(executorService)
+                            .bufferPool(bufferPool)
+                            .build();
+            final DownloadManager downloadManager = new DownloadManager(objectStorage, config);
+            final GetObjectRequest request =
+                    GetObjectRequest.builder()
+                            .namespaceName(namespaceName)
+                            .bucketName(bucketName)
+                            .objectName(objectName)
+                            .build();
+            for (int iteration = 0; iteration < 2; ++iteration) {
+                final GetObjectResponse response = downloadManager.getObject(request);
+                verify(request, response);
+                response.getInputStream().close();
+                Assert.assertEquals(bufferPool.getAllocatedBytes(), bufferPool.getIdleBytes());
+            }
+        }
+    }
+
+    @Test
+    public void pooledBuffersExhausted() throws Exception {
+        final BufferPool bufferPool = new BufferPool(1024 * 1024, false);
+        final DownloadConfiguration config =
+                DownloadConfiguration.builder()
+                        .partSizeInBytes(4 * 1024 * 1024)
+                        .multipartDownloadThresholdInBytes(4 * 1024 * 1024)
+                        .executorService(executorService)
+                        .bufferPool(bufferPool)
+                        .build();
+        final DownloadManager downloadManager = new DownloadManager(objectStorage, config);
+        final GetObjectRequest request =
+                GetObjectRequest.builder()
+                        .namespaceName(namespaceName)
+                        .bucketName(bucketName)
+                        .objectName(objectName)
+                        .build();
+        final GetObjectResponse response = downloadManager.getObject(request);
+        verify(request, response);
+        Assert.assertEquals(0, bufferPool.getAllocatedBytes());
+    }
+
+    @Test
+    public void readIntoByteBuffer() throws Exception {
+        final DownloadConfiguration config =
+                DownloadConfiguration.builder()
+                        .partSizeInBytes(4 * 1024 * 1024)
+                        .multipartDownloadThresholdInBytes(4 * 1024 * 1024)
+                        .executorService(executorService)
+                        .bufferPool(new BufferPool(64 * 1024 * 1024, true))
+                        .build();
+        final DownloadManager downloadManager = new DownloadManager(objectStorage, config);
+        final GetObjectRequest request =
+                GetObjectRequest.builder()
+                        .namespaceName(namespaceName)
+                        .bucketName(bucketName)
+                        .objectName(objectName)
+                        .build();
+        final GetObjectResponse response = downloadManager.getObject(request);
+        Assert.assertTrue(response.getInputStream() instanceof ReadableByteChannel);
+        final ReadableByteChannel channel = (ReadableByteChannel) response.getInputStream();
+
+        final ByteBuffer buffer = ByteBuffer.allocateDirect(3 * 1024 * 1024 + 7);
+        int offset = 0;
+        int bytesRead;
+        while ((bytesRead = channel.read(buffer)) != -1) {
+            buffer.flip();
+            for (int i = 0; i < bytesRead; ++i) {
+                final byte b = buffer.get();
+                if (b != data[offset + i]) {
+                    Assert.assertEquals(data[offset + i], b);
+                }
+            }
+            buffer.clear();
+            offset += bytesRead;
+        }
+        Assert.assertEquals(data.length, offset);
+        channel.close();
+        Assert.assertFalse(channel.isOpen());
+    }
+
+    @Test
+    public void downloadObjectToFile() throws Exception {
+        for (int parallelDownloads : new int[] {0, 2, 8}) {
+            final DownloadConfiguration config =
+                    DownloadConfiguration.builder()
+                            .partSizeInBytes(4 * 1024 * 1024)
+                            .multipartDownloadThresholdInBytes(4 * 1024 * 1024)
+                            .parallelDownloads(parallelDownloads)
+                            .executorService(executorService)
+                            .build();
+            final DownloadManager downloadManager = new DownloadManager(objectStorage, config);
+            final GetObjectRequest request =
+                    GetObjectRequest.builder()
+                            .namespaceName(namespaceName)
+                            .bucketName(bucketName)
+                            .objectName(objectName)
+                            .build();
+            final File target = temporaryFolder.newFile();
+            final GetObjectResponse response = downloadManager.downloadObjectToFile(request, target);
+            Assert.assertEquals(etag, response.getETag());
+            Assert.assertArrayEquals(data, Files.readAllBytes(target.toPath()));
+            Assert.assertFalse(ParallelFileDownload.progressFile(target).exists());
+        }
+    }
+
+    @Test
+    public void downloadObjectToFileResumes() throws Exception {
+        final int partSize = 4 * 1024 * 1024;
+        final DownloadConfiguration config =
+                DownloadConfiguration.builder()
+                        .partSizeInBytes(partSize)
+                        .multipartDownloadThresholdInBytes(partSize)
+                        .parallelDownloads(8)
+                        .executorService(executorService)
+                        .build();
+        final DownloadManager downloadManager = new DownloadManager(objectStorage, config);
+        final GetObjectRequest request =
+                GetObjectRequest.builder()
+                        .namespaceName(namespaceName)
+                        .bucketName(bucketName)
+                        .objectName(objectName)
+                        .build();
+
+        // Parts 0 and 2 were completed by an earlier download. Part 2 is left
+        // empty in the file to show that it is not downloaded again.
+        final File target = temporaryFolder.newFile();
+        final byte[] partial = new byte[3 * partSize];
+        System.arraycopy(data, 0, partial, 0, partSize);
+        Files.write(target.toPath(), partial);
+        final File progressFile = ParallelFileDownload.progressFile(target);
+        Files.write(
+                progressFile.toPath(),
+                ("v1 " + data.length + " " + partSize + " " + etag + "\n0\n2\n")
+                        .getBytes(StandardCharsets.UTF_8));
+
+        downloadManager.downloadObjectToFile(request, target);
+
+        final byte[] expected = Arrays.copyOf(data, data.length);
+        Arrays.fill(expected, 2 * partSize, 3 * partSize, (byte) 0);
+        Assert.assertArrayEquals(expected, Files.readAllBytes(target.toPath()));
+        Assert.assertFalse(progressFile.exists());
+    }
+
+    @Test
+    public void downloadObjectToFileIgnoresProgressOfOtherVersion() throws Exception {
+        final int partSize = 4 * 1024 * 1024;
+        final DownloadConfiguration config =
+                DownloadConfiguration.builder()
+                        .partSizeInBytes(partSize)
+                        .multipartDownloadThresholdInBytes(partSize)
+                        .parallelDownloads(8)
+                        .executorService(executorService)
+                        .build();
+        final DownloadManager downloadManager = new DownloadManager(objectStorage, config);
+        final GetObjectRequest request =
+                GetObjectRequest.builder()
+                        .namespaceName(namespaceName)
+                        .bucketName(bucketName)
+                        .objectName(objectName)
+                        .build();
+
+        final File target = temporaryFolder.newFile();
+        Files.write(target.toPath(), new byte[data.length]);
+        final File progressFile = ParallelFileDownload.progressFile(target);
+        Files.write(
+                progressFile.toPath(),
+                ("v1 " + data.length + " " + partSize + " other-etag\n0\n1\n")
+                        .getBytes(StandardCharsets.UTF_8));
+
+        downloadManager.downloadObjectToFile(request, target);
+
+        Assert.assertArrayEquals(data, Files.readAllBytes(target.toPath()));
+        Assert.assertFalse(progressFile.exists());
+    }
+
     @Test
     public void rangeGets() throws Exception {
         // Range get of the entire object
@@ -55,9 +55,12 @@ import org.powermock.api.mockito.PowerMockito;
 import org.powermock.core.classloader.annotations.PrepareForTest;
 import org.powermock.modules.junit4.PowerMockRunner;
 
+import java.io.BufferedInputStream;
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
@@ -697,6 +700,75 @@ public class UploadManagerTest {
         }
     }
 
+    @Test
+    public void multipartUpload_nonDuplicatableStream_bufferedParts() {
+        // results in 2 parts, which fit into the pool together
+        final BufferPool bufferPool = new BufferPool(32 * MultipartUtils.MiB, false);
+        final UploadConfiguration uploadConfiguration =
+                UploadConfiguration.builder()
+                        .minimumLengthForMultipartUpload(10)
+                        .lengthPerUploadPart(10)
+                        .enforceMd5BeforeMultipartUpload(true)
+                        .bufferPool(bufferPool)
+                        .build();
+        final UploadManager uploadManager = new UploadManager(objectStorage, uploadConfiguration);
+
+        when(objectStorage.createMultipartUpload(any(CreateMultipartUploadRequest.class)))
+                .thenReturn(
+                        CreateMultipartUploadResponse.builder()
+                                .multipartUpload(
+                                        MultipartUpload.builder().uploadId(UPLOAD_ID).build())
+                                .build());
+        final List<UploadPartRequest> uploadPartRequests =
+                Collections.synchronizedList(new ArrayList<UploadPartRequest>());
+        final List<Integer> uploadPartLengths =
+                Collections.synchronizedList(new ArrayList<Integer>());
+        when(objectStorage.uploadPart(any(UploadPartRequest.class)))
+                .then(
+                        invocationOnMock -> {
+                            UploadPartRequest request = invocationOnMock.getArgumentAt(0, null);
+                            uploadPartRequests.add(request);
+                            int length = 0;
+                            final byte[] buffer = new byte[READ_BLOCK_SIZE];
+                            int bytesRead;
+                            while ((bytesRead = request.getUploadPartBody().read(buffer))
+                                    != -1) {
+                                for (int i = 0; i < bytesRead; ++i) {
+                                    assertEquals('a', buffer[i]);
+                                }
+                                length += bytesRead;
+                            }
+                            uploadPartLengths.add(length);
+                            return UploadPartResponse.builder()
+                                    .eTag("etag" + request.getUploadPartNum())
+                                    .build();
+                        });
+        when(objectStorage.commitMultipartUpload(any(CommitMultipartUploadRequest.class)))
+                .thenReturn(
+                        CommitMultipartUploadResponse.builder()
+                                .eTag("finalEtag")
+                                .opcRequestId(REQ_ID)
+                                .opcClientRequestId(CLIENT_REQ_ID)
+                                .opcMultipartMd5("multipartMd5")
+                                .build());
+
+        // a plain input stream can only be read in order
+        body = new BufferedInputStream(body);
+        final UploadResponse uploadResponse = uploadManager.upload(createUploadRequest());
+        validateUploadResponseForMultipart(uploadResponse);
+
+        assertEquals(2, uploadPartRequests.size());
+        for (UploadPartRequest request : uploadPartRequests) {
+            assertEquals(Long.valueOf(CONTENT_LENGTH / 2), request.getContentLength());
+            assertEquals("5W4QR5ShjfX0H20th7TMZw==", request.getContentMD5());
+        }
+        assertEquals(
+                Arrays.asList((int) CONTENT_LENGTH / 2, (int) CONTENT_LENGTH / 2),
+                uploadPartLengths);
+        // all buffers are back in the pool
+        assertEquals(bufferPool.getAllocatedBytes(), bufferPool.getIdleBytes());
+    }
+
     private static UploadConfiguration getMultipartUploadConfiguration() {
         return UploadConfiguration.builder()
                 .minimumLengthForMultipartUpload(10)
@@ -0,0 +1,63 @@
+/**
+ * Copyright (c) 2016, 2021, Oracle and/or its affiliates.  All rights reserved.
+ * This software is dual-licensed to you under the Universal Permissive License (UPL) 1.0 as shown at https://oss.oracle.com/licenses/upl or Apache License 2.0 as shown at http://www.apache.org/licenses/LICENSE-2.0. You may choose either license.
+ */
+package com.oracle.bmc.objectstorage.transfer.internal;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+
+import org.junit.Test;
+
+public class ByteBufferInputStreamTest {
+    private static final byte[] DATA = "abcdefghijklmnopqrstuvwxyz".getBytes();
+
+    @Test
+    public void read_heapAndDirect() throws Exception {
+        ByteBuffer direct = ByteBuffer.allocateDirect(DATA.length);
+        direct.put(DATA);
+        direct.flip();
+        for (ByteBuffer buffer : new ByteBuffer[] {ByteBuffer.wrap(DATA), direct}) {
+            ByteBufferInputStream stream = new ByteBufferInputStream(buffer);
+            assertEquals(DATA.length, stream.length());
+            assertEquals(DATA.length, stream.available());
+            assertEquals('a', stream.read());
+            assertEquals("bcdefghijklmnopqrstuvwxyz", readAll(stream));
+            assertEquals(-1, stream.read());
+            // the buffer itself is not changed
+            assertEquals(0, buffer.position());
+        }
+    }
+
+    @Test
+    public void markResetAndSkip() throws Exception {
+        ByteBufferInputStream stream = new ByteBufferInputStream(ByteBuffer.wrap(DATA));
+        assertEquals(3, stream.skip(3));
+        stream.mark(Integer.MAX_VALUE);
+        assertEquals('d', stream.read());
+        stream.reset();
+        assertEquals("defghijklmnopqrstuvwxyz", readAll(stream));
+        assertEquals(0, stream.skip(5));
+    }
+
+    @Test
+    public void duplicate() throws Exception {
+        ByteBuffer buffer = ByteBuffer.wrap(DATA, 10, 5);
+        ByteBufferInputStream stream = new ByteBufferInputStream(buffer);
+        assertEquals("klmno", readAll(stream));
+        assertEquals("klmno", readAll(stream.duplicate()));
+    }
+
+    private static String readAll(InputStream stream) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] b = new byte[4];
+        int bytesRead;
+        while ((bytesRead = stream.read(b, 0, b.length)) != -1) {
+            out.write(b, 0, bytesRead);
+        }
+        return new String(out.toByteArray());
+    }
+}
@@ -7,14 +7,22 @@ package com.oracle.bmc.objectstorage.transfer.internal;
 import static org.junit.Assert.*;
 
 import java.io.ByteArrayInputStream;
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.channels.ClosedByInterruptException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.util.ArrayList;
 
 import org.apache.commons.lang3.StringUtils;
 import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
+import com.oracle.bmc.io.DuplicatableInputStream;
+import com.oracle.bmc.objectstorage.transfer.internal.StreamChunkCreator.FileSubRangeInputStream;
 import com.oracle.bmc.objectstorage.transfer.internal.StreamChunkCreator.SubRangeInputStream;
 import com.oracle.bmc.util.StreamUtils;
 
@@ -25,6 +33,8 @@ public class StreamChunkCreatorTest {
     private static final String COMPLETE_STRING = StringUtils.join(CHUNKS);
     private static final int[] RANDOM_ORDER = new int[] {3, 1, 5, 4, 0, 2};
 
+    @Rule public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
     private InputStream stream;
 
     @Before
@@ -203,6 +213,102 @@ public class StreamChunkCreatorTest {
         assertEquals(CHUNKS[0], new String(buffer));
     }
 
+    @Test
+    public void fileChunks_readOutOfOrder() throws Exception {
+        File file = temporaryFolder.newFile();
+        Files.write(file.toPath(), COMPLETE_STRING.getBytes(StandardCharsets.UTF_8));
+
+        try (InputStream fileStream = StreamUtils.toInputStream(file)) {
+            StreamChunkCreator creator =
+                    new StreamChunkCreator(fileStream, COMPLETE_STRING.length(), CHUNK_SIZE);
+            assertTrue(creator.supportsParallelReads());
+
+            ArrayList<SubRangeInputStream> chunks = new ArrayList<>();
+            while (creator.hasMore()) {
+                SubRangeInputStream chunk = creator.next();
+                assertTrue(chunk instanceof FileSubRangeInputStream);
+                chunks.add(chunk);
+            }
+            assertEquals(CHUNKS.length, chunks.size());
+
+            for (int i = 0; i < CHUNKS.length; i++) {
+                SubRangeInputStream chunk = chunks.get(RANDOM_ORDER[i]);
+                SubRangeInputStream duplicate =
+                        (SubRangeInputStream) ((DuplicatableInputStream) chunk).duplicate();
+                assertEquals(CHUNKS[RANDOM_ORDER[i]], toString(chunk));
+                assertEquals(CHUNKS[RANDOM_ORDER[i]], toString(duplicate));
+                assertEquals(
+                        StreamHelper.base64EncodeMd5Digest(
+                                CHUNKS[RANDOM_ORDER[i]].getBytes(StandardCharsets.UTF_8)),
+                        ((FileSubRangeInputStream) chunk).base64EncodeMd5Digest());
+            }
+
+            // closing the chunks does not close the source stream
+            assertEquals('a', fileStream.read());
+        }
+    }
+
+    @Test
+    public void fileChunk_markReset() throws Exception {
+        File file = temporaryFolder.newFile();
+        Files.write(file.toPath(), COMPLETE_STRING.getBytes(StandardCharsets.UTF_8));
+
+        try (InputStream fileStream = StreamUtils.toInputStream(file)) {
+            StreamChunkCreator creator =
+                    new StreamChunkCreator(fileStream, COMPLETE_STRING.length(), CHUNK_SIZE);
+            creator.next();
+            SubRangeInputStream chunk = creator.next();
+
+            assertTrue(chunk.markSupported());
+            assertEquals(2, chunk.skip(2));
+            chunk.mark(Integer.MAX_VALUE);
+            assertEquals("bbb", toString(chunk, false));
+            assertEquals(-1, chunk.read());
+
+            chunk.reset();
+            assertEquals(3, chunk.available());
+            assertEquals('b', chunk.read());
+        }
+    }
+
+    @Test
+    public void fileChunks_interruptedChunkDoesNotFailOtherChunks() throws Exception {
+        File file = temporaryFolder.newFile();
+        Files.write(file.toPath(), COMPLETE_STRING.getBytes(StandardCharsets.UTF_8));
+
+        try (InputStream fileStream = StreamUtils.toInputStream(file)) {
+            StreamChunkCreator creator =
+                    new StreamChunkCreator(fileStream, COMPLETE_STRING.length(), CHUNK_SIZE);
+            SubRangeInputStream first = creator.next();
+            SubRangeInputStream second = creator.next();
+            SubRangeInputStream third = creator.next();
+            assertEquals('a', first.read());
+
+            // cancelling the upload of a part interrupts the thread reading it
+            Thread.currentThread().interrupt();
+            try {
+                second.read();
+                fail("Should have thrown");
+            } catch (ClosedByInterruptException e) {
+                // expected
+            } finally {
+                Thread.interrupted();
+            }
+
+            byte[] rest = new byte[CHUNK_SIZE - 1];
+            assertEquals(rest.length, first.read(rest));
+            assertEquals("aaaa", new String(rest, StandardCharsets.UTF_8));
+            assertEquals(CHUNKS[2], toString(third));
+            // the cancelled part can be retried
+            assertEquals(
+                    CHUNKS[1],
+                    toString(
+                            (SubRangeInputStream) ((DuplicatableInputStream) second).duplicate()));
+            second.reset();
+            assertEquals(CHUNKS[1], toString(second));
+        }
+    }
+
     private static String toString(SubRangeInputStream chunk) throws IOException {
         return toString(chunk, true);
     }
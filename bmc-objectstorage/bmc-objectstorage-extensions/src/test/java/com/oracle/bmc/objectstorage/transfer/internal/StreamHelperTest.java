@@ -8,14 +8,24 @@ import static org.junit.Assert.assertEquals;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.File;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
 import java.security.DigestOutputStream;
 
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
 import com.google.common.base.Strings;
 
 public class StreamHelperTest {
+    @Rule public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
     private static final String TEST_STR = "abcdefghijklmnopqrstuvwxyz";
 
     @Test
@@ -43,6 +53,49 @@ public class StreamHelperTest {
                 StreamHelper.base64Encode(digestOutputStream.getMessageDigest()));
     }
 
+    @Test
+    public void base64EncodeMd5Digest_byteBuffer() {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(TEST_STR.length());
+        buffer.put(TEST_STR.getBytes());
+        buffer.flip();
+        assertEquals("w/zT12GS5AB9+0lsymfhOw==", StreamHelper.base64EncodeMd5Digest(buffer));
+        assertEquals(0, buffer.position());
+    }
+
+    @Test
+    public void base64EncodeMd5Digest_fileChannel() throws Exception {
+        // larger than the buffer used to read the file
+        byte[] content = Strings.repeat(TEST_STR, 10000).getBytes();
+        File file = temporaryFolder.newFile();
+        Files.write(file.toPath(), content);
+
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            assertEquals(
+                    StreamHelper.base64EncodeMd5Digest(Arrays.copyOfRange(content, 3, 200003)),
+                    StreamHelper.base64EncodeMd5Digest(channel, 3, 200000));
+            assertEquals(
+                    "w/zT12GS5AB9+0lsymfhOw==",
+                    StreamHelper.base64EncodeMd5Digest(channel, 26, TEST_STR.length()));
+            assertEquals(0, channel.position());
+        }
+    }
+
+    @Test
+    public void readFully() throws Exception {
+        for (ByteBuffer buffer :
+                new ByteBuffer[] {ByteBuffer.allocate(10), ByteBuffer.allocateDirect(10)}) {
+            ByteArrayInputStream in = new ByteArrayInputStream(TEST_STR.getBytes());
+            assertEquals(10, StreamHelper.readFully(in, buffer));
+            assertEquals(10, StreamHelper.readFully(in, (ByteBuffer) buffer.clear()));
+            buffer.clear();
+            assertEquals(6, StreamHelper.readFully(in, buffer));
+            buffer.flip();
+            byte[] rest = new byte[buffer.remaining()];
+            buffer.get(rest);
+            assertEquals("uvwxyz", new String(rest));
+        }
+    }
+
     @Test
     public void base64EncodeMd5Digest() {
         assertEquals(